@@ -0,0 +1,84 @@
+/*
+ * Copyright 2026 Aurélien Gâteau <mail@agateau.com>
+ *
+ * This file is part of Pixel Wheels.
+ *
+ * Pixel Wheels is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.agateau.pixelwheels.benchmarks;
+
+import com.agateau.pixelwheels.GameWorld;
+import com.agateau.pixelwheels.racer.AIPilot;
+import com.agateau.pixelwheels.racer.Racer;
+import com.agateau.pixelwheels.racescreen.GameWorldImpl;
+import com.badlogic.gdx.utils.Array;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the AI work of one physics step: answering the rays of all pilots, then
+ * AIPilot.decide() and AIPilot.act() for all the racers of a world, sequentially. The world itself
+ * is not stepped, so all invocations work on the same racer positions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AIPilotBenchmark {
+    @Param({
+        "country", "river", "flood", "race", "snow2", "snow3", "be", "tiny-sur-mer", "city3"
+    })
+    public String trackId;
+
+    private GameWorldImpl mWorld;
+    private final Array<AIPilot> mPilots = new Array<>();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        mWorld = BenchmarkWorlds.createWorld(trackId);
+        for (Racer racer : mWorld.getRacers()) {
+            mPilots.add((AIPilot) racer.getPilot());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        mPilots.clear();
+        mWorld.dispose();
+    }
+
+    @Benchmark
+    public void act() {
+        mWorld.getAIPerception().update();
+        for (int idx = 0; idx < mPilots.size; ++idx) {
+            AIPilot pilot = mPilots.get(idx);
+            pilot.decide(GameWorld.BOX2D_TIME_STEP);
+            pilot.act(GameWorld.BOX2D_TIME_STEP);
+        }
+    }
+}
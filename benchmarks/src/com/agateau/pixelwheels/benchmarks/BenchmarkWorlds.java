@@ -0,0 +1,96 @@
+/*
+ * Copyright 2026 Aurélien Gâteau <mail@agateau.com>
+ *
+ * This file is part of Pixel Wheels.
+ *
+ * Pixel Wheels is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.agateau.pixelwheels.benchmarks;
+
+import com.agateau.pixelwheels.Assets;
+import com.agateau.pixelwheels.GamePlay;
+import com.agateau.pixelwheels.gamesetup.Difficulty;
+import com.agateau.pixelwheels.map.Track;
+import com.agateau.pixelwheels.map.WaypointStore;
+import com.agateau.pixelwheels.racescreen.GameWorldImpl;
+import com.agateau.pixelwheels.simulation.RaceSimulator;
+import com.agateau.utils.Assert;
+import com.badlogic.gdx.math.Vector2;
+
+/** Helpers to create AI-only worlds in a reproducible state */
+public class BenchmarkWorlds {
+    public static final long SEED = 1234;
+
+    /**
+     * How long to run a world before handing it to a benchmark, in seconds of simulated time. This
+     * gets past the countdown and gives racers time to spread along the track.
+     */
+    public static final float WARMUP_DURATION = 15;
+
+    private static Assets sAssets;
+
+    public static synchronized Assets getAssets() {
+        if (sAssets == null) {
+            HeadlessGdx.init();
+            sAssets = new Assets();
+        }
+        return sAssets;
+    }
+
+    public static Track findTrack(String trackId) {
+        Track track = getAssets().findTrackById(trackId);
+        Assert.check(track != null, "No track with id " + trackId);
+        track.init();
+        return track;
+    }
+
+    public static GameWorldImpl createWorld(String trackId) {
+        return createWorld(trackId, GamePlay.instance.racerCount);
+    }
+
+    /** Creates a world with racerCount AI racers, and runs it for WARMUP_DURATION seconds */
+    public static GameWorldImpl createWorld(String trackId, int racerCount) {
+        Assets assets = getAssets();
+        RaceSimulator simulator = new RaceSimulator(assets, Difficulty.MEDIUM);
+        GameWorldImpl world =
+                simulator.createWorld(
+                        findTrack(trackId),
+                        RaceSimulator.createEntrants(assets, racerCount, SEED),
+                        SEED);
+        float timeStep = world.getTimeStep();
+        int stepCount = (int) (WARMUP_DURATION / timeStep);
+        for (int idx = 0; idx < stepCount; ++idx) {
+            world.act(timeStep);
+        }
+        return world;
+    }
+
+    /**
+     * Returns count positions, in world units, spread along the waypoints of the track. Positions
+     * are ordered, so consecutive positions are close to each other, like the successive positions
+     * of a racer.
+     */
+    public static Vector2[] samplePath(Track track, int count) {
+        WaypointStore store = track.getWaypointStore();
+        Vector2[] positions = new Vector2[count];
+        for (int idx = 0; idx < count; ++idx) {
+            float k = (float) idx * store.getCount() / count;
+            int waypointIdx = (int) k;
+            Vector2 from = store.getWaypoint(waypointIdx);
+            Vector2 to = store.getWaypoint(store.getNextIndex(waypointIdx));
+            positions[idx] = new Vector2(from).lerp(to, k - waypointIdx);
+        }
+        return positions;
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2026 Aurélien Gâteau <mail@agateau.com>
+ *
+ * This file is part of Pixel Wheels.
+ *
+ * Pixel Wheels is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.agateau.pixelwheels.benchmarks;
+
+import com.agateau.pixelwheels.GameWorld;
+import com.agateau.pixelwheels.racescreen.GameWorldImpl;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures one physics step of an AI-only race: Box2D step plus the act() of all game objects.
+ *
+ * <p>Each iteration recreates the world and runs exactly STEP_COUNT steps, so that all iterations
+ * measure the same part of the race. The score is the average duration of one step.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class GameWorldBenchmark {
+    // 10 seconds of race at the default physics step rate
+    private static final int STEP_COUNT = 600;
+
+    @Param({
+        "country", "river", "flood", "race", "snow2", "snow3", "be", "tiny-sur-mer", "city3"
+    })
+    public String trackId;
+
+    private GameWorldImpl mWorld;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        mWorld = BenchmarkWorlds.createWorld(trackId);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        mWorld.dispose();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STEP_COUNT)
+    public GameWorld.State act() {
+        // Passing exactly the time step makes act() run one, and only one, physics step
+        float timeStep = mWorld.getTimeStep();
+        for (int idx = 0; idx < STEP_COUNT; ++idx) {
+            mWorld.act(timeStep);
+        }
+        return mWorld.getState();
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2026 Aurélien Gâteau <mail@agateau.com>
+ *
+ * This file is part of Pixel Wheels.
+ *
+ * Pixel Wheels is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.agateau.pixelwheels.benchmarks;
+
+import com.agateau.pixelwheels.Constants;
+import com.agateau.pixelwheels.map.LapPosition;
+import com.agateau.pixelwheels.map.LapPositionTable;
+import com.agateau.pixelwheels.map.Track;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.math.Vector2;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures LapPositionTable.get(), both for positions spread over the whole map and for positions
+ * following the track, using the previous section as a hint like LapPositionComponent does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LapPositionTableBenchmark {
+    private static final int SAMPLE_COUNT = 4096;
+
+    @Param({
+        "country", "river", "flood", "race", "snow2", "snow3", "be", "tiny-sur-mer", "city3"
+    })
+    public String trackId;
+
+    private LapPositionTable mTable;
+    // Pixel coordinates
+    private final int[] mRandomXs = new int[SAMPLE_COUNT];
+    private final int[] mRandomYs = new int[SAMPLE_COUNT];
+    private final int[] mPathXs = new int[SAMPLE_COUNT];
+    private final int[] mPathYs = new int[SAMPLE_COUNT];
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Track track = BenchmarkWorlds.findTrack(trackId);
+        mTable = track.getLapPositionTable();
+
+        final float PFU = 1 / Constants.UNIT_FOR_PIXEL;
+        RandomXS128 random = new RandomXS128(BenchmarkWorlds.SEED);
+        Vector2[] path = BenchmarkWorlds.samplePath(track, SAMPLE_COUNT);
+        for (int idx = 0; idx < SAMPLE_COUNT; ++idx) {
+            mRandomXs[idx] = (int) (PFU * random.nextFloat() * track.getMapWidth());
+            mRandomYs[idx] = (int) (PFU * random.nextFloat() * track.getMapHeight());
+            mPathXs[idx] = (int) (PFU * path[idx].x);
+            mPathYs[idx] = (int) (PFU * path[idx].y);
+        }
+    }
+
+    @Benchmark
+    public void getRandom(Blackhole blackhole) {
+        for (int idx = 0; idx < SAMPLE_COUNT; ++idx) {
+            blackhole.consume(mTable.get(mRandomXs[idx], mRandomYs[idx]));
+        }
+    }
+
+    @Benchmark
+    public void getAlongPath(Blackhole blackhole) {
+        int sectionId = -1;
+        for (int idx = 0; idx < SAMPLE_COUNT; ++idx) {
+            LapPosition pos = mTable.get(mPathXs[idx], mPathYs[idx], sectionId);
+            if (pos != null) {
+                sectionId = pos.getSectionId();
+            }
+            blackhole.consume(pos);
+        }
+    }
+}
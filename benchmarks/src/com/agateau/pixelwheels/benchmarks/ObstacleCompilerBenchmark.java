@@ -0,0 +1,137 @@
+/*
+ * Copyright 2026 Aurélien Gâteau <mail@agateau.com>
+ *
+ * This file is part of Pixel Wheels.
+ *
+ * Pixel Wheels is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.agateau.pixelwheels.benchmarks;
+
+import com.agateau.pixelwheels.map.Track;
+import com.agateau.pixelwheels.obstacles.tiled.TiledObstacleCreator;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.physics.box2d.Fixture;
+import com.badlogic.gdx.physics.box2d.RayCastCallback;
+import com.badlogic.gdx.physics.box2d.World;
+import com.badlogic.gdx.utils.Array;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Creates the static wall bodies of a track with and without merging, and casts rays against them
+ * like AIPilot does.
+ *
+ * <p>The bodies, fixtures and proxies counters of the create benchmark report the size of the
+ * Box2D world, divide them by the worlds counter to get per-track values.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ObstacleCompilerBenchmark {
+    private static final int RAY_COUNT = 256;
+    private static final float RAY_LENGTH = 20;
+
+    @Param({
+        "country", "river", "flood", "race", "snow2", "snow3", "be", "tiny-sur-mer", "city3"
+    })
+    public String trackId;
+
+    @Param({"false", "true"})
+    public boolean merge;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Counters {
+        public long worlds;
+        public long bodies;
+        public long fixtures;
+        public long proxies;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            worlds = 0;
+            bodies = 0;
+            fixtures = 0;
+            proxies = 0;
+        }
+    }
+
+    private final Array<Body> mBodies = new Array<>();
+    private final Vector2 mRayEnd = new Vector2();
+    private final RayCastCallback mRayCastCallback =
+            (fixture, point, normal, fraction) -> fraction;
+    private Track mTrack;
+    private World mRayCastWorld;
+    private Vector2[] mRayOrigins;
+    private int mRayIndex = 0;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        mTrack = BenchmarkWorlds.findTrack(trackId);
+        mRayCastWorld = createWorld();
+        mRayOrigins = BenchmarkWorlds.samplePath(mTrack, RAY_COUNT);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        mRayCastWorld.dispose();
+    }
+
+    @Benchmark
+    public void create(Counters counters) {
+        World world = createWorld();
+        world.getBodies(mBodies);
+        ++counters.worlds;
+        counters.bodies += mBodies.size;
+        for (Body body : mBodies) {
+            for (Fixture fixture : body.getFixtureList()) {
+                ++counters.fixtures;
+                counters.proxies += fixture.getShape().getChildCount();
+            }
+        }
+        world.dispose();
+    }
+
+    @Benchmark
+    public void rayCast() {
+        Vector2 origin = mRayOrigins[mRayIndex];
+        mRayIndex = (mRayIndex + 1) % RAY_COUNT;
+        // Turn a bit for each ray, so that rays go in all directions
+        mRayEnd.set(RAY_LENGTH, 0).rotateDeg(mRayIndex * 7).add(origin);
+        mRayCastWorld.rayCast(mRayCastCallback, origin, mRayEnd);
+    }
+
+    private World createWorld() {
+        World world = new World(new Vector2(0, 0), true);
+        TiledObstacleCreator.createObstacles(world, mTrack.getMap(), merge);
+        return world;
+    }
+}
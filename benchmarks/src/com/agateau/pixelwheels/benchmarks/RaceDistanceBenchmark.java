@@ -0,0 +1,85 @@
+/*
+ * Copyright 2026 Aurélien Gâteau <mail@agateau.com>
+ *
+ * This file is part of Pixel Wheels.
+ *
+ * Pixel Wheels is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.agateau.pixelwheels.benchmarks;
+
+import com.agateau.pixelwheels.racer.Racer;
+import com.agateau.pixelwheels.racescreen.GameWorldImpl;
+import com.badlogic.gdx.utils.Array;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures Racer.compareRaceDistances(), which is used to compute racer ranks, for all pairs of
+ * racers, and for a full sort of the racers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RaceDistanceBenchmark {
+    @Param({"6", "16", "32"})
+    public int racerCount;
+
+    private GameWorldImpl mWorld;
+    private Racer[] mRacers;
+    private final Array<Racer> mSortedRacers = new Array<>();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        mWorld = BenchmarkWorlds.createWorld("race", racerCount);
+        mRacers = mWorld.getRacers().toArray(Racer.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        mWorld.dispose();
+    }
+
+    @Benchmark
+    public void compareAllPairs(Blackhole blackhole) {
+        for (Racer racer1 : mRacers) {
+            for (Racer racer2 : mRacers) {
+                blackhole.consume(Racer.compareRaceDistances(racer1, racer2));
+            }
+        }
+    }
+
+    @Benchmark
+    public Array<Racer> sort() {
+        mSortedRacers.clear();
+        mSortedRacers.addAll(mRacers);
+        mSortedRacers.sort((racer1, racer2) -> -Racer.compareRaceDistances(racer1, racer2));
+        return mSortedRacers;
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2026 Aurélien Gâteau <mail@agateau.com>
+ *
+ * This file is part of Pixel Wheels.
+ *
+ * Pixel Wheels is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.agateau.pixelwheels.benchmarks;
+
+import com.agateau.pixelwheels.GameWorld;
+import com.agateau.pixelwheels.debug.Debug;
+import com.agateau.pixelwheels.racescreen.GameWorldImpl;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures how the duration of one physics step grows with the number of racers. Like
+ * GameWorldBenchmark, the world is recreated for each iteration.
+ *
+ * <p>Start tiles only hold 6 racers, the others start on the extra positions created behind them.
+ *
+ * <p>parallelAIDecisions toggles running the decide phase of the AI pilots on worker threads.
+ *
+ * <p>lowDetailPhysics makes all racers use low detail physics, like AI racers far from all players.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RacerCountBenchmark {
+    @Param({"race"})
+    public String trackId;
+
+    @Param({"6", "16", "32", "64"})
+    public int racerCount;
+
+    @Param({"false", "true"})
+    public boolean parallelAIDecisions;
+
+    @Param({"false", "true"})
+    public boolean lowDetailPhysics;
+
+    private GameWorldImpl mWorld;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        Debug.instance.parallelAIDecisions = parallelAIDecisions;
+        mWorld = BenchmarkWorlds.createWorld(trackId, racerCount);
+        // There are no players, so any distance puts all racers in low detail mode
+        mWorld.setLowDetailPhysicsDistance(lowDetailPhysics ? 0 : -1);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        mWorld.dispose();
+    }
+
+    @Benchmark
+    public GameWorld.State act() {
+        // Passing exactly the time step makes act() run one, and only one, physics step
+        mWorld.act(mWorld.getTimeStep());
+        return mWorld.getState();
+    }
+}
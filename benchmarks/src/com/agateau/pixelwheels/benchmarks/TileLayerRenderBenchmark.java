@@ -0,0 +1,121 @@
+/*
+ * Copyright 2026 Aurélien Gâteau <mail@agateau.com>
+ *
+ * This file is part of Pixel Wheels.
+ *
+ * Pixel Wheels is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.agateau.pixelwheels.benchmarks;
+
+import com.agateau.libgdx.RecordingBatch;
+import com.agateau.pixelwheels.Constants;
+import com.agateau.pixelwheels.GamePlay;
+import com.agateau.pixelwheels.map.Track;
+import com.agateau.pixelwheels.racescreen.PwTiledMapRenderer;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.math.Vector2;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Renders the tile layers of a track as the camera follows the waypoints, with and without the
+ * chunk cache of PwTiledMapRenderer. Vertices are sent to a RecordingBatch, so this measures the
+ * CPU side of tile rendering only.
+ *
+ * <p>The vertices and drawCalls counters report how much was sent to the batch, divide them by the
+ * frames counter to get per-frame values.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TileLayerRenderBenchmark {
+    private static final int VIEW_COUNT = 256;
+
+    @Param({"country", "race", "city3"})
+    public String trackId;
+
+    @Param({"false", "true"})
+    public boolean chunkCache;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Counters {
+        public long frames;
+        public long vertices;
+        public long drawCalls;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            frames = 0;
+            vertices = 0;
+            drawCalls = 0;
+        }
+    }
+
+    private final RecordingBatch mBatch = new RecordingBatch();
+    private final OrthographicCamera mCamera = new OrthographicCamera();
+    private PwTiledMapRenderer mRenderer;
+    private int[] mLayerIndexes;
+    private Vector2[] mViewCenters;
+    private int mViewIndex = 0;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Track track = BenchmarkWorlds.findTrack(trackId);
+        mBatch.setRecordVertices(false);
+        mRenderer = new PwTiledMapRenderer(track.getMap(), Constants.UNIT_FOR_PIXEL, mBatch);
+        mRenderer.setChunkCacheEnabled(chunkCache);
+
+        int[] background = track.getExtraBackgroundLayerIndexes();
+        int[] foreground = track.getForegroundLayerIndexes();
+        mLayerIndexes = new int[1 + background.length + foreground.length];
+        System.arraycopy(background, 0, mLayerIndexes, 1, background.length);
+        System.arraycopy(foreground, 0, mLayerIndexes, 1 + background.length, foreground.length);
+
+        float viewportWidth = GamePlay.instance.viewportWidth;
+        mCamera.viewportWidth = viewportWidth;
+        mCamera.viewportHeight = viewportWidth * 9 / 16;
+        mViewCenters = BenchmarkWorlds.samplePath(track, VIEW_COUNT);
+    }
+
+    @Benchmark
+    public void render(Counters counters) {
+        Vector2 center = mViewCenters[mViewIndex];
+        mViewIndex = (mViewIndex + 1) % VIEW_COUNT;
+        mCamera.position.set(center.x, center.y, 0);
+        mCamera.update();
+        mRenderer.setView(mCamera);
+
+        mBatch.clear();
+        mRenderer.render(mLayerIndexes);
+        ++counters.frames;
+        counters.vertices += mBatch.getVertexCount();
+        counters.drawCalls += mBatch.getDrawCallCount();
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2026 Aurélien Gâteau <mail@agateau.com>
+ *
+ * This file is part of Pixel Wheels.
+ *
+ * Pixel Wheels is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.agateau.pixelwheels.benchmarks;
+
+import com.agateau.pixelwheels.map.MapUtils;
+import com.agateau.pixelwheels.map.Material;
+import com.agateau.pixelwheels.map.Track;
+import com.badlogic.gdx.maps.MapLayer;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTile;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.maps.tiled.TiledMapTileSet;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.utils.Array;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares Track.getMaterialAt() with the layer walk it used to perform before the material grid
+ * was introduced.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TrackMaterialBenchmark {
+    private static final int SAMPLE_COUNT = 4096;
+    private static final long SEED = 1234;
+
+    @Param({
+        "country", "river", "flood", "race", "snow2", "snow3", "be", "tiny-sur-mer", "city3"
+    })
+    public String trackId;
+
+    private Track mTrack;
+    private final float[] mXs = new float[SAMPLE_COUNT];
+    private final float[] mYs = new float[SAMPLE_COUNT];
+
+    // Reference implementation state
+    private final Array<TiledMapTileLayer> mBackgroundLayers = new Array<>();
+    private Material[] mMaterialForTileId;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        HeadlessGdx.init();
+        mTrack = new Track(null, trackId, trackId);
+        mTrack.init();
+
+        RandomXS128 random = new RandomXS128(SEED);
+        for (int idx = 0; idx < SAMPLE_COUNT; ++idx) {
+            mXs[idx] = random.nextFloat() * mTrack.getMapWidth();
+            mYs[idx] = random.nextFloat() * mTrack.getMapHeight();
+        }
+
+        TiledMap map = mTrack.getMap();
+        for (int idx = 0; idx < map.getLayers().getCount(); ++idx) {
+            MapLayer layer = map.getLayers().get(idx);
+            if (layer.getName().startsWith("bg")) {
+                mBackgroundLayers.add((TiledMapTileLayer) layer);
+            }
+        }
+        TiledMapTileSet tileSet = map.getTileSets().getTileSet(0);
+        int maxId = 0;
+        for (TiledMapTile tile : tileSet) {
+            maxId = Math.max(maxId, tile.getId());
+        }
+        mMaterialForTileId = new Material[maxId + 1];
+        for (int id = 0; id < mMaterialForTileId.length; ++id) {
+            mMaterialForTileId[id] = MapUtils.getTileMaterial(tileSet.getTile(id));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        mTrack.dispose();
+    }
+
+    @Benchmark
+    public void materialGrid(Blackhole blackhole) {
+        for (int idx = 0; idx < SAMPLE_COUNT; ++idx) {
+            blackhole.consume(mTrack.getMaterialAt(mXs[idx], mYs[idx]));
+        }
+    }
+
+    @Benchmark
+    public void layerWalk(Blackhole blackhole) {
+        for (int idx = 0; idx < SAMPLE_COUNT; ++idx) {
+            blackhole.consume(getMaterialByLayerWalk(mXs[idx], mYs[idx]));
+        }
+    }
+
+    private Material getMaterialByLayerWalk(float x, float y) {
+        int tx = MathUtils.floor(x / mTrack.getTileWidth());
+        int ty = MathUtils.floor(y / mTrack.getTileHeight());
+        for (int idx = mBackgroundLayers.size - 1; idx >= 0; idx--) {
+            TiledMapTileLayer.Cell cell = mBackgroundLayers.get(idx).getCell(tx, ty);
+            if (cell != null) {
+                return mMaterialForTileId[cell.getTile().getId()];
+            }
+        }
+        return Material.ROAD;
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2026 Aurélien Gâteau <mail@agateau.com>
+ *
+ * This file is part of Pixel Wheels.
+ *
+ * Pixel Wheels is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.agateau.pixelwheels.benchmarks;
+
+import com.agateau.pixelwheels.Constants;
+import com.agateau.pixelwheels.map.LapPosition;
+import com.agateau.pixelwheels.map.Track;
+import com.agateau.pixelwheels.map.WaypointStore;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/** Measures WaypointStore.getValidPosition() for positions spread along the track */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WaypointStoreBenchmark {
+    private static final int SAMPLE_COUNT = 4096;
+    // How far from the waypoint path samples can be, in world units
+    private static final float MAX_OFFSET = 3;
+
+    @Param({
+        "country", "river", "flood", "race", "snow2", "snow3", "be", "tiny-sur-mer", "city3"
+    })
+    public String trackId;
+
+    private WaypointStore mStore;
+    private final Array<Vector2> mPositions = new Array<>();
+    private final FloatArray mLapDistances = new FloatArray();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Track track = BenchmarkWorlds.findTrack(trackId);
+        mStore = track.getWaypointStore();
+
+        final float PFU = 1 / Constants.UNIT_FOR_PIXEL;
+        RandomXS128 random = new RandomXS128(BenchmarkWorlds.SEED);
+        for (Vector2 pos : BenchmarkWorlds.samplePath(track, SAMPLE_COUNT)) {
+            pos.add(
+                    (random.nextFloat() * 2 - 1) * MAX_OFFSET,
+                    (random.nextFloat() * 2 - 1) * MAX_OFFSET);
+            LapPosition lapPosition =
+                    track.getLapPositionTable().get((int) (PFU * pos.x), (int) (PFU * pos.y));
+            if (lapPosition == null) {
+                // Off track
+                continue;
+            }
+            mPositions.add(pos);
+            mLapDistances.add(lapPosition.getLapDistance());
+        }
+    }
+
+    @Benchmark
+    public void getValidPosition(Blackhole blackhole) {
+        for (int idx = 0; idx < mPositions.size; ++idx) {
+            blackhole.consume(mStore.getValidPosition(mPositions.get(idx), mLapDistances.get(idx)));
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2026 Aurélien Gâteau <mail@agateau.com>
+ *
+ * This file is part of Pixel Wheels.
+ *
+ * Pixel Wheels is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.agateau.pixelwheels;
+
+import com.agateau.libgdx.NullGL20;
+import com.agateau.utils.TestGdxFiles;
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.physics.box2d.Box2D;
+
+/**
+ * Gives tests access to the game assets.
+ *
+ * <p>The first call to get() starts a headless application with a null GL implementation, so
+ * that textures can be created. It is shared by all the tests running in the same JVM.
+ */
+public class TestAssets {
+    private static Assets sAssets;
+
+    public static synchronized Assets get() {
+        if (sAssets == null) {
+            HeadlessApplicationConfiguration config = new HeadlessApplicationConfiguration();
+            // We do not want the application loop to run concurrently with the tests
+            config.updatesPerSecond = -1;
+            new HeadlessApplication(new ApplicationAdapter() {}, config);
+            Gdx.files = new TestGdxFiles();
+            NullGL20.install();
+            Box2D.init();
+            sAssets = new Assets();
+        }
+        return sAssets;
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2026 Aurélien Gâteau <mail@agateau.com>
+ *
+ * This file is part of Pixel Wheels.
+ *
+ * Pixel Wheels is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.agateau.pixelwheels.gameobject;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.notNullValue;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.junit.Assert.assertThat;
+
+import com.badlogic.gdx.utils.Array;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class CellAllocatorTest {
+    private static final int SIZE = 1024;
+    private static final int CELL_SIZE = 200;
+
+    @Test
+    public void testFillTexture() {
+        // GIVEN an allocator
+        CellAllocator allocator = new CellAllocator(SIZE);
+
+        // WHEN cells are allocated until there is no space left
+        Array<CellAllocator.Area> areas = allocateAll(allocator);
+
+        // THEN the texture is packed as tightly as the row packer used to do it
+        assertThat(areas.size, is((SIZE / CELL_SIZE) * (SIZE / CELL_SIZE)));
+
+        // AND the cells are inside the texture and do not overlap
+        for (int i = 0; i < areas.size; ++i) {
+            CellAllocator.Area area = areas.get(i);
+            assertThat(area.x >= 0 && area.x + area.width <= SIZE, is(true));
+            assertThat(area.y >= 0 && area.y + area.height <= SIZE, is(true));
+            for (int j = i + 1; j < areas.size; ++j) {
+                assertThat(overlaps(area, areas.get(j)), is(false));
+            }
+        }
+    }
+
+    @Test
+    public void testReuseFreedCell() {
+        // GIVEN a full allocator
+        CellAllocator allocator = new CellAllocator(SIZE);
+        Array<CellAllocator.Area> areas = allocateAll(allocator);
+        CellAllocator.Area freed = areas.get(7);
+
+        // WHEN a cell is freed
+        allocator.free(freed);
+
+        // THEN a cell of the same size can be allocated at the same place
+        CellAllocator.Area area = allocator.allocate(CELL_SIZE, CELL_SIZE);
+        assertThat(area, is(notNullValue()));
+        assertThat(area.x, is(freed.x));
+        assertThat(area.y, is(freed.y));
+        assertThat(allocator.allocate(CELL_SIZE, CELL_SIZE), is(nullValue()));
+    }
+
+    @Test
+    public void testMergeFreedCells() {
+        // GIVEN a full allocator, whose first cells are stacked vertically
+        CellAllocator allocator = new CellAllocator(SIZE);
+        Array<CellAllocator.Area> areas = allocateAll(allocator);
+        assertThat(allocator.allocate(CELL_SIZE, CELL_SIZE * 2), is(nullValue()));
+        CellAllocator.Area area1 = areas.get(0);
+        CellAllocator.Area area2 = areas.get(1);
+        assertThat(area2.x, is(area1.x));
+        assertThat(area2.y, is(area1.y + CELL_SIZE));
+
+        // WHEN these two cells are freed
+        allocator.free(area1);
+        allocator.free(area2);
+
+        // THEN their space can be used by a cell covering both of them
+        assertThat(allocator.allocate(CELL_SIZE, CELL_SIZE * 2), is(notNullValue()));
+    }
+
+    @Test
+    public void testFreeAllCells() {
+        // GIVEN a full allocator
+        CellAllocator allocator = new CellAllocator(SIZE);
+        Array<CellAllocator.Area> areas = allocateAll(allocator);
+
+        // WHEN all cells are freed
+        for (CellAllocator.Area area : areas) {
+            allocator.free(area);
+        }
+
+        // THEN the whole texture is available again
+        assertThat(allocator.getFreeAreaCount(), is(1));
+        assertThat(allocator.allocate(SIZE, SIZE), is(notNullValue()));
+    }
+
+    @Test
+    public void testGrow() {
+        // GIVEN a full allocator
+        CellAllocator allocator = new CellAllocator(SIZE);
+        Array<CellAllocator.Area> areas = allocateAll(allocator);
+
+        // WHEN it grows to twice its size, and cells are allocated until there is no space left
+        allocator.grow(SIZE * 2);
+        areas.addAll(allocateAll(allocator));
+
+        // THEN the larger texture is packed as tightly as if it had been created with this size
+        assertThat(areas.size, is((SIZE * 2 / CELL_SIZE) * (SIZE * 2 / CELL_SIZE)));
+
+        // AND the cells are inside the texture and do not overlap
+        for (int i = 0; i < areas.size; ++i) {
+            CellAllocator.Area area = areas.get(i);
+            assertThat(area.x >= 0 && area.x + area.width <= SIZE * 2, is(true));
+            assertThat(area.y >= 0 && area.y + area.height <= SIZE * 2, is(true));
+            for (int j = i + 1; j < areas.size; ++j) {
+                assertThat(overlaps(area, areas.get(j)), is(false));
+            }
+        }
+    }
+
+    private static Array<CellAllocator.Area> allocateAll(CellAllocator allocator) {
+        Array<CellAllocator.Area> areas = new Array<>();
+        while (true) {
+            CellAllocator.Area area = allocator.allocate(CELL_SIZE, CELL_SIZE);
+            if (area == null) {
+                return areas;
+            }
+            areas.add(area);
+        }
+    }
+
+    private static boolean overlaps(CellAllocator.Area a, CellAllocator.Area b) {
+        return a.x < b.x + b.width
+                && b.x < a.x + a.width
+                && a.y < b.y + b.height
+                && b.y < a.y + a.height;
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2026 Aurélien Gâteau <mail@agateau.com>
+ *
+ * This file is part of Pixel Wheels.
+ *
+ * Pixel Wheels is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.agateau.pixelwheels.gameobject;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.junit.Assert.assertThat;
+
+import com.agateau.pixelwheels.ZLevel;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class GameObjectStoreTest {
+    private static class FakeObject extends GameObjectAdapter {
+        private final int mMask;
+
+        FakeObject(int mask) {
+            mMask = mask;
+        }
+
+        @Override
+        public void act(float delta) {}
+
+        @Override
+        public void draw(Batch batch, ZLevel zLevel, Rectangle viewBounds) {}
+
+        @Override
+        public int getZLevelMask() {
+            return mMask;
+        }
+
+        @Override
+        public float getX() {
+            return 0;
+        }
+
+        @Override
+        public float getY() {
+            return 0;
+        }
+    }
+
+    private static class FakeAudibleObject extends FakeObject implements Audible {
+        FakeAudibleObject() {
+            super(0);
+        }
+
+        @Override
+        public void audioRender(AudioClipper audioClipper) {}
+    }
+
+    @Test
+    public void testGetByHandle() {
+        // GIVEN a store with two objects
+        GameObjectStore store = new GameObjectStore();
+        GameObject object1 = new FakeObject(ZLevel.GROUND.mask);
+        GameObject object2 = new FakeObject(ZLevel.GROUND.mask);
+        int handle1 = store.add(object1);
+        int handle2 = store.add(object2);
+
+        // WHEN getting them by handle
+        // THEN the right objects are returned
+        assertThat(store.get(handle1), is(object1));
+        assertThat(store.get(handle2), is(object2));
+        assertThat(store.get(GameObjectStore.INVALID_HANDLE), is(nullValue()));
+    }
+
+    @Test
+    public void testSwapRemove() {
+        // GIVEN a store with three objects
+        GameObjectStore store = new GameObjectStore();
+        GameObject object1 = new FakeObject(ZLevel.GROUND.mask);
+        GameObject object2 = new FakeObject(ZLevel.GROUND.mask);
+        GameObject object3 = new FakeObject(ZLevel.GROUND.mask);
+        store.add(object1);
+        int handle2 = store.add(object2);
+        int handle3 = store.add(object3);
+
+        // WHEN the first one is removed
+        store.removeAt(0);
+
+        // THEN the last object takes its place
+        Array<GameObject> objects = store.getObjects();
+        assertThat(objects.size, is(2));
+        assertThat(objects.get(0), is(object3));
+        assertThat(objects.get(1), is(object2));
+
+        // AND the handles of the other objects are still valid
+        assertThat(store.get(handle2), is(object2));
+        assertThat(store.get(handle3), is(object3));
+    }
+
+    @Test
+    public void testStaleHandle() {
+        // GIVEN a pooled object, added and then removed
+        GameObjectStore store = new GameObjectStore();
+        GameObject object = new FakeObject(ZLevel.GROUND.mask);
+        int oldHandle = store.add(object);
+        store.remove(oldHandle);
+
+        // WHEN the same instance is reused and added again
+        int newHandle = store.add(object);
+
+        // THEN the old handle does not give access to it
+        assertThat(store.get(oldHandle), is(nullValue()));
+        assertThat(store.get(newHandle), is(object));
+
+        // AND removing with the old handle does nothing
+        store.remove(oldHandle);
+        assertThat(store.size(), is(1));
+    }
+
+    @Test
+    public void testCapabilities() {
+        // GIVEN objects with different capabilities
+        GameObjectStore store = new GameObjectStore();
+        GameObject drawable = new FakeObject(ZLevel.GROUND.mask);
+        GameObject hidden = new FakeObject(0);
+        FakeAudibleObject audible = new FakeAudibleObject();
+
+        // WHEN they are added
+        store.add(drawable);
+        int hiddenHandle = store.add(hidden);
+        int audibleHandle = store.add(audible);
+
+        // THEN each capability array contains the matching objects
+        assertThat(store.getObjects().size, is(3));
+        assertThat(store.getDrawables().size, is(1));
+        assertThat(store.getDrawables().get(0), is(drawable));
+        assertThat(store.getAudibles().size, is(1));
+        assertThat(store.getAudibles().get(0), is((Audible) audible));
+        assertThat(store.getCellFrameBufferUsers().size, is(0));
+
+        // WHEN objects are removed
+        store.remove(audibleHandle);
+        store.remove(hiddenHandle);
+
+        // THEN the capability arrays are updated
+        assertThat(store.getObjects().size, is(1));
+        assertThat(store.getDrawables().size, is(1));
+        assertThat(store.getAudibles().size, is(0));
+    }
+
+    @Test
+    public void testSlotReuse() {
+        // GIVEN a store where many objects are added and removed, like bullets are
+        GameObjectStore store = new GameObjectStore();
+        GameObject permanent = new FakeObject(ZLevel.GROUND.mask);
+        int permanentHandle = store.add(permanent);
+        for (int idx = 0; idx < 100000; ++idx) {
+            // WHEN an object is added and removed
+            int handle = store.add(new FakeObject(ZLevel.GROUND.mask));
+            store.remove(handle);
+
+            // THEN its handle becomes invalid
+            assertThat(store.get(handle), is(nullValue()));
+        }
+
+        // AND the other objects are not affected
+        assertThat(store.size(), is(1));
+        assertThat(store.get(permanentHandle), is(permanent));
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2026 Aurélien Gâteau <mail@agateau.com>
+ *
+ * This file is part of Pixel Wheels.
+ *
+ * Pixel Wheels is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.agateau.pixelwheels.map;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.notNullValue;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.junit.Assert.assertThat;
+
+import com.badlogic.gdx.files.FileHandle;
+import java.io.File;
+import java.io.IOException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class LapPositionRasterTest {
+    private static final long CHECKSUM = 0x12345678abcdL;
+    private static final int MAP_WIDTH =
+            LapPositionTableTest.COLUMNS * LapPositionTableTest.SECTION_SIZE;
+    private static final int MAP_HEIGHT = 2 * LapPositionTableTest.SECTION_SIZE;
+
+    @Rule public TemporaryFolder mTemporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testBakedRasterMatchesTable() {
+        // GIVEN a table
+        LapPositionTable table = createTable();
+
+        // WHEN a raster is baked from it
+        LapPositionRaster raster = LapPositionRaster.bake(table, CHECKSUM, MAP_WIDTH, MAP_HEIGHT);
+
+        // THEN cells which are not MIXED contain the section of all their positions
+        int sectionCellCount = 0;
+        for (int y = -20; y < MAP_HEIGHT + 20; ++y) {
+            for (int x = -20; x < MAP_WIDTH + 20; ++x) {
+                int sectionId = raster.getSectionId(x, y);
+                if (sectionId == LapPositionRaster.MIXED) {
+                    continue;
+                }
+                ++sectionCellCount;
+                int expected = sectionId == LapPositionRaster.NO_SECTION ? -1 : sectionId;
+                assertThat(table.findSectionId(x, y), is(expected));
+            }
+        }
+        // AND most positions do not need to test polygons
+        assertThat(sectionCellCount > MAP_WIDTH * MAP_HEIGHT / 2, is(true));
+    }
+
+    @Test
+    public void testWriteAndRead() throws IOException {
+        // GIVEN a raster baked from a table
+        LapPositionTable table = createTable();
+        LapPositionRaster raster = LapPositionRaster.bake(table, CHECKSUM, MAP_WIDTH, MAP_HEIGHT);
+
+        // WHEN it is written to a file and read back
+        FileHandle handle = new FileHandle(mTemporaryFolder.newFile("test.lpr"));
+        raster.write(handle);
+        LapPositionRaster readRaster = LapPositionRaster.read(handle);
+
+        // THEN the read raster is the same
+        assertThat(readRaster, is(notNullValue()));
+        assertThat(readRaster.getChecksum(), is(CHECKSUM));
+        for (int y = 0; y < MAP_HEIGHT; ++y) {
+            for (int x = 0; x < MAP_WIDTH; ++x) {
+                assertThat(readRaster.getSectionId(x, y), is(raster.getSectionId(x, y)));
+            }
+        }
+
+        // AND a table using it returns the same positions as a table without raster
+        LapPositionTable rasterTable = createTable();
+        rasterTable.setRaster(readRaster);
+        for (int y = -20; y < MAP_HEIGHT + 20; y += 3) {
+            for (int x = -20; x < MAP_WIDTH + 20; x += 3) {
+                LapPosition expected = table.get(x, y);
+                LapPosition actual = rasterTable.get(x, y);
+                if (expected == null) {
+                    assertThat(actual, is(nullValue()));
+                } else {
+                    assertThat(actual.getSectionId(), is(expected.getSectionId()));
+                    assertThat(actual.getSectionDistance(), is(expected.getSectionDistance()));
+                    assertThat(actual.getCenterDistance(), is(expected.getCenterDistance()));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testReadInvalidFile() throws IOException {
+        // GIVEN a file which is not a raster
+        File file = mTemporaryFolder.newFile("invalid.lpr");
+        FileHandle handle = new FileHandle(file);
+        handle.writeString("This is not a lap position raster", false);
+
+        // WHEN it is read
+        LapPositionRaster raster = LapPositionRaster.read(handle);
+
+        // THEN null is returned
+        assertThat(raster, is(nullValue()));
+    }
+
+    private static LapPositionTable createTable() {
+        LapPositionTable table = LapPositionTableTest.createRingTable();
+        table.buildIndex();
+        return table;
+    }
+}
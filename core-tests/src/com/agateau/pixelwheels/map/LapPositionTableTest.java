@@ -0,0 +1,99 @@
+/*
+ * Copyright 2026 Aurélien Gâteau <mail@agateau.com>
+ *
+ * This file is part of Pixel Wheels.
+ *
+ * Pixel Wheels is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.agateau.pixelwheels.map;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.junit.Assert.assertThat;
+
+import com.badlogic.gdx.math.Polygon;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class LapPositionTableTest {
+    static final int SECTION_SIZE = 100;
+    static final int COLUMNS = 4;
+
+    @Test
+    public void testIndexedLookupMatchesLinearLookup() {
+        // GIVEN a table without index and the same table with an index
+        LapPositionTable linearTable = createRingTable();
+        LapPositionTable indexedTable = createRingTable();
+        indexedTable.buildIndex();
+
+        // WHEN looking up positions over the whole map, and around it
+        // THEN both tables return the same sections
+        for (int y = -20; y < 2 * SECTION_SIZE + 20; y += 3) {
+            for (int x = -20; x < COLUMNS * SECTION_SIZE + 20; x += 3) {
+                assertThat(
+                        getSectionId(indexedTable.get(x, y)),
+                        is(getSectionId(linearTable.get(x, y))));
+            }
+        }
+    }
+
+    @Test
+    public void testHint() {
+        // GIVEN an indexed table
+        LapPositionTable table = createRingTable();
+        table.buildIndex();
+
+        // WHEN looking up a position using a hint which is not the right section
+        // THEN the right section is returned
+        LapPosition pos = table.get(SECTION_SIZE / 2, SECTION_SIZE / 2, 3);
+        assertThat(pos.getSectionId(), is(0));
+
+        // WHEN looking up a position using a hint which is a neighbor of the right section
+        // THEN the right section is returned
+        pos = table.get(SECTION_SIZE / 2, SECTION_SIZE / 2, 1);
+        assertThat(pos.getSectionId(), is(0));
+
+        // WHEN looking up a position outside the table
+        // THEN null is returned
+        assertThat(table.get(-10, -10, 0), is(nullValue()));
+    }
+
+    private static int getSectionId(LapPosition pos) {
+        return pos == null ? -1 : pos.getSectionId();
+    }
+
+    /**
+     * Creates a table made of 2 rows of COLUMNS square sections, forming a ring going right on the
+     * bottom row and left on the top row
+     */
+    static LapPositionTable createRingTable() {
+        LapPositionTable table = new LapPositionTable();
+        for (int col = 0; col < COLUMNS; ++col) {
+            int x1 = col * SECTION_SIZE;
+            int x2 = x1 + SECTION_SIZE;
+            table.addSection(
+                    new Polygon(new float[] {x1, 0, x2, 0, x2, SECTION_SIZE, x1, SECTION_SIZE}));
+        }
+        for (int col = COLUMNS - 1; col >= 0; --col) {
+            int x1 = col * SECTION_SIZE;
+            int x2 = x1 + SECTION_SIZE;
+            int y1 = SECTION_SIZE;
+            int y2 = 2 * SECTION_SIZE;
+            table.addSection(new Polygon(new float[] {x2, y1, x1, y1, x1, y2, x2, y2}));
+        }
+        return table;
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2026 Aurélien Gâteau <mail@agateau.com>
+ *
+ * This file is part of Pixel Wheels.
+ *
+ * Pixel Wheels is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.agateau.pixelwheels.map;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import com.agateau.pixelwheels.Assets;
+import com.agateau.pixelwheels.Constants;
+import com.agateau.pixelwheels.TestAssets;
+import com.agateau.pixelwheels.utils.OrientedPoint;
+import com.agateau.pixelwheels.vehicledef.VehicleDef;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class TrackStartPositionsTest {
+    // Maximum racer count of the debug screen
+    private static final int RACER_COUNT = 64;
+
+    @Test
+    public void testExtraStartPositions() {
+        Assets assets = TestAssets.get();
+        float minDistance = getLargestVehicleDiagonal(assets);
+        for (Championship championship : assets.championships) {
+            for (Track track : championship.getTracks()) {
+                track.init();
+                checkStartPositions(track, minDistance);
+                track.dispose();
+            }
+        }
+    }
+
+    private static void checkStartPositions(Track track, float minDistance) {
+        // GIVEN a track with fewer start tiles than racers
+        String id = track.getId();
+        int tileCount = track.findStartTilePositions().size;
+        assertTrue(id + " has too many start tiles", tileCount < RACER_COUNT);
+
+        // WHEN start positions are requested for all the racers
+        Array<OrientedPoint> positions = track.findStartPositions(RACER_COUNT);
+
+        // THEN there is one position per racer
+        assertThat(id, positions.size, is(RACER_COUNT));
+
+        // AND the first positions are on the start tiles
+        for (int idx = 0; idx < tileCount; ++idx) {
+            assertThat(id, positions.get(idx).angle, is(Track.START_ANGLE));
+        }
+
+        // AND all positions are on the track
+        final float PFU = 1 / Constants.UNIT_FOR_PIXEL;
+        LapPositionTable lapPositionTable = track.getLapPositionTable();
+        for (OrientedPoint pos : positions) {
+            String message = id + ": " + pos + " is outside the track";
+            LapPosition lapPosition =
+                    lapPositionTable.get((int) (pos.x * PFU), (int) (pos.y * PFU));
+            assertTrue(message, lapPosition != null);
+            assertTrue(message, !track.getMaterialAt(pos.x, pos.y).isHole());
+        }
+
+        // AND vehicles placed on the positions do not overlap
+        for (int idx1 = 0; idx1 < positions.size; ++idx1) {
+            OrientedPoint pos1 = positions.get(idx1);
+            for (int idx2 = idx1 + 1; idx2 < positions.size; ++idx2) {
+                OrientedPoint pos2 = positions.get(idx2);
+                assertTrue(
+                        id + ": " + pos1 + " and " + pos2 + " overlap",
+                        Vector2.dst(pos1.x, pos1.y, pos2.x, pos2.y) >= minDistance);
+            }
+        }
+    }
+
+    /**
+     * Returns the diagonal of the largest vehicle image: vehicles whose centers are at least this
+     * far apart cannot overlap
+     */
+    private static float getLargestVehicleDiagonal(Assets assets) {
+        float diagonal = 0;
+        for (VehicleDef vehicleDef : assets.vehicleDefs) {
+            TextureRegion region = vehicleDef.getImage(assets);
+            diagonal =
+                    Math.max(
+                            diagonal,
+                            Vector2.len(region.getRegionWidth(), region.getRegionHeight()));
+        }
+        return diagonal * Constants.UNIT_FOR_PIXEL;
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2026 Aurélien Gâteau <mail@agateau.com>
+ *
+ * This file is part of Pixel Wheels.
+ *
+ * Pixel Wheels is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.agateau.pixelwheels.map;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+
+import com.agateau.pixelwheels.Constants;
+import com.agateau.pixelwheels.utils.OrientedPoint;
+import com.badlogic.gdx.maps.MapLayer;
+import com.badlogic.gdx.maps.objects.PolylineMapObject;
+import com.badlogic.gdx.math.Vector2;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class WaypointStoreTest {
+    private static final int SECTION_COUNT = 2 * LapPositionTableTest.COLUMNS;
+
+    @Test
+    public void testGetWaypointIndex() {
+        // GIVEN a store with one waypoint at the center of each section of a ring
+        WaypointStore store = createStore();
+
+        // WHEN looking up waypoint indexes along the lap, with and without hints
+        // THEN the returned index is always the first waypoint after the lap distance
+        // (Stay away from the exact waypoint lap distances to avoid rounding issues)
+        for (int step = -10; step < SECTION_COUNT * 10 + 10; ++step) {
+            float lapDistance = step / 10f + 0.025f;
+            int expected = findWaypointIndexLinear(store, lapDistance);
+            assertThat(store.getWaypointIndex(lapDistance), is(expected));
+            for (int hint = -1; hint < SECTION_COUNT; ++hint) {
+                assertThat(store.getWaypointIndex(lapDistance, hint), is(expected));
+            }
+        }
+    }
+
+    @Test
+    public void testGetValidPosition() {
+        // GIVEN a store with one waypoint at the center of each section of a ring
+        WaypointStore store = createStore();
+        final float U = Constants.UNIT_FOR_PIXEL;
+        final float size = LapPositionTableTest.SECTION_SIZE * U;
+
+        // WHEN getting a valid position for a point above the segment between waypoints 0 and 1
+        Vector2 pos = new Vector2(size, size * 0.8f);
+        OrientedPoint point = store.getValidPosition(pos, 1.2f);
+
+        // THEN the point is projected on the segment, and oriented like it
+        assertEquals(size, point.x, 0.001f);
+        assertEquals(size / 2, point.y, 0.001f);
+        assertEquals(0f, point.angle, 0.001f);
+    }
+
+    private static WaypointStore createStore() {
+        LapPositionTable table = LapPositionTableTest.createRingTable();
+        table.buildIndex();
+
+        // Waypoints at the center of each section, bottom row first
+        final int size = LapPositionTableTest.SECTION_SIZE;
+        float[] vertices = new float[SECTION_COUNT * 2];
+        for (int idx = 0; idx < SECTION_COUNT; ++idx) {
+            int col = idx < LapPositionTableTest.COLUMNS ? idx : SECTION_COUNT - 1 - idx;
+            int row = idx < LapPositionTableTest.COLUMNS ? 0 : 1;
+            vertices[2 * idx] = col * size + size / 2;
+            vertices[2 * idx + 1] = row * size + size / 2;
+        }
+        MapLayer layer = new MapLayer();
+        layer.getObjects().add(new PolylineMapObject(vertices));
+
+        WaypointStore store = new WaypointStore();
+        store.read(layer, table);
+        return store;
+    }
+
+    private static int findWaypointIndexLinear(WaypointStore store, float lapDistance) {
+        for (int idx = 0; idx < store.getCount(); ++idx) {
+            if (lapDistance < idx + 0.5f) {
+                return idx;
+            }
+        }
+        return 0;
+    }
+}
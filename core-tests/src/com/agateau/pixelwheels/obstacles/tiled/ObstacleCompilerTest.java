@@ -0,0 +1,145 @@
+/*
+ * Copyright 2026 Aurélien Gâteau <mail@agateau.com>
+ *
+ * This file is part of Pixel Wheels.
+ *
+ * Pixel Wheels is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.agateau.pixelwheels.obstacles.tiled;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+import com.agateau.pixelwheels.Constants;
+import com.agateau.pixelwheels.racescreen.CollisionCategories;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.physics.box2d.Fixture;
+import com.badlogic.gdx.physics.box2d.World;
+import com.badlogic.gdx.utils.Array;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class ObstacleCompilerTest {
+    private static final int TILE_SIZE = 64;
+    private static final float K = TILE_SIZE * Constants.UNIT_FOR_PIXEL;
+
+    @Test
+    public void testMergeAdjacentRectangles() {
+        // GIVEN a 10-tile long border made of two rows of half-tile rectangles
+        World world = createBox2DWorld();
+        ObstacleCompiler compiler = new ObstacleCompiler(TILE_SIZE, true);
+        for (int row = 0; row < 2; ++row) {
+            for (int col = 0; col < 10; ++col) {
+                compiler.addRectangle(col, row * 0.5f, 1, 0.5f);
+            }
+        }
+
+        // WHEN the shapes are compiled
+        compiler.compile(world);
+
+        // THEN there is a single body with a single fixture
+        Array<Body> bodies = getBodies(world);
+        assertThat(bodies.size, is(1));
+        assertThat(bodies.first().getFixtureList().size, is(1));
+
+        // AND the fixture covers the whole border, and nothing more
+        Fixture fixture = bodies.first().getFixtureList().first();
+        assertThat(fixture.testPoint(0.1f * K, 0.1f * K), is(true));
+        assertThat(fixture.testPoint(9.9f * K, 0.9f * K), is(true));
+        assertThat(fixture.testPoint(5 * K, 0.5f * K), is(true));
+        assertThat(fixture.testPoint(5 * K, 1.2f * K), is(false));
+        assertThat(fixture.testPoint(10.2f * K, 0.5f * K), is(false));
+    }
+
+    @Test
+    public void testOneBodyPerRegion() {
+        // GIVEN circles and rotated rectangles in two different regions
+        World world = createBox2DWorld();
+        ObstacleCompiler compiler = new ObstacleCompiler(TILE_SIZE, true);
+        int far = ObstacleCompiler.REGION_SIZE * 3;
+        compiler.addCircle(1.5f, 1.5f, 0.5f);
+        compiler.addCircle(4.5f, 1.5f, 0.5f);
+        compiler.addPolygon(new float[] {2, 3, 3, 2, 4, 3, 3, 4});
+        compiler.addCircle(far + 1.5f, 1.5f, 0.5f);
+
+        // WHEN the shapes are compiled
+        compiler.compile(world);
+
+        // THEN there is one body per region, holding the fixtures of the region
+        Array<Body> bodies = getBodies(world);
+        assertThat(bodies.size, is(2));
+        int fixtureCount =
+                bodies.get(0).getFixtureList().size + bodies.get(1).getFixtureList().size;
+        assertThat(fixtureCount, is(4));
+
+        // AND the shapes are at the right place
+        assertThat(isPointInWorld(bodies, 1.5f, 1.5f), is(true));
+        assertThat(isPointInWorld(bodies, 3, 3), is(true));
+        assertThat(isPointInWorld(bodies, far + 1.5f, 1.5f), is(true));
+        assertThat(isPointInWorld(bodies, 3, 1.5f), is(false));
+
+        // AND all fixtures are walls
+        for (Body body : bodies) {
+            for (Fixture fixture : body.getFixtureList()) {
+                assertThat(
+                        (int) fixture.getFilterData().categoryBits, is(CollisionCategories.WALL));
+            }
+        }
+    }
+
+    @Test
+    public void testNoMerge() {
+        // GIVEN adjacent rectangles and a circle
+        World world = createBox2DWorld();
+        ObstacleCompiler compiler = new ObstacleCompiler(TILE_SIZE, false);
+        compiler.addRectangle(0, 0, 1, 1);
+        compiler.addRectangle(1, 0, 1, 1);
+        compiler.addCircle(1.5f, 3.5f, 0.5f);
+
+        // WHEN the shapes are compiled with merging disabled
+        compiler.compile(world);
+
+        // THEN each shape gets its own body
+        Array<Body> bodies = getBodies(world);
+        assertThat(bodies.size, is(3));
+        assertThat(isPointInWorld(bodies, 0.5f, 0.5f), is(true));
+        assertThat(isPointInWorld(bodies, 1.5f, 0.5f), is(true));
+        assertThat(isPointInWorld(bodies, 1.5f, 3.5f), is(true));
+    }
+
+    /** x and y are in tile units */
+    private static boolean isPointInWorld(Array<Body> bodies, float x, float y) {
+        for (Body body : bodies) {
+            for (Fixture fixture : body.getFixtureList()) {
+                if (fixture.testPoint(x * K, y * K)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static Array<Body> getBodies(World world) {
+        Array<Body> bodies = new Array<>();
+        world.getBodies(bodies);
+        return bodies;
+    }
+
+    private static World createBox2DWorld() {
+        return new World(new Vector2(0, 0), true);
+    }
+}
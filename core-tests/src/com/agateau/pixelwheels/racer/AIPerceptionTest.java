@@ -0,0 +1,187 @@
+/*
+ * Copyright 2026 Aurélien Gâteau <mail@agateau.com>
+ *
+ * This file is part of Pixel Wheels.
+ *
+ * Pixel Wheels is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.agateau.pixelwheels.racer;
+
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.physics.box2d.BodyDef;
+import com.badlogic.gdx.physics.box2d.PolygonShape;
+import com.badlogic.gdx.physics.box2d.World;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class AIPerceptionTest {
+    /** A client with a single ray */
+    private static class RayClient implements AIPerception.Client {
+        final Racer mOwner;
+        final float mX1, mY1, mX2, mY2;
+        int mRayId = -1;
+
+        RayClient(Racer owner, float x1, float y1, float x2, float y2) {
+            mOwner = owner;
+            mX1 = x1;
+            mY1 = y1;
+            mX2 = x2;
+            mY2 = y2;
+        }
+
+        @Override
+        public void addRays(AIPerception perception) {
+            mRayId = perception.addRay(mOwner, mX1, mY1, mX2, mY2);
+        }
+    }
+
+    @Test
+    public void testClosestWall() {
+        // GIVEN two walls on the diagonal
+        World world = createWorld();
+        Body wall1 = createBody(world, BodyDef.BodyType.StaticBody, 3, 3);
+        Body wall2 = createBody(world, BodyDef.BodyType.StaticBody, 6, 6);
+        AIPerception perception = new AIPerception(world);
+
+        // AND rays going through both walls, in both directions, and a ray missing them
+        RayClient forward = new RayClient(null, 0, 0, 8, 8);
+        RayClient backward = new RayClient(null, 8, 8, 0, 0);
+        RayClient miss = new RayClient(null, 0, 0, 0, 8);
+        perception.addClient(forward);
+        perception.addClient(backward);
+        perception.addClient(miss);
+
+        // WHEN the perception is updated
+        perception.update();
+
+        // THEN each ray gets the closest wall
+        assertThat(perception.getHitBody(forward.mRayId), is(wall1));
+        assertThat(perception.getHitBody(backward.mRayId), is(wall2));
+        assertThat(perception.getHitBody(miss.mRayId), is(nullValue()));
+    }
+
+    @Test
+    public void testRayStartingInsideWall() {
+        // GIVEN a wall
+        World world = createWorld();
+        createBody(world, BodyDef.BodyType.StaticBody, 1, 1);
+        AIPerception perception = new AIPerception(world);
+
+        // WHEN a ray starts inside the wall
+        RayClient client = new RayClient(null, 1, 1, 1, 5);
+        perception.updateClient(client);
+
+        // THEN it does not hit it, like a Box2D ray cast
+        assertThat(perception.getHitBody(client.mRayId), is(nullValue()));
+    }
+
+    @Test
+    public void testVehicles() {
+        // GIVEN two vehicles
+        World world = createWorld();
+        Racer racer1 = mock(Racer.class);
+        Racer racer2 = mock(Racer.class);
+        Body body1 = createBody(world, BodyDef.BodyType.DynamicBody, 0, 3);
+        body1.setUserData(racer1);
+        Body body2 = createBody(world, BodyDef.BodyType.DynamicBody, 0, 6);
+        body2.setUserData(racer2);
+        AIPerception perception = new AIPerception(world);
+
+        // WHEN racer1 casts a ray going through both vehicles
+        RayClient client = new RayClient(racer1, 0, 0, 0, 8);
+        perception.updateClient(client);
+
+        // THEN it hits the vehicle of racer2, not its own
+        assertThat(perception.getHitBody(client.mRayId), is(body2));
+    }
+
+    @Test
+    public void testClosestVehicleAcrossCells() {
+        // GIVEN vehicles spread along a line longer than several grid cells
+        World world = createWorld();
+        Body first = null;
+        Body last = null;
+        for (int idx = 0; idx < 10; ++idx) {
+            Body body = createBody(world, BodyDef.BodyType.DynamicBody, 3 * idx + 5, 2);
+            body.setUserData(mock(Racer.class));
+            if (idx == 0) {
+                first = body;
+            }
+            last = body;
+        }
+        AIPerception perception = new AIPerception(world);
+
+        // AND rays going through all of them, in both directions, and a ray missing them
+        RayClient forward = new RayClient(null, 0, 2, 40, 2);
+        RayClient backward = new RayClient(null, 40, 2, 0, 2);
+        RayClient miss = new RayClient(null, 0, 4, 40, 4);
+        perception.addClient(forward);
+        perception.addClient(backward);
+        perception.addClient(miss);
+
+        // WHEN the perception is updated
+        perception.update();
+
+        // THEN each ray gets the closest vehicle
+        assertThat(perception.getHitBody(forward.mRayId), is(first));
+        assertThat(perception.getHitBody(backward.mRayId), is(last));
+        assertThat(perception.getHitBody(miss.mRayId), is(nullValue()));
+    }
+
+    @Test
+    public void testMovedVehicle() {
+        // GIVEN a vehicle on the path of a ray
+        World world = createWorld();
+        Body body = createBody(world, BodyDef.BodyType.DynamicBody, 0, 3);
+        body.setUserData(mock(Racer.class));
+        AIPerception perception = new AIPerception(world);
+        RayClient client = new RayClient(null, 0, 0, 0, 8);
+        perception.addClient(client);
+        perception.update();
+        assertThat(perception.getHitBody(client.mRayId), is(body));
+
+        // WHEN the vehicle moves away
+        body.setTransform(new Vector2(5, 3), 0);
+        perception.update();
+
+        // THEN the ray does not hit anything anymore
+        assertThat(perception.getHitBody(client.mRayId), is(nullValue()));
+    }
+
+    private static World createWorld() {
+        return new World(new Vector2(0, 0), true);
+    }
+
+    private static Body createBody(World world, BodyDef.BodyType type, float x, float y) {
+        BodyDef bodyDef = new BodyDef();
+        bodyDef.type = type;
+        bodyDef.position.set(x, y);
+        Body body = world.createBody(bodyDef);
+
+        PolygonShape shape = new PolygonShape();
+        shape.setAsBox(0.5f, 0.5f);
+        body.createFixture(shape, 0);
+        shape.dispose();
+
+        return body;
+    }
+}
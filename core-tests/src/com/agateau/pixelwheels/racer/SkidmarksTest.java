@@ -0,0 +1,108 @@
+/*
+ * Copyright 2026 Aurélien Gâteau <mail@agateau.com>
+ *
+ * This file is part of Pixel Wheels.
+ *
+ * Pixel Wheels is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.agateau.pixelwheels.racer;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+import com.badlogic.gdx.math.Vector2;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class SkidmarksTest {
+    private static final int ALPHA_OFFSET = 4;
+    private static final int TIME_OFFSET = 5;
+
+    @Test
+    public void testTrail() {
+        // GIVEN a trail
+        Skidmarks skidmarks = new Skidmarks(10);
+        Skidmarks.Trail trail = skidmarks.createTrail();
+
+        // WHEN 3 points are added, 1 second apart
+        trail.addPoint(new Vector2(0, 0));
+        skidmarks.act(1);
+        trail.addPoint(new Vector2(1, 0));
+        skidmarks.act(1);
+        trail.addPoint(new Vector2(2, 0));
+
+        // THEN 2 segments have been created
+        assertThat(skidmarks.getSegmentCount(), is(2));
+
+        // AND the vertices of each segment end store the time the point was added
+        float[] vertices = skidmarks.getVertices();
+        assertThat(getVertexValue(vertices, 0, 0, TIME_OFFSET), is(0f));
+        assertThat(getVertexValue(vertices, 0, 3, TIME_OFFSET), is(1f));
+        assertThat(getVertexValue(vertices, 1, 0, TIME_OFFSET), is(1f));
+        assertThat(getVertexValue(vertices, 1, 3, TIME_OFFSET), is(2f));
+
+        // AND the segments get more opaque along the trail
+        float alpha1 = getVertexValue(vertices, 0, 0, ALPHA_OFFSET);
+        float alpha2 = getVertexValue(vertices, 1, 0, ALPHA_OFFSET);
+        assertThat(alpha2 > alpha1, is(true));
+    }
+
+    @Test
+    public void testEndTrail() {
+        // GIVEN a trail with one segment
+        Skidmarks skidmarks = new Skidmarks(10);
+        Skidmarks.Trail trail = skidmarks.createTrail();
+        trail.addPoint(new Vector2(0, 0));
+        trail.addPoint(new Vector2(1, 0));
+
+        // WHEN the trail is ended, and a new point is added
+        trail.end();
+        trail.addPoint(new Vector2(5, 0));
+
+        // THEN no segment joins the old and new points
+        assertThat(skidmarks.getSegmentCount(), is(1));
+
+        // WHEN another point is added
+        trail.addPoint(new Vector2(6, 0));
+
+        // THEN a new segment starts at the new point
+        assertThat(skidmarks.getSegmentCount(), is(2));
+        assertThat(getVertexValue(skidmarks.getVertices(), 1, 0, 0), is(5f));
+    }
+
+    @Test
+    public void testRingBuffer() {
+        // GIVEN skidmarks which can hold 3 segments
+        Skidmarks skidmarks = new Skidmarks(3);
+        Skidmarks.Trail trail = skidmarks.createTrail();
+
+        // WHEN 5 segments are added
+        for (int idx = 0; idx <= 5; ++idx) {
+            trail.addPoint(new Vector2(idx, 0));
+        }
+
+        // THEN the oldest segments have been overwritten
+        assertThat(skidmarks.getAppendedCount(), is(5L));
+        assertThat(skidmarks.getSegmentCount(), is(3));
+        // Segment #3 starts at x = 3 and is stored at index 3 % 3 = 0
+        assertThat(getVertexValue(skidmarks.getVertices(), 0, 0, 0), is(3f));
+    }
+
+    private static float getVertexValue(float[] vertices, int segment, int vertex, int offset) {
+        int idx = segment * Skidmarks.SEGMENT_SIZE + vertex * Skidmarks.VERTEX_SIZE + offset;
+        return vertices[idx];
+    }
+}
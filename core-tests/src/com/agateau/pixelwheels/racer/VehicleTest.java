@@ -0,0 +1,136 @@
+/*
+ * Copyright 2026 Aurélien Gâteau <mail@agateau.com>
+ *
+ * This file is part of Pixel Wheels.
+ *
+ * Pixel Wheels is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.agateau.pixelwheels.racer;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.agateau.pixelwheels.GameWorld;
+import com.agateau.pixelwheels.TextureRegionProvider;
+import com.agateau.pixelwheels.map.Material;
+import com.agateau.pixelwheels.map.Track;
+import com.agateau.pixelwheels.vehicledef.VehicleDef;
+import com.agateau.utils.AgcMathUtils;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.World;
+import com.badlogic.gdx.utils.Array;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class VehicleTest {
+    private static final float WHEEL_DENSITY = 15;
+    private static final float MAX_DRIVING_FORCE = 40;
+
+    @Test
+    public void testLowDetailPhysicsFollowsFullPhysics() {
+        // GIVEN two identical vehicles, in two worlds, one of them using low detail physics
+        Vehicle fullVehicle = createVehicle();
+        Vehicle lowDetailVehicle = createVehicle();
+        lowDetailVehicle.setLowDetailPhysics(true);
+
+        // WHEN they accelerate for 2 seconds, then turn for 2 seconds
+        drive(fullVehicle, 2, 0);
+        drive(lowDetailVehicle, 2, 0);
+        drive(fullVehicle, 2, 0.5f);
+        drive(lowDetailVehicle, 2, 0.5f);
+
+        // THEN they end up close to each other, facing the same direction
+        float distance = fullVehicle.getPosition().len();
+        float delta = fullVehicle.getPosition().dst(lowDetailVehicle.getPosition());
+        assertThat(distance > 10, is(true));
+        assertThat(delta < distance * 0.1f, is(true));
+        float angleDelta =
+                AgcMathUtils.angleDelta(fullVehicle.getAngle(), lowDetailVehicle.getAngle());
+        assertThat(Math.abs(angleDelta) < 10, is(true));
+    }
+
+    @Test
+    public void testLeavingLowDetailPhysicsMovesWheels() {
+        // GIVEN a vehicle which drove for a while using low detail physics
+        Vehicle vehicle = createVehicle();
+        vehicle.setLowDetailPhysics(true);
+        drive(vehicle, 1, 0.5f);
+
+        // WHEN it switches back to full physics
+        vehicle.setLowDetailPhysics(false);
+
+        // THEN the wheel bodies are active again, at the position of their joint anchors
+        for (Vehicle.WheelInfo info : vehicle.getWheelInfos()) {
+            Vector2 anchor = vehicle.getBody().getWorldPoint(info.joint.getLocalAnchorA());
+            assertThat(info.wheel.getBody().isActive(), is(true));
+            assertThat(info.wheel.getBody().getPosition().dst(anchor) < 0.001f, is(true));
+        }
+    }
+
+    private static void drive(Vehicle vehicle, float duration, float direction) {
+        vehicle.setAccelerating(true);
+        vehicle.setDirection(direction);
+        World world = vehicle.getBody().getWorld();
+        for (float time = 0; time < duration; time += GameWorld.BOX2D_TIME_STEP) {
+            vehicle.act(GameWorld.BOX2D_TIME_STEP);
+            world.step(
+                    GameWorld.BOX2D_TIME_STEP,
+                    GameWorld.VELOCITY_ITERATIONS,
+                    GameWorld.POSITION_ITERATIONS);
+        }
+    }
+
+    private static Vehicle createVehicle() {
+        World world = new World(new Vector2(0, 0), true);
+        Track track = mock(Track.class);
+        when(track.getMaterialAt(any(Vector2.class))).thenReturn(Material.ROAD);
+        GameWorld gameWorld = mock(GameWorld.class);
+        when(gameWorld.getBox2DWorld()).thenReturn(world);
+        when(gameWorld.getTrack()).thenReturn(track);
+        when(gameWorld.getSkidmarks()).thenReturn(mock(Skidmarks.class));
+        when(gameWorld.getState()).thenReturn(GameWorld.State.RUNNING);
+
+        Texture texture = mock(Texture.class);
+        when(texture.getWidth()).thenReturn(128);
+        when(texture.getHeight()).thenReturn(128);
+        Array<TextureAtlas.AtlasRegion> regions = new Array<>();
+        regions.add(new TextureAtlas.AtlasRegion(texture, 0, 0, 30, 60));
+        TextureRegionProvider provider = mock(TextureRegionProvider.class);
+        when(provider.findRegions(anyString())).thenReturn(regions);
+
+        VehicleDef vehicleDef = new VehicleDef("test", "Test");
+        vehicleDef.shapes.add(new Rectangle(-30, -15, 60, 30));
+        Vehicle vehicle = new Vehicle(provider, gameWorld, 0, 0, vehicleDef, 0);
+
+        TextureRegion wheelRegion = new TextureRegion(texture, 0, 0, 12, 8);
+        for (int idx = 0; idx < 4; ++idx) {
+            float x = idx < 2 ? 1 : -1;
+            float y = idx % 2 == 0 ? 0.6f : -0.6f;
+            Vehicle.WheelInfo info = vehicle.addWheel(wheelRegion, null, WHEEL_DENSITY, x, y, 0);
+            info.steeringFactor = idx < 2 ? 1 : 0;
+            info.wheel.setMaxDrivingForce(MAX_DRIVING_FORCE);
+        }
+        return vehicle;
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2026 Aurélien Gâteau <mail@agateau.com>
+ *
+ * This file is part of Pixel Wheels.
+ *
+ * Pixel Wheels is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.agateau.pixelwheels.racer;
+
+import static org.junit.Assert.assertTrue;
+
+import com.agateau.pixelwheels.Assets;
+import com.agateau.pixelwheels.GamePlay;
+import com.agateau.pixelwheels.TestAssets;
+import com.agateau.pixelwheels.gamesetup.Difficulty;
+import com.agateau.pixelwheels.map.Track;
+import com.agateau.pixelwheels.racescreen.GameWorldImpl;
+import com.agateau.pixelwheels.simulation.RaceSimulator;
+import java.util.Locale;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Checks the physics step rate does not change how a vehicle drives: an AI racer must complete its
+ * first lap in about the same time when the physics run at 30, 60 or 120 steps per second.
+ *
+ * <p>Tracks with water are not tested: floating vehicles are too chaotic for a small tolerance.
+ */
+@RunWith(JUnit4.class)
+public class WheelStepRateTest {
+    private static final long SEED = 1234;
+    private static final float MAX_DURATION = 40;
+    private static final float TOLERANCE = 0.025f;
+
+    private static final String[] TRACK_IDS = {"race", "river", "snow2", "be", "tiny-sur-mer"};
+
+    private final int mOldStepRate = GamePlay.instance.physicsStepRate;
+
+    @After
+    public void tearDown() {
+        GamePlay.instance.physicsStepRate = mOldStepRate;
+    }
+
+    @Test
+    public void testFirstLapTime() {
+        for (String trackId : TRACK_IDS) {
+            // GIVEN a race with one AI racer
+            // WHEN it runs at 30, 60 and 120 physics steps per second
+            float lapTime30 = computeFirstLapTime(trackId, 30);
+            float lapTime60 = computeFirstLapTime(trackId, 60);
+            float lapTime120 = computeFirstLapTime(trackId, 120);
+
+            // THEN the racer completes its first lap in about the same time
+            assertLapTimeClose(trackId, 30, lapTime30, lapTime60);
+            assertLapTimeClose(trackId, 120, lapTime120, lapTime60);
+        }
+    }
+
+    private static void assertLapTimeClose(
+            String trackId, int stepRate, float lapTime, float referenceLapTime) {
+        String message =
+                String.format(
+                        Locale.US,
+                        "%s: first lap in %.2fs at 60 steps/s, %.2fs at %d steps/s",
+                        trackId,
+                        referenceLapTime,
+                        lapTime,
+                        stepRate);
+        assertTrue(message, Math.abs(lapTime - referenceLapTime) <= referenceLapTime * TOLERANCE);
+    }
+
+    private static float computeFirstLapTime(String trackId, int stepRate) {
+        GamePlay.instance.physicsStepRate = stepRate;
+        Assets assets = TestAssets.get();
+        Track track = assets.findTrackById(trackId);
+        track.init();
+        RaceSimulator simulator = new RaceSimulator(assets, Difficulty.MEDIUM);
+        GameWorldImpl world =
+                simulator.createWorld(track, RaceSimulator.createEntrants(assets, 1, SEED), SEED);
+        LapPositionComponent lapPositionComponent =
+                world.getRacers().get(0).getLapPositionComponent();
+
+        // The lap count goes from 0 to 1 when the racer crosses the start line, and from 1 to 2
+        // when it completes its first lap
+        float timeStep = world.getTimeStep();
+        float lapStartTime = -1;
+        float lapTime = -1;
+        for (float time = 0; time < MAX_DURATION && lapTime < 0; time += timeStep) {
+            int lapCount = lapPositionComponent.getLapCount();
+            world.act(timeStep);
+            if (lapPositionComponent.getLapCount() != lapCount) {
+                if (lapCount == 0) {
+                    lapStartTime = lapPositionComponent.getTotalTime();
+                } else {
+                    lapTime = lapPositionComponent.getTotalTime() - lapStartTime;
+                }
+            }
+        }
+        world.dispose();
+        assertTrue(trackId + ": first lap not completed at " + stepRate + " steps/s", lapTime > 0);
+        return lapTime;
+    }
+}
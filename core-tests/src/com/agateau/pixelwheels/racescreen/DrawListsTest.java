@@ -0,0 +1,202 @@
+/*
+ * Copyright 2026 Aurélien Gâteau <mail@agateau.com>
+ *
+ * This file is part of Pixel Wheels.
+ *
+ * Pixel Wheels is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.agateau.pixelwheels.racescreen;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+import com.agateau.pixelwheels.ZLevel;
+import com.agateau.pixelwheels.gameobject.GameObject;
+import com.agateau.pixelwheels.gameobject.GameObjectAdapter;
+import com.agateau.pixelwheels.gameobject.GameObjectStore;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class DrawListsTest {
+    private static class FakeObject extends GameObjectAdapter {
+        private final float mX;
+        private final float mY;
+        private final float mRadius;
+        private final int mMask;
+
+        FakeObject(float x, float y, float radius, int mask) {
+            mX = x;
+            mY = y;
+            mRadius = radius;
+            mMask = mask;
+        }
+
+        @Override
+        public void act(float delta) {}
+
+        @Override
+        public void draw(Batch batch, ZLevel zLevel, Rectangle viewBounds) {}
+
+        @Override
+        public int getZLevelMask() {
+            return mMask;
+        }
+
+        @Override
+        public float getDrawRadius() {
+            return mRadius;
+        }
+
+        @Override
+        public float getX() {
+            return mX;
+        }
+
+        @Override
+        public float getY() {
+            return mY;
+        }
+    }
+
+    @Test
+    public void testCulling() {
+        // GIVEN objects inside, partially inside and outside the view, and an unbounded object
+        int ground = ZLevel.GROUND.mask;
+        GameObject inside = new FakeObject(20, 20, 1, ground);
+        GameObject overlapping = new FakeObject(32, 20, 4, ground);
+        GameObject outside = new FakeObject(80, 80, 4, ground);
+        GameObject unbounded = new FakeObject(80, 80, GameObject.UNBOUNDED_DRAW_RADIUS, ground);
+        Array<GameObject> objects = new Array<>();
+        objects.addAll(inside, overlapping, outside, unbounded);
+        DrawLists drawLists = createDrawLists(objects);
+
+        // WHEN the lists are updated for a view
+        drawLists.update(new Rectangle(10, 10, 20, 20));
+
+        // THEN only the objects which can be visible are listed, in their original order
+        Array<GameObject> visible = drawLists.getVisibleObjects();
+        assertThat(visible.size, is(3));
+        assertThat(visible.get(0), is(inside));
+        assertThat(visible.get(1), is(overlapping));
+        assertThat(visible.get(2), is(unbounded));
+    }
+
+    @Test
+    public void testLevels() {
+        // GIVEN objects drawing at different levels, one of them not drawing at all
+        GameObject groundObject = new FakeObject(5, 5, 1, ZLevel.GROUND.mask);
+        GameObject twoLevelObject =
+                new FakeObject(6, 6, 1, ZLevel.GROUND.mask | ZLevel.FLYING_HIGH.mask);
+        GameObject hiddenObject = new FakeObject(7, 7, 1, 0);
+        Array<GameObject> objects = new Array<>();
+        objects.addAll(groundObject, twoLevelObject, hiddenObject);
+        DrawLists drawLists = createDrawLists(objects);
+
+        // WHEN the lists are updated
+        drawLists.update(new Rectangle(0, 0, 50, 50));
+
+        // THEN each level lists the objects drawing at it
+        assertThat(drawLists.getObjects(ZLevel.GROUND).size, is(2));
+        assertThat(drawLists.getObjects(ZLevel.ON_GROUND).size, is(0));
+        assertThat(drawLists.getObjects(ZLevel.FLYING_HIGH).size, is(1));
+        assertThat(drawLists.getObjects(ZLevel.FLYING_HIGH).get(0), is(twoLevelObject));
+        assertThat(drawLists.getVisibleObjects().contains(hiddenObject, true), is(false));
+    }
+
+    @Test
+    public void testObjectsOutsideTheMap() {
+        // GIVEN an object outside the map, and a view looking at the area around it
+        GameObject object = new FakeObject(-10, 50, 2, ZLevel.GROUND.mask);
+        Array<GameObject> objects = new Array<>();
+        objects.add(object);
+        DrawLists drawLists = createDrawLists(objects);
+
+        // WHEN the lists are updated
+        drawLists.update(new Rectangle(-20, 40, 15, 15));
+
+        // THEN the object is visible
+        assertThat(drawLists.getVisibleObjects().size, is(1));
+    }
+
+    @Test
+    public void testSharedGrid() {
+        // GIVEN two objects far from each other
+        GameObject object1 = new FakeObject(10, 10, 2, ZLevel.GROUND.mask);
+        GameObject object2 = new FakeObject(90, 90, 2, ZLevel.GROUND.mask);
+        Array<GameObject> objects = new Array<>();
+        objects.addAll(object1, object2);
+
+        // AND two draw lists sharing the same grid
+        ObjectGrid grid = new ObjectGrid(100, 100);
+        grid.update(objects);
+        DrawLists drawLists1 = new DrawLists(grid);
+        DrawLists drawLists2 = new DrawLists(grid);
+
+        // WHEN each draw list is updated for a view looking at one of the objects
+        drawLists1.update(new Rectangle(0, 0, 20, 20));
+        drawLists2.update(new Rectangle(80, 80, 20, 20));
+
+        // THEN each list only contains the object of its view
+        assertThat(drawLists1.getVisibleObjects().size, is(1));
+        assertThat(drawLists1.getVisibleObjects().get(0), is(object1));
+        assertThat(drawLists2.getVisibleObjects().size, is(1));
+        assertThat(drawLists2.getVisibleObjects().get(0), is(object2));
+    }
+
+    @Test
+    public void testOrderIsStableAfterRemoval() {
+        // GIVEN a store with four objects drawing at the same level
+        GameObjectStore store = new GameObjectStore();
+        GameObject object1 = new FakeObject(10, 10, 2, ZLevel.GROUND.mask);
+        GameObject object2 = new FakeObject(20, 10, 2, ZLevel.GROUND.mask);
+        GameObject object3 = new FakeObject(30, 10, 2, ZLevel.GROUND.mask);
+        GameObject object4 = new FakeObject(40, 10, 2, ZLevel.GROUND.mask);
+        int handle1 = store.add(object1);
+        store.add(object2);
+        store.add(object3);
+        store.add(object4);
+
+        // AND the first object has been removed, moving the last one to its place in the store
+        store.remove(handle1);
+
+        // AND a new object has been added, reusing the slot of the removed object
+        GameObject object5 = new FakeObject(50, 10, 2, ZLevel.GROUND.mask);
+        store.add(object5);
+
+        // WHEN the lists are updated
+        ObjectGrid grid = new ObjectGrid(100, 100);
+        grid.update(store.getDrawables(), store.getDrawableSequences());
+        DrawLists drawLists = new DrawLists(grid);
+        drawLists.update(new Rectangle(0, 0, 100, 100));
+
+        // THEN the objects are listed in the order they have been added
+        Array<GameObject> levelObjects = drawLists.getObjects(ZLevel.GROUND);
+        assertThat(levelObjects.size, is(4));
+        assertThat(levelObjects.get(0), is(object2));
+        assertThat(levelObjects.get(1), is(object3));
+        assertThat(levelObjects.get(2), is(object4));
+        assertThat(levelObjects.get(3), is(object5));
+    }
+
+    private static DrawLists createDrawLists(Array<GameObject> objects) {
+        ObjectGrid grid = new ObjectGrid(100, 100);
+        grid.update(objects);
+        return new DrawLists(grid);
+    }
+}
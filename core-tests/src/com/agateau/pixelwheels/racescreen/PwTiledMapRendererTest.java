@@ -0,0 +1,142 @@
+/*
+ * Copyright 2026 Aurélien Gâteau <mail@agateau.com>
+ *
+ * This file is part of Pixel Wheels.
+ *
+ * Pixel Wheels is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.agateau.pixelwheels.racescreen;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.agateau.libgdx.RecordingBatch;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
+import com.badlogic.gdx.maps.tiled.tiles.StaticTiledMapTile;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.FloatArray;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class PwTiledMapRendererTest {
+    private static final int TILE_SIZE = 16;
+    private static final int MAP_WIDTH = 20;
+    private static final int MAP_HEIGHT = 12;
+    private static final int QUAD_SIZE = 20;
+
+    @Test
+    public void testCachedTilesMatchPerTileTiles() {
+        // GIVEN a map with flipped and rotated tiles, and a few empty cells
+        TiledMap map = createMap();
+        TiledMapTileLayer layer = (TiledMapTileLayer) map.getLayers().get(0);
+        RecordingBatch batch = new RecordingBatch();
+        PwTiledMapRenderer renderer = new PwTiledMapRenderer(map, 1, batch);
+
+        // AND a view overlapping the map border, so that padding tiles are visible
+        renderer.setView(new Matrix4(), -40, 100, 150, 90);
+
+        // WHEN the layer is rendered without and with the chunk cache
+        renderer.setChunkCacheEnabled(false);
+        Set<String> perTileQuads = renderAndCollectQuads(renderer, batch, layer);
+        renderer.setChunkCacheEnabled(true);
+        Set<String> cachedQuads = renderAndCollectQuads(renderer, batch, layer);
+
+        // THEN the cached rendering contains all the quads of the per-tile rendering (it can
+        // contain more since whole chunks are drawn)
+        assertThat(perTileQuads.isEmpty(), is(false));
+        assertThat(cachedQuads.containsAll(perTileQuads), is(true));
+    }
+
+    @Test
+    public void testCachedTilesFollowBatchColor() {
+        // GIVEN a renderer which has already drawn the layer from its cache
+        TiledMap map = createMap();
+        TiledMapTileLayer layer = (TiledMapTileLayer) map.getLayers().get(0);
+        RecordingBatch batch = new RecordingBatch();
+        PwTiledMapRenderer renderer = new PwTiledMapRenderer(map, 1, batch);
+        renderer.setView(new Matrix4(), 0, 0, 100, 100);
+        renderAndCollectQuads(renderer, batch, layer);
+
+        // WHEN the batch color changes
+        batch.setColor(1, 0.5f, 1, 0.5f);
+        renderer.setChunkCacheEnabled(false);
+        Set<String> perTileQuads = renderAndCollectQuads(renderer, batch, layer);
+        renderer.setChunkCacheEnabled(true);
+        Set<String> cachedQuads = renderAndCollectQuads(renderer, batch, layer);
+
+        // THEN the cached vertices use the new color
+        assertThat(cachedQuads.containsAll(perTileQuads), is(true));
+    }
+
+    private static Set<String> renderAndCollectQuads(
+            PwTiledMapRenderer renderer, RecordingBatch batch, TiledMapTileLayer layer) {
+        batch.clear();
+        renderer.renderTileLayer(layer);
+        FloatArray vertices = batch.getVertices();
+        Set<String> quads = new HashSet<>();
+        for (int idx = 0; idx < vertices.size; idx += QUAD_SIZE) {
+            quads.add(Arrays.toString(Arrays.copyOfRange(vertices.items, idx, idx + QUAD_SIZE)));
+        }
+        return quads;
+    }
+
+    private static TiledMap createMap() {
+        Texture texture = mock(Texture.class);
+        when(texture.getWidth()).thenReturn(4 * TILE_SIZE);
+        when(texture.getHeight()).thenReturn(4 * TILE_SIZE);
+        StaticTiledMapTile[] tiles = new StaticTiledMapTile[16];
+        for (int idx = 0; idx < tiles.length; ++idx) {
+            TextureRegion region =
+                    new TextureRegion(
+                            texture,
+                            (idx % 4) * TILE_SIZE,
+                            (idx / 4) * TILE_SIZE,
+                            TILE_SIZE,
+                            TILE_SIZE);
+            tiles[idx] = new StaticTiledMapTile(region);
+        }
+
+        TiledMapTileLayer layer =
+                new TiledMapTileLayer(MAP_WIDTH, MAP_HEIGHT, TILE_SIZE, TILE_SIZE);
+        for (int row = 0; row < MAP_HEIGHT; ++row) {
+            for (int col = 0; col < MAP_WIDTH; ++col) {
+                int value = row * MAP_WIDTH + col;
+                if (value % 7 == 0) {
+                    continue;
+                }
+                TiledMapTileLayer.Cell cell = new TiledMapTileLayer.Cell();
+                cell.setTile(tiles[value % tiles.length]);
+                cell.setFlipHorizontally(value % 3 == 0);
+                cell.setFlipVertically(value % 5 == 0);
+                cell.setRotation(value % 4);
+                layer.setCell(col, row, cell);
+            }
+        }
+
+        TiledMap map = new TiledMap();
+        map.getLayers().add(layer);
+        map.getProperties().put("paddingLeft", "2");
+        return map;
+    }
+}
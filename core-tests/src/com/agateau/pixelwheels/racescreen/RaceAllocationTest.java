@@ -0,0 +1,264 @@
+/*
+ * Copyright 2026 Aurélien Gâteau <mail@agateau.com>
+ *
+ * This file is part of Pixel Wheels.
+ *
+ * Pixel Wheels is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.agateau.pixelwheels.racescreen;
+
+import static org.junit.Assert.assertTrue;
+
+import com.agateau.pixelwheels.Assets;
+import com.agateau.pixelwheels.TestAssets;
+import com.agateau.pixelwheels.gamesetup.Difficulty;
+import com.agateau.pixelwheels.map.Track;
+import com.agateau.pixelwheels.simulation.RaceSimulator;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.PerformanceCounter;
+import com.badlogic.gdx.utils.PerformanceCounters;
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import org.junit.Assume;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Checks the race hot path does not allocate memory: every allocation made while racing brings
+ * the next garbage collection closer, and GC pauses cause visible hiccups on Android.
+ *
+ * <p>Runs an AI-only race through GameWorldImpl.act() and measures the bytes allocated by the game
+ * thread per physics step, for each performance counter of GameWorldImpl. Allocations made outside
+ * the counters are reported as "other".
+ *
+ * <p>The budgets below have been measured with OpenJDK 17 (Temurin 17.0.9). The test needs the
+ * com.sun.management extension of ThreadMXBean, and is skipped if the JVM cannot measure thread
+ * allocations. What gets allocated also depends on the escape analysis of the JIT, so other JDKs
+ * can report different values.
+ */
+@RunWith(JUnit4.class)
+public class RaceAllocationTest {
+    private static final String TRACK_ID = "race";
+    private static final long SEED = 1234;
+
+    // Below GameWorldImpl.MIN_PARALLEL_DECIDE_RACERS, so that the pilots decide on the game thread
+    private static final int RACER_COUNT = 6;
+
+    // Gets past the countdown and lets racers spread along the track, and lets the JIT kick in
+    private static final float WARMUP_DURATION = 15;
+    private static final float MEASURE_DURATION = 20;
+
+    private static final String OTHER = "other";
+
+    /**
+     * Maximum number of bytes allocated per step, averaged over MEASURE_DURATION, for each
+     * performance counter. These are the measured values plus a small margin: when one of them is
+     * exceeded, find the new allocation instead of raising the budget.
+     */
+    private static final Map<String, Long> sBudgets = new HashMap<>();
+
+    static {
+        // Measured: 7
+        sBudgets.put("- box2d", 16L);
+        // Measured: 2
+        sBudgets.put("- ai", 16L);
+        // Measured: 129 to 144
+        sBudgets.put("- g.o", 192L);
+        // Measured: 36 to 44
+        sBudgets.put(OTHER, 64L);
+    }
+
+    private static final com.sun.management.ThreadMXBean sThreadMXBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private static Assets sAssets;
+
+    /**
+     * Reads the number of bytes allocated by the current thread.
+     *
+     * <p>On some JDKs getThreadAllocatedBytes() allocates itself. Reads are counted, so that their
+     * cost can be subtracted from the results.
+     */
+    private static class AllocationMeter {
+        private final long mThreadId = Thread.currentThread().getId();
+        private long mReadCount = 0;
+        private final long mReadCost;
+
+        AllocationMeter() {
+            long cost = Long.MAX_VALUE;
+            for (int idx = 0; idx < 100; ++idx) {
+                long bytes1 = read();
+                long bytes2 = read();
+                cost = Math.min(cost, bytes2 - bytes1);
+            }
+            mReadCost = cost;
+        }
+
+        long read() {
+            ++mReadCount;
+            return sThreadMXBean.getThreadAllocatedBytes(mThreadId);
+        }
+
+        long getReadCount() {
+            return mReadCount;
+        }
+
+        long getReadCost() {
+            return mReadCost;
+        }
+    }
+
+    /** A PerformanceCounter which also sums the bytes allocated between start() and stop() */
+    private static class AllocationCounter extends PerformanceCounter {
+        private final AllocationMeter mMeter;
+        private long mStartBytes = 0;
+        private long mBytes = 0;
+        private long mStopCount = 0;
+
+        AllocationCounter(String name, int windowSize, AllocationMeter meter) {
+            super(name, windowSize);
+            mMeter = meter;
+        }
+
+        @Override
+        public void start() {
+            super.start();
+            mStartBytes = mMeter.read();
+        }
+
+        @Override
+        public void stop() {
+            mBytes += mMeter.read() - mStartBytes;
+            ++mStopCount;
+            super.stop();
+        }
+
+        void resetBytes() {
+            mBytes = 0;
+            mStopCount = 0;
+        }
+
+        /** Bytes allocated since the last call to resetBytes(), excluding the meter reads */
+        long getBytes() {
+            return mBytes - mStopCount * mMeter.getReadCost();
+        }
+    }
+
+    private static class AllocationCounters extends PerformanceCounters {
+        private final AllocationMeter mMeter;
+        private final Array<AllocationCounter> mAllocationCounters = new Array<>();
+
+        AllocationCounters(AllocationMeter meter) {
+            mMeter = meter;
+        }
+
+        @Override
+        public PerformanceCounter add(String name) {
+            return add(name, 5);
+        }
+
+        @Override
+        public PerformanceCounter add(String name, int windowSize) {
+            AllocationCounter counter = new AllocationCounter(name, windowSize, mMeter);
+            counters.add(counter);
+            mAllocationCounters.add(counter);
+            return counter;
+        }
+
+        Array<AllocationCounter> getAllocationCounters() {
+            return mAllocationCounters;
+        }
+    }
+
+    @BeforeClass
+    public static void setUp() {
+        sAssets = TestAssets.get();
+    }
+
+    @Test
+    public void testRaceStepAllocations() {
+        Assume.assumeTrue(sThreadMXBean.isThreadAllocatedMemorySupported());
+        sThreadMXBean.setThreadAllocatedMemoryEnabled(true);
+
+        // GIVEN an AI-only race whose performance counters track allocations
+        AllocationMeter meter = new AllocationMeter();
+        AllocationCounters counters = new AllocationCounters(meter);
+        RaceSimulator simulator = new RaceSimulator(sAssets, Difficulty.MEDIUM);
+        simulator.setPerformanceCounters(counters);
+        Track track = sAssets.findTrackById(TRACK_ID);
+        track.init();
+        GameWorldImpl world =
+                simulator.createWorld(
+                        track, RaceSimulator.createEntrants(sAssets, RACER_COUNT, SEED), SEED);
+
+        // AND the race has been running for a while
+        float timeStep = world.getTimeStep();
+        runSteps(world, (int) (WARMUP_DURATION / timeStep));
+        for (AllocationCounter counter : counters.getAllocationCounters()) {
+            counter.resetBytes();
+        }
+
+        // WHEN the race runs, one physics step at a time
+        int stepCount = (int) (MEASURE_DURATION / timeStep);
+        long readCount = meter.getReadCount();
+        long startBytes = meter.read();
+        runSteps(world, stepCount);
+        long totalBytes = meter.read() - startBytes;
+        // All reads but the first one happened while measuring
+        totalBytes -= (meter.getReadCount() - readCount - 1) * meter.getReadCost();
+        world.dispose();
+
+        // THEN each subsystem allocates less than its budget per step
+        Map<String, Long> bytesPerStep = new HashMap<>();
+        long otherBytes = totalBytes;
+        for (AllocationCounter counter : counters.getAllocationCounters()) {
+            bytesPerStep.put(counter.name, counter.getBytes() / stepCount);
+            otherBytes -= counter.getBytes();
+        }
+        bytesPerStep.put(OTHER, otherBytes / stepCount);
+
+        String report = createReport(bytesPerStep);
+        for (Map.Entry<String, Long> entry : bytesPerStep.entrySet()) {
+            Long budget = sBudgets.get(entry.getKey());
+            assertTrue("No budget for " + entry.getKey() + "\n" + report, budget != null);
+            assertTrue(
+                    entry.getKey() + " is over budget\n" + report, entry.getValue() <= budget);
+        }
+    }
+
+    private static void runSteps(GameWorldImpl world, int stepCount) {
+        float timeStep = world.getTimeStep();
+        for (int idx = 0; idx < stepCount; ++idx) {
+            world.act(timeStep);
+        }
+    }
+
+    private static String createReport(Map<String, Long> bytesPerStep) {
+        StringBuilder builder = new StringBuilder("Bytes allocated per step:");
+        for (Map.Entry<String, Long> entry : bytesPerStep.entrySet()) {
+            builder.append(
+                    String.format(
+                            Locale.US,
+                            "\n  %s: %d (budget: %d)",
+                            entry.getKey(),
+                            entry.getValue(),
+                            sBudgets.get(entry.getKey())));
+        }
+        return builder.toString();
+    }
+}
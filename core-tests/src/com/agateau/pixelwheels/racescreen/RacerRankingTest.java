@@ -0,0 +1,101 @@
+/*
+ * Copyright 2026 Aurélien Gâteau <mail@agateau.com>
+ *
+ * This file is part of Pixel Wheels.
+ *
+ * Pixel Wheels is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.agateau.pixelwheels.racescreen;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.agateau.pixelwheels.racer.LapPositionComponent;
+import com.agateau.pixelwheels.racer.Racer;
+import com.badlogic.gdx.utils.Array;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class RacerRankingTest {
+    @Test
+    public void testUpdate() {
+        // GIVEN 3 racers, added in a different order than their race distances
+        Racer racer1 = createRacer(1f);
+        Racer racer2 = createRacer(3f);
+        Racer racer3 = createRacer(2f);
+        RacerRanking ranking = new RacerRanking();
+        ranking.addRacer(racer1);
+        ranking.addRacer(racer2);
+        ranking.addRacer(racer3);
+
+        // WHEN the ranking is updated
+        ranking.update();
+
+        // THEN racers are sorted by race distance
+        assertThat(ranking.getRank(racer2), is(1));
+        assertThat(ranking.getRank(racer3), is(2));
+        assertThat(ranking.getRank(racer1), is(3));
+        assertThat(ranking.getNormalizedRank(racer2), is(0f));
+        assertThat(ranking.getNormalizedRank(racer1), is(1f));
+    }
+
+    @Test
+    public void testListener() {
+        // GIVEN an up-to-date ranking of 3 racers and a listener
+        Racer racer1 = createRacer(3f);
+        Racer racer2 = createRacer(2f);
+        Racer racer3 = createRacer(1f);
+        RacerRanking ranking = new RacerRanking();
+        ranking.addRacer(racer1);
+        ranking.addRacer(racer2);
+        ranking.addRacer(racer3);
+        ranking.update();
+
+        Array<String> events = new Array<>();
+        ranking.addListener(
+                (racer, oldRank, newRank) -> {
+                    String name = racer == racer1 ? "1" : racer == racer2 ? "2" : "3";
+                    events.add(name + ":" + oldRank + "->" + newRank);
+                });
+
+        // WHEN nothing changes
+        ranking.update();
+
+        // THEN no events are sent
+        assertThat(events.size, is(0));
+
+        // WHEN racer3 overtakes racer2
+        setLapDistance(racer3, 2.5f);
+        ranking.update();
+
+        // THEN events are sent for racer2 and racer3 only
+        assertThat(events, is(Array.with("3:3->2", "2:2->3")));
+    }
+
+    private static Racer createRacer(float lapDistance) {
+        LapPositionComponent component = mock(LapPositionComponent.class);
+        Racer racer = mock(Racer.class);
+        when(racer.getLapPositionComponent()).thenReturn(component);
+        setLapDistance(racer, lapDistance);
+        return racer;
+    }
+
+    private static void setLapDistance(Racer racer, float lapDistance) {
+        when(racer.getLapPositionComponent().getLapDistance()).thenReturn(lapDistance);
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2026 Aurélien Gâteau <mail@agateau.com>
+ *
+ * This file is part of Pixel Wheels.
+ *
+ * Pixel Wheels is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.agateau.pixelwheels.racescreen;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+import com.agateau.libgdx.RecordingBatch;
+import com.agateau.pixelwheels.Assets;
+import com.agateau.pixelwheels.TestAssets;
+import com.agateau.pixelwheels.gameobject.CellFrameBufferManager;
+import com.agateau.pixelwheels.gamesetup.Difficulty;
+import com.agateau.pixelwheels.map.Track;
+import com.agateau.pixelwheels.racer.Racer;
+import com.agateau.pixelwheels.simulation.RaceSimulator;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.mock.graphics.MockGraphics;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.PerformanceCounters;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class SharedRenderPassTest {
+    private static final String TRACK_ID = "race";
+    private static final long SEED = 1234;
+    private static final int SCREEN_WIDTH = 800;
+    private static final int SCREEN_HEIGHT = 480;
+
+    // More vehicle cells than fit in the initial CellFrameBufferManager frame buffer
+    private static final int RACER_COUNT = 32;
+
+    @Test
+    public void testCellsOfManyRacers() {
+        // GIVEN a race with many racers
+        Assets assets = TestAssets.get();
+        Track track = assets.findTrackById(TRACK_ID);
+        track.init();
+        RaceSimulator simulator = new RaceSimulator(assets, Difficulty.MEDIUM);
+        GameWorldImpl world =
+                simulator.createWorld(
+                        track, RaceSimulator.createEntrants(assets, RACER_COUNT, SEED), SEED);
+
+        // AND one view per racer, so that all racers are visible at the same time
+        PerformanceCounters counters = new PerformanceCounters();
+        RecordingBatch batch = new RecordingBatch();
+        SharedRenderPass renderPass = new SharedRenderPass(world, assets, batch, counters);
+        Array<GameRenderer> renderers = new Array<>();
+        for (Racer racer : world.getRacers()) {
+            GameRenderer renderer =
+                    new GameRenderer(world, racer, batch, renderPass, false, counters);
+            renderer.setScreenRect(0, 0, SCREEN_WIDTH, SCREEN_HEIGHT);
+            renderer.onAboutToStart();
+            renderers.add(renderer);
+        }
+        CellFrameBufferManager manager = renderPass.getCellFrameBufferManager();
+
+        // WHEN a frame is rendered
+        renderFrame(renderPass, renderers);
+
+        // THEN all the racers got a cell
+        assertThat(manager.getReservedCellCount(), is(RACER_COUNT));
+
+        // WHEN only the view of the first racer remains, for a while
+        renderers.truncate(1);
+        for (int idx = 0; idx < 100; ++idx) {
+            renderFrame(renderPass, renderers);
+        }
+
+        // THEN the cells of the racers which are not visible anymore have been released
+        assertThat(manager.getReservedCellCount() < RACER_COUNT, is(true));
+
+        renderPass.dispose();
+        world.dispose();
+    }
+
+    private static void renderFrame(SharedRenderPass renderPass, Array<GameRenderer> renderers) {
+        ((MockGraphics) Gdx.graphics).incrementFrameId();
+        renderPass.render(renderers, 1 / 60f);
+    }
+}
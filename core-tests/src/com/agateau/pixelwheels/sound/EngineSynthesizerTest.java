@@ -0,0 +1,207 @@
+/*
+ * Copyright 2026 Aurélien Gâteau <mail@agateau.com>
+ *
+ * This file is part of Pixel Wheels.
+ *
+ * Pixel Wheels is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.agateau.pixelwheels.sound;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class EngineSynthesizerTest {
+    private static final int SAMPLE_RATE = 1000;
+    private static final int BUFFER_SIZE = 100;
+
+    @Test
+    public void testSilentByDefault() {
+        // GIVEN a synthesizer without any engine
+        EngineSynthesizer synthesizer = createSynthesizer(0.1f, 0.5f);
+
+        // WHEN samples are mixed
+        float[] buffer = new float[BUFFER_SIZE];
+        synthesizer.mix(buffer, 0, BUFFER_SIZE);
+
+        // THEN they are silent
+        assertThat(synthesizer.isSilent(), is(true));
+        for (float sample : buffer) {
+            assertThat(sample, is(0f));
+        }
+    }
+
+    @Test
+    public void testParametersArePublished() {
+        // GIVEN a synthesizer with an engine at minimum speed
+        EngineSynthesizer synthesizer = createSynthesizer(0.1f, 0.5f);
+        int engine = synthesizer.acquireEngine();
+        synthesizer.setEngine(engine, 0, 1);
+
+        // WHEN samples are mixed before and after publishing the parameters
+        float[] buffer = new float[BUFFER_SIZE];
+        synthesizer.mix(buffer, 0, BUFFER_SIZE);
+        boolean silentBeforePublish = synthesizer.isSilent();
+        synthesizer.publish();
+        synthesizer.mix(buffer, 0, BUFFER_SIZE);
+        synthesizer.mix(buffer, 0, BUFFER_SIZE);
+
+        // THEN the engine is only heard after publishing, and only the first loop is heard
+        assertThat(silentBeforePublish, is(true));
+        assertThat(synthesizer.isSilent(), is(false));
+        for (float sample : buffer) {
+            assertThat(sample, is(0.1f));
+        }
+    }
+
+    @Test
+    public void testVolumeRamp() {
+        // GIVEN a published engine
+        EngineSynthesizer synthesizer = createSynthesizer(0.5f, 0.5f);
+        int engine = synthesizer.acquireEngine();
+        synthesizer.setEngine(engine, 0, 1);
+        synthesizer.publish();
+
+        // WHEN the first samples are mixed
+        float[] buffer = new float[BUFFER_SIZE];
+        synthesizer.mix(buffer, 0, BUFFER_SIZE);
+
+        // THEN the volume increases progressively
+        assertThat(buffer[0], is(0f));
+        for (int idx = 1; idx < BUFFER_SIZE; ++idx) {
+            assertThat(buffer[idx] > buffer[idx - 1], is(true));
+        }
+    }
+
+    @Test
+    public void testReleasedEngineBecomesSilent() {
+        // GIVEN a playing engine
+        EngineSynthesizer synthesizer = createSynthesizer(0.1f, 0.5f);
+        int engine = synthesizer.acquireEngine();
+        synthesizer.setEngine(engine, 0.5f, 1);
+        synthesizer.publish();
+        float[] buffer = new float[BUFFER_SIZE];
+        synthesizer.mix(buffer, 0, BUFFER_SIZE);
+
+        // WHEN it is released
+        synthesizer.releaseEngine(engine);
+        synthesizer.mix(buffer, 0, BUFFER_SIZE);
+        synthesizer.mix(buffer, 0, BUFFER_SIZE);
+
+        // THEN the output becomes silent and the engine can be acquired again
+        assertThat(synthesizer.isSilent(), is(true));
+        assertThat(buffer[BUFFER_SIZE - 1], is(0f));
+        assertThat(synthesizer.getUsedEngineCount(), is(0));
+        assertThat(synthesizer.acquireEngine(), is(engine));
+    }
+
+    @Test
+    public void testEnginesAreMixedAndClamped() {
+        // GIVEN two loud engines
+        EngineSynthesizer synthesizer = createSynthesizer(0.9f, 0.9f);
+        for (int idx = 0; idx < 2; ++idx) {
+            synthesizer.setEngine(synthesizer.acquireEngine(), 0, 1);
+        }
+        synthesizer.publish();
+
+        // WHEN samples are mixed
+        float[] buffer = new float[BUFFER_SIZE];
+        synthesizer.mix(buffer, 0, BUFFER_SIZE);
+        synthesizer.mix(buffer, 0, BUFFER_SIZE);
+
+        // THEN their sum is clamped
+        assertThat(buffer[0], is(1f));
+    }
+
+    @Test
+    public void testDecodeWav() {
+        // GIVEN a 16-bit stereo WAV file with an extra chunk before the data
+        short[] frames = {16384, 0, -32768, -32768};
+        byte[] data = createWav(frames, /* channels */ 2);
+
+        // WHEN it is decoded
+        PcmSound sound = PcmSound.decodeWav(data);
+
+        // THEN channels are mixed down to mono
+        assertThat(sound.sampleRate, is(SAMPLE_RATE));
+        assertThat(sound.samples.length, is(2));
+        assertThat(sound.samples[0], is(0.25f));
+        assertThat(sound.samples[1], is(-1f));
+    }
+
+    /** Creates a synthesizer with two constant loops */
+    private static EngineSynthesizer createSynthesizer(float value0, float value1) {
+        PcmSound[] loops = {createConstantSound(value0), createConstantSound(value1)};
+        return new EngineSynthesizer(loops, SAMPLE_RATE, /* maxEngines */ 4);
+    }
+
+    private static PcmSound createConstantSound(float value) {
+        float[] samples = new float[SAMPLE_RATE];
+        for (int idx = 0; idx < samples.length; ++idx) {
+            samples[idx] = value;
+        }
+        return new PcmSound(samples, SAMPLE_RATE);
+    }
+
+    private static byte[] createWav(short[] samples, int channels) {
+        int dataSize = samples.length * 2;
+        byte[] data = new byte[12 + 24 + 10 + 8 + dataSize];
+        int pos = putTag(data, 0, "RIFF");
+        pos = putInt(data, pos, data.length - 8);
+        pos = putTag(data, pos, "WAVE");
+
+        pos = putTag(data, pos, "fmt ");
+        pos = putInt(data, pos, 16);
+        pos = putShort(data, pos, 1);
+        pos = putShort(data, pos, channels);
+        pos = putInt(data, pos, SAMPLE_RATE);
+        pos = putInt(data, pos, SAMPLE_RATE * channels * 2);
+        pos = putShort(data, pos, channels * 2);
+        pos = putShort(data, pos, 16);
+
+        // An odd-sized chunk, which must be skipped along with its padding byte
+        pos = putTag(data, pos, "LIST");
+        pos = putInt(data, pos, 1);
+        pos += 2;
+
+        pos = putTag(data, pos, "data");
+        pos = putInt(data, pos, dataSize);
+        for (short sample : samples) {
+            pos = putShort(data, pos, sample);
+        }
+        return data;
+    }
+
+    private static int putTag(byte[] data, int pos, String tag) {
+        for (int idx = 0; idx < 4; ++idx) {
+            data[pos + idx] = (byte) tag.charAt(idx);
+        }
+        return pos + 4;
+    }
+
+    private static int putShort(byte[] data, int pos, int value) {
+        data[pos] = (byte) value;
+        data[pos + 1] = (byte) (value >> 8);
+        return pos + 2;
+    }
+
+    private static int putInt(byte[] data, int pos, int value) {
+        putShort(data, pos, value);
+        return putShort(data, pos + 2, value >> 16);
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2026 Aurélien Gâteau <mail@agateau.com>
+ *
+ * This file is part of Pixel Wheels.
+ *
+ * Pixel Wheels is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.agateau.pixelwheels.sound;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.anyFloat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.badlogic.gdx.audio.Sound;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.mockito.ArgumentCaptor;
+
+@RunWith(JUnit4.class)
+public class SoundThreadManagerTest {
+    private static final int PLAYER_COUNT = 300;
+    private static final int FRAME_COUNT = 60;
+    private static final long INTERNAL_ID = 12;
+
+    @Test
+    public void testManyPlayers() {
+        // GIVEN hundreds of looping sounds
+        SoundThreadManager manager = new SoundThreadManager(/* shutdownOnAppDispose */ false);
+        Sound[] sounds = new Sound[PLAYER_COUNT];
+        long[] playIds = new long[PLAYER_COUNT];
+        for (int idx = 0; idx < PLAYER_COUNT; ++idx) {
+            sounds[idx] = mock(Sound.class);
+            when(sounds[idx].loop(anyFloat(), anyFloat(), anyFloat())).thenReturn(INTERNAL_ID);
+            playIds[idx] = manager.loop(sounds[idx], 0.5f, 1);
+        }
+
+        // WHEN their volume and pitch are changed every frame, then they are stopped
+        for (int frame = 1; frame <= FRAME_COUNT; ++frame) {
+            for (int idx = 0; idx < PLAYER_COUNT; ++idx) {
+                manager.setVolume(playIds[idx], getVolume(frame, idx));
+                manager.setPitch(playIds[idx], getPitch(frame));
+            }
+        }
+        for (long playId : playIds) {
+            manager.stop(playId);
+        }
+        manager.shutdownThread();
+
+        // THEN no message has been dropped
+        assertThat(manager.getDroppedMessageCount(), is(0L));
+        assertThat(manager.getQueueDepth(), is(0));
+
+        // AND each sound has been started and stopped once, with its last volume and pitch. The
+        // sound thread may start a sound with values changed after loop() was called, and skips
+        // setVolume() and setPitch() calls which would not change anything, so the last values
+        // can come from either loop() or setVolume() and setPitch()
+        for (int idx = 0; idx < PLAYER_COUNT; ++idx) {
+            Sound sound = sounds[idx];
+            ArgumentCaptor<Float> loopVolumeCaptor = ArgumentCaptor.forClass(Float.class);
+            ArgumentCaptor<Float> loopPitchCaptor = ArgumentCaptor.forClass(Float.class);
+            verify(sound, times(1))
+                    .loop(loopVolumeCaptor.capture(), loopPitchCaptor.capture(), eq(0f));
+            verify(sound, times(1)).stop(INTERNAL_ID);
+
+            ArgumentCaptor<Float> volumeCaptor = ArgumentCaptor.forClass(Float.class);
+            verify(sound, atLeast(0)).setVolume(eq(INTERNAL_ID), volumeCaptor.capture());
+            assertThat(
+                    getLastValue(loopVolumeCaptor, volumeCaptor), is(getVolume(FRAME_COUNT, idx)));
+
+            ArgumentCaptor<Float> pitchCaptor = ArgumentCaptor.forClass(Float.class);
+            verify(sound, atLeast(0)).setPitch(eq(INTERNAL_ID), pitchCaptor.capture());
+            assertThat(getLastValue(loopPitchCaptor, pitchCaptor), is(getPitch(FRAME_COUNT)));
+        }
+    }
+
+    @Test
+    public void testStopIsNeverDropped() throws InterruptedException {
+        // GIVEN a sound thread blocked while starting a looping sound
+        final CountDownLatch latch = new CountDownLatch(1);
+        Sound sound = mock(Sound.class);
+        when(sound.loop(anyFloat(), anyFloat(), anyFloat()))
+                .thenAnswer(
+                        invocation -> {
+                            latch.await();
+                            return INTERNAL_ID;
+                        });
+        SoundThreadManager manager = new SoundThreadManager(/* shutdownOnAppDispose */ false);
+        long playId = manager.loop(sound, 1, 1);
+
+        // AND a full queue
+        Sound otherSound = mock(Sound.class);
+        for (int idx = 0; idx < 2000; ++idx) {
+            manager.playAndForget(otherSound, 1);
+        }
+        assertThat(manager.getDroppedMessageCount() > 0, is(true));
+
+        // WHEN the looping sound is stopped, and the sound thread gets unblocked once the STOP
+        // message waits for room in the queue
+        Thread unblocker =
+                new Thread(
+                        () -> {
+                            while (manager.getBlockedMessageCount() == 0) {
+                                Thread.yield();
+                            }
+                            latch.countDown();
+                        });
+        unblocker.start();
+        manager.stop(playId);
+        manager.shutdownThread();
+        unblocker.join();
+
+        // THEN the sound has been stopped
+        verify(sound, times(1)).stop(INTERNAL_ID);
+    }
+
+    private static float getLastValue(
+            ArgumentCaptor<Float> loopCaptor, ArgumentCaptor<Float> updateCaptor) {
+        List<Float> updates = updateCaptor.getAllValues();
+        return updates.isEmpty() ? loopCaptor.getValue() : updates.get(updates.size() - 1);
+    }
+
+    private static float getVolume(int frame, int idx) {
+        return ((frame + idx) % 10) / 10f;
+    }
+
+    private static float getPitch(int frame) {
+        return 0.5f + frame / 100f;
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2026 Aurélien Gâteau <mail@agateau.com>
+ *
+ * This file is part of Pixel Wheels.
+ *
+ * Pixel Wheels is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.agateau.pixelwheels.sound;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyFloat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.badlogic.gdx.audio.Sound;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class VoiceManagerTest {
+    private final SoundThreadManager mSoundThreadManager = createSoundThreadManager();
+
+    @Test
+    public void testLoopsAboveBudgetAreVirtual() {
+        // GIVEN a voice manager with 2 voices
+        VoiceManager manager = new VoiceManager(2);
+
+        // WHEN 3 loops are started
+        DefaultSoundPlayer loud = createLoop(manager, SoundCategory.EFFECT, 1);
+        DefaultSoundPlayer medium = createLoop(manager, SoundCategory.EFFECT, 0.5f);
+        DefaultSoundPlayer quiet = createLoop(manager, SoundCategory.EFFECT, 0.2f);
+        manager.update();
+
+        // THEN only the 2 loudest ones have a voice, but all of them are looping
+        assertThat(loud.hasVoice(), is(true));
+        assertThat(medium.hasVoice(), is(true));
+        assertThat(quiet.hasVoice(), is(false));
+        assertThat(quiet.isLooping(), is(true));
+        assertThat(manager.getVirtualLoopCount(), is(1));
+    }
+
+    @Test
+    public void testVirtualLoopResumesWhenLouder() {
+        // GIVEN 2 voices used by 2 loops, and a virtual loop
+        VoiceManager manager = new VoiceManager(2);
+        DefaultSoundPlayer loud = createLoop(manager, SoundCategory.EFFECT, 1);
+        DefaultSoundPlayer medium = createLoop(manager, SoundCategory.EFFECT, 0.5f);
+        DefaultSoundPlayer quiet = createLoop(manager, SoundCategory.EFFECT, 0.2f);
+        manager.update();
+
+        // WHEN the virtual loop becomes the loudest one
+        quiet.setVolume(0.8f);
+        manager.update();
+
+        // THEN it gets the voice of the quietest loop
+        assertThat(quiet.hasVoice(), is(true));
+        assertThat(loud.hasVoice(), is(true));
+        assertThat(medium.hasVoice(), is(false));
+        assertThat(manager.getVoiceCount(), is(2));
+    }
+
+    @Test
+    public void testInaudibleLoopsAreVirtual() {
+        // GIVEN a voice manager with enough voices
+        VoiceManager manager = new VoiceManager(4);
+
+        // WHEN an inaudible loop is started
+        DefaultSoundPlayer player = createLoop(manager, SoundCategory.EFFECT, 0);
+        manager.update();
+
+        // THEN it does not get a voice, and changing its pitch does not send any message
+        player.setPitch(2);
+        assertThat(player.hasVoice(), is(false));
+        verify(mSoundThreadManager, never()).loop(any(), anyFloat(), anyFloat());
+        verify(mSoundThreadManager, never()).setPitch(anyLong(), anyFloat());
+    }
+
+    @Test
+    public void testCategoryPriority() {
+        // GIVEN a voice manager with 1 voice
+        VoiceManager manager = new VoiceManager(1);
+
+        // WHEN a loud drifting loop and a quieter engine loop are started
+        DefaultSoundPlayer drifting = createLoop(manager, SoundCategory.DRIFTING, 0.8f);
+        DefaultSoundPlayer engine = createLoop(manager, SoundCategory.ENGINE, 0.3f);
+        manager.update();
+
+        // THEN the engine gets the voice
+        assertThat(engine.hasVoice(), is(true));
+        assertThat(drifting.hasVoice(), is(false));
+    }
+
+    private DefaultSoundPlayer createLoop(
+            VoiceManager manager, SoundCategory category, float volume) {
+        DefaultSoundPlayer player =
+                new DefaultSoundPlayer(mSoundThreadManager, manager, mock(Sound.class), category);
+        player.setVolume(volume);
+        player.loop();
+        return player;
+    }
+
+    private static SoundThreadManager createSoundThreadManager() {
+        SoundThreadManager manager = mock(SoundThreadManager.class);
+        when(manager.loop(any(), anyFloat(), anyFloat())).thenReturn(1L);
+        return manager;
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2026 Aurélien Gâteau <mail@agateau.com>
+ *
+ * This file is part of Pixel Wheels.
+ *
+ * Pixel Wheels is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.agateau.pixelwheels.stats;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+import com.agateau.pixelwheels.gamesetup.Difficulty;
+import com.agateau.pixelwheels.map.Championship;
+import com.agateau.pixelwheels.map.Track;
+import com.badlogic.gdx.files.FileHandle;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class JournalGameStatsImplIOTests {
+    private static final long LARGE_THRESHOLD = 1024 * 1024;
+
+    @Rule public TemporaryFolder mTemporaryFolder = new TemporaryFolder();
+
+    private FileHandle mSnapshotFile;
+    private FileHandle mJournalFile;
+    private Championship mChampionship;
+    private Track mTrack;
+
+    @Before
+    public void setUp() {
+        mSnapshotFile = new FileHandle(mTemporaryFolder.getRoot() + "/stats.json");
+        mJournalFile = new FileHandle(mTemporaryFolder.getRoot() + "/stats.journal");
+        mChampionship = new Championship("ch1", "champ1");
+        mChampionship.addTrack("t", "track");
+        mTrack = mChampionship.getTracks().first();
+    }
+
+    @Test
+    public void testChangesAreJournaled() {
+        // GIVEN a journal IO without any file
+        GameStatsImpl gameStats = new GameStatsImpl(createIO(LARGE_THRESHOLD));
+
+        // WHEN changes are made
+        recordChanges(gameStats);
+
+        // THEN they are only written to the journal
+        assertThat(mSnapshotFile.exists(), is(false));
+        assertThat(mJournalFile.exists(), is(true));
+
+        // AND they are restored when loading
+        checkChanges(new GameStatsImpl(createIO(LARGE_THRESHOLD)));
+    }
+
+    @Test
+    public void testCompaction() {
+        // GIVEN a journal IO with a small compaction threshold
+        JournalGameStatsImplIO io = createIO(100);
+        GameStatsImpl gameStats = new GameStatsImpl(io);
+
+        // WHEN more changes than the threshold are made
+        recordChanges(gameStats);
+
+        // THEN a snapshot has been written and the journal has been reset
+        assertThat(mSnapshotFile.exists(), is(true));
+        assertThat(io.getJournalLength() <= 100, is(true));
+
+        // AND all changes are restored when loading
+        checkChanges(new GameStatsImpl(createIO(100)));
+    }
+
+    @Test
+    public void testReplayingOverCompactedSnapshot() {
+        // GIVEN a journal whose changes are also in the snapshot, as it would be if we crashed
+        // right after writing the snapshot
+        GameStatsImpl gameStats = new GameStatsImpl(createIO(LARGE_THRESHOLD));
+        recordChanges(gameStats);
+        new JsonGameStatsImplIO(mSnapshotFile).save(gameStats);
+
+        // WHEN loading
+        GameStatsImpl gameStats2 = new GameStatsImpl(createIO(LARGE_THRESHOLD));
+
+        // THEN the changes are not applied twice
+        checkChanges(gameStats2);
+    }
+
+    @Test
+    public void testMigrationFromJson() {
+        // GIVEN stats saved by JsonGameStatsImplIO
+        GameStatsImpl gameStats = new GameStatsImpl(new JsonGameStatsImplIO(mSnapshotFile));
+        recordChanges(gameStats);
+
+        // WHEN loading them with a journal IO
+        GameStatsImpl gameStats2 = new GameStatsImpl(createIO(LARGE_THRESHOLD));
+
+        // THEN all stats are there
+        checkChanges(gameStats2);
+    }
+
+    @Test
+    public void testIncompleteLastLineIsIgnored() {
+        // GIVEN a journal whose last line has not been completely written
+        GameStatsImpl gameStats = new GameStatsImpl(createIO(LARGE_THRESHOLD));
+        gameStats.recordEvent(GameStats.Event.MISSILE_HIT);
+        mJournalFile.writeString("event\tMISSILE_HIT\t1", /* append */ true);
+
+        // WHEN loading
+        GameStatsImpl gameStats2 = new GameStatsImpl(createIO(LARGE_THRESHOLD));
+
+        // THEN the incomplete line is ignored
+        assertThat(gameStats2.getEventCount(GameStats.Event.MISSILE_HIT), is(1));
+    }
+
+    @Test
+    public void testAppendAfterIncompleteLastLine() {
+        // GIVEN a journal whose last line has not been completely written
+        GameStatsImpl gameStats = new GameStatsImpl(createIO(LARGE_THRESHOLD));
+        gameStats.recordEvent(GameStats.Event.MISSILE_HIT);
+        mJournalFile.writeString("event\tMISSILE_HIT\t1", /* append */ true);
+
+        // WHEN loading it and making a change
+        GameStatsImpl gameStats2 = new GameStatsImpl(createIO(LARGE_THRESHOLD));
+        gameStats2.recordEvent(GameStats.Event.MISSILE_HIT);
+
+        // THEN the change is restored when loading again
+        GameStatsImpl gameStats3 = new GameStatsImpl(createIO(LARGE_THRESHOLD));
+        assertThat(gameStats3.getEventCount(GameStats.Event.MISSILE_HIT), is(2));
+
+        // AND the journal does not contain the incomplete line anymore
+        assertThat(mJournalFile.readString(), is("event\tMISSILE_HIT\t2\n"));
+    }
+
+    private JournalGameStatsImplIO createIO(long compactionThreshold) {
+        return new JournalGameStatsImplIO(mSnapshotFile, mJournalFile, compactionThreshold);
+    }
+
+    private void recordChanges(GameStatsImpl gameStats) {
+        for (int idx = 0; idx < 10; ++idx) {
+            gameStats.recordEvent(GameStats.Event.PICKED_BONUS);
+        }
+        gameStats.recordIntEvent(GameStats.Event.LEAVING_ROAD, 3);
+        gameStats.onChampionshipFinished(Difficulty.MEDIUM, mChampionship, 2);
+        TrackStats trackStats = gameStats.getTrackStats(Difficulty.EASY, mTrack);
+        trackStats.addResult(TrackStats.ResultType.LAP, "red", 12.5f);
+        trackStats.addResult(TrackStats.ResultType.LAP, "blue", 10.25f);
+        trackStats.addResult(TrackStats.ResultType.TOTAL, "red", 42.125f);
+    }
+
+    private void checkChanges(GameStatsImpl gameStats) {
+        assertThat(gameStats.getEventCount(GameStats.Event.PICKED_BONUS), is(10));
+        assertThat(gameStats.getEventCount(GameStats.Event.LEAVING_ROAD), is(3));
+        assertThat(gameStats.getBestChampionshipRank(Difficulty.MEDIUM, mChampionship), is(2));
+        TrackStats trackStats = gameStats.getTrackStats(Difficulty.EASY, mTrack);
+        assertThat(trackStats.get(TrackStats.ResultType.LAP).size(), is(2));
+        assertThat(trackStats.get(TrackStats.ResultType.LAP).get(0).vehicle, is("blue"));
+        assertThat(trackStats.get(TrackStats.ResultType.LAP).get(0).value, is(10.25f));
+        assertThat(trackStats.get(TrackStats.ResultType.LAP).get(1).vehicle, is("red"));
+        assertThat(trackStats.get(TrackStats.ResultType.TOTAL).size(), is(1));
+        assertThat(trackStats.get(TrackStats.ResultType.TOTAL).get(0).value, is(42.125f));
+    }
+}
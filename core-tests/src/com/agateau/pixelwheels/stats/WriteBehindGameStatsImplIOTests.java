@@ -0,0 +1,102 @@
+/*
+ * Copyright 2026 Aurélien Gâteau <mail@agateau.com>
+ *
+ * This file is part of Pixel Wheels.
+ *
+ * Pixel Wheels is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.agateau.pixelwheels.stats;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+import com.badlogic.gdx.files.FileHandle;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class WriteBehindGameStatsImplIOTests {
+    private static final long LONG_DEBOUNCE = 3600 * 1000;
+
+    @Rule public TemporaryFolder mTemporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testSaveIsDelayedUntilFlush() {
+        // GIVEN a write-behind IO with a long debounce delay
+        FileHandle file = new FileHandle(mTemporaryFolder.getRoot() + "/stats.json");
+        WriteBehindGameStatsImplIO io = createIO(file, LONG_DEBOUNCE);
+        GameStatsImpl gameStats = new GameStatsImpl(io);
+
+        // WHEN events are recorded
+        gameStats.recordEvent(GameStats.Event.PICKED_BONUS);
+        gameStats.recordEvent(GameStats.Event.PICKED_BONUS);
+        io.update();
+        io.waitForWrites();
+
+        // THEN nothing is written
+        assertThat(file.exists(), is(false));
+
+        // WHEN stats are flushed
+        gameStats.flush();
+        io.waitForWrites();
+
+        // THEN the file contains the events, and no temporary file is left
+        assertThat(file.exists(), is(true));
+        assertThat(file.sibling("stats.json.tmp").exists(), is(false));
+        GameStatsImpl gameStats2 = new GameStatsImpl(io);
+        assertThat(gameStats2.getEventCount(GameStats.Event.PICKED_BONUS), is(2));
+    }
+
+    @Test
+    public void testUpdateFlushesAfterDebounceDelay() {
+        // GIVEN a write-behind IO without any debounce delay
+        FileHandle file = new FileHandle(mTemporaryFolder.getRoot() + "/stats.json");
+        WriteBehindGameStatsImplIO io = createIO(file, 0);
+        GameStatsImpl gameStats = new GameStatsImpl(io);
+
+        // WHEN an event is recorded and update() is called
+        gameStats.recordEvent(GameStats.Event.MISSILE_HIT);
+        io.update();
+        io.waitForWrites();
+
+        // THEN the event is written
+        GameStatsImpl gameStats2 = new GameStatsImpl(io);
+        assertThat(gameStats2.getEventCount(GameStats.Event.MISSILE_HIT), is(1));
+    }
+
+    @Test
+    public void testCloseWritesPendingChanges() {
+        // GIVEN an existing stats file
+        FileHandle file = new FileHandle(mTemporaryFolder.getRoot() + "/stats.json");
+        WriteBehindGameStatsImplIO io = createIO(file, LONG_DEBOUNCE);
+        GameStatsImpl gameStats = new GameStatsImpl(io);
+        gameStats.recordEvent(GameStats.Event.LEAVING_ROAD);
+        gameStats.flush();
+
+        // WHEN another event is recorded and the IO is closed
+        gameStats.recordEvent(GameStats.Event.LEAVING_ROAD);
+        io.close();
+
+        // THEN the file has been replaced with the latest stats
+        GameStatsImpl gameStats2 = new GameStatsImpl(new JsonGameStatsImplIO(file));
+        assertThat(gameStats2.getEventCount(GameStats.Event.LEAVING_ROAD), is(2));
+    }
+
+    private static WriteBehindGameStatsImplIO createIO(FileHandle file, long debounceMillis) {
+        return new WriteBehindGameStatsImplIO(new JsonGameStatsImplIO(file), debounceMillis);
+    }
+}
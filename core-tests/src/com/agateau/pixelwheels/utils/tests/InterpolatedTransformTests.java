@@ -0,0 +1,83 @@
+/*
+ * Copyright 2026 Aurélien Gâteau <mail@agateau.com>
+ *
+ * This file is part of Pixel Wheels.
+ *
+ * Pixel Wheels is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.agateau.pixelwheels.utils.tests;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+import com.agateau.pixelwheels.utils.InterpolatedTransform;
+import com.badlogic.gdx.math.MathUtils;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class InterpolatedTransformTests {
+    @Test
+    public void testInterpolation() {
+        // GIVEN a transform saved at two steps
+        InterpolatedTransform transform = new InterpolatedTransform();
+        transform.reset(0, 10, 0);
+        transform.save(4, 12, 1);
+
+        // WHEN interpolating it
+        // THEN alpha = 0 gives the previous transform, alpha = 1 the current one
+        assertThat(transform.getX(0), is(0f));
+        assertThat(transform.getY(0), is(10f));
+        assertThat(transform.getAngle(0), is(0f));
+        assertThat(transform.getX(1), is(4f));
+        assertThat(transform.getY(1), is(12f));
+        assertThat(transform.getAngle(1), is(1f));
+
+        // AND values in between are linearly interpolated
+        assertThat(transform.getX(0.5f), is(2f));
+        assertThat(transform.getY(0.25f), is(10.5f));
+        assertThat(transform.getAngle(0.5f), is(0.5f));
+    }
+
+    @Test
+    public void testReset() {
+        // GIVEN a transform saved at two steps
+        InterpolatedTransform transform = new InterpolatedTransform();
+        transform.reset(0, 0, 0);
+        transform.save(4, 4, 1);
+
+        // WHEN it is reset to another position
+        transform.reset(100, 200, 2);
+
+        // THEN it does not interpolate from the old position
+        assertThat(transform.getX(0), is(100f));
+        assertThat(transform.getY(0), is(200f));
+        assertThat(transform.getAngle(0), is(2f));
+    }
+
+    @Test
+    public void testAngleWrapping() {
+        // GIVEN a transform whose angle wrapped around from almost PI to almost -PI
+        InterpolatedTransform transform = new InterpolatedTransform();
+        transform.reset(0, 0, MathUtils.PI - 0.1f);
+        transform.save(0, 0, -MathUtils.PI + 0.1f);
+
+        // WHEN interpolating halfway
+        float angle = transform.getAngle(0.5f);
+
+        // THEN the angle goes through PI instead of 0
+        assertThat(Math.abs(Math.abs(angle) - MathUtils.PI) < 0.001f, is(true));
+    }
+}
@@ -75,7 +75,7 @@ public class MissileGuidingSystemTests {
                     public void act() {
                         float velocity = body.getLinearVelocity().len();
                         Assert.assertTrue(velocity <= MissileGuidingSystem.MAX_SPEED);
-                        guidingSystem.act(null);
+                        guidingSystem.act(BOX2D_TIME_STEP, null);
                     }
 
                     @Override
@@ -99,7 +99,7 @@ public class MissileGuidingSystemTests {
                 new WorldCallback() {
                     @Override
                     public void act() {
-                        guidingSystem.act(target);
+                        guidingSystem.act(BOX2D_TIME_STEP, target);
                     }
 
                     @Override
@@ -122,7 +122,7 @@ public class MissileGuidingSystemTests {
                 new WorldCallback() {
                     @Override
                     public void act() {
-                        guidingSystem.act(target);
+                        guidingSystem.act(BOX2D_TIME_STEP, target);
                     }
 
                     @Override
@@ -145,7 +145,7 @@ public class MissileGuidingSystemTests {
                 new WorldCallback() {
                     @Override
                     public void act() {
-                        guidingSystem.act(target);
+                        guidingSystem.act(BOX2D_TIME_STEP, target);
                     }
 
                     @Override
@@ -168,7 +168,7 @@ public class MissileGuidingSystemTests {
                 new WorldCallback() {
                     @Override
                     public void act() {
-                        guidingSystem.act(target);
+                        guidingSystem.act(BOX2D_TIME_STEP, target);
                     }
 
                     @Override
@@ -192,7 +192,7 @@ public class MissileGuidingSystemTests {
                     @Override
                     public void act() {
                         target.y += 4 * UNIT_FOR_PIXEL;
-                        guidingSystem.act(target);
+                        guidingSystem.act(BOX2D_TIME_STEP, target);
                     }
 
                     @Override
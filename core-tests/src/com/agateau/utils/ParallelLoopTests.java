@@ -0,0 +1,99 @@
+/*
+ * Copyright 2026 Aurélien Gâteau <mail@agateau.com>
+ *
+ * This file is part of Pixel Wheels.
+ *
+ * Pixel Wheels is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.agateau.utils;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class ParallelLoopTests {
+    @Test
+    public void testRunsEachIndexOnce() {
+        // GIVEN a loop with 3 workers
+        ParallelLoop loop = new ParallelLoop("test", 3);
+        try {
+            AtomicIntegerArray calls = new AtomicIntegerArray(100);
+
+            // WHEN it is run several times
+            for (int run = 0; run < 50; ++run) {
+                loop.run(calls::incrementAndGet, calls.length());
+            }
+
+            // THEN each index has been run once per run
+            for (int idx = 0; idx < calls.length(); ++idx) {
+                assertThat(calls.get(idx), is(50));
+            }
+        } finally {
+            loop.dispose();
+        }
+    }
+
+    @Test
+    public void testWithoutWorkers() {
+        // GIVEN a loop without workers
+        ParallelLoop loop = new ParallelLoop("test", 0);
+        AtomicIntegerArray calls = new AtomicIntegerArray(10);
+
+        // WHEN it is run
+        loop.run(calls::incrementAndGet, calls.length());
+
+        // THEN all indices have been run on the calling thread
+        for (int idx = 0; idx < calls.length(); ++idx) {
+            assertThat(calls.get(idx), is(1));
+        }
+        loop.dispose();
+    }
+
+    @Test
+    public void testRethrowsFailures() {
+        // GIVEN a loop with 2 workers
+        ParallelLoop loop = new ParallelLoop("test", 2);
+        try {
+            // WHEN one of the iterations fails
+            try {
+                loop.run(
+                        idx -> {
+                            if (idx == 7) {
+                                throw new IllegalArgumentException("failed");
+                            }
+                        },
+                        20);
+                fail("run() should have thrown");
+            } catch (RuntimeException e) {
+                // THEN run() rethrows the failure
+                assertThat(e.getCause() instanceof IllegalArgumentException, is(true));
+            }
+
+            // AND the loop can still be used
+            AtomicIntegerArray calls = new AtomicIntegerArray(10);
+            loop.run(calls::incrementAndGet, calls.length());
+            for (int idx = 0; idx < calls.length(); ++idx) {
+                assertThat(calls.get(idx), is(1));
+            }
+        } finally {
+            loop.dispose();
+        }
+    }
+}
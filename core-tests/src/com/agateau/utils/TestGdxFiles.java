@@ -20,6 +20,7 @@ package com.agateau.utils;
 
 import com.badlogic.gdx.Files;
 import com.badlogic.gdx.files.FileHandle;
+import java.io.File;
 
 /**
  * A test implementation of Gdx.files
@@ -36,7 +37,9 @@ public class TestGdxFiles implements Files {
 
     @Override
     public FileHandle getFileHandle(String path, FileType type) {
-        if (type == FileType.Internal) {
+        // Loaders such as TmxMapLoader resolve the paths of the handles they receive, which are
+        // already absolute
+        if (type == FileType.Internal && !new File(path).isAbsolute()) {
             return new FileHandle(mAssetsDir + "/" + path);
         } else {
             return new FileHandle(path);
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2026 Aurélien Gâteau <mail@agateau.com>
+ *
+ * This file is part of Pixel Wheels.
+ *
+ * Pixel Wheels is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.agateau.utils.tests;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+import com.agateau.utils.FixedTimeStep;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.physics.box2d.BodyDef;
+import com.badlogic.gdx.physics.box2d.CircleShape;
+import com.badlogic.gdx.physics.box2d.World;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class FixedTimeStepTests {
+    private static final float STEP = 1f / 30;
+    private static final float MAX_FRAME_TIME = 0.25f;
+    private static final float DURATION = 2;
+
+    /** The state of a simulation after running it with a sequence of frame durations */
+    private static class Result {
+        int stepCount;
+        final Vector2 position = new Vector2();
+        float angle;
+    }
+
+    @Test
+    public void testResultDoesNotDependOnFrameRate() {
+        // GIVEN frame sequences at 30, 60 and 144 FPS, and an irregular one, all lasting the same
+        // time. Add half a step to each of them so that the total time is not right at a step
+        // boundary, where rounding errors could add or remove a step.
+        float[] frames30 = createFrames(1f / 30, DURATION);
+        float[] frames60 = createFrames(1f / 60, DURATION);
+        float[] frames144 = createFrames(1f / 144, DURATION);
+        float[] irregularFrames = createIrregularFrames(DURATION);
+
+        // WHEN a physics simulation runs with each sequence
+        Result result30 = simulate(frames30);
+        Result result60 = simulate(frames60);
+        Result result144 = simulate(frames144);
+        Result irregularResult = simulate(irregularFrames);
+
+        // THEN they all run the same steps, and end in exactly the same state
+        // DURATION / STEP is slightly below the step count because of rounding errors
+        int expectedStepCount = Math.round(DURATION / STEP);
+        assertThat(result30.stepCount, is(expectedStepCount));
+        for (Result result : new Result[] {result60, result144, irregularResult}) {
+            assertThat(result.stepCount, is(expectedStepCount));
+            assertThat(result.position, is(result30.position));
+            assertThat(result.angle, is(result30.angle));
+        }
+    }
+
+    @Test
+    public void testAlphaWhenStepsAreLongerThanFrames() {
+        // GIVEN a 30 Hz time step
+        FixedTimeStep timeStep = new FixedTimeStep(STEP, MAX_FRAME_TIME);
+
+        // WHEN it receives a 60 FPS frame
+        timeStep.addFrameTime(STEP / 2);
+
+        // THEN no step runs, and alpha is halfway to the next step
+        assertThat(timeStep.consumeStep(), is(false));
+        assertThat(isCloseTo(timeStep.getAlpha(), 0.5f), is(true));
+
+        // WHEN it receives another 60 FPS frame
+        timeStep.addFrameTime(STEP / 2);
+
+        // THEN one step runs, and alpha goes back to 0
+        assertThat(timeStep.consumeStep(), is(true));
+        assertThat(timeStep.consumeStep(), is(false));
+        assertThat(isCloseTo(timeStep.getAlpha(), 0), is(true));
+    }
+
+    @Test
+    public void testLongFramesAreShortened() {
+        // GIVEN a 30 Hz time step
+        FixedTimeStep timeStep = new FixedTimeStep(STEP, MAX_FRAME_TIME);
+
+        // WHEN it receives a very long frame
+        timeStep.addFrameTime(10);
+
+        // THEN it only runs the steps of the max frame time
+        int stepCount = 0;
+        while (timeStep.consumeStep()) {
+            ++stepCount;
+        }
+        assertThat(stepCount, is((int) (MAX_FRAME_TIME / STEP)));
+    }
+
+    private static float[] createFrames(float frameTime, float duration) {
+        int count = Math.round(duration / frameTime);
+        float[] frames = new float[count + 1];
+        for (int idx = 0; idx < count; ++idx) {
+            frames[idx] = frameTime;
+        }
+        frames[count] = STEP / 2;
+        return frames;
+    }
+
+    /** Frames lasting between 5 and 45 ms, like a stuttering device would produce */
+    private static float[] createIrregularFrames(float duration) {
+        float[] pattern = {0.005f, 0.045f, 0.020f, 0.030f};
+        int count = Math.round(duration / 0.025f);
+        float[] frames = new float[count + 1];
+        for (int idx = 0; idx < count; ++idx) {
+            frames[idx] = pattern[idx % pattern.length];
+        }
+        frames[count] = STEP / 2;
+        return frames;
+    }
+
+    private static Result simulate(float[] frames) {
+        World world = new World(new Vector2(0, 0), true);
+        BodyDef bodyDef = new BodyDef();
+        bodyDef.type = BodyDef.BodyType.DynamicBody;
+        Body body = world.createBody(bodyDef);
+        CircleShape shape = new CircleShape();
+        shape.setRadius(1);
+        body.createFixture(shape, 1);
+        shape.dispose();
+
+        Result result = new Result();
+        FixedTimeStep timeStep = new FixedTimeStep(STEP, MAX_FRAME_TIME);
+        for (float frameTime : frames) {
+            timeStep.addFrameTime(frameTime);
+            while (timeStep.consumeStep()) {
+                // Forces depending on the state, like the game does for vehicles
+                Vector2 velocity = body.getLinearVelocity();
+                body.applyForceToCenter(10 - velocity.y, 5 + velocity.x, true);
+                body.applyTorque(1 - body.getAngularVelocity(), true);
+                world.step(timeStep.getStep(), 6, 2);
+                ++result.stepCount;
+            }
+        }
+        result.position.set(body.getPosition());
+        result.angle = body.getAngle();
+        world.dispose();
+        return result;
+    }
+
+    private static boolean isCloseTo(float v1, float v2) {
+        return Math.abs(v1 - v2) < 0.001f;
+    }
+}
@@ -65,6 +65,10 @@ public class GamePlay {
 
     public int viewportWidth = 60;
 
+    // Number of physics steps per second. Rendering interpolates between the last two steps, so
+    // this can be lower than the frame rate.
+    public int physicsStepRate = 60;
+
     public int turboStrength = 100;
     public float turboDuration = 1f;
 
@@ -20,15 +20,20 @@ package com.agateau.pixelwheels;
 
 import com.agateau.pixelwheels.bonus.BonusPool;
 import com.agateau.pixelwheels.gameobject.GameObject;
+import com.agateau.pixelwheels.gameobject.GameObjectStore;
 import com.agateau.pixelwheels.map.Track;
+import com.agateau.pixelwheels.racer.AIPerception;
 import com.agateau.pixelwheels.racer.Racer;
+import com.agateau.pixelwheels.racer.Skidmarks;
 import com.agateau.pixelwheels.racescreen.CountDown;
+import com.agateau.pixelwheels.racescreen.RacerRanking;
 import com.agateau.pixelwheels.stats.GameStats;
 import com.badlogic.gdx.physics.box2d.World;
 import com.badlogic.gdx.utils.Array;
 
 /** Contains all the information and objects running in the world */
 public interface GameWorld {
+    /** Time step used by default, see getTimeStep() */
     float BOX2D_TIME_STEP = 1f / 60f;
     int VELOCITY_ITERATIONS = 6;
     int POSITION_ITERATIONS = 2;
@@ -43,6 +48,10 @@ public interface GameWorld {
 
     World getBox2DWorld();
 
+    AIPerception getAIPerception();
+
+    Skidmarks getSkidmarks();
+
     Racer getPlayerRacer(int playerId);
 
     Array<Racer> getPlayerRacers();
@@ -52,9 +61,10 @@ public interface GameWorld {
     @SuppressWarnings("rawtypes")
     Array<BonusPool> getBonusPools();
 
-    Array<GameObject> getActiveGameObjects();
+    GameObjectStore getGameObjectStore();
 
-    void addGameObject(GameObject object);
+    /** Adds object to the world, returns its handle in the GameObjectStore */
+    int addGameObject(GameObject object);
 
     CountDown getCountDown();
 
@@ -62,10 +72,27 @@ public interface GameWorld {
 
     float getRacerNormalizedRank(Racer racer);
 
+    /** Returns the rank of the player racer ranked last, or 0 if there are no player racers */
+    int getLastPlayerRank();
+
+    /** Listeners are notified once per physics step, for each racer whose rank changed */
+    void addRacerRankListener(RacerRanking.Listener listener);
+
+    void removeRacerRankListener(RacerRanking.Listener listener);
+
     GameStats getGameStats();
 
     void act(float delta);
 
+    /** Duration of a physics step: act() advances the world by multiples of this value */
+    float getTimeStep();
+
+    /**
+     * How far the time not consumed by act() goes towards the next physics step, between 0 and 1.
+     * Renderers use it to interpolate between the previous and current states of the objects.
+     */
+    float getRenderAlpha();
+
     State getState();
 
     void startRace();
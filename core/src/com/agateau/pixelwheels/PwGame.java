@@ -33,6 +33,7 @@ import com.agateau.pixelwheels.sound.SoundSettings;
 import com.agateau.pixelwheels.stats.GameStats;
 import com.agateau.pixelwheels.stats.GameStatsImpl;
 import com.agateau.pixelwheels.stats.JsonGameStatsImplIO;
+import com.agateau.pixelwheels.stats.WriteBehindGameStatsImplIO;
 import com.agateau.ui.MouseCursorManager;
 import com.agateau.ui.ScreenStack;
 import com.agateau.ui.UiInputMapper;
@@ -65,7 +66,7 @@ public class PwGame extends Game implements GameConfig.ChangeListener {
     private GameStatsImpl mGameStats;
     private RewardManager mRewardManager;
 
-    private GameStatsImpl.IO mNormalGameStatsIO;
+    private WriteBehindGameStatsImplIO mNormalGameStatsIO;
     // Used when GamePlay has been modified, to ensure stats are not recorded
     private final GameStatsImpl.IO mNoSaveGameStatsIO =
             new GameStatsImpl.IO() {
@@ -76,6 +77,9 @@ public class PwGame extends Game implements GameConfig.ChangeListener {
 
                 @Override
                 public void save(GameStatsImpl gameStats) {}
+
+                @Override
+                public void flush() {}
             };
 
     private LogExporter mLogExporter;
@@ -175,6 +179,19 @@ public class PwGame extends Game implements GameConfig.ChangeListener {
         }
         MouseCursorManager.getInstance().act();
         super.render();
+        mNormalGameStatsIO.update();
+    }
+
+    @Override
+    public void pause() {
+        super.pause();
+        mNormalGameStatsIO.flush();
+    }
+
+    @Override
+    public void dispose() {
+        super.dispose();
+        mNormalGameStatsIO.close();
     }
 
     public void refreshAssets() {
@@ -201,7 +218,9 @@ public class PwGame extends Game implements GameConfig.ChangeListener {
 
     private void setupTrackStats() {
         mNormalGameStatsIO =
-                new JsonGameStatsImplIO(FileUtils.getUserWritableFile("gamestats.json"));
+                new WriteBehindGameStatsImplIO(
+                        new JsonGameStatsImplIO(FileUtils.getUserWritableFile("gamestats.json")),
+                        WriteBehindGameStatsImplIO.DEFAULT_DEBOUNCE_MILLIS);
         mGameStats = new GameStatsImpl(getCurrentGameStatsIO());
         GameStatsSetup.loadDefaultRecords(mGameStats, mAssets.championships);
     }
@@ -24,5 +24,14 @@ public enum ZLevel {
     ON_GROUND, // vehicles, obstacles, bonus, mine
     FLYING_LOW, // missiles, explosions, impacts
     FG_LAYERS, // fgX layers, helicopter shadow
-    FLYING_HIGH, // helicopter, vehicles being carried by helicopter
+    FLYING_HIGH; // helicopter, vehicles being carried by helicopter
+
+    /** A mask with the bit of this level set, to build the values of GameObject.getZLevelMask() */
+    public final int mask;
+
+    public static final int ALL_MASK = (1 << values().length) - 1;
+
+    ZLevel() {
+        mask = 1 << ordinal();
+    }
 }
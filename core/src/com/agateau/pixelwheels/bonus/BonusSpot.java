@@ -22,6 +22,7 @@ import com.agateau.pixelwheels.Assets;
 import com.agateau.pixelwheels.Constants;
 import com.agateau.pixelwheels.GameWorld;
 import com.agateau.pixelwheels.ZLevel;
+import com.agateau.pixelwheels.gameobject.Audible;
 import com.agateau.pixelwheels.gameobject.AudioClipper;
 import com.agateau.pixelwheels.gameobject.GameObjectAdapter;
 import com.agateau.pixelwheels.sound.AudioManager;
@@ -39,7 +40,7 @@ import com.badlogic.gdx.physics.box2d.Fixture;
 import com.badlogic.gdx.physics.box2d.PolygonShape;
 
 /** The bonus waiting to be hit by a the player */
-public class BonusSpot extends GameObjectAdapter {
+public class BonusSpot extends GameObjectAdapter implements Audible {
     private static final float DISABLED_TIMEOUT = 5;
     private final TextureRegion mRegion;
     private final Sound mSound;
@@ -112,6 +113,16 @@ public class BonusSpot extends GameObjectAdapter {
         }
     }
 
+    @Override
+    public int getZLevelMask() {
+        return ZLevel.GROUND.mask | ZLevel.ON_GROUND.mask;
+    }
+
+    @Override
+    public float getDrawRadius() {
+        return sRegionRadiusU;
+    }
+
     @Override
     public void audioRender(AudioClipper audioClipper) {
         if (mJustPicked) {
@@ -23,6 +23,7 @@ import com.agateau.pixelwheels.Constants;
 import com.agateau.pixelwheels.GameWorld;
 import com.agateau.pixelwheels.ZLevel;
 import com.agateau.pixelwheels.gameobject.AnimationObject;
+import com.agateau.pixelwheels.gameobject.Audible;
 import com.agateau.pixelwheels.gameobject.AudioClipper;
 import com.agateau.pixelwheels.gameobject.Explosable;
 import com.agateau.pixelwheels.gameobject.GameObjectAdapter;
@@ -32,6 +33,7 @@ import com.agateau.pixelwheels.racescreen.CollisionCategories;
 import com.agateau.pixelwheels.sound.AudioManager;
 import com.agateau.pixelwheels.utils.BodyRegionDrawer;
 import com.agateau.pixelwheels.utils.Box2DUtils;
+import com.agateau.pixelwheels.utils.InterpolatedTransform;
 import com.agateau.utils.AgcMathUtils;
 import com.badlogic.gdx.graphics.g2d.Batch;
 import com.badlogic.gdx.math.MathUtils;
@@ -49,7 +51,8 @@ import com.badlogic.gdx.utils.Pool;
 import com.badlogic.gdx.utils.ReflectionPool;
 
 /** A player bullet */
-public class Bullet extends GameObjectAdapter implements Collidable, Pool.Poolable, Disposable {
+public class Bullet extends GameObjectAdapter
+        implements Audible, Collidable, Pool.Poolable, Disposable {
     private static final ReflectionPool<Bullet> sPool = new ReflectionPool<>(Bullet.class);
 
     private static final float IMPULSE = 160;
@@ -62,6 +65,7 @@ public class Bullet extends GameObjectAdapter implements Collidable, Pool.Poolab
     private PolygonShape mShape;
 
     private Body mBody;
+    private final InterpolatedTransform mTransform = new InterpolatedTransform();
     private boolean mJustShot = false;
 
     private final BodyRegionDrawer mDrawer = new BodyRegionDrawer();
@@ -89,6 +93,7 @@ public class Bullet extends GameObjectAdapter implements Collidable, Pool.Poolab
         object.mBody = gameWorld.getBox2DWorld().createBody(object.mBodyDef);
         object.mBody.createFixture(object.mShape, 0f);
         object.mBody.setUserData(object);
+        object.mTransform.reset(object.mBody);
         object.mBody.applyLinearImpulse(
                 IMPULSE * MathUtils.cosDeg(angle),
                 IMPULSE * MathUtils.sinDeg(angle),
@@ -131,6 +136,11 @@ public class Bullet extends GameObjectAdapter implements Collidable, Pool.Poolab
     @Override
     public void act(float delta) {}
 
+    @Override
+    public void saveTransform() {
+        mTransform.save(mBody);
+    }
+
     @Override
     public void draw(Batch batch, ZLevel zLevel, Rectangle viewBounds) {
         if (zLevel != ZLevel.GROUND) {
@@ -141,7 +151,17 @@ public class Bullet extends GameObjectAdapter implements Collidable, Pool.Poolab
             return;
         }
         mDrawer.setBatch(batch);
-        mDrawer.draw(mBody, mAssets.bullet);
+        mDrawer.draw(mTransform, mGameWorld.getRenderAlpha(), mAssets.bullet);
+    }
+
+    @Override
+    public int getZLevelMask() {
+        return ZLevel.GROUND.mask;
+    }
+
+    @Override
+    public float getDrawRadius() {
+        return mBody.getFixtureList().get(0).getShape().getRadius();
     }
 
     @Override
@@ -31,6 +31,7 @@ import com.agateau.pixelwheels.racescreen.Collidable;
 import com.agateau.pixelwheels.racescreen.CollisionCategories;
 import com.agateau.pixelwheels.sound.AudioManager;
 import com.agateau.pixelwheels.utils.BodyRegionDrawer;
+import com.agateau.pixelwheels.utils.InterpolatedTransform;
 import com.agateau.pixelwheels.utils.Box2DUtils;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.g2d.Batch;
@@ -66,6 +67,7 @@ public class Mine extends GameObjectAdapter
     private CircleShape mShape;
 
     private Body mBody;
+    private final InterpolatedTransform mTransform = new InterpolatedTransform();
     private float mTime;
     private Joint mJoint;
 
@@ -110,6 +112,7 @@ public class Mine extends GameObjectAdapter
         mine.mBody.createFixture(mine.mShape, 0.00001f);
         mine.mBody.setUserData(mine);
         mine.mBody.setType(BodyDef.BodyType.DynamicBody);
+        mine.mTransform.reset(mine.mBody);
 
         Box2DUtils.setCollisionInfo(
                 mine.mBody,
@@ -157,6 +160,11 @@ public class Mine extends GameObjectAdapter
         mTime += delta;
     }
 
+    @Override
+    public void saveTransform() {
+        mTransform.save(mBody);
+    }
+
     private final BodyRegionDrawer mBodyRegionDrawer = new BodyRegionDrawer();
 
     @Override
@@ -186,16 +194,26 @@ public class Mine extends GameObjectAdapter
             float z = hasBeenDropped ? -0.1f : 0f;
             mBodyRegionDrawer.setZ(z);
             TextureRegion region = mAssets.mine.getKeyFrame(mTime);
-            mBodyRegionDrawer.drawShadow(mBody, region);
+            mBodyRegionDrawer.drawShadow(mTransform, mGameWorld.getRenderAlpha(), region);
         }
         if (zLevel == ZLevel.ON_GROUND) {
             TextureRegion region = mAssets.mine.getKeyFrame(mTime);
-            mBodyRegionDrawer.draw(mBody, region);
+            mBodyRegionDrawer.draw(mTransform, mGameWorld.getRenderAlpha(), region);
         }
 
         batch.setColor(Color.WHITE);
     }
 
+    @Override
+    public int getZLevelMask() {
+        return ZLevel.GROUND.mask | ZLevel.ON_GROUND.mask;
+    }
+
+    @Override
+    public float getDrawRadius() {
+        return 2 * MINE_RADIUS;
+    }
+
     @Override
     public float getX() {
         return mBody.getPosition().x;
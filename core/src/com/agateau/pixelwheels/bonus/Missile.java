@@ -24,6 +24,7 @@ import com.agateau.pixelwheels.GameWorld;
 import com.agateau.pixelwheels.ZLevel;
 import com.agateau.pixelwheels.debug.DebugShapeMap;
 import com.agateau.pixelwheels.gameobject.AnimationObject;
+import com.agateau.pixelwheels.gameobject.Audible;
 import com.agateau.pixelwheels.gameobject.AudioClipper;
 import com.agateau.pixelwheels.gameobject.Explosable;
 import com.agateau.pixelwheels.gameobject.GameObjectAdapter;
@@ -36,6 +37,7 @@ import com.agateau.pixelwheels.sound.SoundPlayer;
 import com.agateau.pixelwheels.stats.GameStats;
 import com.agateau.pixelwheels.utils.BodyRegionDrawer;
 import com.agateau.pixelwheels.utils.Box2DUtils;
+import com.agateau.pixelwheels.utils.InterpolatedTransform;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.g2d.Batch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
@@ -59,7 +61,7 @@ import com.badlogic.gdx.utils.ReflectionPool;
 
 /** A player bullet */
 public class Missile extends GameObjectAdapter
-        implements Collidable, Pool.Poolable, Disposable, Explosable {
+        implements Audible, Collidable, Pool.Poolable, Disposable, Explosable {
     private static final ReflectionPool<Missile> sPool = new ReflectionPool<>(Missile.class);
 
     private static final float WIDTH = 44;
@@ -109,6 +111,7 @@ public class Missile extends GameObjectAdapter
     private AudioManager mAudioManager;
     private Racer mShooter;
     private Body mBody;
+    private final InterpolatedTransform mTransform = new InterpolatedTransform();
 
     // Moving fields
     private float mTime;
@@ -140,6 +143,7 @@ public class Missile extends GameObjectAdapter
         object.mBody = gameWorld.getBox2DWorld().createBody(object.mBodyDef);
         object.mBody.createFixture(object.mShape, WAITING_DENSITY);
         object.mBody.setUserData(object);
+        object.mTransform.reset(object.mBody);
         Box2DUtils.setCollisionInfo(
                 object.mBody,
                 CollisionCategories.RACER_BULLET,
@@ -209,6 +213,11 @@ public class Missile extends GameObjectAdapter
         sPool.free(this);
     }
 
+    @Override
+    public void saveTransform() {
+        mTransform.save(mBody);
+    }
+
     @Override
     public void act(float delta) {
         switch (mStatus) {
@@ -233,12 +242,12 @@ public class Missile extends GameObjectAdapter
         if (mTarget != null) {
             mStatus = Status.LOCKED;
         }
-        mGuidingSystem.act(null);
+        mGuidingSystem.act(delta, null);
         consumeTime(delta);
     }
 
     private void actLocked(float delta) {
-        mGuidingSystem.act(mTarget.getPosition());
+        mGuidingSystem.act(delta, mTarget.getPosition());
         consumeTime(delta);
     }
 
@@ -283,13 +292,14 @@ public class Missile extends GameObjectAdapter
 
     private void drawMissile(Batch batch) {
         mDrawer.setBatch(batch);
-        mDrawer.draw(mBody, mAssets.missile);
+        mDrawer.draw(mTransform, mGameWorld.getRenderAlpha(), mAssets.missile);
     }
 
     private void drawReactorFire(Batch batch) {
         TextureRegion region = mAssets.turboFlame.getKeyFrame(mTime, true);
-        Vector2 center = mBody.getPosition();
-        float angle = mBody.getAngle();
+        float alpha = mGameWorld.getRenderAlpha();
+        Vector2 center = mTransform.getPosition(alpha);
+        float angle = mTransform.getAngle(alpha);
         float w = Constants.UNIT_FOR_PIXEL * region.getRegionWidth();
         float h = Constants.UNIT_FOR_PIXEL * region.getRegionHeight();
         float refH = Constants.UNIT_FOR_PIXEL * -WIDTH / 2;
@@ -310,7 +320,7 @@ public class Missile extends GameObjectAdapter
 
     private void drawShadow(Batch batch) {
         mDrawer.setBatch(batch);
-        mDrawer.drawShadow(mBody, mAssets.missile);
+        mDrawer.drawShadow(mTransform, mGameWorld.getRenderAlpha(), mAssets.missile);
     }
 
     @Override
@@ -323,6 +333,17 @@ public class Missile extends GameObjectAdapter
         }
     }
 
+    @Override
+    public int getZLevelMask() {
+        return ZLevel.FLYING_LOW.mask;
+    }
+
+    @Override
+    public float getDrawRadius() {
+        // The target marker is drawn on the target, which can be far away
+        return UNBOUNDED_DRAW_RADIUS;
+    }
+
     @Override
     public float getX() {
         return mBody.getPosition().x;
@@ -18,6 +18,7 @@
  */
 package com.agateau.pixelwheels.bonus;
 
+import com.agateau.pixelwheels.GameWorld;
 import com.agateau.pixelwheels.utils.Box2DUtils;
 import com.agateau.utils.AgcMathUtils;
 import com.badlogic.gdx.math.MathUtils;
@@ -25,7 +26,9 @@ import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.Body;
 
 public class MissileGuidingSystem {
-    private static final float MAX_ROTATION = 5f * MathUtils.degRad;
+    // Maximum rotation per second: 5 degrees per step at the reference physics step rate
+    private static final float MAX_ROTATION_SPEED =
+            5f * MathUtils.degRad / GameWorld.BOX2D_TIME_STEP;
     public static float MAX_SPEED = 160 * AgcMathUtils.kmhToMs;
     private Body mBody;
 
@@ -33,19 +36,19 @@ public class MissileGuidingSystem {
         mBody = body;
     }
 
-    public void act(Vector2 target) {
+    public void act(float delta, Vector2 target) {
         move();
         if (target == null) {
             return;
         }
 
-        float angle = computeAngle(target);
+        float angle = computeAngle(target, MAX_ROTATION_SPEED * delta);
         mBody.setTransform(mBody.getWorldCenter(), angle);
     }
 
     private final Vector2 mTmp = new Vector2();
 
-    private float computeAngle(Vector2 target) {
+    private float computeAngle(Vector2 target, float maxRotation) {
         /*
                       x target
               ,
@@ -59,7 +62,7 @@ public class MissileGuidingSystem {
         float bodyAngle = AgcMathUtils.normalizeAnglePiRad(mBody.getAngle());
         float desiredAngle = AgcMathUtils.normalizeAnglePiRad(mTmp.angleRad());
         float delta = AgcMathUtils.normalizeAnglePiRad(desiredAngle - bodyAngle);
-        return bodyAngle + MathUtils.clamp(delta, -MAX_ROTATION, MAX_ROTATION);
+        return bodyAngle + MathUtils.clamp(delta, -maxRotation, maxRotation);
     }
 
     private void move() {
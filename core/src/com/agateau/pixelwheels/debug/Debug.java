@@ -28,8 +28,14 @@ public class Debug {
 
     public boolean alwaysShowTouchInput = false;
     public boolean createSpeedReport = false;
+    public boolean parallelAIDecisions = false;
 
-    public int maxSkidmarks = 60;
+    // AI racers farther than lowDetailPhysicsDistance from all players use simplified physics
+    public boolean lowDetailPhysics = false;
+    public int lowDetailPhysicsDistance = 80;
+
+    // Shared by all the wheels of a race
+    public int maxSkidmarkSegments = 4096;
 
     public boolean logUiActivities = false;
 
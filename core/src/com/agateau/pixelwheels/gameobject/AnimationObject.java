@@ -33,7 +33,8 @@ import com.badlogic.gdx.utils.Pool;
 import com.badlogic.gdx.utils.ReflectionPool;
 
 /** A generic short-animation game object */
-public class AnimationObject extends GameObjectAdapter implements Pool.Poolable, Disposable {
+public class AnimationObject extends GameObjectAdapter
+        implements Audible, Pool.Poolable, Disposable {
     private static final ReflectionPool<AnimationObject> sPool =
             new ReflectionPool<>(AnimationObject.class);
     private float mTime;
@@ -81,6 +82,16 @@ public class AnimationObject extends GameObjectAdapter implements Pool.Poolable,
         batch.draw(region, mPosX - w / 2, mPosY - h / 2, w, h);
     }
 
+    @Override
+    public int getZLevelMask() {
+        return ZLevel.FLYING_LOW.mask;
+    }
+
+    @Override
+    public float getDrawRadius() {
+        return mAnimationRadius;
+    }
+
     @Override
     public void audioRender(AudioClipper clipper) {
         if (mSound != null) {
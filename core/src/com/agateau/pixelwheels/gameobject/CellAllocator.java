@@ -0,0 +1,157 @@
+/*
+ * Copyright 2026 Aurélien Gâteau <mail@agateau.com>
+ *
+ * This file is part of Pixel Wheels.
+ *
+ * Pixel Wheels is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.agateau.pixelwheels.gameobject;
+
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Allocates rectangular areas inside a square texture, using a guillotine algorithm.
+ *
+ * <p>The free space is kept as a list of free rectangles. Allocating a cell picks the free
+ * rectangle which fits it best, and splits what remains of it in two rectangles. Freeing a cell
+ * returns its area to the list and merges it with free rectangles sharing a full edge with it, so
+ * that the space can be reused by cells of a different size.
+ */
+class CellAllocator {
+    /** An allocated or free area */
+    static class Area {
+        int x;
+        int y;
+        int width;
+        int height;
+
+        Area(int x, int y, int width, int height) {
+            this.x = x;
+            this.y = y;
+            this.width = width;
+            this.height = height;
+        }
+    }
+
+    private int mSize;
+    private final Array<Area> mFreeAreas = new Array<>();
+    private int mAllocatedCount = 0;
+
+    CellAllocator(int size) {
+        mSize = size;
+        mFreeAreas.add(new Area(0, 0, size, size));
+    }
+
+    /** Returns the allocated area, or null if there is not enough space left */
+    Area allocate(int width, int height) {
+        int bestIdx = -1;
+        int bestFit = Integer.MAX_VALUE;
+        for (int idx = 0; idx < mFreeAreas.size; ++idx) {
+            Area area = mFreeAreas.get(idx);
+            if (area.width < width || area.height < height) {
+                continue;
+            }
+            int fit = Math.min(area.width - width, area.height - height);
+            if (fit < bestFit) {
+                bestFit = fit;
+                bestIdx = idx;
+            }
+        }
+        if (bestIdx == -1) {
+            return null;
+        }
+        Area free = mFreeAreas.removeIndex(bestIdx);
+        int remainingWidth = free.width - width;
+        int remainingHeight = free.height - height;
+        // Split along the shorter remaining axis, to keep the larger of the two rectangles as
+        // big as possible
+        if (remainingWidth < remainingHeight) {
+            addFreeArea(free.x + width, free.y, remainingWidth, height);
+            addFreeArea(free.x, free.y + height, free.width, remainingHeight);
+        } else {
+            addFreeArea(free.x + width, free.y, remainingWidth, free.height);
+            addFreeArea(free.x, free.y + height, width, remainingHeight);
+        }
+        ++mAllocatedCount;
+        return new Area(free.x, free.y, width, height);
+    }
+
+    /** Returns the space of an area returned by allocate() to the free list */
+    void free(Area area) {
+        --mAllocatedCount;
+        if (mAllocatedCount == 0) {
+            // Do not rely on merging to get the whole texture back
+            mFreeAreas.clear();
+            mFreeAreas.add(new Area(0, 0, mSize, mSize));
+            return;
+        }
+        Area merged = new Area(area.x, area.y, area.width, area.height);
+        boolean found = true;
+        while (found) {
+            found = false;
+            for (int idx = 0; idx < mFreeAreas.size; ++idx) {
+                if (merge(merged, mFreeAreas.get(idx))) {
+                    mFreeAreas.removeIndex(idx);
+                    found = true;
+                    break;
+                }
+            }
+        }
+        mFreeAreas.add(merged);
+    }
+
+    /** Extends the texture to newSize. Allocated areas keep their position */
+    void grow(int newSize) {
+        addFreeArea(mSize, 0, newSize - mSize, newSize);
+        addFreeArea(0, mSize, mSize, newSize - mSize);
+        mSize = newSize;
+    }
+
+    int getFreeAreaCount() {
+        return mFreeAreas.size;
+    }
+
+    private void addFreeArea(int x, int y, int width, int height) {
+        if (width > 0 && height > 0) {
+            mFreeAreas.add(new Area(x, y, width, height));
+        }
+    }
+
+    /** If area and other share a full edge, extends area to cover other and returns true */
+    private static boolean merge(Area area, Area other) {
+        if (area.y == other.y && area.height == other.height) {
+            if (area.x + area.width == other.x) {
+                area.width += other.width;
+                return true;
+            }
+            if (other.x + other.width == area.x) {
+                area.x = other.x;
+                area.width += other.width;
+                return true;
+            }
+        }
+        if (area.x == other.x && area.width == other.width) {
+            if (area.y + area.height == other.y) {
+                area.height += other.height;
+                return true;
+            }
+            if (other.y + other.height == area.y) {
+                area.y = other.y;
+                area.height += other.height;
+                return true;
+            }
+        }
+        return false;
+    }
+}
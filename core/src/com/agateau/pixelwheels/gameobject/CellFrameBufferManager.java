@@ -20,6 +20,7 @@ package com.agateau.pixelwheels.gameobject;
 
 import com.agateau.pixelwheels.Constants;
 import com.agateau.utils.Assert;
+import com.agateau.utils.log.NLog;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.Pixmap;
@@ -27,9 +28,10 @@ import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.Batch;
 import com.badlogic.gdx.graphics.glutils.FrameBuffer;
 import com.badlogic.gdx.math.Matrix4;
-import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.IntArray;
 
 /**
  * Manages cells in a frame buffer. A cell is a rectangle of the frame buffer.
@@ -40,70 +42,124 @@ import com.badlogic.gdx.utils.Array;
  *
  * <p>We can avoid this problem by drawing the textures to a CellFrameBufferManager cell, at full
  * opacity, then drawing the content of the cell, at the required opacity, to the screen.
+ *
+ * <p>The frame buffer is not cleared as a whole: users call beginCell() before drawing to a cell,
+ * and only cells whose content changed are cleared and redrawn. A cell is drawn at most once per
+ * frame, so the manager can be shared by several GameRenderer instances.
+ *
+ * <p>Users are expected to reserve cells only for visible objects, and to release the cells which
+ * have not been used for a while (see isCellUnused()). If cells do not fit anymore, the frame
+ * buffer grows, up to MAX_SIZE.
  */
-public class CellFrameBufferManager {
-    private static final int SIZE = 1024;
-    private final FrameBuffer mFrameBuffer;
+public class CellFrameBufferManager implements Disposable {
+    private static final int INITIAL_SIZE = 1024;
+    // All the GPUs of devices running Android 4.4 or later support 2048x2048 textures
+    private static final int MAX_SIZE = 2048;
+    // A cell which has not been drawn for this number of frames is unused
+    private static final int UNUSED_FRAME_COUNT = 60;
 
-    private float mCurrentRowTop = 0;
-    private final Vector2 mTmp = new Vector2();
+    private int mSize = INITIAL_SIZE;
+    private FrameBuffer mFrameBuffer;
 
-    private final Array<Rectangle> mCells = new Array<>();
+    private static class Cell {
+        CellAllocator.Area area;
+        // False if the cell content must be redrawn, even if the user content did not change
+        boolean valid;
+        long drawnFrameId = -1;
+        // Last frame where beginCell() was called for this cell, even if it did not need drawing
+        long usedFrameId = -1;
+    }
+
+    private final CellAllocator mAllocator = new CellAllocator(INITIAL_SIZE);
+    private final Array<Cell> mCells = new Array<>();
+    private final IntArray mFreeCellIds = new IntArray();
 
     private Batch mBatch;
+    private long mFrameId;
 
     private final Matrix4 mOldProjectionMatrix = new Matrix4();
     private final Matrix4 mProjectionMatrix = new Matrix4();
 
     public CellFrameBufferManager() {
-        mFrameBuffer = new FrameBuffer(Pixmap.Format.RGBA8888, SIZE, SIZE, false /* hasDepth */);
-        mFrameBuffer
-                .getColorBufferTexture()
-                .setFilter(Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest);
-        mProjectionMatrix.setToOrtho2D(0, 0, SIZE, SIZE);
+        createFrameBuffer();
     }
 
-    /** Returns the cell ID */
+    /**
+     * Returns the cell ID. Must not be called between begin() and end(), because the frame buffer
+     * is recreated if it has to grow.
+     */
     public int reserveCell(int width, int height) {
-        float cellX = 0;
-        float cellY = 0;
-        if (!mCells.isEmpty()) {
-            Rectangle lastCell = mCells.get(mCells.size - 1);
-            cellX = lastCell.x + lastCell.width;
-            cellY = lastCell.y;
-            if (cellX + width > SIZE) {
-                cellX = 0;
-                cellY = mCurrentRowTop;
-            }
+        CellAllocator.Area area = mAllocator.allocate(width, height);
+        while (area == null && mSize < MAX_SIZE) {
+            grow();
+            area = mAllocator.allocate(width, height);
+        }
+        Assert.check(area != null, "Not enough space to fit cell");
+
+        int id;
+        Cell cell;
+        if (mFreeCellIds.isEmpty()) {
+            id = mCells.size;
+            cell = new Cell();
+            mCells.add(cell);
+        } else {
+            id = mFreeCellIds.pop();
+            cell = mCells.get(id);
         }
-        mCurrentRowTop = Math.max(cellY + height, mCurrentRowTop);
-        Assert.check(mCurrentRowTop < SIZE, "Not enough space to fit cell");
+        cell.area = area;
+        cell.valid = false;
+        cell.drawnFrameId = -1;
+        cell.usedFrameId = Gdx.graphics.getFrameId();
+        return id;
+    }
+
+    /** Gives back the space of a cell, so that it can be reused by other cells */
+    public void releaseCell(int id) {
+        Cell cell = mCells.get(id);
+        Assert.check(cell.area != null, "Cell has already been released");
+        mAllocator.free(cell.area);
+        cell.area = null;
+        mFreeCellIds.add(id);
+    }
+
+    /**
+     * Returns true if beginCell() has not been called for this cell for a while: the object using
+     * it is probably not visible anymore, so the cell can be released
+     */
+    public boolean isCellUnused(int id) {
+        return Gdx.graphics.getFrameId() - mCells.get(id).usedFrameId > UNUSED_FRAME_COUNT;
+    }
 
-        Rectangle cell = new Rectangle(cellX, cellY, width, height);
-        mCells.add(cell);
-        return mCells.size - 1;
+    public int getReservedCellCount() {
+        return mCells.size - mFreeCellIds.size;
+    }
+
+    /** Forces all cells to be redrawn, for example because the frame buffer content was lost */
+    public void invalidateCells() {
+        for (Cell cell : mCells) {
+            cell.valid = false;
+        }
     }
 
     public float getCellCenterX(int id) {
-        Rectangle rect = mCells.get(id);
-        return rect.x + rect.width / 2;
+        CellAllocator.Area area = mCells.get(id).area;
+        return area.x + area.width / 2f;
     }
 
     public float getCellCenterY(int id) {
-        Rectangle rect = mCells.get(id);
-        return rect.y + rect.height / 2;
+        CellAllocator.Area area = mCells.get(id).area;
+        return area.y + area.height / 2f;
     }
 
     /** Begins drawing to the manager texture. Must be called before calling drawToCell() */
     public void begin(Batch batch) {
         mBatch = batch;
+        mFrameId = Gdx.graphics.getFrameId();
         mOldProjectionMatrix.set(mBatch.getProjectionMatrix());
 
         mFrameBuffer.begin();
         mBatch.begin();
         mBatch.setProjectionMatrix(mProjectionMatrix);
-        Gdx.gl.glClearColor(0, 0, 0, 0);
-        Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
     }
 
     public void end(int x, int y, int width, int height) {
@@ -113,6 +169,40 @@ public class CellFrameBufferManager {
         mBatch.setProjectionMatrix(mOldProjectionMatrix);
     }
 
+    /**
+     * Returns true if the cell has already been drawn during the current frame. In this case,
+     * users must not draw it again, nor update its animations.
+     */
+    public boolean isCellDrawn(int id) {
+        return mCells.get(id).drawnFrameId == mFrameId;
+    }
+
+    /**
+     * Must be called by users before drawing to a cell. changed must be true if the content of the
+     * cell is different from the last time it was drawn.
+     *
+     * <p>Returns false if the cell does not need to be drawn. Otherwise clears the cell and
+     * returns true.
+     */
+    public boolean beginCell(int id, boolean changed) {
+        Cell cell = mCells.get(id);
+        cell.usedFrameId = mFrameId;
+        if (cell.drawnFrameId == mFrameId || (cell.valid && !changed)) {
+            return false;
+        }
+        cell.drawnFrameId = mFrameId;
+        cell.valid = true;
+
+        // Cells do not overlap, so vertices still pending in the batch are not affected by this
+        CellAllocator.Area area = cell.area;
+        Gdx.gl.glEnable(GL20.GL_SCISSOR_TEST);
+        Gdx.gl.glScissor(area.x, area.y, area.width, area.height);
+        Gdx.gl.glClearColor(0, 0, 0, 0);
+        Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+        Gdx.gl.glDisable(GL20.GL_SCISSOR_TEST);
+        return true;
+    }
+
     public void drawCell(Batch batch, Vector2 dst, int cellId) {
         drawCell(batch, dst.x, dst.y, cellId);
     }
@@ -127,15 +217,15 @@ public class CellFrameBufferManager {
     }
 
     public void drawScaledCell(Batch batch, float dstX, float dstY, int cellId, float scale) {
-        Rectangle rect = mCells.get(cellId);
-        float w = Constants.UNIT_FOR_PIXEL * rect.width * scale;
-        float h = Constants.UNIT_FOR_PIXEL * rect.height * scale;
+        CellAllocator.Area area = mCells.get(cellId).area;
+        float w = Constants.UNIT_FOR_PIXEL * area.width * scale;
+        float h = Constants.UNIT_FOR_PIXEL * area.height * scale;
 
-        float textureSize = CellFrameBufferManager.SIZE;
-        float u = rect.x / textureSize;
-        float v = rect.y / textureSize;
-        float u2 = (rect.x + rect.width) / textureSize;
-        float v2 = (rect.y + rect.height) / textureSize;
+        float textureSize = mSize;
+        float u = area.x / textureSize;
+        float v = area.y / textureSize;
+        float u2 = (area.x + area.width) / textureSize;
+        float v2 = (area.y + area.height) / textureSize;
 
         batch.draw(
                 mFrameBuffer.getColorBufferTexture(),
@@ -150,4 +240,27 @@ public class CellFrameBufferManager {
                 u2,
                 v2);
     }
+
+    @Override
+    public void dispose() {
+        mFrameBuffer.dispose();
+    }
+
+    private void createFrameBuffer() {
+        mFrameBuffer = new FrameBuffer(Pixmap.Format.RGBA8888, mSize, mSize, false /* hasDepth */);
+        mFrameBuffer
+                .getColorBufferTexture()
+                .setFilter(Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest);
+        mProjectionMatrix.setToOrtho2D(0, 0, mSize, mSize);
+    }
+
+    private void grow() {
+        mSize *= 2;
+        NLog.i("Growing frame buffer to %dx%d", mSize, mSize);
+        mFrameBuffer.dispose();
+        createFrameBuffer();
+        mAllocator.grow(mSize);
+        // Cells keep their areas, but the new frame buffer is empty
+        invalidateCells();
+    }
 }
@@ -23,9 +23,24 @@ import com.badlogic.gdx.math.Rectangle;
 
 /** Interface for objects which paint themselves using a CellFrameBufferManager */
 public interface CellFrameBufferUser {
-    /** The manager to use. Implementation of this method can reserve the required cell(s) */
+    /** The manager to use. Cells must not be reserved here, but in reserveCells() */
     void init(CellFrameBufferManager manager);
 
-    /** Implementations must paint the object to the reserved cells */
+    /**
+     * Called for visible objects, before drawToCell(). Implementations must reserve the cells they
+     * do not have yet.
+     */
+    void reserveCells();
+
+    /**
+     * Called once per frame for all objects. Implementations must release the cells for which
+     * CellFrameBufferManager.isCellUnused() returns true, so that visible objects can use them.
+     */
+    void releaseUnusedCells();
+
+    /**
+     * Implementations must paint the object to the reserved cells. They must call
+     * CellFrameBufferManager.beginCell() first, and skip drawing a cell if it returns false.
+     */
     void drawToCell(Batch batch, Rectangle viewBounds);
 }
@@ -25,8 +25,18 @@ import com.badlogic.gdx.math.Vector2;
 
 /** A generic game object */
 public interface GameObject {
+    /** Value returned by getDrawRadius() for objects which must never be culled */
+    float UNBOUNDED_DRAW_RADIUS = -1;
+
     void act(float delta);
 
+    /**
+     * Called at the end of each physics step. Objects drawn with interpolation save their current
+     * transform there, and draw between the previous and current transforms, see
+     * InterpolatedTransform.
+     */
+    void saveTransform();
+
     /**
      * Returns true if the object is done and should be removed from the game. If the object
      * implements Disposable, GameWorld will take care of calling dispose() on it.
@@ -35,11 +45,22 @@ public interface GameObject {
 
     void draw(Batch batch, ZLevel zLevel, Rectangle viewBounds);
 
+    /**
+     * The levels draw() must be called for: a combination of ZLevel.mask values. 0 if the object
+     * does not draw anything.
+     */
+    int getZLevelMask();
+
+    /**
+     * The radius of a circle centered on getPosition(), containing everything draw() draws. The
+     * renderer does not draw objects whose circle is outside the view. Returns
+     * UNBOUNDED_DRAW_RADIUS if the object can draw anywhere.
+     */
+    float getDrawRadius();
+
     float getX();
 
     float getY();
 
     Vector2 getPosition();
-
-    void audioRender(AudioClipper audioClipper);
 }
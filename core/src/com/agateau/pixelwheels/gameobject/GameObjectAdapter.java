@@ -18,6 +18,7 @@
  */
 package com.agateau.pixelwheels.gameobject;
 
+import com.agateau.pixelwheels.ZLevel;
 import com.badlogic.gdx.math.Vector2;
 
 /** An adapter for the GameObject interface */
@@ -31,7 +32,17 @@ public abstract class GameObjectAdapter implements GameObject {
     }
 
     @Override
-    public void audioRender(AudioClipper audioClipper) {}
+    public void saveTransform() {}
+
+    @Override
+    public int getZLevelMask() {
+        return ZLevel.ALL_MASK;
+    }
+
+    @Override
+    public float getDrawRadius() {
+        return UNBOUNDED_DRAW_RADIUS;
+    }
 
     @Override
     public Vector2 getPosition() {
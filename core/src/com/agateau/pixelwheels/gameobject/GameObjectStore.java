@@ -0,0 +1,244 @@
+/*
+ * Copyright 2026 Aurélien Gâteau <mail@agateau.com>
+ *
+ * This file is part of Pixel Wheels.
+ *
+ * Pixel Wheels is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.agateau.pixelwheels.gameobject;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import java.util.Arrays;
+
+/**
+ * The game objects of a world.
+ *
+ * <p>Objects are kept in dense arrays. Removing an object moves the last object of each array to
+ * its place, so removal does not shift the other objects, but it changes their order. Code which
+ * needs a stable order, like drawing, can sort objects by their sequence: a number which increases
+ * with each call to add().
+ *
+ * <p>Besides the array of all objects, the store maintains an array for each capability: objects
+ * which draw something, Audible objects and CellFrameBufferUser objects. They are updated when
+ * objects are added or removed, so that each pass only iterates the objects it needs, without
+ * instanceof checks. This means getZLevelMask() must not change while an object is in the store.
+ *
+ * <p>add() returns a handle to the object. Objects are often pooled, so holding a reference to an
+ * object after it has been removed can lead to using it while it has been reused for something
+ * else. A handle does not have this problem: once the object is removed, get() returns null for
+ * it, even if the same instance has been added again.
+ */
+public class GameObjectStore {
+    /** A handle which never refers to any object, can be used as a "no object" value */
+    public static final int INVALID_HANDLE = 0;
+
+    // A handle is made of the slot of the object in the low bits, and of the generation of the
+    // slot in the high bits. The generation is increased each time the slot is freed.
+    private static final int SLOT_BITS = 16;
+    private static final int SLOT_MASK = (1 << SLOT_BITS) - 1;
+    private static final int MAX_GENERATION = (1 << (32 - SLOT_BITS)) - 1;
+
+    /** A dense array of objects, which knows the index of the object of each slot */
+    private static class Bucket<T> {
+        final Array<T> items = new Array<>();
+        // Slot of each item
+        final IntArray itemSlots = new IntArray();
+        // Sequence of each item
+        final IntArray itemSequences = new IntArray();
+        // Index in items of the object of each slot, -1 if it is not in this bucket
+        int[] slotIndexes = new int[0];
+
+        void ensureSlotCapacity(int capacity) {
+            int oldLength = slotIndexes.length;
+            if (capacity <= oldLength) {
+                return;
+            }
+            slotIndexes = Arrays.copyOf(slotIndexes, capacity);
+            Arrays.fill(slotIndexes, oldLength, capacity, -1);
+        }
+
+        void add(int slot, int sequence, T item) {
+            slotIndexes[slot] = items.size;
+            items.add(item);
+            itemSlots.add(slot);
+            itemSequences.add(sequence);
+        }
+
+        void remove(int slot) {
+            int index = slotIndexes[slot];
+            if (index == -1) {
+                return;
+            }
+            slotIndexes[slot] = -1;
+            int lastIndex = items.size - 1;
+            if (index < lastIndex) {
+                int lastSlot = itemSlots.get(lastIndex);
+                items.set(index, items.get(lastIndex));
+                itemSlots.set(index, lastSlot);
+                itemSequences.set(index, itemSequences.get(lastIndex));
+                slotIndexes[lastSlot] = index;
+            }
+            items.removeIndex(lastIndex);
+            itemSlots.removeIndex(lastIndex);
+            itemSequences.removeIndex(lastIndex);
+        }
+
+        void clear() {
+            items.clear();
+            itemSlots.clear();
+            itemSequences.clear();
+            Arrays.fill(slotIndexes, -1);
+        }
+    }
+
+    private final Bucket<GameObject> mObjects = new Bucket<>();
+    private final Bucket<GameObject> mDrawables = new Bucket<>();
+    private final Bucket<Audible> mAudibles = new Bucket<>();
+    private final Bucket<CellFrameBufferUser> mCellFrameBufferUsers = new Bucket<>();
+
+    private int[] mGenerations = new int[0];
+    private int mSlotCount = 0;
+    private final IntArray mFreeSlots = new IntArray();
+    private int mNextSequence = 0;
+
+    /** Adds object to the store, returns its handle */
+    public int add(GameObject object) {
+        int slot;
+        if (mFreeSlots.isEmpty()) {
+            slot = mSlotCount++;
+            ensureSlotCapacity(mSlotCount);
+            mGenerations[slot] = 1;
+        } else {
+            slot = mFreeSlots.pop();
+        }
+        int sequence = mNextSequence++;
+        mObjects.add(slot, sequence, object);
+        if (object.getZLevelMask() != 0) {
+            mDrawables.add(slot, sequence, object);
+        }
+        if (object instanceof Audible) {
+            mAudibles.add(slot, sequence, (Audible) object);
+        }
+        if (object instanceof CellFrameBufferUser) {
+            mCellFrameBufferUsers.add(slot, sequence, (CellFrameBufferUser) object);
+        }
+        return (mGenerations[slot] << SLOT_BITS) | slot;
+    }
+
+    /** Returns the object of handle, or null if it has been removed */
+    public GameObject get(int handle) {
+        int slot = getValidSlot(handle);
+        return slot == -1 ? null : mObjects.items.get(mObjects.slotIndexes[slot]);
+    }
+
+    /** Removes the object of handle, does nothing if it has already been removed */
+    public void remove(int handle) {
+        int slot = getValidSlot(handle);
+        if (slot != -1) {
+            removeSlot(slot);
+        }
+    }
+
+    /**
+     * Removes the object at index in getObjects(). The last object takes its place, so when
+     * removing while iterating, iterate from the end.
+     */
+    public void removeAt(int index) {
+        removeSlot(mObjects.itemSlots.get(index));
+    }
+
+    /** Removes all the objects, invalidating all their handles */
+    public void clear() {
+        for (int idx = 0; idx < mObjects.items.size; ++idx) {
+            freeSlot(mObjects.itemSlots.get(idx));
+        }
+        mObjects.clear();
+        mDrawables.clear();
+        mAudibles.clear();
+        mCellFrameBufferUsers.clear();
+    }
+
+    public int size() {
+        return mObjects.items.size;
+    }
+
+    /** All the objects. Must not be modified */
+    public Array<GameObject> getObjects() {
+        return mObjects.items;
+    }
+
+    /** The objects whose ZLevel mask is not 0. Must not be modified */
+    public Array<GameObject> getDrawables() {
+        return mDrawables.items;
+    }
+
+    /**
+     * The sequence of each object of getDrawables(): objects added first have lower sequences. Must
+     * not be modified
+     */
+    public IntArray getDrawableSequences() {
+        return mDrawables.itemSequences;
+    }
+
+    /** The Audible objects. Must not be modified */
+    public Array<Audible> getAudibles() {
+        return mAudibles.items;
+    }
+
+    /** The CellFrameBufferUser objects. Must not be modified */
+    public Array<CellFrameBufferUser> getCellFrameBufferUsers() {
+        return mCellFrameBufferUsers.items;
+    }
+
+    private int getValidSlot(int handle) {
+        int slot = handle & SLOT_MASK;
+        int generation = handle >>> SLOT_BITS;
+        if (slot >= mSlotCount || mGenerations[slot] != generation) {
+            return -1;
+        }
+        return slot;
+    }
+
+    private void removeSlot(int slot) {
+        mObjects.remove(slot);
+        mDrawables.remove(slot);
+        mAudibles.remove(slot);
+        mCellFrameBufferUsers.remove(slot);
+        freeSlot(slot);
+    }
+
+    private void freeSlot(int slot) {
+        // Skip 0 when wrapping, so that INVALID_HANDLE never matches a slot
+        int generation = mGenerations[slot];
+        mGenerations[slot] = generation == MAX_GENERATION ? 1 : generation + 1;
+        mFreeSlots.add(slot);
+    }
+
+    private void ensureSlotCapacity(int capacity) {
+        if (capacity > SLOT_MASK + 1) {
+            throw new RuntimeException("Too many game objects");
+        }
+        if (capacity <= mGenerations.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, Math.max(mGenerations.length * 2, 64));
+        newCapacity = Math.min(newCapacity, SLOT_MASK + 1);
+        mGenerations = Arrays.copyOf(mGenerations, newCapacity);
+        mObjects.ensureSlotCapacity(newCapacity);
+        mDrawables.ensureSlotCapacity(newCapacity);
+        mAudibles.ensureSlotCapacity(newCapacity);
+        mCellFrameBufferUsers.ensureSlotCapacity(newCapacity);
+    }
+}
@@ -88,6 +88,12 @@ public abstract class GameInfo {
         private int mLastRacePoints = 0;
         private float mRaceTime = 0;
 
+        public Entrant() {}
+
+        public Entrant(String vehicleId) {
+            mVehicleId = vehicleId;
+        }
+
         public String getVehicleId() {
             return mVehicleId;
         }
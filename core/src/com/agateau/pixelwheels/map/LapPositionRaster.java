@@ -0,0 +1,169 @@
+/*
+ * Copyright 2026 Aurélien Gâteau <mail@agateau.com>
+ *
+ * This file is part of Pixel Wheels.
+ *
+ * Pixel Wheels is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.agateau.pixelwheels.map;
+
+import com.agateau.utils.log.NLog;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.ShortBuffer;
+
+/**
+ * A precomputed grid telling which lap section covers each cell of a track.
+ *
+ * <p>Cells are CELL_SIZE pixels wide. A cell contains the id of the section covering all of it,
+ * NO_SECTION if no section overlaps it, or MIXED if it is crossed by a section border.
+ * LapPositionTable uses it to find the section of a position without testing polygons.
+ *
+ * <p>The raster is stored next to the .tmx file, with the RASTER_EXTENSION extension. It contains
+ * a checksum of the sections it has been baked from, so that an out-of-date raster can be
+ * detected.
+ */
+public class LapPositionRaster {
+    public static final String RASTER_EXTENSION = ".lpr";
+    public static final short NO_SECTION = -1;
+    public static final short MIXED = -2;
+
+    /** unit: pixels */
+    static final int CELL_SIZE = 16;
+
+    private static final int MAGIC = 0x50574c52; // "PWLR"
+    private static final int VERSION = 1;
+    // magic, version, checksum, width, height
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 4 + 4;
+
+    private final long mChecksum;
+    private final int mWidth;
+    private final int mHeight;
+    private final ShortBuffer mCells;
+
+    private LapPositionRaster(long checksum, int width, int height, ShortBuffer cells) {
+        mChecksum = checksum;
+        mWidth = width;
+        mHeight = height;
+        mCells = cells;
+    }
+
+    /**
+     * Computes the raster for a table covering an area of mapWidth x mapHeight pixels.
+     *
+     * <p>A cell is considered to be covered by a section if its 4 corners are in this section.
+     * This is enough because sections are convex.
+     */
+    static LapPositionRaster bake(
+            LapPositionTable table, long checksum, int mapWidth, int mapHeight) {
+        int width = (mapWidth + CELL_SIZE - 1) / CELL_SIZE;
+        int height = (mapHeight + CELL_SIZE - 1) / CELL_SIZE;
+        ShortBuffer cells = ShortBuffer.allocate(width * height);
+        for (int cy = 0; cy < height; ++cy) {
+            int y1 = cy * CELL_SIZE;
+            int y2 = y1 + CELL_SIZE - 1;
+            for (int cx = 0; cx < width; ++cx) {
+                int x1 = cx * CELL_SIZE;
+                int x2 = x1 + CELL_SIZE - 1;
+                short value = MIXED;
+                int sectionId = table.findSectionId(x1, y1);
+                if (sectionId == table.findSectionId(x2, y1)
+                        && sectionId == table.findSectionId(x1, y2)
+                        && sectionId == table.findSectionId(x2, y2)) {
+                    if (sectionId >= 0) {
+                        value = (short) sectionId;
+                    } else if (!table.overlapsSections(x1, y1, x2, y2)) {
+                        // No corners are in a section, but a section could still go through
+                        // the cell, so only use NO_SECTION if no section is close
+                        value = NO_SECTION;
+                    }
+                }
+                cells.put(cy * width + cx, value);
+            }
+        }
+        return new LapPositionRaster(checksum, width, height, cells);
+    }
+
+    public long getChecksum() {
+        return mChecksum;
+    }
+
+    /**
+     * Returns the id of the section covering the cell containing the position, or NO_SECTION or
+     * MIXED. Positions outside the raster return MIXED.
+     *
+     * <p>unit: pixels
+     */
+    public int getSectionId(int x, int y) {
+        if (x < 0 || y < 0) {
+            return MIXED;
+        }
+        int cx = x / CELL_SIZE;
+        int cy = y / CELL_SIZE;
+        if (cx >= mWidth || cy >= mHeight) {
+            return MIXED;
+        }
+        return mCells.get(cy * mWidth + cx);
+    }
+
+    /** Returns the raster stored in handle, or null if it cannot be read */
+    public static LapPositionRaster read(FileHandle handle) {
+        ByteBuffer buffer;
+        try {
+            // Memory-map the file if possible, this is not possible for assets stored inside an
+            // archive
+            buffer = handle.map();
+        } catch (GdxRuntimeException e) {
+            buffer = ByteBuffer.wrap(handle.readBytes());
+        }
+        // FileHandle.map() returns a buffer using the native byte order, but write() uses
+        // ByteBuffer's default order
+        buffer.order(ByteOrder.BIG_ENDIAN);
+        if (buffer.remaining() < HEADER_SIZE) {
+            NLog.e("%s: file is too short", handle.path());
+            return null;
+        }
+        int magic = buffer.getInt();
+        int version = buffer.getInt();
+        if (magic != MAGIC || version != VERSION) {
+            NLog.e("%s: invalid magic or version (%x, %d)", handle.path(), magic, version);
+            return null;
+        }
+        long checksum = buffer.getLong();
+        int width = buffer.getInt();
+        int height = buffer.getInt();
+        ShortBuffer cells = buffer.slice().asShortBuffer();
+        if (cells.remaining() != width * height) {
+            NLog.e("%s: invalid size", handle.path());
+            return null;
+        }
+        return new LapPositionRaster(checksum, width, height, cells);
+    }
+
+    public void write(FileHandle handle) {
+        int cellCount = mWidth * mHeight;
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + cellCount * 2);
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION);
+        buffer.putLong(mChecksum);
+        buffer.putInt(mWidth);
+        buffer.putInt(mHeight);
+        for (int idx = 0; idx < cellCount; ++idx) {
+            buffer.putShort(mCells.get(idx));
+        }
+        handle.writeBytes(buffer.array(), false);
+    }
+}
@@ -19,14 +19,33 @@
 package com.agateau.pixelwheels.map;
 
 import com.agateau.utils.Assert;
+import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Polygon;
+import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
 
 /** Can provide the position within a lap based on x, y (in tile pixels) */
 public class LapPositionTable {
+    /** Size of the cells of the spatial index, in pixels */
+    private static final int INDEX_CELL_SIZE = 64;
+
     private final Array<LapSection> mSections = new Array<>();
 
+    // Spatial index: a uniform grid covering the bounding box of all sections. The ids of the
+    // sections overlapping cell N are stored in mIndexSectionIds, from mIndexCellStarts[N] to
+    // mIndexCellStarts[N + 1]. Ids are sorted, so that looking up a position using the index
+    // returns the same section as iterating over all sections.
+    private int mIndexOriginX;
+    private int mIndexOriginY;
+    private int mIndexWidth;
+    private int mIndexHeight;
+    private int[] mIndexCellStarts;
+    private int[] mIndexSectionIds;
+
+    private LapPositionRaster mRaster;
+
     private static class LapSection {
         private final int mSectionId;
         private final Polygon mPolygon;
@@ -64,19 +83,173 @@ public class LapPositionTable {
     public void addSection(Polygon polygon) {
         int sectionId = mSections.size;
         mSections.add(new LapSection(sectionId, polygon));
+        // Index and raster are no longer valid
+        mIndexCellStarts = null;
+        mRaster = null;
+    }
+
+    /**
+     * Builds the spatial index used by get(). Must be called after all sections have been added.
+     *
+     * <p>If the index has not been built, get() falls back to testing all sections.
+     */
+    public void buildIndex() {
+        if (mSections.isEmpty()) {
+            return;
+        }
+        Rectangle bounds = new Rectangle(mSections.first().mPolygon.getBoundingRectangle());
+        for (LapSection section : mSections) {
+            bounds.merge(section.mPolygon.getBoundingRectangle());
+        }
+        mIndexOriginX = MathUtils.floor(bounds.x);
+        mIndexOriginY = MathUtils.floor(bounds.y);
+        mIndexWidth = getIndexColumn(MathUtils.ceil(bounds.x + bounds.width)) + 1;
+        mIndexHeight = getIndexRow(MathUtils.ceil(bounds.y + bounds.height)) + 1;
+
+        int cellCount = mIndexWidth * mIndexHeight;
+        IntArray[] sectionIdsForCell = new IntArray[cellCount];
+        int totalCount = 0;
+        for (LapSection section : mSections) {
+            Rectangle rect = section.mPolygon.getBoundingRectangle();
+            int cx1 = getIndexColumn(MathUtils.floor(rect.x));
+            int cy1 = getIndexRow(MathUtils.floor(rect.y));
+            int cx2 = getIndexColumn(MathUtils.ceil(rect.x + rect.width));
+            int cy2 = getIndexRow(MathUtils.ceil(rect.y + rect.height));
+            for (int cy = cy1; cy <= cy2; ++cy) {
+                for (int cx = cx1; cx <= cx2; ++cx) {
+                    int cell = cy * mIndexWidth + cx;
+                    if (sectionIdsForCell[cell] == null) {
+                        sectionIdsForCell[cell] = new IntArray(4);
+                    }
+                    sectionIdsForCell[cell].add(section.mSectionId);
+                    ++totalCount;
+                }
+            }
+        }
+
+        mIndexCellStarts = new int[cellCount + 1];
+        mIndexSectionIds = new int[totalCount];
+        int pos = 0;
+        for (int cell = 0; cell < cellCount; ++cell) {
+            mIndexCellStarts[cell] = pos;
+            IntArray ids = sectionIdsForCell[cell];
+            if (ids != null) {
+                System.arraycopy(ids.items, 0, mIndexSectionIds, pos, ids.size);
+                pos += ids.size;
+            }
+        }
+        mIndexCellStarts[cellCount] = pos;
+    }
+
+    /**
+     * Sets a raster to use to find sections. The raster must have been baked from the same
+     * sections. Can be null.
+     */
+    public void setRaster(LapPositionRaster raster) {
+        mRaster = raster;
+    }
+
+    public LapPositionRaster getRaster() {
+        return mRaster;
     }
 
     /** unit: pixels */
     public LapPosition get(int x, int y) {
-        for (LapSection zone : mSections) {
+        return get(x, y, -1);
+    }
+
+    /**
+     * Like get(x, y), but first tries the section identified by hintSectionId, then the sections
+     * before and after it.
+     *
+     * <p>Useful when looking up positions which move a bit at a time, like vehicles: pass the
+     * section id of the previous position as hintSectionId. Pass -1 if there is no previous
+     * position.
+     *
+     * <p>unit: pixels
+     */
+    public LapPosition get(int x, int y, int hintSectionId) {
+        if (mRaster != null) {
+            int sectionId = mRaster.getSectionId(x, y);
+            if (sectionId >= 0) {
+                return mSections.get(sectionId).computePosition(x, y);
+            } else if (sectionId == LapPositionRaster.NO_SECTION) {
+                return null;
+            }
+            // The cell is crossed by a section border, fallback to testing polygons
+        }
+        if (hintSectionId >= 0 && hintSectionId < mSections.size) {
+            LapSection zone = mSections.get(hintSectionId);
+            if (zone.mPolygon.contains(x, y)) {
+                return zone.computePosition(x, y);
+            }
+            int count = mSections.size;
+            zone = mSections.get((hintSectionId + 1) % count);
+            if (zone.mPolygon.contains(x, y)) {
+                return zone.computePosition(x, y);
+            }
+            zone = mSections.get((hintSectionId + count - 1) % count);
             if (zone.mPolygon.contains(x, y)) {
                 return zone.computePosition(x, y);
             }
         }
-        return null;
+        LapSection zone = findSection(x, y);
+        return zone == null ? null : zone.computePosition(x, y);
     }
 
     public int getSectionCount() {
         return mSections.size;
     }
+
+    /** Returns the id of the section at x, y, or -1. Does not use the raster */
+    int findSectionId(int x, int y) {
+        LapSection zone = findSection(x, y);
+        return zone == null ? -1 : zone.mSectionId;
+    }
+
+    /** Returns true if the bounding rectangle of a section overlaps the x1, y1, x2, y2 area */
+    boolean overlapsSections(int x1, int y1, int x2, int y2) {
+        for (LapSection zone : mSections) {
+            Rectangle rect = zone.mPolygon.getBoundingRectangle();
+            if (rect.x <= x2
+                    && rect.x + rect.width >= x1
+                    && rect.y <= y2
+                    && rect.y + rect.height >= y1) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private LapSection findSection(int x, int y) {
+        if (mIndexCellStarts == null) {
+            for (LapSection zone : mSections) {
+                if (zone.mPolygon.contains(x, y)) {
+                    return zone;
+                }
+            }
+            return null;
+        }
+        int cx = getIndexColumn(x);
+        int cy = getIndexRow(y);
+        if (cx < 0 || cy < 0 || cx >= mIndexWidth || cy >= mIndexHeight) {
+            return null;
+        }
+        int cell = cy * mIndexWidth + cx;
+        for (int idx = mIndexCellStarts[cell]; idx < mIndexCellStarts[cell + 1]; ++idx) {
+            LapSection zone = mSections.get(mIndexSectionIds[idx]);
+            if (zone.mPolygon.contains(x, y)) {
+                return zone;
+            }
+        }
+        return null;
+    }
+
+    private int getIndexColumn(int x) {
+        return MathUtils.floor((x - mIndexOriginX) / (float) INDEX_CELL_SIZE);
+    }
+
+    private int getIndexRow(int y) {
+        return MathUtils.floor((y - mIndexOriginY) / (float) INDEX_CELL_SIZE);
+    }
 }
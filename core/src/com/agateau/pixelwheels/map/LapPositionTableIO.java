@@ -21,17 +21,21 @@ package com.agateau.pixelwheels.map;
 import com.agateau.utils.AgcMathUtils;
 import com.agateau.utils.Assert;
 import com.agateau.utils.log.NLog;
+import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.maps.MapLayer;
 import com.badlogic.gdx.maps.MapObject;
 import com.badlogic.gdx.maps.MapObjects;
 import com.badlogic.gdx.maps.objects.PolylineMapObject;
 import com.badlogic.gdx.maps.tiled.TiledMap;
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
 import com.badlogic.gdx.math.Polygon;
 import com.badlogic.gdx.math.Polyline;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.utils.Array;
+import java.nio.ByteBuffer;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.zip.CRC32;
 
 /**
  * Loads a LapPositionTable from a TiledMap. Parses the section segments defined in
@@ -93,7 +97,66 @@ public class LapPositionTableIO {
     }
 
     public static LapPositionTable load(TiledMap map) {
+        return load(map, null);
+    }
+
+    /**
+     * Like load(TiledMap), but also loads the raster stored in rasterHandle if it exists.
+     *
+     * <p>If the raster does not match the sections of the map, a new one is baked.
+     */
+    public static LapPositionTable load(TiledMap map, FileHandle rasterHandle) {
         Array<Line> lines = loadSectionLines(map);
+        // Compute the checksum before createTable() because it can swap line points
+        long checksum = computeChecksum(map, lines);
+        LapPositionTable table = createTable(lines);
+        if (rasterHandle == null || !rasterHandle.exists()) {
+            return table;
+        }
+        LapPositionRaster raster = LapPositionRaster.read(rasterHandle);
+        if (raster == null || raster.getChecksum() != checksum) {
+            NLog.i("%s is out of date, baking a new raster", rasterHandle.path());
+            raster = bakeRaster(map, table, checksum);
+        }
+        table.setRaster(raster);
+        return table;
+    }
+
+    public static LapPositionRaster bakeRaster(TiledMap map, LapPositionTable table) {
+        return bakeRaster(map, table, computeChecksum(map, loadSectionLines(map)));
+    }
+
+    private static LapPositionRaster bakeRaster(
+            TiledMap map, LapPositionTable table, long checksum) {
+        TiledMapTileLayer layer = (TiledMapTileLayer) map.getLayers().get(0);
+        int mapWidth = layer.getWidth() * layer.getTileWidth();
+        int mapHeight = layer.getHeight() * layer.getTileHeight();
+        // Bake with the raster disabled, in case table already has an out-of-date raster
+        table.setRaster(null);
+        return LapPositionRaster.bake(table, checksum, mapWidth, mapHeight);
+    }
+
+    /** Checksum of everything a raster depends on */
+    private static long computeChecksum(TiledMap map, Array<Line> lines) {
+        TiledMapTileLayer layer = (TiledMapTileLayer) map.getLayers().get(0);
+        ByteBuffer buffer = ByteBuffer.allocate(4 * 4 + lines.size * 5 * 4);
+        buffer.putInt(LapPositionRaster.CELL_SIZE);
+        buffer.putInt(layer.getWidth() * layer.getTileWidth());
+        buffer.putInt(layer.getHeight() * layer.getTileHeight());
+        buffer.putInt(lines.size);
+        for (Line line : lines) {
+            buffer.putFloat(line.p1.x);
+            buffer.putFloat(line.p1.y);
+            buffer.putFloat(line.p2.x);
+            buffer.putFloat(line.p2.y);
+            buffer.putFloat(line.order);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array());
+        return crc.getValue();
+    }
+
+    private static LapPositionTable createTable(Array<Line> lines) {
 
         LapPositionTable table = new LapPositionTable();
         for (int idx = 0; idx < lines.size; ++idx) {
@@ -122,6 +185,7 @@ public class LapPositionTableIO {
             Polygon polygon = new Polygon(vertices);
             table.addSection(polygon);
         }
+        table.buildIndex();
         return table;
     }
 }
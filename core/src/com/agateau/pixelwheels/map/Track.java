@@ -26,8 +26,10 @@ import com.agateau.pixelwheels.GamePlay;
 import com.agateau.pixelwheels.gamesetup.Difficulty;
 import com.agateau.pixelwheels.stats.TrackStats;
 import com.agateau.pixelwheels.utils.OrientedPoint;
+import com.agateau.utils.AgcMathUtils;
 import com.agateau.utils.Assert;
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.maps.MapLayer;
@@ -52,6 +54,15 @@ import java.util.HashMap;
 /** The map of the current game */
 public class Track implements Disposable {
     private static final int CELL_ID_ROW_STRIDE = 10000;
+    /** Angle of the vehicles placed on start tiles */
+    public static final float START_ANGLE = 90;
+    // When creating extra start positions, give up after trying this many positions per racer
+    private static final int MAX_START_POSITION_TRIES_PER_RACER = 4;
+    // Extra start positions closer than this to another position are skipped. This is more than
+    // the diagonal of the largest vehicle, so vehicles cannot overlap whatever their angle
+    private static final float MIN_START_POSITION_DISTANCE = 100 * Constants.UNIT_FOR_PIXEL;
+    // Cache Material.values() because it allocates a new array each time it is called
+    private static final Material[] MATERIALS = Material.values();
 
     private final WeakReference<Championship> mChampionship;
     private final String mId;
@@ -61,6 +72,10 @@ public class Track implements Disposable {
 
     private TiledMap mMap;
     private Material[] mMaterialForTileId;
+    // Ordinal of the material of the top-most background tile, indexed by ty * width + tx
+    private byte[] mMaterialGrid;
+    private int mMaterialGridWidth;
+    private int mMaterialGridHeight;
     private int mStartTileId = -1;
     private Array<TiledMapTileLayer> mBackgroundLayers;
     private Array<TiledMapTileLayer> mForegroundLayers;
@@ -111,8 +126,11 @@ public class Track implements Disposable {
 
         mTileWidth = Constants.UNIT_FOR_PIXEL * mBackgroundLayers.get(0).getTileWidth();
         mTileHeight = Constants.UNIT_FOR_PIXEL * mBackgroundLayers.get(0).getTileHeight();
+        computeMaterialGrid();
 
-        mLapPositionTable = LapPositionTableIO.load(mMap);
+        FileHandle rasterHandle =
+                Gdx.files.internal("maps/" + mId + LapPositionRaster.RASTER_EXTENSION);
+        mLapPositionTable = LapPositionTableIO.load(mMap, rasterHandle);
         readWaypoints();
 
         String bgColorText = mMap.getProperties().get("backgroundcolor", "#808080", String.class);
@@ -237,9 +255,20 @@ public class Track implements Disposable {
         Assert.check(mStartTileId != -1, "No start id");
     }
 
-    private TiledMapTile getTopTileAt(Array<TiledMapTileLayer> layers, float x, float y) {
-        int tx = MathUtils.floor(x / mTileWidth);
-        int ty = MathUtils.floor(y / mTileHeight);
+    private void computeMaterialGrid() {
+        mMaterialGridWidth = mBackgroundLayers.get(0).getWidth();
+        mMaterialGridHeight = mBackgroundLayers.get(0).getHeight();
+        mMaterialGrid = new byte[mMaterialGridWidth * mMaterialGridHeight];
+        for (int ty = 0; ty < mMaterialGridHeight; ++ty) {
+            for (int tx = 0; tx < mMaterialGridWidth; ++tx) {
+                TiledMapTile tile = getTopTileAt(mBackgroundLayers, tx, ty);
+                Material material = tile == null ? Material.ROAD : mMaterialForTileId[tile.getId()];
+                mMaterialGrid[ty * mMaterialGridWidth + tx] = (byte) material.ordinal();
+            }
+        }
+    }
+
+    private static TiledMapTile getTopTileAt(Array<TiledMapTileLayer> layers, int tx, int ty) {
         for (int idx = layers.size - 1; idx >= 0; idx--) {
             TiledMapTileLayer.Cell cell = layers.get(idx).getCell(tx, ty);
             if (cell != null) {
@@ -265,11 +294,17 @@ public class Track implements Disposable {
     }
 
     public Material getMaterialAt(float x, float y) {
-        TiledMapTile tile = getTopTileAt(mBackgroundLayers, x, y);
-        if (tile == null) {
+        int tx = MathUtils.floor(x / mTileWidth);
+        int ty = MathUtils.floor(y / mTileHeight);
+        return getMaterialAtTile(tx, ty);
+    }
+
+    /** Returns the material of the top-most background tile at tx, ty (in tile coordinates) */
+    public Material getMaterialAtTile(int tx, int ty) {
+        if (tx < 0 || ty < 0 || tx >= mMaterialGridWidth || ty >= mMaterialGridHeight) {
             return Material.ROAD;
         }
-        return mMaterialForTileId[tile.getId()];
+        return MATERIALS[mMaterialGrid[ty * mMaterialGridWidth + tx]];
     }
 
     @Override
@@ -297,6 +332,115 @@ public class Track implements Disposable {
         return lst;
     }
 
+    /**
+     * Returns count start positions, from the front of the grid to the back.
+     *
+     * <p>If there are fewer start tiles than count, extra positions are created behind the start
+     * tiles, repeating their pattern along the waypoints, so that they follow the track when it
+     * turns.
+     */
+    public Array<OrientedPoint> findStartPositions(int count) {
+        Array<Vector2> tilePositions = findStartTilePositions();
+        Assert.check(tilePositions.size > 0, "No start tiles");
+        // Vehicles start going up, so the front of the grid is at the top
+        tilePositions.reverse();
+
+        Array<OrientedPoint> positions = new Array<>();
+        for (int idx = 0; idx < Math.min(count, tilePositions.size); ++idx) {
+            Vector2 pos = tilePositions.get(idx);
+            positions.add(new OrientedPoint(pos.x, pos.y, START_ANGLE));
+        }
+        if (count > tilePositions.size) {
+            addExtraStartPositions(tilePositions, count, positions);
+        }
+        return positions;
+    }
+
+    private void addExtraStartPositions(
+            Array<Vector2> tilePositions, int count, Array<OrientedPoint> positions) {
+        final float PFU = 1 / Constants.UNIT_FOR_PIXEL;
+        Vector2 front = tilePositions.first();
+        float minY = front.y;
+        for (Vector2 pos : tilePositions) {
+            minY = Math.min(minY, pos.y);
+        }
+        // Distance between two repetitions of the start tile pattern
+        float patternDepth = front.y - minY + mTileHeight;
+
+        // Project the front of the grid on the waypoint path: extra positions are computed by
+        // walking backward on the path from there
+        LapPosition lapPosition =
+                mLapPositionTable.get((int) (front.x * PFU), (int) (front.y * PFU));
+        Assert.check(lapPosition != null, "No lap position for start tile at " + front);
+        float lapDistance = lapPosition.getLapDistance();
+        OrientedPoint projected = mWaypointStore.getValidPosition(front, lapDistance);
+        Vector2 origin = new Vector2(projected.x, projected.y);
+        float originAngle = projected.angle;
+        int waypointIdx =
+                mWaypointStore.getPreviousIndex(mWaypointStore.getWaypointIndex(lapDistance));
+
+        OrientedPoint point = new OrientedPoint();
+        int maxIdx = count * MAX_START_POSITION_TRIES_PER_RACER;
+        for (int idx = tilePositions.size; positions.size < count; ++idx) {
+            Assert.check(idx < maxIdx, "Could not find " + count + " start positions");
+            Vector2 patternPos = tilePositions.get(idx % tilePositions.size);
+            float distance = front.y - patternPos.y + (idx / tilePositions.size) * patternDepth;
+            // Distance from the waypoint path, positive on the right
+            float offset =
+                    (patternPos.x - origin.x) * MathUtils.sinDeg(originAngle)
+                            - (patternPos.y - origin.y) * MathUtils.cosDeg(originAngle);
+
+            walkBackward(origin, waypointIdx, distance, point);
+            float x = point.x + offset * MathUtils.sinDeg(point.angle);
+            float y = point.y - offset * MathUtils.cosDeg(point.angle);
+            boolean onTrack = mLapPositionTable.get((int) (x * PFU), (int) (y * PFU)) != null;
+            if (onTrack
+                    && !getMaterialAt(x, y).isHole()
+                    && !isCloseToStartPositions(positions, x, y)) {
+                positions.add(new OrientedPoint(x, y, point.angle));
+            }
+        }
+    }
+
+    private static boolean isCloseToStartPositions(
+            Array<OrientedPoint> positions, float x, float y) {
+        for (OrientedPoint position : positions) {
+            if (Vector2.dst2(x, y, position.x, position.y)
+                    < MIN_START_POSITION_DISTANCE * MIN_START_POSITION_DISTANCE) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Sets point to the position which is distance units before pos on the waypoint path, and
+     * point.angle to the direction of the path at this position. waypointIdx must be the index of
+     * the waypoint before pos.
+     */
+    private void walkBackward(Vector2 pos, int waypointIdx, float distance, OrientedPoint point) {
+        float fromX = pos.x;
+        float fromY = pos.y;
+        while (true) {
+            Vector2 waypoint = mWaypointStore.getWaypoint(waypointIdx);
+            float length = Vector2.dst(fromX, fromY, waypoint.x, waypoint.y);
+            if (length > 0 && distance <= length) {
+                float k = distance / length;
+                point.x = MathUtils.lerp(fromX, waypoint.x, k);
+                point.y = MathUtils.lerp(fromY, waypoint.y, k);
+                point.angle =
+                        AgcMathUtils.normalizeAngle(
+                                MathUtils.atan2(fromY - waypoint.y, fromX - waypoint.x)
+                                        * MathUtils.radiansToDegrees);
+                return;
+            }
+            distance -= length;
+            fromX = waypoint.x;
+            fromY = waypoint.y;
+            waypointIdx = mWaypointStore.getPreviousIndex(waypointIdx);
+        }
+    }
+
     public Array<Vector2> findBonusSpotPositions() {
         final float U = Constants.UNIT_FOR_PIXEL;
         MapLayer layer = mMap.getLayers().get("BonusSpots");
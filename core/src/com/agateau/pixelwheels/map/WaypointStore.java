@@ -34,9 +34,14 @@ public class WaypointStore {
     private static class WaypointInfo {
         final Vector2 waypoint = new Vector2();
         float lapDistance;
+        // Angle and squared length of the segment going from the previous waypoint to this one
+        float segmentAngle;
+        float segmentSquareLength;
     }
 
     private final Array<WaypointInfo> mWaypointInfos = new Array<>();
+    // Lap distances of the waypoints, sorted, so that they can be binary-searched
+    private float[] mLapDistances = new float[0];
 
     public void read(MapLayer layer, LapPositionTable lapPositionTable) {
         final float U = Constants.UNIT_FOR_PIXEL;
@@ -45,6 +50,9 @@ public class WaypointStore {
                 layer.getObjects().getCount() == 1,
                 "Waypoints layer should contain 1 and only 1 object");
 
+        // The track may be initialized again after having been disposed
+        mWaypointInfos.clear();
+
         PolylineMapObject polylineMapObject = (PolylineMapObject) layer.getObjects().get(0);
         float[] vertices = polylineMapObject.getPolyline().getTransformedVertices();
         int count = vertices.length / 2;
@@ -68,6 +76,16 @@ public class WaypointStore {
             }
             mWaypointInfos.add(info);
         }
+
+        mLapDistances = new float[count];
+        for (int idx = 0; idx < count; ++idx) {
+            WaypointInfo info = mWaypointInfos.get(idx);
+            Vector2 prev = mWaypointInfos.get(getPreviousIndex(idx)).waypoint;
+            mLapDistances[idx] = info.lapDistance;
+            info.segmentAngle =
+                    AgcMathUtils.normalizeAngle(AgcMathUtils.segmentAngle(prev, info.waypoint));
+            info.segmentSquareLength = prev.dst2(info.waypoint);
+        }
     }
 
     public Vector2 getWaypoint(int index) {
@@ -88,12 +106,21 @@ public class WaypointStore {
 
     /** unit: world */
     public OrientedPoint getValidPosition(Vector2 pos, float lapDistance) {
-        int nextIdx = getWaypointIndex(lapDistance);
+        return getValidPosition(pos, lapDistance, -1);
+    }
+
+    /**
+     * Same as getValidPosition(pos, lapDistance), but uses hintIndex to find the waypoint index
+     * faster. See getWaypointIndex(float, int).
+     */
+    public OrientedPoint getValidPosition(Vector2 pos, float lapDistance, int hintIndex) {
+        int nextIdx = getWaypointIndex(lapDistance, hintIndex);
         int prevIdx = getPreviousIndex(nextIdx);
+        WaypointInfo nextInfo = mWaypointInfos.get(nextIdx);
         Vector2 prev = mWaypointInfos.get(prevIdx).waypoint;
-        Vector2 next = mWaypointInfos.get(nextIdx).waypoint;
+        Vector2 next = nextInfo.waypoint;
         Vector2 projected = AgcMathUtils.project(pos, prev, next);
-        float waypointSquareLength = prev.dst2(next);
+        float waypointSquareLength = nextInfo.segmentSquareLength;
         if (projected.dst2(prev) > waypointSquareLength) {
             // projected is after the [prev, next] segment
             projected.set(next);
@@ -103,16 +130,54 @@ public class WaypointStore {
         }
         tmpPoint.x = projected.x;
         tmpPoint.y = projected.y;
-        tmpPoint.angle = AgcMathUtils.normalizeAngle(AgcMathUtils.segmentAngle(prev, next));
+        tmpPoint.angle = nextInfo.segmentAngle;
         return tmpPoint;
     }
 
+    /**
+     * Returns the index of the first waypoint after lapDistance. Wraps to 0 if lapDistance is
+     * after the last waypoint.
+     */
     public int getWaypointIndex(float lapDistance) {
-        for (int idx = 0; idx < mWaypointInfos.size; ++idx) {
-            if (lapDistance < mWaypointInfos.get(idx).lapDistance) {
-                return idx;
+        return getWaypointIndex(lapDistance, -1);
+    }
+
+    /**
+     * Same as getWaypointIndex(lapDistance), but checks hintIndex and the index after it first.
+     *
+     * <p>Callers which follow the track should pass the last index they got, since it is most
+     * likely still valid, or about to be replaced by the next one. Pass -1 if there is no hint.
+     */
+    public int getWaypointIndex(float lapDistance, int hintIndex) {
+        int count = mLapDistances.length;
+        if (hintIndex >= 0 && hintIndex < count) {
+            if (isWaypointIndexFor(hintIndex, lapDistance)) {
+                return hintIndex;
+            }
+            int nextIndex = getNextIndex(hintIndex);
+            if (isWaypointIndexFor(nextIndex, lapDistance)) {
+                return nextIndex;
+            }
+        }
+        // Binary search for the first lap distance strictly greater than lapDistance
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (mLapDistances[middle] <= lapDistance) {
+                low = middle + 1;
+            } else {
+                high = middle;
             }
         }
-        return 0;
+        return low < count ? low : 0;
+    }
+
+    private boolean isWaypointIndexFor(int index, float lapDistance) {
+        if (index == 0) {
+            return lapDistance < mLapDistances[0]
+                    || lapDistance >= mLapDistances[mLapDistances.length - 1];
+        }
+        return mLapDistances[index - 1] <= lapDistance && lapDistance < mLapDistances[index];
     }
 }
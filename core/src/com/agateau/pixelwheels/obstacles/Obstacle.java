@@ -20,6 +20,7 @@ package com.agateau.pixelwheels.obstacles;
 
 import com.agateau.pixelwheels.Constants;
 import com.agateau.pixelwheels.GamePlay;
+import com.agateau.pixelwheels.GameWorld;
 import com.agateau.pixelwheels.TextureRegionProvider;
 import com.agateau.pixelwheels.ZLevel;
 import com.agateau.pixelwheels.gameobject.GameObjectAdapter;
@@ -27,6 +28,7 @@ import com.agateau.pixelwheels.racescreen.CollisionCategories;
 import com.agateau.pixelwheels.utils.BodyRegionDrawer;
 import com.agateau.pixelwheels.utils.Box2DUtils;
 import com.agateau.pixelwheels.utils.DrawUtils;
+import com.agateau.pixelwheels.utils.InterpolatedTransform;
 import com.agateau.utils.AgcMathUtils;
 import com.badlogic.gdx.graphics.g2d.Batch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
@@ -34,26 +36,26 @@ import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.physics.box2d.Body;
 import com.badlogic.gdx.physics.box2d.BodyDef;
 import com.badlogic.gdx.physics.box2d.Fixture;
-import com.badlogic.gdx.physics.box2d.World;
 import com.badlogic.gdx.utils.Disposable;
 
 public class Obstacle extends GameObjectAdapter implements Disposable {
     private static final float LINEAR_DRAG = 90f;
     private static final float ANGULAR_DRAG = 2f;
-    private final World mWorld;
+    private final GameWorld mGameWorld;
     private final Body mBody;
+    private final InterpolatedTransform mTransform = new InterpolatedTransform();
     private final TextureRegion mRegion;
     private final float mRegionRadius;
 
     private final BodyRegionDrawer mBodyRegionDrawer = new BodyRegionDrawer();
 
     Obstacle(
-            World box2DWorld,
+            GameWorld gameWorld,
             TextureRegionProvider provider,
             ObstacleDef obstacleDef,
             BodyDef bodyDef) {
-        mWorld = box2DWorld;
-        mBody = box2DWorld.createBody(bodyDef);
+        mGameWorld = gameWorld;
+        mBody = gameWorld.getBox2DWorld().createBody(bodyDef);
         mBody.createFixture(
                 Box2DUtils.createBox2DShape(obstacleDef.shape, Constants.UNIT_FOR_PIXEL),
                 obstacleDef.density);
@@ -70,6 +72,7 @@ public class Obstacle extends GameObjectAdapter implements Disposable {
         if (!obstacleDef.dynamic) {
             setStaticObstacleRestitution(mBody);
         }
+        mTransform.reset(mBody);
     }
 
     @Override
@@ -78,6 +81,11 @@ public class Obstacle extends GameObjectAdapter implements Disposable {
         Box2DUtils.applyCircularDrag(mBody, ANGULAR_DRAG);
     }
 
+    @Override
+    public void saveTransform() {
+        mTransform.save(mBody);
+    }
+
     @Override
     public void draw(Batch batch, ZLevel zLevel, Rectangle viewBounds) {
         if (zLevel != ZLevel.ON_GROUND && zLevel != ZLevel.GROUND) {
@@ -86,15 +94,26 @@ public class Obstacle extends GameObjectAdapter implements Disposable {
         if (!AgcMathUtils.rectangleContains(viewBounds, getPosition(), mRegionRadius)) {
             return;
         }
+        float alpha = mGameWorld.getRenderAlpha();
         if (zLevel == ZLevel.ON_GROUND) {
             mBodyRegionDrawer.setBatch(batch);
-            mBodyRegionDrawer.draw(mBody, mRegion);
+            mBodyRegionDrawer.draw(mTransform, alpha, mRegion);
         } else {
             mBodyRegionDrawer.setBatch(batch);
-            mBodyRegionDrawer.drawShadow(mBody, mRegion);
+            mBodyRegionDrawer.drawShadow(mTransform, alpha, mRegion);
         }
     }
 
+    @Override
+    public int getZLevelMask() {
+        return ZLevel.GROUND.mask | ZLevel.ON_GROUND.mask;
+    }
+
+    @Override
+    public float getDrawRadius() {
+        return mRegionRadius;
+    }
+
     @Override
     public float getX() {
         return mBody.getPosition().x;
@@ -107,7 +126,7 @@ public class Obstacle extends GameObjectAdapter implements Disposable {
 
     @Override
     public void dispose() {
-        mWorld.destroyBody(mBody);
+        mGameWorld.getBox2DWorld().destroyBody(mBody);
     }
 
     public static void setStaticObstacleRestitution(Body body) {
@@ -68,10 +68,7 @@ public class ObstacleCreator {
                     bodyDef.angle = angle;
                     Obstacle obstacle =
                             new Obstacle(
-                                    gameWorld.getBox2DWorld(),
-                                    textureRegionProvider,
-                                    obstacleDef,
-                                    bodyDef);
+                                    gameWorld, textureRegionProvider, obstacleDef, bodyDef);
                     gameWorld.addGameObject(obstacle);
                 });
     }
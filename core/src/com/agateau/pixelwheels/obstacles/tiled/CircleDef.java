@@ -18,45 +18,22 @@
  */
 package com.agateau.pixelwheels.obstacles.tiled;
 
-import com.agateau.pixelwheels.Constants;
-import com.agateau.pixelwheels.GameWorld;
 import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
 import com.badlogic.gdx.math.Vector2;
-import com.badlogic.gdx.physics.box2d.Body;
-import com.badlogic.gdx.physics.box2d.BodyDef;
-import com.badlogic.gdx.physics.box2d.CircleShape;
-import com.badlogic.gdx.physics.box2d.World;
 import com.google.gson.JsonObject;
 
 class CircleDef implements TiledObstacleDef {
     private final float mRadius;
     private final Vector2 mOrigin = new Vector2();
-    private final BodyDef mBodyDef = new BodyDef();
 
     public CircleDef(JsonObject object) {
-        mBodyDef.type = BodyDef.BodyType.StaticBody;
-        mBodyDef.bullet = false;
-
         mRadius = object.get("radius").getAsFloat();
         mOrigin.x = object.get("x").getAsFloat();
         mOrigin.y = object.get("y").getAsFloat();
     }
 
     @Override
-    public void create(
-            GameWorld world, int col, int row, int tileSize, TiledMapTileLayer.Cell cell) {
-        World box2DWorld = world.getBox2DWorld();
-
-        float k = tileSize * Constants.UNIT_FOR_PIXEL;
-        mBodyDef.position.set(col, row).add(mOrigin).scl(k);
-        Body body = box2DWorld.createBody(mBodyDef);
-
-        CircleShape shape = new CircleShape();
-        shape.setRadius(mRadius * k);
-
-        body.createFixture(shape, 1 /* density */);
-        shape.dispose();
-
-        TiledObstacleCreator.setWallCollisionInfo(body);
+    public void create(ObstacleCompiler compiler, int col, int row, TiledMapTileLayer.Cell cell) {
+        compiler.addCircle(col + mOrigin.x, row + mOrigin.y, mRadius);
     }
 }
@@ -18,9 +18,7 @@
  */
 package com.agateau.pixelwheels.obstacles.tiled;
 
-import com.agateau.pixelwheels.GameWorld;
 import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
-import com.badlogic.gdx.math.Rectangle;
 
 /** Handles coalescing all "full" obstacle cells to create fewer, larger obstacle bodies. */
 class FullObstacleCreator {
@@ -28,17 +26,13 @@ class FullObstacleCreator {
 
     /**
      * A TiledObstacleDef which does not itself create the obstacle bodies: it just fills mCells.
-     * FullObstacleCreator.create() then pass over all mCells to create bodies.
+     * FullObstacleCreator.create() then pass over all mCells to create rectangles.
      */
     private final TiledObstacleDef mFullObstacleDef =
             new TiledObstacleDef() {
                 @Override
                 public void create(
-                        GameWorld world,
-                        int col,
-                        int row,
-                        int tileSize,
-                        TiledMapTileLayer.Cell cell) {
+                        ObstacleCompiler compiler, int col, int row, TiledMapTileLayer.Cell cell) {
                     mCells[col][row] = true;
                 }
             };
@@ -52,14 +46,10 @@ class FullObstacleCreator {
     }
 
     /** Create the rectangles: note that mCells is scanned *bottom-to-top*, not *top-to-bottom* */
-    public void create(GameWorld world, int tileSize) {
+    public void create(ObstacleCompiler compiler) {
         int width = mCells.length;
         int height = mCells[0].length;
 
-        Rectangle rect = new Rectangle();
-        rect.x = -0.5f;
-        rect.y = -0.5f;
-
         int startTx = -1;
         for (int ty = 0; ty < height; ++ty) {
             // Trick: we let `tx` go to `width` inclusive and simulate an empty column at
@@ -82,9 +72,7 @@ class FullObstacleCreator {
                             }
                         }
 
-                        rect.width = tx - startTx;
-                        rect.height = endTy - ty;
-                        RectangleDef.createRectangle(world, startTx, ty, tileSize, rect);
+                        compiler.addRectangle(startTx, ty, tx - startTx, endTy - ty);
                         startTx = -1;
                     }
                 } else {
@@ -18,7 +18,6 @@
  */
 package com.agateau.pixelwheels.obstacles.tiled;
 
-import com.agateau.pixelwheels.GameWorld;
 import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
 import com.badlogic.gdx.utils.Array;
 import com.google.gson.JsonArray;
@@ -37,10 +36,9 @@ class MultiDef implements TiledObstacleDef {
     }
 
     @Override
-    public void create(
-            GameWorld world, int col, int row, int tileSize, TiledMapTileLayer.Cell cell) {
+    public void create(ObstacleCompiler compiler, int col, int row, TiledMapTileLayer.Cell cell) {
         for (TiledObstacleDef def : mObstacleDefs) {
-            def.create(world, col, row, tileSize, cell);
+            def.create(compiler, col, row, cell);
         }
     }
 }
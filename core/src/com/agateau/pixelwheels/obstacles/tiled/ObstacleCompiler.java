@@ -0,0 +1,241 @@
+/*
+ * Copyright 2026 Aurélien Gâteau <mail@agateau.com>
+ *
+ * This file is part of Pixel Wheels.
+ *
+ * Pixel Wheels is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.agateau.pixelwheels.obstacles.tiled;
+
+import com.agateau.pixelwheels.Constants;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.physics.box2d.BodyDef;
+import com.badlogic.gdx.physics.box2d.CircleShape;
+import com.badlogic.gdx.physics.box2d.PolygonShape;
+import com.badlogic.gdx.physics.box2d.World;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.IntMap;
+import java.util.Comparator;
+
+/**
+ * Collects the static wall shapes of a map, then creates them as a few Box2D bodies.
+ *
+ * <p>Shapes are expressed in tile units: the tile at (col, row) covers the [col, col + 1] x [row,
+ * row + 1] area.
+ *
+ * <p>When merging is enabled, compile() first merges adjacent axis-aligned rectangles of the same
+ * height (or width) into longer ones. This turns the borders made of repeated wall tiles into a
+ * few long fixtures. It then creates one static body per region of REGION_SIZE x REGION_SIZE
+ * tiles, holding the fixtures of all the shapes whose center is in this region.
+ *
+ * <p>When merging is disabled, each shape gets its own body, like TiledObstacleCreator used to do.
+ */
+class ObstacleCompiler {
+    static final int REGION_SIZE = 16;
+    private static final float EPSILON = 0.0001f;
+    private static final float DENSITY = 1;
+
+    private static final Comparator<Rectangle> sHorizontalComparator =
+            (r1, r2) -> {
+                int cmp = compareFloats(r1.y, r2.y);
+                if (cmp == 0) {
+                    cmp = compareFloats(r1.height, r2.height);
+                }
+                return cmp == 0 ? Float.compare(r1.x, r2.x) : cmp;
+            };
+
+    private static final Comparator<Rectangle> sVerticalComparator =
+            (r1, r2) -> {
+                int cmp = compareFloats(r1.x, r2.x);
+                if (cmp == 0) {
+                    cmp = compareFloats(r1.width, r2.width);
+                }
+                return cmp == 0 ? Float.compare(r1.y, r2.y) : cmp;
+            };
+
+    private final float mTileSize;
+    private final boolean mMergeEnabled;
+    private final Array<Rectangle> mRectangles = new Array<>();
+    /** 8 floats per polygon: the 4 vertices of a rotated rectangle */
+    private final FloatArray mPolygons = new FloatArray();
+    /** 3 floats per circle: x, y and radius */
+    private final FloatArray mCircles = new FloatArray();
+
+    private final BodyDef mBodyDef = new BodyDef();
+    private final IntMap<Body> mBodyForRegion = new IntMap<>();
+    private final Array<Body> mBodies = new Array<>();
+    private final float[] mVertices = new float[8];
+    private final Vector2 mTmp = new Vector2();
+
+    /**
+     * @param tileSize size of a tile, in pixels
+     * @param mergeEnabled whether shapes should be merged into a few bodies
+     */
+    ObstacleCompiler(int tileSize, boolean mergeEnabled) {
+        mTileSize = tileSize * Constants.UNIT_FOR_PIXEL;
+        mMergeEnabled = mergeEnabled;
+        mBodyDef.type = BodyDef.BodyType.StaticBody;
+        mBodyDef.bullet = false;
+    }
+
+    void addRectangle(float x, float y, float width, float height) {
+        mRectangles.add(new Rectangle(x, y, width, height));
+    }
+
+    /** Adds a 4-vertex convex polygon */
+    void addPolygon(float[] vertices) {
+        mPolygons.addAll(vertices, 0, 8);
+    }
+
+    void addCircle(float x, float y, float radius) {
+        mCircles.add(x);
+        mCircles.add(y);
+        mCircles.add(radius);
+    }
+
+    /** Creates the bodies for all the shapes added so far */
+    void compile(World world) {
+        if (mMergeEnabled) {
+            mergeRectangles(sHorizontalComparator, true);
+            mergeRectangles(sVerticalComparator, false);
+        }
+        for (Rectangle rect : mRectangles) {
+            Body body = getBody(world, rect.x + rect.width / 2, rect.y + rect.height / 2);
+            mVertices[0] = rect.x;
+            mVertices[1] = rect.y + rect.height;
+            mVertices[2] = rect.x;
+            mVertices[3] = rect.y;
+            mVertices[4] = rect.x + rect.width;
+            mVertices[5] = rect.y;
+            mVertices[6] = rect.x + rect.width;
+            mVertices[7] = rect.y + rect.height;
+            createPolygonFixture(body, mVertices);
+        }
+        for (int idx = 0; idx < mPolygons.size; idx += 8) {
+            System.arraycopy(mPolygons.items, idx, mVertices, 0, 8);
+            float centerX = (mVertices[0] + mVertices[2] + mVertices[4] + mVertices[6]) / 4;
+            float centerY = (mVertices[1] + mVertices[3] + mVertices[5] + mVertices[7]) / 4;
+            createPolygonFixture(getBody(world, centerX, centerY), mVertices);
+        }
+        for (int idx = 0; idx < mCircles.size; idx += 3) {
+            float x = mCircles.get(idx);
+            float y = mCircles.get(idx + 1);
+            createCircleFixture(getBody(world, x, y), x, y, mCircles.get(idx + 2));
+        }
+
+        for (Body body : mBodies) {
+            TiledObstacleCreator.setWallCollisionInfo(body);
+        }
+        mBodies.clear();
+        mBodyForRegion.clear();
+        mRectangles.clear();
+        mPolygons.clear();
+        mCircles.clear();
+    }
+
+    /**
+     * Sorts mRectangles using comparator, then merges consecutive rectangles which are on the same
+     * row (if horizontal is true) or the same column (if horizontal is false) and which touch or
+     * overlap each other
+     */
+    private void mergeRectangles(Comparator<Rectangle> comparator, boolean horizontal) {
+        mRectangles.sort(comparator);
+        int outIdx = 0;
+        for (int idx = 1; idx < mRectangles.size; ++idx) {
+            Rectangle current = mRectangles.get(outIdx);
+            Rectangle next = mRectangles.get(idx);
+            boolean canMerge =
+                    horizontal
+                            ? canMergeHorizontally(current, next)
+                            : canMergeVertically(current, next);
+            if (canMerge) {
+                current.merge(next);
+            } else {
+                ++outIdx;
+                mRectangles.set(outIdx, next);
+            }
+        }
+        if (mRectangles.size > 0) {
+            mRectangles.truncate(outIdx + 1);
+        }
+    }
+
+    private static boolean canMergeHorizontally(Rectangle r1, Rectangle r2) {
+        return compareFloats(r1.y, r2.y) == 0
+                && compareFloats(r1.height, r2.height) == 0
+                && r2.x <= r1.x + r1.width + EPSILON;
+    }
+
+    private static boolean canMergeVertically(Rectangle r1, Rectangle r2) {
+        return compareFloats(r1.x, r2.x) == 0
+                && compareFloats(r1.width, r2.width) == 0
+                && r2.y <= r1.y + r1.height + EPSILON;
+    }
+
+    private static int compareFloats(float v1, float v2) {
+        if (Math.abs(v1 - v2) < EPSILON) {
+            return 0;
+        }
+        return v1 < v2 ? -1 : 1;
+    }
+
+    /**
+     * Returns the body which must hold the shape whose center is at (x, y), creating it if
+     * necessary. When merging is disabled a new body is created for each shape.
+     */
+    private Body getBody(World world, float x, float y) {
+        if (!mMergeEnabled) {
+            mBodyDef.position.set(x, y).scl(mTileSize);
+            Body body = world.createBody(mBodyDef);
+            mBodies.add(body);
+            return body;
+        }
+        int regionX = (int) Math.floor(x / REGION_SIZE);
+        int regionY = (int) Math.floor(y / REGION_SIZE);
+        // Maps are much smaller than 2^15 regions, so this key is unique
+        int key = (regionY << 16) | (regionX & 0xffff);
+        Body body = mBodyForRegion.get(key);
+        if (body == null) {
+            mBodyDef.position.set(regionX, regionY).scl(REGION_SIZE * mTileSize);
+            body = world.createBody(mBodyDef);
+            mBodyForRegion.put(key, body);
+            mBodies.add(body);
+        }
+        return body;
+    }
+
+    private void createPolygonFixture(Body body, float[] vertices) {
+        Vector2 origin = body.getPosition();
+        for (int idx = 0; idx < vertices.length; idx += 2) {
+            vertices[idx] = vertices[idx] * mTileSize - origin.x;
+            vertices[idx + 1] = vertices[idx + 1] * mTileSize - origin.y;
+        }
+        PolygonShape shape = new PolygonShape();
+        shape.set(vertices);
+        body.createFixture(shape, DENSITY);
+        shape.dispose();
+    }
+
+    private void createCircleFixture(Body body, float x, float y, float radius) {
+        Vector2 origin = body.getPosition();
+        CircleShape shape = new CircleShape();
+        shape.setPosition(mTmp.set(x, y).scl(mTileSize).sub(origin));
+        shape.setRadius(radius * mTileSize);
+        body.createFixture(shape, DENSITY);
+        shape.dispose();
+    }
+}
@@ -18,30 +18,18 @@
  */
 package com.agateau.pixelwheels.obstacles.tiled;
 
-import com.agateau.pixelwheels.Constants;
-import com.agateau.pixelwheels.GameWorld;
 import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
 import com.badlogic.gdx.math.Polygon;
 import com.badlogic.gdx.math.Rectangle;
-import com.badlogic.gdx.physics.box2d.Body;
-import com.badlogic.gdx.physics.box2d.BodyDef;
-import com.badlogic.gdx.physics.box2d.PolygonShape;
-import com.badlogic.gdx.physics.box2d.World;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 
 class RectangleDef implements TiledObstacleDef {
     private static final Polygon sPolygon = new Polygon(new float[8]);
-    private static final BodyDef sBodyDef = new BodyDef();
 
     private final Rectangle mRectangle = new Rectangle();
     private final float mAngle;
 
-    static {
-        sBodyDef.type = BodyDef.BodyType.StaticBody;
-        sBodyDef.bullet = false;
-    }
-
     public RectangleDef(JsonObject object) {
         mRectangle.x = object.get("x").getAsFloat() - 0.5f;
         mRectangle.y = object.get("y").getAsFloat() - 0.5f;
@@ -52,13 +40,11 @@ class RectangleDef implements TiledObstacleDef {
     }
 
     @Override
-    public void create(
-            GameWorld world, int col, int row, int tileSize, TiledMapTileLayer.Cell cell) {
+    public void create(ObstacleCompiler compiler, int col, int row, TiledMapTileLayer.Cell cell) {
         createRectangle(
-                world,
+                compiler,
                 col,
                 row,
-                tileSize,
                 mRectangle,
                 mAngle,
                 cell.getRotation(),
@@ -67,23 +53,49 @@ class RectangleDef implements TiledObstacleDef {
     }
 
     static void createRectangle(
-            GameWorld world, int col, int row, int tileSize, Rectangle rectangle) {
-        createRectangle(world, col, row, tileSize, rectangle, 0, 0, false, false);
-    }
-
-    static void createRectangle(
-            GameWorld world,
+            ObstacleCompiler compiler,
             int col,
             int row,
-            int tileSize,
             Rectangle rectangle,
             float angle,
             int cellRotation,
             boolean hflip,
             boolean vflip) {
-        World box2DWorld = world.getBox2DWorld();
+        float sx = hflip ? -1 : 1;
+        float sy = vflip ? -1 : 1;
+        if (hflip) {
+            angle = 180 - angle;
+        }
+        if (vflip) {
+            angle = -angle;
+        }
+        // cellRotation is a value between 0 and 3
+        float rotation = cellRotation * 90 + angle;
 
-        float k = tileSize * Constants.UNIT_FOR_PIXEL;
+        if (rotation % 90 == 0) {
+            // The rectangle stays axis-aligned: compute its bounds without going through sin() and
+            // cos(), so that the compiler can merge it with its neighbors
+            int quarterTurns = ((int) (rotation / 90) % 4 + 4) % 4;
+            float x1 = sx * rectangle.x;
+            float y1 = sy * rectangle.y;
+            float x2 = sx * (rectangle.x + rectangle.width);
+            float y2 = sy * (rectangle.y + rectangle.height);
+            for (int idx = 0; idx < quarterTurns; ++idx) {
+                // Rotate by 90 degrees counter-clockwise: (x, y) => (-y, x)
+                float tmp = x1;
+                x1 = -y1;
+                y1 = tmp;
+                tmp = x2;
+                x2 = -y2;
+                y2 = tmp;
+            }
+            compiler.addRectangle(
+                    col + 0.5f + Math.min(x1, x2),
+                    row + 0.5f + Math.min(y1, y2),
+                    Math.abs(x2 - x1),
+                    Math.abs(y2 - y1));
+            return;
+        }
 
         /*
          A          D
@@ -105,29 +117,13 @@ class RectangleDef implements TiledObstacleDef {
         // D
         vertices[6] = rectangle.x + rectangle.width;
         vertices[7] = rectangle.y + rectangle.height;
+        sPolygon.dirty();
 
-        float hk = hflip ? -k : k;
-        float vk = vflip ? -k : k;
-        sPolygon.setScale(hk, vk);
-
-        if (hflip) {
-            angle = 180 - angle;
-        }
-        if (vflip) {
-            angle = -angle;
-        }
-        // cellRotation is a value between 0 and 3
-        // Always set it because we reuse the Polygon instance
-        sPolygon.setRotation(cellRotation * 90 + angle);
-
-        PolygonShape shape = new PolygonShape();
-        shape.set(sPolygon.getTransformedVertices());
-
-        sBodyDef.position.set(col, row).add(0.5f, 0.5f).scl(k);
-        Body body = box2DWorld.createBody(sBodyDef);
-        body.createFixture(shape, 1 /* density */);
-        shape.dispose();
+        // Always set all the transformations because we reuse the Polygon instance
+        sPolygon.setScale(sx, sy);
+        sPolygon.setRotation(rotation);
+        sPolygon.setPosition(col + 0.5f, row + 0.5f);
 
-        TiledObstacleCreator.setWallCollisionInfo(body);
+        compiler.addPolygon(sPolygon.getTransformedVertices());
     }
 }
@@ -18,7 +18,6 @@
  */
 package com.agateau.pixelwheels.obstacles.tiled;
 
-import com.agateau.pixelwheels.GameWorld;
 import com.agateau.pixelwheels.obstacles.Obstacle;
 import com.agateau.pixelwheels.racescreen.CollisionCategories;
 import com.agateau.pixelwheels.utils.Box2DUtils;
@@ -27,6 +26,7 @@ import com.badlogic.gdx.maps.tiled.TiledMapTile;
 import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
 import com.badlogic.gdx.maps.tiled.TiledMapTileSet;
 import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.physics.box2d.World;
 import com.badlogic.gdx.utils.Array;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
@@ -39,6 +39,9 @@ import java.util.HashMap;
  * create.
  *
  * <p>The format of the "obstacle" property is documented in docs/map-format.md.
+ *
+ * <p>The shapes of all the tiles are collected in an ObstacleCompiler, which merges them into a
+ * few bodies.
  */
 public class TiledObstacleCreator {
     private final FullObstacleCreator mFullObstacleCreator;
@@ -46,7 +49,15 @@ public class TiledObstacleCreator {
     private final HashMap<TiledMapTile, TiledObstacleDef> mDefsForTile = new HashMap<>();
 
     /** Main entry point: create the obstacles in @p world, according to @p map. */
-    public static void createObstacles(GameWorld world, TiledMap map) {
+    public static void createObstacles(World world, TiledMap map) {
+        createObstacles(world, map, true);
+    }
+
+    /**
+     * Create the obstacles in @p world, according to @p map. If @p mergeShapes is false, each
+     * obstacle gets its own body. This is only useful to compare with the merged bodies.
+     */
+    public static void createObstacles(World world, TiledMap map, boolean mergeShapes) {
         Array<TiledMapTileLayer> layers = map.getLayers().getByType(TiledMapTileLayer.class);
         TiledMapTileLayer firstLayer = layers.first();
 
@@ -55,10 +66,12 @@ public class TiledObstacleCreator {
                         firstLayer.getWidth(),
                         firstLayer.getHeight(),
                         map.getTileSets().getTileSet(0));
+        ObstacleCompiler compiler = new ObstacleCompiler(firstLayer.getTileWidth(), mergeShapes);
         for (TiledMapTileLayer layer : layers) {
-            creator.create(world, layer);
+            creator.create(compiler, layer);
         }
-        creator.mFullObstacleCreator.create(world, firstLayer.getTileWidth());
+        creator.mFullObstacleCreator.create(compiler);
+        compiler.compile(world);
     }
 
     public TiledObstacleCreator(int width, int height, TiledMapTileSet tileSet) {
@@ -102,12 +115,10 @@ public class TiledObstacleCreator {
         return def;
     }
 
-    private void create(GameWorld world, TiledMapTileLayer layer) {
+    private void create(ObstacleCompiler compiler, TiledMapTileLayer layer) {
         int tHeight = layer.getHeight();
         int tWidth = layer.getWidth();
 
-        int tileWidth = layer.getTileWidth();
-
         for (int ty = 0; ty < tHeight; ++ty) {
             for (int tx = 0; tx < tWidth; ++tx) {
                 TiledMapTileLayer.Cell cell = layer.getCell(tx, ty);
@@ -116,7 +127,7 @@ public class TiledObstacleCreator {
                 }
                 TiledObstacleDef def = mDefsForTile.get(cell.getTile());
                 if (def != null) {
-                    def.create(world, tx, ty, tileWidth, cell);
+                    def.create(compiler, tx, ty, cell);
                 }
             }
         }
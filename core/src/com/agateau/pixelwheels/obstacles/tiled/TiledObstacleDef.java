@@ -18,13 +18,12 @@
  */
 package com.agateau.pixelwheels.obstacles.tiled;
 
-import com.agateau.pixelwheels.GameWorld;
 import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
 
 /**
- * Classes implementing this interface know how to create a static Box2D obstacle from the obstacle
- * definition of a tile
+ * Classes implementing this interface know how to add the shapes of a static Box2D obstacle to an
+ * ObstacleCompiler, from the obstacle definition of a tile
  */
 interface TiledObstacleDef {
-    void create(GameWorld world, int col, int row, int tileSize, TiledMapTileLayer.Cell cell);
+    void create(ObstacleCompiler compiler, int col, int row, TiledMapTileLayer.Cell cell);
 }
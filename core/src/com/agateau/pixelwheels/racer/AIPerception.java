@@ -0,0 +1,305 @@
+/*
+ * Copyright 2026 Aurélien Gâteau <mail@agateau.com>
+ *
+ * This file is part of Pixel Wheels.
+ *
+ * Pixel Wheels is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.agateau.pixelwheels.racer;
+
+import com.agateau.pixelwheels.BodyIdentifier;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.physics.box2d.BodyDef;
+import com.badlogic.gdx.physics.box2d.Fixture;
+import com.badlogic.gdx.physics.box2d.QueryCallback;
+import com.badlogic.gdx.physics.box2d.World;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Answers the ray queries of all AI pilots, once per physics step.
+ *
+ * <p>update() must be called after the Box2D step and before the game objects act. It asks each
+ * client for its rays, then answers them all together:
+ *
+ * <ul>
+ *   <li>Walls never move, so their shapes are stored in a grid the first time update() is called.
+ *       Rays only test the walls of the cells they cross.
+ *   <li>Moving obstacles (other vehicles and dropped mines) are collected with a single AABB query
+ *       covering all the rays, and stored in a grid covering the same area, which is rebuilt each
+ *       time rays are answered.
+ * </ul>
+ *
+ * <p>Each ray hits the closest accepted body, like ClosestBodyFinder with a filter accepting
+ * static obstacles and vehicles other than the owner of the ray.
+ *
+ * <p>The position of the hit body and whether it is a wall are recorded when the ray is answered.
+ * The getters of this class only read these results, so they can be called from several threads
+ * until the next call to update(), unlike the Box2D getters which share their return values.
+ */
+public class AIPerception {
+    public interface Client {
+        /** Called by update(): the client must add the rays it needs for this step */
+        void addRays(AIPerception perception);
+    }
+
+    // Size of the grid cells, in world units
+    private static final float CELL_SIZE = 4;
+
+    private final World mWorld;
+    private final Array<Client> mClients = new Array<>();
+
+    // Rays, indexed by the ids returned by addRay()
+    private int mRayCount = 0;
+    private float[] mRayCoords = new float[64]; // x1, y1, x2, y2
+    private Racer[] mRayOwners = new Racer[16];
+    private Body[] mRayHitBodies = new Body[16];
+    private float[] mRayHitPositions = new float[32]; // x, y
+    private boolean[] mRayHitWalls = new boolean[16];
+
+    // Walls
+    private boolean mWallsReady = false;
+    private final RayPrimitives mWalls = new RayPrimitives();
+    private final RayPrimitiveGrid mWallGrid = new RayPrimitiveGrid(CELL_SIZE);
+
+    // Moving obstacles
+    private final RayPrimitives mObstacles = new RayPrimitives();
+    private final RayPrimitiveGrid mObstacleGrid = new RayPrimitiveGrid(CELL_SIZE);
+    private final QueryCallback mQueryCallback =
+            fixture -> {
+                if (isMovingObstacle(fixture.getBody())) {
+                    mObstacles.addFixture(fixture);
+                }
+                return true;
+            };
+
+    private final Array<Body> mTmpBodies = new Array<>();
+
+    public AIPerception(World world) {
+        mWorld = world;
+    }
+
+    public void addClient(Client client) {
+        mClients.add(client);
+    }
+
+    public void removeClient(Client client) {
+        mClients.removeValue(client, true);
+    }
+
+    /**
+     * Adds a ray from (x1, y1) to (x2, y2), which must not hit the body of owner. Must only be
+     * called from Client.addRays(). Returns the id to pass to getHitBody().
+     */
+    public int addRay(Racer owner, float x1, float y1, float x2, float y2) {
+        if (mRayCount == mRayOwners.length) {
+            growRays();
+        }
+        int offset = mRayCount * 4;
+        mRayCoords[offset] = x1;
+        mRayCoords[offset + 1] = y1;
+        mRayCoords[offset + 2] = x2;
+        mRayCoords[offset + 3] = y2;
+        mRayOwners[mRayCount] = owner;
+        mRayHitBodies[mRayCount] = null;
+        mRayHitWalls[mRayCount] = false;
+        return mRayCount++;
+    }
+
+    public int addRay(Racer owner, Vector2 from, Vector2 to) {
+        return addRay(owner, from.x, from.y, to.x, to.y);
+    }
+
+    /** Returns the closest body hit by the ray, or null */
+    public Body getHitBody(int rayId) {
+        return mRayHitBodies[rayId];
+    }
+
+    /** Returns true if the ray hit a wall */
+    public boolean isHitBodyWall(int rayId) {
+        return mRayHitWalls[rayId];
+    }
+
+    /** Returns the position the body hit by the ray had when the ray was answered */
+    public float getHitBodyX(int rayId) {
+        return mRayHitPositions[rayId * 2];
+    }
+
+    public float getHitBodyY(int rayId) {
+        return mRayHitPositions[rayId * 2 + 1];
+    }
+
+    public void update() {
+        mRayCount = 0;
+        for (int idx = 0; idx < mClients.size; ++idx) {
+            mClients.get(idx).addRays(this);
+        }
+        answerRays(0, mRayCount);
+    }
+
+    /**
+     * Lets client add its rays and answers them immediately. This is for clients which did not get
+     * a chance to add their rays during update().
+     */
+    public void updateClient(Client client) {
+        int first = mRayCount;
+        client.addRays(this);
+        answerRays(first, mRayCount);
+    }
+
+    private void answerRays(int first, int end) {
+        if (first == end) {
+            return;
+        }
+        if (!mWallsReady) {
+            initWalls();
+        }
+        collectMovingObstacles(first, end);
+        for (int rayId = first; rayId < end; ++rayId) {
+            answerRay(rayId);
+        }
+    }
+
+    private void answerRay(int rayId) {
+        int offset = rayId * 4;
+        float x1 = mRayCoords[offset];
+        float y1 = mRayCoords[offset + 1];
+        float x2 = mRayCoords[offset + 2];
+        float y2 = mRayCoords[offset + 3];
+        Racer owner = mRayOwners[rayId];
+
+        float bestFraction = RayPrimitives.NO_HIT;
+        Body bestBody = null;
+        boolean bestIsWall = false;
+
+        // Moving obstacles
+        mObstacleGrid.startRay(x1, y1, x2, y2);
+        do {
+            for (int idx = mObstacleGrid.getCellBegin(); idx < mObstacleGrid.getCellEnd(); ++idx) {
+                int obstacleIdx = mObstacleGrid.getPrimitive(idx);
+                if (obstacleIdx == -1) {
+                    continue;
+                }
+                Body body = mObstacles.getBody(obstacleIdx);
+                if (body.getUserData() == owner) {
+                    continue;
+                }
+                float fraction = mObstacles.intersect(obstacleIdx, x1, y1, x2, y2);
+                if (fraction < bestFraction) {
+                    bestFraction = fraction;
+                    bestBody = body;
+                }
+            }
+        } while (mObstacleGrid.nextCell(bestFraction));
+
+        // Walls: only the cells before the closest obstacle hit need to be tested
+        mWallGrid.startRay(x1, y1, x2, y2);
+        do {
+            for (int idx = mWallGrid.getCellBegin(); idx < mWallGrid.getCellEnd(); ++idx) {
+                int wallIdx = mWallGrid.getPrimitive(idx);
+                if (wallIdx == -1) {
+                    continue;
+                }
+                float fraction = mWalls.intersect(wallIdx, x1, y1, x2, y2);
+                if (fraction < bestFraction) {
+                    bestFraction = fraction;
+                    bestBody = mWalls.getBody(wallIdx);
+                    bestIsWall = true;
+                }
+            }
+        } while (mWallGrid.nextCell(bestFraction));
+        mRayHitBodies[rayId] = bestBody;
+        mRayHitWalls[rayId] = bestIsWall;
+        if (bestBody != null) {
+            Vector2 position = bestBody.getPosition();
+            mRayHitPositions[rayId * 2] = position.x;
+            mRayHitPositions[rayId * 2 + 1] = position.y;
+        }
+    }
+
+    private void collectMovingObstacles(int first, int end) {
+        float minX = Float.MAX_VALUE;
+        float minY = Float.MAX_VALUE;
+        float maxX = -Float.MAX_VALUE;
+        float maxY = -Float.MAX_VALUE;
+        for (int rayId = first; rayId < end; ++rayId) {
+            int offset = rayId * 4;
+            for (int idx = 0; idx < 4; idx += 2) {
+                minX = Math.min(minX, mRayCoords[offset + idx]);
+                minY = Math.min(minY, mRayCoords[offset + idx + 1]);
+                maxX = Math.max(maxX, mRayCoords[offset + idx]);
+                maxY = Math.max(maxY, mRayCoords[offset + idx + 1]);
+            }
+        }
+        mObstacles.clear();
+        mWorld.QueryAABB(mQueryCallback, minX, minY, maxX, maxY);
+        mObstacleGrid.build(mObstacles, minX, minY, maxX, maxY);
+    }
+
+    private static boolean isMovingObstacle(Body body) {
+        if (BodyIdentifier.isVehicle(body)) {
+            return true;
+        }
+        // Dropped mines are static, mines still attached to their racer are not obstacles
+        return BodyIdentifier.isMine(body) && body.getType() == BodyDef.BodyType.StaticBody;
+    }
+
+    private void initWalls() {
+        mWorld.getBodies(mTmpBodies);
+        for (Body body : mTmpBodies) {
+            if (!BodyIdentifier.isWall(body)) {
+                continue;
+            }
+            for (Fixture fixture : body.getFixtureList()) {
+                mWalls.addFixture(fixture);
+            }
+        }
+        mTmpBodies.clear();
+        buildWallGrid();
+        mWallsReady = true;
+    }
+
+    private void buildWallGrid() {
+        float minX = Float.MAX_VALUE;
+        float minY = Float.MAX_VALUE;
+        float maxX = -Float.MAX_VALUE;
+        float maxY = -Float.MAX_VALUE;
+        for (int idx = 0; idx < mWalls.size(); ++idx) {
+            minX = Math.min(minX, mWalls.getMinX(idx));
+            minY = Math.min(minY, mWalls.getMinY(idx));
+            maxX = Math.max(maxX, mWalls.getMaxX(idx));
+            maxY = Math.max(maxY, mWalls.getMaxY(idx));
+        }
+        mWallGrid.build(mWalls, minX, minY, maxX, maxY);
+    }
+
+    private void growRays() {
+        int capacity = mRayOwners.length * 2;
+        float[] coords = new float[capacity * 4];
+        System.arraycopy(mRayCoords, 0, coords, 0, mRayCount * 4);
+        mRayCoords = coords;
+        Racer[] owners = new Racer[capacity];
+        System.arraycopy(mRayOwners, 0, owners, 0, mRayCount);
+        mRayOwners = owners;
+        Body[] hitBodies = new Body[capacity];
+        System.arraycopy(mRayHitBodies, 0, hitBodies, 0, mRayCount);
+        mRayHitBodies = hitBodies;
+        float[] hitPositions = new float[capacity * 2];
+        System.arraycopy(mRayHitPositions, 0, hitPositions, 0, mRayCount * 2);
+        mRayHitPositions = hitPositions;
+        boolean[] hitWalls = new boolean[capacity];
+        System.arraycopy(mRayHitWalls, 0, hitWalls, 0, mRayCount);
+        mRayHitWalls = hitWalls;
+    }
+}
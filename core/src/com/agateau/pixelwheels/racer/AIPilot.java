@@ -18,7 +18,6 @@
  */
 package com.agateau.pixelwheels.racer;
 
-import com.agateau.pixelwheels.BodyIdentifier;
 import com.agateau.pixelwheels.GamePlay;
 import com.agateau.pixelwheels.GameWorld;
 import com.agateau.pixelwheels.bonus.Bonus;
@@ -30,19 +29,22 @@ import com.agateau.pixelwheels.map.Track;
 import com.agateau.pixelwheels.map.WaypointStore;
 import com.agateau.pixelwheels.stats.GameStats;
 import com.agateau.pixelwheels.stats.TrackStats;
-import com.agateau.pixelwheels.utils.ClosestBodyFinder;
 import com.agateau.utils.AgcMathUtils;
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Vector2;
-import com.badlogic.gdx.physics.box2d.Body;
-import com.badlogic.gdx.physics.box2d.World;
 
-/** An AI pilot */
-public class AIPilot implements Pilot {
+/**
+ * An AI pilot.
+ *
+ * <p>decide() computes the vehicle commands from the results of AIPerception, act() applies them.
+ */
+public class AIPilot implements Pilot, AIPerception.Client {
     private static final float MIN_NORMAL_SPEED = 2;
     private static final float MAX_BLOCKED_DURATION = 1;
     private static final float MAX_REVERSE_DURATION = 0.5f;
     private static final int MAX_FORWARD_WAYPOINTS = 2;
+    // Waypoints considered by findBestTarget(): the previous one, then MAX_FORWARD_WAYPOINTS
+    private static final int CANDIDATE_COUNT = MAX_FORWARD_WAYPOINTS + 1;
     // How much of the vehicle width to move the target to avoid a mine
     private static final float AVOIDANCE_FACTOR = 2;
 
@@ -67,37 +69,55 @@ public class AIPilot implements Pilot {
         }
     }
 
+    /** A waypoint which could become the target, and the rays to check it can be reached */
+    private static class Candidate {
+        final Vector2 position = new Vector2();
+        float score;
+        int rightRayId;
+        int leftRayId;
+    }
+
     private final Vector2 mHalfWidth = new Vector2();
     private final Vector2 mTmpVector1 = new Vector2();
-    private final Vector2 mTmpVector2 = new Vector2();
 
     private final GameWorld mGameWorld;
     private final Track mTrack;
     private final Racer mRacer;
 
-    private final ClosestBodyFinder mClosestBodyFinder;
+    private final AIPerception mPerception;
     private final MaterialChecker mMaterialChecker;
 
     private State mState = State.NORMAL;
     private float mBlockedDuration = 0;
     private float mReverseDuration = 0;
+    // Last waypoint index returned by WaypointStore, used as a hint for the next lookup
+    private int mWaypointIndex = -1;
 
     private final Target mTarget = new Target();
     private final Target mNextTarget = new Target();
 
+    // Filled by addRays()
+    private final Candidate[] mCandidates = new Candidate[CANDIDATE_COUNT];
+    private int mCandidateCount = 0;
+    private boolean mRaysAdded = false;
+
+    // Vehicle commands, computed by decide() and applied by act()
+    private boolean mAccelerating;
+    private boolean mBraking;
+    private float mSpeedLimiter;
+    private boolean mSpeedLimiterChanged;
+    private float mDirection;
+    private boolean mDirectionChanged;
+
     public AIPilot(GameWorld gameWorld, Track track, Racer racer) {
         mGameWorld = gameWorld;
         mTrack = track;
         mRacer = racer;
-        mClosestBodyFinder =
-                new ClosestBodyFinder(
-                        body -> {
-                            if (BodyIdentifier.isStaticObstacle(body)) {
-                                return true;
-                            }
-                            return BodyIdentifier.isOtherVehicle(body, mRacer);
-                        });
-
+        mPerception = gameWorld.getAIPerception();
+        mPerception.addClient(this);
+        for (int idx = 0; idx < CANDIDATE_COUNT; ++idx) {
+            mCandidates[idx] = new Candidate();
+        }
         mMaterialChecker = new MaterialChecker(track);
     }
 
@@ -106,18 +126,33 @@ public class AIPilot implements Pilot {
     }
 
     @Override
-    public void act(float dt) {
-        handleBonus(dt);
+    public void decide(float dt) {
+        mSpeedLimiterChanged = false;
+        mDirectionChanged = false;
         switch (mState) {
             case NORMAL:
-                actNormal(dt);
+                decideNormal(dt);
                 break;
             case BLOCKED:
-                actBlocked(dt);
+                decideBlocked(dt);
                 break;
         }
     }
 
+    @Override
+    public void act(float dt) {
+        handleBonus(dt);
+        Vehicle vehicle = mRacer.getVehicle();
+        vehicle.setAccelerating(mAccelerating);
+        vehicle.setBraking(mBraking);
+        if (mSpeedLimiterChanged) {
+            vehicle.setSpeedLimiter(mSpeedLimiter);
+        }
+        if (mDirectionChanged) {
+            vehicle.setDirection(mDirection);
+        }
+    }
+
     private static final GameStats sDummyGameStats =
             new GameStats() {
                 @Override
@@ -151,6 +186,9 @@ public class AIPilot implements Pilot {
 
                 @Override
                 public void save() {}
+
+                @Override
+                public void flush() {}
             };
 
     @Override
@@ -158,10 +196,63 @@ public class AIPilot implements Pilot {
         return sDummyGameStats;
     }
 
-    private void actNormal(float dt) {
-        // update mHalfWidth
+    @Override
+    public void addRays(AIPerception perception) {
+        mCandidateCount = 0;
+        mRaysAdded = false;
+        if (mState != State.NORMAL || mRacer.getLapPositionComponent().hasFinishedRace()) {
+            return;
+        }
+        mRaysAdded = true;
+        updateHalfWidth();
+
+        float lapDistance = mRacer.getLapPositionComponent().getLapDistance();
+        WaypointStore store = mTrack.getWaypointStore();
+        Vector2 position = mRacer.getPosition();
+        float hx = mHalfWidth.x;
+        float hy = mHalfWidth.y;
+
+        // Start at the previous index, as a fallback in case the next waypoints are not visible
+        mWaypointIndex = store.getWaypointIndex(lapDistance, mWaypointIndex);
+        int index = store.getPreviousIndex(mWaypointIndex);
+        for (int i = -1; i < MAX_FORWARD_WAYPOINTS; ++i, index = store.getNextIndex(index)) {
+            Vector2 waypoint = store.getWaypoint(index);
+            Candidate candidate = mCandidates[mCandidateCount++];
+            candidate.position.set(waypoint);
+            candidate.score = (float) i;
+            // Check there is nothing on a line from the right side of the vehicle to the
+            // similarly-offset right side of the target, and the same thing on the left
+            candidate.rightRayId =
+                    perception.addRay(
+                            mRacer,
+                            position.x + hx,
+                            position.y + hy,
+                            waypoint.x + hx,
+                            waypoint.y + hy);
+            candidate.leftRayId =
+                    perception.addRay(
+                            mRacer,
+                            position.x - hx,
+                            position.y - hy,
+                            waypoint.x - hx,
+                            waypoint.y - hy);
+        }
+    }
+
+    private void updateHalfWidth() {
         Vehicle vehicle = mRacer.getVehicle();
         mHalfWidth.set(0, vehicle.getHeight() / 2).rotateDeg(vehicle.getAngle());
+    }
+
+    private void decideNormal(float dt) {
+        if (!mRaysAdded) {
+            // mPerception.update() did not ask us for rays since our last decide(), because we
+            // were blocked or because decide() is called outside of the world step. This never
+            // happens when GameWorld runs the decide phase in parallel, since it always calls
+            // mPerception.update() first.
+            mPerception.updateClient(this);
+        }
+        mRaysAdded = false;
 
         updateAcceleration();
         updateDirection();
@@ -184,11 +275,11 @@ public class AIPilot implements Pilot {
         mReverseDuration = 0;
     }
 
-    private void actBlocked(float dt) {
-        Vehicle vehicle = mRacer.getVehicle();
-        vehicle.setAccelerating(false);
-        vehicle.setBraking(true);
-        vehicle.setDirection(0);
+    private void decideBlocked(float dt) {
+        mAccelerating = false;
+        mBraking = true;
+        mDirection = 0;
+        mDirectionChanged = true;
         mReverseDuration += dt;
         if (mReverseDuration > MAX_REVERSE_DURATION) {
             mState = State.NORMAL;
@@ -197,20 +288,13 @@ public class AIPilot implements Pilot {
     }
 
     private void updateAcceleration() {
-        Vehicle vehicle = mRacer.getVehicle();
-        vehicle.setAccelerating(true);
-        vehicle.setBraking(false);
+        mAccelerating = true;
+        mBraking = false;
 
         // If we are better ranked than a player, slow down a bit
-        boolean needLimit = false;
-        for (Racer playerRacer : mGameWorld.getPlayerRacers()) {
-            if (Racer.compareRaceDistances(mRacer, playerRacer) > 0) {
-                needLimit = true;
-                break;
-            }
-        }
-        float limit = needLimit ? GamePlay.instance.aiSpeedLimiter : 1f;
-        vehicle.setSpeedLimiter(limit);
+        boolean needLimit = mGameWorld.getRacerRank(mRacer) < mGameWorld.getLastPlayerRank();
+        mSpeedLimiter = needLimit ? GamePlay.instance.aiSpeedLimiter : 1f;
+        mSpeedLimiterChanged = true;
     }
 
     private void updateDirection() {
@@ -230,21 +314,16 @@ public class AIPilot implements Pilot {
         } else if (deltaAngle < -180) {
             deltaAngle += 360;
         }
-        float direction = MathUtils.clamp(deltaAngle / GamePlay.instance.lowSpeedMaxSteer, -1, 1);
-        vehicle.setDirection(direction);
+        mDirection = MathUtils.clamp(deltaAngle / GamePlay.instance.lowSpeedMaxSteer, -1, 1);
+        mDirectionChanged = true;
     }
 
     private Target findBestTarget() {
-        float lapDistance = mRacer.getLapPositionComponent().getLapDistance();
-        WaypointStore store = mTrack.getWaypointStore();
-
-        // Start at the previous index, as a fallback in case the next waypoints are not visible
-        int index = store.getPreviousIndex(store.getWaypointIndex(lapDistance));
         mTarget.reset();
-        for (int i = -1; i < MAX_FORWARD_WAYPOINTS; ++i, index = store.getNextIndex(index)) {
-            mNextTarget.position.set(store.getWaypoint(index));
-            mNextTarget.score = (float) i;
-            updateNextTarget();
+        for (int idx = 0; idx < mCandidateCount; ++idx) {
+            Candidate candidate = mCandidates[idx];
+            mNextTarget.set(candidate.position, candidate.score);
+            updateNextTarget(candidate);
             if (mNextTarget.score > mTarget.score) {
                 mTarget.set(mNextTarget.position, mNextTarget.score);
             }
@@ -256,23 +335,12 @@ public class AIPilot implements Pilot {
         return mTarget;
     }
 
-    private void updateNextTarget() {
-        Vector2 position = mTmpVector1;
-        Vector2 adjustedTargetPos = mTmpVector2;
-
-        // Check there is nothing on a line from the right side of the vehicle to the
-        // similarly-offset right side of the target
-        position.set(mRacer.getPosition()).add(mHalfWidth);
-        adjustedTargetPos.set(mNextTarget.position).add(mHalfWidth);
-        if (!checkClearLine(position, adjustedTargetPos, -AVOIDANCE_FACTOR)) {
+    private void updateNextTarget(Candidate candidate) {
+        if (!checkClearLine(candidate.rightRayId, -AVOIDANCE_FACTOR)) {
             mNextTarget.reset();
             return;
         }
-
-        // Same thing on the left
-        position.set(mRacer.getPosition()).sub(mHalfWidth);
-        adjustedTargetPos.set(mNextTarget.position).sub(mHalfWidth);
-        if (!checkClearLine(position, adjustedTargetPos, AVOIDANCE_FACTOR)) {
+        if (!checkClearLine(candidate.leftRayId, AVOIDANCE_FACTOR)) {
             mNextTarget.reset();
             return;
         }
@@ -291,21 +359,21 @@ public class AIPilot implements Pilot {
     }
 
     @SuppressWarnings("BooleanMethodIsAlwaysInverted")
-    private boolean checkClearLine(
-            Vector2 position, Vector2 adjustedTargetPos, float avoidanceFactor) {
-        World world = mGameWorld.getBox2DWorld();
-        Body body = mClosestBodyFinder.find(world, position, adjustedTargetPos);
-        if (body == null) {
+    private boolean checkClearLine(int rayId, float avoidanceFactor) {
+        // Use the positions recorded by mPerception: body.getPosition() is not thread-safe
+        if (mPerception.getHitBody(rayId) == null) {
             return true;
         }
-        if (BodyIdentifier.isWall(body)) {
+        if (mPerception.isHitBodyWall(rayId)) {
             return false;
         }
 
         // An obstacle we can avoid
         float dx = 2 * mHalfWidth.x * avoidanceFactor;
         float dy = 2 * mHalfWidth.y * avoidanceFactor;
-        mNextTarget.position.set(body.getPosition()).add(dx, dy);
+        mNextTarget.position
+                .set(mPerception.getHitBodyX(rayId), mPerception.getHitBodyY(rayId))
+                .add(dx, dy);
         return true;
     }
 
@@ -24,6 +24,7 @@ import com.agateau.pixelwheels.racescreen.Collidable;
 import com.agateau.pixelwheels.sound.AudioManager;
 import com.agateau.pixelwheels.sound.EngineSoundPlayer;
 import com.agateau.pixelwheels.sound.SoundAtlas;
+import com.agateau.pixelwheels.sound.SoundCategory;
 import com.agateau.pixelwheels.sound.SoundPlayer;
 import com.agateau.pixelwheels.sound.SoundSettings;
 import com.badlogic.gdx.math.MathUtils;
@@ -64,9 +65,11 @@ class AudioComponent implements Racer.Component, Disposable, Collidable {
         } else {
             mEngineSoundPlayer = null;
         }
-        mDriftingSoundPlayer = audioManager.createSoundPlayer(atlas.get("drifting"));
+        mDriftingSoundPlayer =
+                audioManager.createSoundPlayer(atlas.get("drifting"), SoundCategory.DRIFTING);
         mTurboSoundPlayer = audioManager.createSoundPlayer(atlas.get("turbo"));
-        mCollisionSoundPlayer = audioManager.createSoundPlayer(atlas.get("collision"));
+        mCollisionSoundPlayer =
+                audioManager.createSoundPlayer(atlas.get("collision"), SoundCategory.COLLISION);
         mSplashSoundPlayer = audioManager.createSoundPlayer(atlas.get("splash"));
         mSoundPlayers.addAll(mDriftingSoundPlayer, mTurboSoundPlayer, mCollisionSoundPlayer);
         mRacer = racer;
@@ -101,8 +101,8 @@ public class DisruptedComponent implements Racer.Component, Renderer {
         // By default vehicle points to the right, so getWidth() / 4 roughly points to the middle of
         // the hood
         mTmp.set(vehicle.getWidth() / 4, 0)
-                .rotateDeg(vehicle.getAngle())
-                .add(vehicle.getX(), vehicle.getY());
+                .rotateRad(vehicle.getRenderBodyAngle())
+                .add(vehicle.getRenderPosition());
         mSmokeEffect.setPosition(mTmp.x, mTmp.y);
         mSmokeEffect.draw(batch);
     }
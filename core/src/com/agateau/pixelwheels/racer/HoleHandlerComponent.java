@@ -20,6 +20,7 @@ package com.agateau.pixelwheels.racer;
 
 import com.agateau.pixelwheels.Assets;
 import com.agateau.pixelwheels.GameWorld;
+import com.agateau.pixelwheels.gameobject.GameObjectStore;
 import com.agateau.pixelwheels.map.Track;
 import com.agateau.pixelwheels.racescreen.Helicopter;
 import com.agateau.pixelwheels.utils.OrientedPoint;
@@ -43,7 +44,9 @@ public class HoleHandlerComponent implements Racer.Component {
     private final Track mTrack;
     private final Racer mRacer;
     private final Vector2 mVelocity = new Vector2();
-    private Helicopter mHelicopter = null;
+    // Helicopters are pooled: keep a handle rather than a reference, since once the helicopter has
+    // left, the instance can be reused by another racer
+    private int mHelicopterHandle = GameObjectStore.INVALID_HANDLE;
 
     public enum State {
         NORMAL,
@@ -109,9 +112,9 @@ public class HoleHandlerComponent implements Racer.Component {
     }
 
     private void switchToFallingState() {
-        mHelicopter =
+        Helicopter helicopter =
                 Helicopter.create(mAssets, mRacer.getAudioManager(), mGameWorld.getTrack(), this);
-        mGameWorld.addGameObject(mHelicopter);
+        mHelicopterHandle = mGameWorld.addGameObject(helicopter);
         mState = State.FALLING;
         mTime = 0;
     }
@@ -125,21 +128,22 @@ public class HoleHandlerComponent implements Racer.Component {
             return;
         }
 
-        mHelicopter.setDestination(mVehicle.getPosition(), mVehicle.getAngle());
+        Helicopter helicopter = getHelicopter();
+        helicopter.setDestination(mVehicle.getPosition(), mVehicle.getAngle());
 
-        if (mHelicopter.isAtDestination()) {
+        if (helicopter.isAtDestination()) {
             mState = State.LIFTING;
             mTime = 0;
             mVehicle.setStopped(true);
             mVehicle.setFlying(true);
             mRacer.looseBonus();
-            mHelicopter.switchToRecoveringState();
+            helicopter.switchToRecoveringState();
         }
     }
 
     private void switchToClimbingState() {
         mState = State.CLIMBING;
-        mHelicopter.leave();
+        releaseHelicopter();
     }
 
     private void actClimbing(float delta) {
@@ -170,17 +174,18 @@ public class HoleHandlerComponent implements Racer.Component {
         float distance = mLapPositionComponent.getLapDistance();
         OrientedPoint dropPoint =
                 mTrack.getValidPosition(mVehicle.getBody().getWorldCenter(), distance);
-        mHelicopter.setDestination(dropPoint);
+        getHelicopter().setDestination(dropPoint);
     }
 
     private void actRecovering(float delta) {
+        Helicopter helicopter = getHelicopter();
         mVelocity
-                .set(mHelicopter.getPosition())
+                .set(helicopter.getPosition())
                 .sub(mVehicle.getBody().getPosition())
                 .scl(1 / delta);
 
         float angleDelta =
-                AgcMathUtils.shortestAngleDelta(mVehicle.getAngle(), mHelicopter.getAngle());
+                AgcMathUtils.shortestAngleDelta(mVehicle.getAngle(), helicopter.getAngle());
         float angularVelocity =
                 MathUtils.clamp(
                                 angleDelta / delta,
@@ -191,13 +196,13 @@ public class HoleHandlerComponent implements Racer.Component {
         mVehicle.getBody().setLinearVelocity(mVelocity);
         mVehicle.getBody().setAngularVelocity(angularVelocity);
 
-        if (mHelicopter.isAtDestination()) {
+        if (helicopter.isAtDestination()) {
             // Disable flying as soon as we start dropping to avoid
             // https://github.com/agateau/pixelwheels/issues/302
             mVehicle.setFlying(false);
             mState = State.DROPPING;
             mTime = 0;
-            mHelicopter.leave();
+            releaseHelicopter();
         }
     }
 
@@ -210,6 +215,16 @@ public class HoleHandlerComponent implements Racer.Component {
         }
     }
 
+    /** Returns the helicopter, or null if it has left */
+    private Helicopter getHelicopter() {
+        return (Helicopter) mGameWorld.getGameObjectStore().get(mHelicopterHandle);
+    }
+
+    private void releaseHelicopter() {
+        getHelicopter().leave();
+        mHelicopterHandle = GameObjectStore.INVALID_HANDLE;
+    }
+
     private void switchToNormalState() {
         mVehicle.setZ(0);
         mVehicle.setStopped(false);
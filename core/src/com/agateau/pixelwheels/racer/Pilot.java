@@ -20,7 +20,15 @@ package com.agateau.pixelwheels.racer;
 
 import com.agateau.pixelwheels.stats.GameStats;
 
-/** A Pilot */
+/**
+ * A Pilot.
+ *
+ * <p>Driving happens in two phases: decide() computes what to do, then act() applies it to the
+ * vehicle. decide() can run on a worker thread, at the same time as the decide() method of other
+ * pilots, so it must not modify anything but the pilot itself.
+ */
 public interface Pilot extends Racer.Component {
     GameStats getGameStats();
+
+    void decide(float delta);
 }
@@ -67,6 +67,11 @@ public class PlayerPilot implements Pilot {
         mInputHandler.createHudButtons(mAssets, hud);
     }
 
+    @Override
+    public void decide(float dt) {
+        // Input must be read from the game thread, act() does everything
+    }
+
     @Override
     public void act(float dt) {
         Vehicle vehicle = mRacer.getVehicle();
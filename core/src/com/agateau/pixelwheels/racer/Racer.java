@@ -25,6 +25,7 @@ import com.agateau.pixelwheels.ZLevel;
 import com.agateau.pixelwheels.bonus.Bonus;
 import com.agateau.pixelwheels.bonus.BonusPool;
 import com.agateau.pixelwheels.debug.Debug;
+import com.agateau.pixelwheels.gameobject.Audible;
 import com.agateau.pixelwheels.gameobject.AudioClipper;
 import com.agateau.pixelwheels.gameobject.CellFrameBufferManager;
 import com.agateau.pixelwheels.gameobject.CellFrameBufferUser;
@@ -49,7 +50,7 @@ import com.badlogic.gdx.utils.Disposable;
 
 /** A racer */
 public class Racer extends GameObjectAdapter
-        implements Collidable, Disposable, CellFrameBufferUser {
+        implements Audible, Collidable, Disposable, CellFrameBufferUser {
     private final GameWorld mGameWorld;
     private final Vehicle mVehicle;
     private final VehicleRenderer mVehicleRenderer;
@@ -57,6 +58,7 @@ public class Racer extends GameObjectAdapter
     private final DisruptedComponent mDisruptedComponent;
     private final LapPositionComponent mLapPositionComponent;
     private final AudioComponent mAudioComponent;
+    private final PilotSupervisorComponent mSupervisorComponent;
     private final Array<Component> mComponents = new Array<>();
     private final Array<Collidable> mCollidableComponents = new Array<>();
     private final GameInfo.Entrant mEntrant;
@@ -73,6 +75,16 @@ public class Racer extends GameObjectAdapter
         mVehicleRenderer.init(manager);
     }
 
+    @Override
+    public void reserveCells() {
+        mVehicleRenderer.reserveCells();
+    }
+
+    @Override
+    public void releaseUnusedCells() {
+        mVehicleRenderer.releaseUnusedCells();
+    }
+
     @Override
     public void drawToCell(Batch batch, Rectangle viewBounds) {
         float old = batch.getPackedColor();
@@ -102,21 +114,45 @@ public class Racer extends GameObjectAdapter
         void act(float delta);
     }
 
+    /**
+     * Drives the racer in two phases: decide() lets the pilot decide what to do, it can run on a
+     * worker thread. act() is the commit phase: it runs on the game thread and lets the pilot
+     * apply its decision.
+     */
     private class PilotSupervisorComponent implements Component {
+        private boolean mDecided = false;
+
+        void decide(float delta) {
+            mDecided = canPilot();
+            if (mDecided) {
+                mPilot.decide(delta);
+            }
+        }
+
         @Override
         public void act(float delta) {
-            if (mLapPositionComponent.hasFinishedRace()
-                    || mHoleHandlerComponent.getState() != HoleHandlerComponent.State.NORMAL) {
+            if (!canPilot()) {
                 mVehicle.setAccelerating(false);
                 mVehicle.setBraking(false);
-            } else if (mDisruptedComponent.isActive()) {
+                mDecided = false;
+                return;
+            }
+            if (!mDecided) {
+                // decide() has not been called for this step, or the racer could not drive then
+                mPilot.decide(delta);
+            }
+            mDecided = false;
+            mPilot.act(delta);
+            if (mDisruptedComponent.isActive()) {
                 // Let pilot control direction, but kill the engine
-                mPilot.act(delta);
                 mVehicle.setAccelerating(false);
-            } else {
-                mPilot.act(delta);
             }
         }
+
+        private boolean canPilot() {
+            return !mLapPositionComponent.hasFinishedRace()
+                    && mHoleHandlerComponent.getState() == HoleHandlerComponent.State.NORMAL;
+        }
     }
 
     public Racer(
@@ -140,11 +176,11 @@ public class Racer extends GameObjectAdapter
 
         mEntrant = entrant;
 
-        mVehicleRenderer = new VehicleRenderer(assets, mVehicle);
+        mVehicleRenderer = new VehicleRenderer(assets, gameWorld, mVehicle);
         mHoleHandlerComponent =
                 new HoleHandlerComponent(assets, mGameWorld, this, mLapPositionComponent);
 
-        PilotSupervisorComponent supervisorComponent = new PilotSupervisorComponent();
+        mSupervisorComponent = new PilotSupervisorComponent();
 
         mAudioComponent = new AudioComponent(assets.soundAtlas, audioManager, this);
 
@@ -152,7 +188,7 @@ public class Racer extends GameObjectAdapter
         addComponent(mVehicle);
         addComponent(mHoleHandlerComponent);
         addComponent(mDisruptedComponent);
-        addComponent(supervisorComponent);
+        addComponent(mSupervisorComponent);
         addComponent(new BonusSpotHitComponent(this));
         addComponent(mAudioComponent);
 
@@ -293,6 +329,14 @@ public class Racer extends GameObjectAdapter
         }
     }
 
+    /**
+     * Runs the decide phase of the pilot. Called by GameWorld before the racers act, possibly on a
+     * worker thread: see Pilot.decide()
+     */
+    public void decidePilot(float delta) {
+        mSupervisorComponent.decide(delta);
+    }
+
     @Override
     public void act(float delta) {
         for (Racer.Component component : mComponents) {
@@ -304,6 +348,11 @@ public class Racer extends GameObjectAdapter
         }
     }
 
+    @Override
+    public void saveTransform() {
+        mVehicle.saveTransforms();
+    }
+
     @SuppressWarnings("rawtypes")
     public void selectBonus() {
         float normalizedRank = mGameWorld.getRacerNormalizedRank(this);
@@ -373,6 +422,11 @@ public class Racer extends GameObjectAdapter
         return mVehicle.getY();
     }
 
+    @Override
+    public float getDrawRadius() {
+        return mVehicleRenderer.getDrawRadius();
+    }
+
     public VehicleRenderer getVehicleRenderer() {
         return mVehicleRenderer;
     }
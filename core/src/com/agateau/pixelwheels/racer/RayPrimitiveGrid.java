@@ -0,0 +1,201 @@
+/*
+ * Copyright 2026 Aurélien Gâteau <mail@agateau.com>
+ *
+ * This file is part of Pixel Wheels.
+ *
+ * Pixel Wheels is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.agateau.pixelwheels.racer;
+
+import com.badlogic.gdx.math.MathUtils;
+
+/**
+ * A uniform grid of the primitives of a RayPrimitives, built from their bounding boxes, so that a
+ * ray only tests the primitives of the cells it crosses.
+ *
+ * <p>Primitives outside the grid go to the border cells. The arrays are kept between calls to
+ * build(), so rebuilding the grid at each step does not allocate once they are large enough.
+ *
+ * <p>To cast a ray, call startRay(), test the primitives of the current cell with
+ * getCellBegin(), getCellEnd() and getPrimitive(), then call nextCell() to move to the next cell
+ * crossed by the ray. Cells are visited in the ray order, so the walk can stop as soon as a hit
+ * closer than the next cell has been found.
+ */
+class RayPrimitiveGrid {
+    private final float mCellSize;
+
+    private float mOriginX;
+    private float mOriginY;
+    private int mColumns;
+    private int mRows;
+    // Primitives of cell (col, row) are mCellPrimitives[mCellStarts[row * mColumns + col]] to
+    // mCellPrimitives[mCellStarts[row * mColumns + col + 1] - 1]
+    private int[] mCellStarts = new int[1];
+    private int[] mCellPrimitives = new int[0];
+    private int[] mCounts = new int[0];
+
+    // Used to avoid testing a primitive twice for the same ray: mStamps[idx] == mStamp if
+    // primitive idx has already been returned for the current ray
+    private int[] mStamps = new int[0];
+    private int mStamp = 0;
+
+    // State of the current ray
+    private int mColumn;
+    private int mRow;
+    private int mEndColumn;
+    private int mEndRow;
+    private int mStepColumn;
+    private int mStepRow;
+    private float mDeltaX;
+    private float mDeltaY;
+    private float mMaxX;
+    private float mMaxY;
+
+    RayPrimitiveGrid(float cellSize) {
+        mCellSize = cellSize;
+    }
+
+    /** Builds the grid, covering the (minX, minY) - (maxX, maxY) rectangle */
+    void build(RayPrimitives primitives, float minX, float minY, float maxX, float maxY) {
+        int count = primitives.size();
+        if (count == 0) {
+            mColumns = 0;
+            mRows = 0;
+            return;
+        }
+        mOriginX = minX;
+        mOriginY = minY;
+        mColumns = MathUtils.floor((maxX - minX) / mCellSize) + 1;
+        mRows = MathUtils.floor((maxY - minY) / mCellSize) + 1;
+        int cellCount = mColumns * mRows;
+        if (mCounts.length < cellCount) {
+            mCounts = new int[cellCount];
+            mCellStarts = new int[cellCount + 1];
+        }
+        if (mStamps.length < count) {
+            mStamps = new int[count];
+            mStamp = 0;
+        }
+
+        // First pass: count primitives per cell, second pass: fill
+        for (int cell = 0; cell < cellCount; ++cell) {
+            mCounts[cell] = 0;
+        }
+        for (int pass = 0; pass < 2; ++pass) {
+            if (pass == 1) {
+                for (int cell = 0; cell < cellCount; ++cell) {
+                    mCellStarts[cell + 1] = mCellStarts[cell] + mCounts[cell];
+                    mCounts[cell] = mCellStarts[cell];
+                }
+                if (mCellPrimitives.length < mCellStarts[cellCount]) {
+                    mCellPrimitives = new int[mCellStarts[cellCount]];
+                }
+            }
+            for (int idx = 0; idx < count; ++idx) {
+                int col1 = getColumn(primitives.getMinX(idx));
+                int col2 = getColumn(primitives.getMaxX(idx));
+                int row1 = getRow(primitives.getMinY(idx));
+                int row2 = getRow(primitives.getMaxY(idx));
+                for (int row = row1; row <= row2; ++row) {
+                    for (int col = col1; col <= col2; ++col) {
+                        int cell = row * mColumns + col;
+                        if (pass == 0) {
+                            ++mCounts[cell];
+                        } else {
+                            mCellPrimitives[mCounts[cell]++] = idx;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /** Starts walking the cells crossed by the (x1, y1) - (x2, y2) ray */
+    void startRay(float x1, float y1, float x2, float y2) {
+        ++mStamp;
+        float dx = x2 - x1;
+        float dy = y2 - y1;
+        mColumn = MathUtils.floor((x1 - mOriginX) / mCellSize);
+        mRow = MathUtils.floor((y1 - mOriginY) / mCellSize);
+        mEndColumn = MathUtils.floor((x2 - mOriginX) / mCellSize);
+        mEndRow = MathUtils.floor((y2 - mOriginY) / mCellSize);
+        mStepColumn = dx > 0 ? 1 : -1;
+        mStepRow = dy > 0 ? 1 : -1;
+        mDeltaX = dx != 0 ? mCellSize / Math.abs(dx) : Float.MAX_VALUE;
+        mDeltaY = dy != 0 ? mCellSize / Math.abs(dy) : Float.MAX_VALUE;
+        mMaxX =
+                dx != 0
+                        ? ((mColumn + (dx > 0 ? 1 : 0)) * mCellSize + mOriginX - x1) / dx
+                        : Float.MAX_VALUE;
+        mMaxY =
+                dy != 0
+                        ? ((mRow + (dy > 0 ? 1 : 0)) * mCellSize + mOriginY - y1) / dy
+                        : Float.MAX_VALUE;
+    }
+
+    /**
+     * Moves to the next cell crossed by the ray. Returns false if there are no more cells, or if
+     * the next cell starts after bestFraction.
+     */
+    boolean nextCell(float bestFraction) {
+        float exitFraction = Math.min(mMaxX, mMaxY);
+        if ((mColumn == mEndColumn && mRow == mEndRow)
+                || exitFraction > 1
+                || bestFraction <= exitFraction) {
+            return false;
+        }
+        if (mMaxX < mMaxY) {
+            mColumn += mStepColumn;
+            mMaxX += mDeltaX;
+        } else {
+            mRow += mStepRow;
+            mMaxY += mDeltaY;
+        }
+        return true;
+    }
+
+    /** Index of the first primitive of the current cell, to pass to getPrimitive() */
+    int getCellBegin() {
+        return isCellInGrid() ? mCellStarts[mRow * mColumns + mColumn] : 0;
+    }
+
+    int getCellEnd() {
+        return isCellInGrid() ? mCellStarts[mRow * mColumns + mColumn + 1] : 0;
+    }
+
+    /**
+     * Returns the index in the RayPrimitives of the primitive at position idx of the current cell,
+     * or -1 if it has already been returned for this ray
+     */
+    int getPrimitive(int idx) {
+        int primitiveIdx = mCellPrimitives[idx];
+        if (mStamps[primitiveIdx] == mStamp) {
+            return -1;
+        }
+        mStamps[primitiveIdx] = mStamp;
+        return primitiveIdx;
+    }
+
+    private boolean isCellInGrid() {
+        return mColumn >= 0 && mRow >= 0 && mColumn < mColumns && mRow < mRows;
+    }
+
+    private int getColumn(float x) {
+        return MathUtils.clamp(MathUtils.floor((x - mOriginX) / mCellSize), 0, mColumns - 1);
+    }
+
+    private int getRow(float y) {
+        return MathUtils.clamp(MathUtils.floor((y - mOriginY) / mCellSize), 0, mRows - 1);
+    }
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright 2026 Aurélien Gâteau <mail@agateau.com>
+ *
+ * This file is part of Pixel Wheels.
+ *
+ * Pixel Wheels is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.agateau.pixelwheels.racer;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.physics.box2d.ChainShape;
+import com.badlogic.gdx.physics.box2d.CircleShape;
+import com.badlogic.gdx.physics.box2d.EdgeShape;
+import com.badlogic.gdx.physics.box2d.Fixture;
+import com.badlogic.gdx.physics.box2d.PolygonShape;
+import com.badlogic.gdx.physics.box2d.Shape;
+import com.badlogic.gdx.physics.box2d.Transform;
+
+/**
+ * Stores the shapes of fixtures as world-space segments and circles, which rays can be tested
+ * against without going through Box2D.
+ *
+ * <p>Results match Box2D ray casts: polygon edges are only hit from the outside, so a ray starting
+ * inside a polygon does not hit it, and edges and chains are hit from both sides.
+ */
+class RayPrimitives {
+    static final float NO_HIT = Float.MAX_VALUE;
+
+    private static final byte ONE_SIDED_SEGMENT = 0;
+    private static final byte TWO_SIDED_SEGMENT = 1;
+    private static final byte CIRCLE = 2;
+
+    // 4 floats per primitive: x1, y1, x2, y2 for segments, center x, center y, radius, 0 for
+    // circles
+    private float[] mData = new float[64];
+    private byte[] mTypes = new byte[16];
+    private Body[] mBodies = new Body[16];
+    private int mSize = 0;
+
+    private final Vector2 mTmp1 = new Vector2();
+    private final Vector2 mTmp2 = new Vector2();
+    private final Vector2 mFirstVertex = new Vector2();
+
+    int size() {
+        return mSize;
+    }
+
+    void clear() {
+        for (int idx = 0; idx < mSize; ++idx) {
+            mBodies[idx] = null;
+        }
+        mSize = 0;
+    }
+
+    Body getBody(int idx) {
+        return mBodies[idx];
+    }
+
+    float getMinX(int idx) {
+        int offset = idx * 4;
+        if (mTypes[idx] == CIRCLE) {
+            return mData[offset] - mData[offset + 2];
+        }
+        return Math.min(mData[offset], mData[offset + 2]);
+    }
+
+    float getMinY(int idx) {
+        int offset = idx * 4;
+        if (mTypes[idx] == CIRCLE) {
+            return mData[offset + 1] - mData[offset + 2];
+        }
+        return Math.min(mData[offset + 1], mData[offset + 3]);
+    }
+
+    float getMaxX(int idx) {
+        int offset = idx * 4;
+        if (mTypes[idx] == CIRCLE) {
+            return mData[offset] + mData[offset + 2];
+        }
+        return Math.max(mData[offset], mData[offset + 2]);
+    }
+
+    float getMaxY(int idx) {
+        int offset = idx * 4;
+        if (mTypes[idx] == CIRCLE) {
+            return mData[offset + 1] + mData[offset + 2];
+        }
+        return Math.max(mData[offset + 1], mData[offset + 3]);
+    }
+
+    /** Adds the primitives of fixture, in world coordinates */
+    void addFixture(Fixture fixture) {
+        Body body = fixture.getBody();
+        Transform transform = body.getTransform();
+        Shape shape = fixture.getShape();
+        switch (shape.getType()) {
+            case Circle: {
+                CircleShape circle = (CircleShape) shape;
+                transform.mul(mTmp1.set(circle.getPosition()));
+                add(CIRCLE, body, mTmp1.x, mTmp1.y, circle.getRadius(), 0);
+                break;
+            }
+            case Polygon: {
+                PolygonShape polygon = (PolygonShape) shape;
+                int count = polygon.getVertexCount();
+                polygon.getVertex(0, mFirstVertex);
+                transform.mul(mFirstVertex);
+                mTmp1.set(mFirstVertex);
+                for (int idx = 1; idx <= count; ++idx) {
+                    if (idx < count) {
+                        polygon.getVertex(idx, mTmp2);
+                        transform.mul(mTmp2);
+                    } else {
+                        mTmp2.set(mFirstVertex);
+                    }
+                    add(ONE_SIDED_SEGMENT, body, mTmp1.x, mTmp1.y, mTmp2.x, mTmp2.y);
+                    mTmp1.set(mTmp2);
+                }
+                break;
+            }
+            case Edge: {
+                EdgeShape edge = (EdgeShape) shape;
+                edge.getVertex1(mTmp1);
+                edge.getVertex2(mTmp2);
+                transform.mul(mTmp1);
+                transform.mul(mTmp2);
+                add(TWO_SIDED_SEGMENT, body, mTmp1.x, mTmp1.y, mTmp2.x, mTmp2.y);
+                break;
+            }
+            case Chain: {
+                ChainShape chain = (ChainShape) shape;
+                int count = chain.getVertexCount();
+                chain.getVertex(0, mTmp1);
+                transform.mul(mTmp1);
+                for (int idx = 1; idx < count; ++idx) {
+                    chain.getVertex(idx, mTmp2);
+                    transform.mul(mTmp2);
+                    add(TWO_SIDED_SEGMENT, body, mTmp1.x, mTmp1.y, mTmp2.x, mTmp2.y);
+                    mTmp1.set(mTmp2);
+                }
+                if (chain.isLooped()) {
+                    chain.getVertex(0, mTmp2);
+                    transform.mul(mTmp2);
+                    add(TWO_SIDED_SEGMENT, body, mTmp1.x, mTmp1.y, mTmp2.x, mTmp2.y);
+                }
+                break;
+            }
+        }
+    }
+
+    /**
+     * Returns the fraction of the [(x1, y1), (x2, y2)] ray at which it hits the primitive idx, or
+     * NO_HIT
+     */
+    float intersect(int idx, float x1, float y1, float x2, float y2) {
+        int offset = idx * 4;
+        float rx = x2 - x1;
+        float ry = y2 - y1;
+        if (mTypes[idx] == CIRCLE) {
+            // Same algorithm as b2CircleShape::RayCast()
+            float sx = x1 - mData[offset];
+            float sy = y1 - mData[offset + 1];
+            float radius = mData[offset + 2];
+            float b = sx * sx + sy * sy - radius * radius;
+            float c = sx * rx + sy * ry;
+            float rr = rx * rx + ry * ry;
+            float sigma = c * c - rr * b;
+            if (sigma < 0 || rr < Float.MIN_NORMAL) {
+                return NO_HIT;
+            }
+            float a = -(c + (float) Math.sqrt(sigma));
+            if (0 <= a && a <= rr) {
+                return a / rr;
+            }
+            return NO_HIT;
+        }
+        float qx = mData[offset];
+        float qy = mData[offset + 1];
+        float sx = mData[offset + 2] - qx;
+        float sy = mData[offset + 3] - qy;
+        if (mTypes[idx] == ONE_SIDED_SEGMENT) {
+            // Polygons are counter-clockwise, so (sy, -sx) is the outward normal
+            if (rx * sy - ry * sx >= 0) {
+                return NO_HIT;
+            }
+        }
+        float denom = rx * sy - ry * sx;
+        if (denom == 0) {
+            return NO_HIT;
+        }
+        float px = qx - x1;
+        float py = qy - y1;
+        float t = (px * sy - py * sx) / denom;
+        float u = (px * ry - py * rx) / denom;
+        if (t < 0 || t > 1 || u < 0 || u > 1) {
+            return NO_HIT;
+        }
+        return t;
+    }
+
+    private void add(byte type, Body body, float a, float b, float c, float d) {
+        if (mSize == mTypes.length) {
+            int capacity = mSize * 2;
+            float[] data = new float[capacity * 4];
+            System.arraycopy(mData, 0, data, 0, mSize * 4);
+            mData = data;
+            byte[] types = new byte[capacity];
+            System.arraycopy(mTypes, 0, types, 0, mSize);
+            mTypes = types;
+            Body[] bodies = new Body[capacity];
+            System.arraycopy(mBodies, 0, bodies, 0, mSize);
+            mBodies = bodies;
+        }
+        int offset = mSize * 4;
+        mData[offset] = a;
+        mData[offset + 1] = b;
+        mData[offset + 2] = c;
+        mData[offset + 3] = d;
+        mTypes[mSize] = type;
+        mBodies[mSize] = body;
+        ++mSize;
+    }
+}
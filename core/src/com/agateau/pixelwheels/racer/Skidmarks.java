@@ -0,0 +1,177 @@
+/*
+ * Copyright 2026 Aurélien Gâteau <mail@agateau.com>
+ *
+ * This file is part of Pixel Wheels.
+ *
+ * Pixel Wheels is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.agateau.pixelwheels.racer;
+
+import com.agateau.pixelwheels.Constants;
+import com.agateau.utils.AgcMathUtils;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Vector2;
+
+/**
+ * The skidmarks of all the wheels of a race.
+ *
+ * <p>Skidmarks are stored as segments in a ring buffer of vertices. Once appended, a segment never
+ * changes: the time at which each end of the segment was created is stored in its vertices, so
+ * that the renderer can fade it out from the current time. This way only newly appended segments
+ * need to be uploaded to the GPU, see SkidmarksRenderer.
+ *
+ * <p>Each segment is a quad of 4 vertices, made of VERTEX_SIZE floats: x, y, u, v, alpha and
+ * creation time. u and v go from 0 to 1 and must be mapped to the skidmark texture region.
+ */
+public class Skidmarks {
+    public static final int VERTEX_SIZE = 6;
+    public static final int SEGMENT_SIZE = 4 * VERTEX_SIZE;
+    public static final float LIFETIME = 10f;
+
+    private static final float WIDTH = 7 * Constants.UNIT_FOR_PIXEL;
+    private static final float ALPHA_INC = 0.05f;
+    private static final float ALPHA_MIN = 0.1f;
+    private static final float ALPHA_MAX = 0.4f;
+
+    /** The skidmark of a wheel, new points are joined to the previous one until end() is called */
+    public class Trail {
+        private final Vector2 mPos = new Vector2();
+        private final Vector2 mThickness = new Vector2();
+        private float mTime;
+        private float mAlpha;
+        private boolean mHasPoint = false;
+        private boolean mHasThickness = false;
+
+        public void addPoint(Vector2 pos) {
+            if (!mHasPoint) {
+                startAt(pos);
+                return;
+            }
+            if (pos.epsilonEquals(mPos, MathUtils.FLOAT_ROUNDING_ERROR)) {
+                return;
+            }
+            Vector2 thickness = AgcMathUtils.computeWidthVector(mPos, pos, WIDTH / 2);
+            if (!mHasThickness) {
+                mThickness.set(thickness);
+                mHasThickness = true;
+            }
+            float alpha2 = mAlpha + ALPHA_INC;
+            float time2 = Skidmarks.this.mTime;
+            appendSegment(mPos, mThickness, mAlpha, mTime, pos, thickness, alpha2, time2);
+            mPos.set(pos);
+            mThickness.set(thickness);
+            mTime = time2;
+            mAlpha = Math.min(ALPHA_MAX, alpha2);
+        }
+
+        /** Ends the current skidmark. The next point starts a new one */
+        public void end() {
+            mHasPoint = false;
+            mHasThickness = false;
+        }
+
+        private void startAt(Vector2 pos) {
+            mPos.set(pos);
+            mTime = Skidmarks.this.mTime;
+            mAlpha = ALPHA_MIN;
+            mHasPoint = true;
+        }
+    }
+
+    private final int mCapacity;
+    private final float[] mVertices;
+    private long mAppendedCount = 0;
+    private float mTime = 0;
+
+    /** capacity is the maximum number of segments */
+    public Skidmarks(int capacity) {
+        mCapacity = capacity;
+        mVertices = new float[capacity * SEGMENT_SIZE];
+    }
+
+    public Trail createTrail() {
+        return new Trail();
+    }
+
+    public void act(float delta) {
+        mTime += delta;
+    }
+
+    /** The time skidmarks are faded from, in seconds since the beginning of the race */
+    public float getTime() {
+        return mTime;
+    }
+
+    public int getCapacity() {
+        return mCapacity;
+    }
+
+    /** Number of segments in the ring buffer */
+    public int getSegmentCount() {
+        return (int) Math.min(mAppendedCount, mCapacity);
+    }
+
+    /**
+     * Total number of segments appended since the creation of this instance. Segment number N is
+     * stored at index (N % getCapacity()) of the ring buffer, until it gets overwritten.
+     */
+    public long getAppendedCount() {
+        return mAppendedCount;
+    }
+
+    /** The ring buffer, getCapacity() * SEGMENT_SIZE floats */
+    public float[] getVertices() {
+        return mVertices;
+    }
+
+    private void appendSegment(
+            Vector2 pos1,
+            Vector2 thickness1,
+            float alpha1,
+            float time1,
+            Vector2 pos2,
+            Vector2 thickness2,
+            float alpha2,
+            float time2) {
+        /*
+            0            3
+             x----------x        ^
+             |          |        |
+        pos1 x          x pos2   | thickness
+             |          |
+             x----------x
+            1            2
+         */
+        float tx1 = thickness1.x;
+        float ty1 = thickness1.y;
+        float tx2 = thickness2.x;
+        float ty2 = thickness2.y;
+        int offset = (int) (mAppendedCount % mCapacity) * SEGMENT_SIZE;
+        offset = setVertex(offset, pos1.x + tx1, pos1.y + ty1, 0, 0, alpha1, time1);
+        offset = setVertex(offset, pos1.x - tx1, pos1.y - ty1, 1, 0, alpha1, time1);
+        offset = setVertex(offset, pos2.x - tx2, pos2.y - ty2, 1, 1, alpha2, time2);
+        setVertex(offset, pos2.x + tx2, pos2.y + ty2, 0, 1, alpha2, time2);
+        ++mAppendedCount;
+    }
+
+    private int setVertex(int offset, float x, float y, float u, float v, float alpha, float time) {
+        mVertices[offset++] = x;
+        mVertices[offset++] = y;
+        mVertices[offset++] = u;
+        mVertices[offset++] = v;
+        mVertices[offset++] = alpha;
+        mVertices[offset++] = time;
+        return offset;
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright 2017 Aurélien Gâteau <mail@agateau.com>
+ * Copyright 2026 Aurélien Gâteau <mail@agateau.com>
  *
  * This file is part of Pixel Wheels.
  *
@@ -18,124 +18,186 @@
  */
 package com.agateau.pixelwheels.racer;
 
-import com.agateau.pixelwheels.Assets;
-import com.agateau.pixelwheels.Constants;
-import com.agateau.utils.AgcMathUtils;
-import com.agateau.utils.CircularArray;
-import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.graphics.g2d.Batch;
+import com.agateau.utils.Assert;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.VertexAttributes;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
-import com.badlogic.gdx.math.Rectangle;
-import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.Disposable;
+import java.nio.FloatBuffer;
 
-/** Render a circular array of skidmarks */
-public class SkidmarksRenderer {
-    private static final float SKIDMARK_WIDTH = 7 * Constants.UNIT_FOR_PIXEL;
-    private static final float SKIDMARK_ALPHA_INC = 0.05f;
-    private static final float SKIDMARK_ALPHA_MIN = 0.1f;
-    private static final float SKIDMARK_ALPHA_MAX = 0.4f;
-
-    private final Assets mAssets;
-
-    public SkidmarksRenderer(Assets assets) {
-        mAssets = assets;
+/**
+ * Renders Skidmarks with a single draw call.
+ *
+ * <p>The vertices of the skidmarks ring buffer are mirrored in a mesh. Each frame, only the
+ * segments appended since the previous frame are uploaded, using glBufferSubData() on the mesh
+ * vertex buffer. Fading is done by the vertex shader, using the creation time stored in the
+ * vertices.
+ *
+ * <p>The mesh buffer is kept in sync with what has been uploaded, so that libGDX can restore the
+ * whole mesh if the GL context is lost.
+ */
+public class SkidmarksRenderer implements Disposable {
+    private static final int FLOAT_SIZE = 4;
+    private static final int INDICES_PER_SEGMENT = 6;
+    // Indices are shorts, so the mesh cannot contain more than 65536 vertices
+    public static final int MAX_CAPACITY = 65536 / 4;
+
+    private static final String VERTEX_SHADER =
+            "attribute vec4 a_position;\n"
+                    + "attribute vec2 a_texCoord0;\n"
+                    + "attribute float a_alpha;\n"
+                    + "attribute float a_time;\n"
+                    + "uniform mat4 u_projTrans;\n"
+                    + "uniform vec4 u_region;\n" // u, v, u2 - u, v2 - v
+                    + "uniform float u_time;\n"
+                    + "uniform float u_lifetime;\n"
+                    + "varying vec2 v_texCoords;\n"
+                    + "varying float v_alpha;\n"
+                    + "void main() {\n"
+                    + "    v_texCoords = u_region.xy + a_texCoord0 * u_region.zw;\n"
+                    + "    float life = clamp(1.0 - (u_time - a_time) / u_lifetime, 0.0, 1.0);\n"
+                    + "    v_alpha = a_alpha * life;\n"
+                    + "    gl_Position = u_projTrans * a_position;\n"
+                    + "}\n";
+
+    private static final String FRAGMENT_SHADER =
+            "#ifdef GL_ES\n"
+                    + "precision mediump float;\n"
+                    + "#endif\n"
+                    + "varying vec2 v_texCoords;\n"
+                    + "varying float v_alpha;\n"
+                    + "uniform sampler2D u_texture;\n"
+                    + "void main() {\n"
+                    + "    gl_FragColor = vec4(1.0, 1.0, 1.0, v_alpha)"
+                    + " * texture2D(u_texture, v_texCoords);\n"
+                    + "}\n";
+
+    private final Skidmarks mSkidmarks;
+    private final TextureRegion mRegion;
+    private final ShaderProgram mShader;
+    private final Mesh mMesh;
+    private final FloatBuffer mMeshVertices;
+    private long mUploadedCount = 0;
+
+    public SkidmarksRenderer(Skidmarks skidmarks, TextureRegion region) {
+        Assert.check(
+                skidmarks.getCapacity() <= MAX_CAPACITY,
+                "Skidmarks capacity must be at most %d",
+                MAX_CAPACITY);
+        mSkidmarks = skidmarks;
+        mRegion = region;
+        mShader = new ShaderProgram(VERTEX_SHADER, FRAGMENT_SHADER);
+        Assert.check(mShader.isCompiled(), "Skidmark shader: %s", mShader.getLog());
+
+        int capacity = skidmarks.getCapacity();
+        mMesh =
+                new Mesh(
+                        false /* isStatic */,
+                        capacity * 4,
+                        capacity * INDICES_PER_SEGMENT,
+                        new VertexAttribute(
+                                VertexAttributes.Usage.Position,
+                                2,
+                                ShaderProgram.POSITION_ATTRIBUTE),
+                        new VertexAttribute(
+                                VertexAttributes.Usage.TextureCoordinates,
+                                2,
+                                ShaderProgram.TEXCOORD_ATTRIBUTE + "0"),
+                        new VertexAttribute(VertexAttributes.Usage.Generic, 1, "a_alpha"),
+                        new VertexAttribute(VertexAttributes.Usage.Generic, 1, "a_time"));
+        short[] indices = new short[capacity * INDICES_PER_SEGMENT];
+        for (int segment = 0, idx = 0; segment < capacity; ++segment) {
+            short first = (short) (segment * 4);
+            indices[idx++] = first;
+            indices[idx++] = (short) (first + 1);
+            indices[idx++] = (short) (first + 2);
+            indices[idx++] = (short) (first + 2);
+            indices[idx++] = (short) (first + 3);
+            indices[idx++] = first;
+        }
+        mMesh.setIndices(indices);
+        // Give the vertex buffer its full size. Keep a reference to it: getVerticesBuffer() marks
+        // the whole buffer for upload each time it is called.
+        mMesh.setVertices(new float[capacity * Skidmarks.SEGMENT_SIZE]);
+        mMeshVertices = mMesh.getVerticesBuffer();
     }
 
-    public void draw(Batch batch, CircularArray<Wheel.Skidmark> skidmarks, Rectangle viewBounds) {
-        int idx = skidmarks.getBeginIndex();
-        if (idx == skidmarks.getEndIndex()) {
+    public void draw(Matrix4 projection) {
+        int segmentCount = mSkidmarks.getSegmentCount();
+        if (segmentCount == 0) {
             return;
         }
-        Wheel.Skidmark mark2 = skidmarks.get(idx);
-        idx = skidmarks.getNextIndex(idx);
-        float alpha = SKIDMARK_ALPHA_MIN;
-
-        for (; idx != skidmarks.getEndIndex(); idx = skidmarks.getNextIndex(idx)) {
-            Wheel.Skidmark mark1 = mark2;
-            mark2 = skidmarks.get(idx);
-
-            if (mark1.isEndIndicator() || mark2.isEndIndicator()) {
-                alpha = SKIDMARK_ALPHA_MIN;
-                continue;
-            }
+        Gdx.gl.glEnable(GL20.GL_BLEND);
+        Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+        mRegion.getTexture().bind(0);
+        mShader.bind();
+        mShader.setUniformMatrix("u_projTrans", projection);
+        mShader.setUniformi("u_texture", 0);
+        mShader.setUniformf(
+                "u_region",
+                mRegion.getU(),
+                mRegion.getV(),
+                mRegion.getU2() - mRegion.getU(),
+                mRegion.getV2() - mRegion.getV());
+        mShader.setUniformf("u_time", mSkidmarks.getTime());
+        mShader.setUniformf("u_lifetime", Skidmarks.LIFETIME);
+
+        // Binding the mesh binds its vertex buffer, which uploadNewSegments() needs
+        mMesh.bind(mShader);
+        uploadNewSegments();
+        mMesh.render(mShader, GL20.GL_TRIANGLES, 0, segmentCount * INDICES_PER_SEGMENT, false);
+        mMesh.unbind(mShader);
+        Gdx.gl.glDisable(GL20.GL_BLEND);
+    }
 
-            if (mark1.isFinished() && mark2.isFinished()) {
-                continue;
-            }
+    @Override
+    public void dispose() {
+        mShader.dispose();
+        mMesh.dispose();
+    }
 
-            if (!mark2.hasThickness()) {
-                Vector2 pos1 = mark1.getPos();
-                Vector2 pos2 = mark2.getPos();
-                if (!viewBounds.contains(pos1) && !viewBounds.contains(pos2)) {
-                    continue;
-                }
-                Vector2 thickness = AgcMathUtils.computeWidthVector(pos1, pos2, SKIDMARK_WIDTH / 2);
-                mark2.setThickness(thickness);
-                if (!mark1.hasThickness()) {
-                    mark1.setThickness(thickness);
-                }
+    /** Uploads the segments appended since the last call. The mesh must be bound */
+    private void uploadNewSegments() {
+        long appendedCount = mSkidmarks.getAppendedCount();
+        if (appendedCount == mUploadedCount) {
+            return;
+        }
+        int capacity = mSkidmarks.getCapacity();
+        if (appendedCount - mUploadedCount >= capacity) {
+            uploadSegments(0, capacity);
+        } else {
+            int start = (int) (mUploadedCount % capacity);
+            int end = (int) (appendedCount % capacity);
+            if (start < end) {
+                uploadSegments(start, end - start);
+            } else {
+                uploadSegments(start, capacity - start);
+                uploadSegments(0, end);
             }
-
-            drawSkidmark(
-                    batch,
-                    mark1,
-                    mark2,
-                    alpha * mark1.getOpacity(),
-                    (alpha + SKIDMARK_ALPHA_INC) * mark2.getOpacity());
-            alpha = Math.min(SKIDMARK_ALPHA_MAX, alpha + SKIDMARK_ALPHA_INC);
         }
+        mUploadedCount = appendedCount;
     }
 
-    private final float[] mVertices = new float[4 * 5];
-
-    private void drawSkidmark(
-            Batch batch, Wheel.Skidmark mark1, Wheel.Skidmark mark2, float alpha1, float alpha2) {
-        TextureRegion region = mAssets.skidmark;
-        float c = Color.toFloatBits(1, 1, 1, alpha1);
-        float c2 = Color.toFloatBits(1, 1, 1, alpha2);
-        float u = region.getU();
-        float v = region.getV();
-        float u2 = region.getU2();
-        float v2 = region.getV2();
-
-        /*
-            0            3
-             x----------x        ^
-             |          |        |
-        pos1 x          x pos2   | thickness
-             |          |
-             x----------x
-            1            2
-         */
-        Vector2 pos1 = mark1.getPos();
-        Vector2 pos2 = mark2.getPos();
-
-        float x0 = pos1.x + mark1.getThickness().x;
-        float y0 = pos1.y + mark1.getThickness().y;
-
-        float x1 = pos1.x - mark1.getThickness().x;
-        float y1 = pos1.y - mark1.getThickness().y;
-
-        float x2 = pos2.x - mark2.getThickness().x;
-        float y2 = pos2.y - mark2.getThickness().y;
-
-        float x3 = pos2.x + mark2.getThickness().x;
-        float y3 = pos2.y + mark2.getThickness().y;
-
-        initVertex(0, x0, y0, c, u, v);
-        initVertex(1, x1, y1, c, u2, v);
-        initVertex(2, x2, y2, c2, u2, v2);
-        initVertex(3, x3, y3, c2, u, v2);
-
-        batch.draw(region.getTexture(), mVertices, 0, mVertices.length);
-    }
-
-    private void initVertex(int index, float x, float y, float c, float u, float v) {
-        int idx = index * 5;
-        mVertices[idx++] = x;
-        mVertices[idx++] = y;
-        mVertices[idx++] = c;
-        mVertices[idx++] = u;
-        mVertices[idx] = v;
+    private void uploadSegments(int first, int count) {
+        if (count == 0) {
+            return;
+        }
+        int offset = first * Skidmarks.SEGMENT_SIZE;
+        int length = count * Skidmarks.SEGMENT_SIZE;
+        int limit = mMeshVertices.limit();
+        mMeshVertices.position(offset);
+        mMeshVertices.put(mSkidmarks.getVertices(), offset, length);
+        // Some backends upload everything between position and limit, whatever the size argument
+        mMeshVertices.position(offset);
+        mMeshVertices.limit(offset + length);
+        Gdx.gl.glBufferSubData(
+                GL20.GL_ARRAY_BUFFER, offset * FLOAT_SIZE, length * FLOAT_SIZE, mMeshVertices);
+        mMeshVertices.limit(limit);
+        mMeshVertices.position(0);
     }
 }
@@ -25,6 +25,7 @@ import com.agateau.pixelwheels.TextureRegionProvider;
 import com.agateau.pixelwheels.map.Material;
 import com.agateau.pixelwheels.stats.GameStats;
 import com.agateau.pixelwheels.utils.Box2DUtils;
+import com.agateau.pixelwheels.utils.InterpolatedTransform;
 import com.agateau.pixelwheels.vehicledef.VehicleDef;
 import com.agateau.utils.AgcMathUtils;
 import com.badlogic.gdx.graphics.g2d.Animation;
@@ -62,6 +63,7 @@ public class Vehicle implements Racer.Component, Disposable {
 
     private final String mId;
     private final Body mBody;
+    private final InterpolatedTransform mTransform = new InterpolatedTransform();
     private final GameWorld mGameWorld;
     private Racer mRacer;
 
@@ -83,6 +85,11 @@ public class Vehicle implements Racer.Component, Disposable {
 
     private Probe mSpeedReportProbe = null;
 
+    private boolean mLowDetailPhysics = false;
+    private final MassData mFullMassData = new MassData();
+    private final MassData mLowDetailMassData = new MassData();
+    private final Vector2 mTmp = new Vector2();
+
     private final ArrayMap<Long, Float> mTurboCellMap = new ArrayMap<>(8);
 
     private final Array<Long> mTurboCellsUnderWheels = new Array<>();
@@ -120,6 +127,7 @@ public class Vehicle implements Racer.Component, Disposable {
         }
 
         moveCenterOfGravity(vehicleDef, textureRegionProvider);
+        mTransform.reset(mBody);
     }
 
     private void moveCenterOfGravity(
@@ -207,6 +215,32 @@ public class Vehicle implements Racer.Component, Disposable {
         return mBody;
     }
 
+    /** The transforms of the vehicle body at the last two physics steps */
+    public InterpolatedTransform getTransform() {
+        return mTransform;
+    }
+
+    /** Saves the transforms of the vehicle body and of its wheels, after a physics step */
+    public void saveTransforms() {
+        mTransform.save(mBody);
+        for (WheelInfo info : mWheels) {
+            info.wheel.saveTransform();
+        }
+    }
+
+    /**
+     * Position of the vehicle interpolated between the last two physics steps, this is where the
+     * vehicle is drawn. The returned instance is reused by the next call.
+     */
+    public Vector2 getRenderPosition() {
+        return mTransform.getPosition(mGameWorld.getRenderAlpha());
+    }
+
+    /** Angle of the body, in radians, interpolated between the last two physics steps */
+    public float getRenderBodyAngle() {
+        return mTransform.getAngle(mGameWorld.getRenderAlpha());
+    }
+
     public TextureRegion getRegion(float time) {
         return mBodyAnimation.getKeyFrame(time);
     }
@@ -302,6 +336,67 @@ public class Vehicle implements Racer.Component, Disposable {
         mZ = z;
     }
 
+    /**
+     * Switches between full physics and low detail physics.
+     *
+     * <p>With full physics, each wheel has its own body, attached to the vehicle body by a joint.
+     * With low detail physics, the wheel bodies are disabled, which removes them and their joints
+     * from the Box2D solver. The vehicle body gets the mass of the wheels, and the wheels apply
+     * their forces directly to it. Since the joints are rigid, this is close to the full model,
+     * except wheels no longer collide on their own.
+     *
+     * <p>This must not be called while the Box2D world is stepping.
+     */
+    public void setLowDetailPhysics(boolean lowDetail) {
+        if (lowDetail == mLowDetailPhysics) {
+            return;
+        }
+        mLowDetailPhysics = lowDetail;
+        if (lowDetail) {
+            // getMassData() returns an instance reused by the body, so copy it
+            MassData massData = mBody.getMassData();
+            mFullMassData.mass = massData.mass;
+            mFullMassData.center.set(massData.center);
+            mFullMassData.I = massData.I;
+            updateLowDetailMassData();
+            mBody.setMassData(mLowDetailMassData);
+            for (WheelInfo info : mWheels) {
+                info.wheel.enterLowDetailMode(mBody, info.joint);
+            }
+        } else {
+            mBody.setMassData(mFullMassData);
+            for (WheelInfo info : mWheels) {
+                info.wheel.leaveLowDetailMode();
+            }
+        }
+    }
+
+    public boolean hasLowDetailPhysics() {
+        return mLowDetailPhysics;
+    }
+
+    /** Adds the mass and inertia of the wheels to the mass data of the vehicle body */
+    private void updateLowDetailMassData() {
+        // MassData.I is the inertia around the body origin, and wheel inertias are around their
+        // centers, so apply the parallel axis theorem
+        float mass = mFullMassData.mass;
+        float centerX = mFullMassData.center.x * mass;
+        float centerY = mFullMassData.center.y * mass;
+        float inertia = mFullMassData.I;
+        for (WheelInfo info : mWheels) {
+            Body body = info.wheel.getBody();
+            float wheelMass = body.getMass();
+            Vector2 pos = mTmp.set(mBody.getLocalPoint(body.getWorldCenter()));
+            mass += wheelMass;
+            centerX += pos.x * wheelMass;
+            centerY += pos.y * wheelMass;
+            inertia += body.getInertia() + wheelMass * pos.len2();
+        }
+        mLowDetailMassData.mass = mass;
+        mLowDetailMassData.center.set(centerX / mass, centerY / mass);
+        mLowDetailMassData.I = inertia;
+    }
+
     /** Call this when the vehicle needs to stop as soon as possible For example because it fell */
     public void setStopped(boolean stopped) {
         if (stopped) {
@@ -314,7 +409,7 @@ public class Vehicle implements Racer.Component, Disposable {
     public void act(float dt) {
         if (!isFlying()) {
             if (mStopped) {
-                actStopping(dt);
+                actStopping();
             } else {
                 applyTurbo(dt);
                 applyPilotCommands();
@@ -325,10 +420,13 @@ public class Vehicle implements Racer.Component, Disposable {
         actWheels(dt);
     }
 
-    private void actStopping(float dt) {
+    private void actStopping() {
+        // Remove 10% of the velocity per reference time step, whatever the physics step rate
         Vector2 invVelocity = mBody.getLinearVelocity().scl(-0.1f);
         mBody.applyForce(
-                invVelocity.scl(mBody.getMass()).scl(1 / dt), mBody.getWorldCenter(), true);
+                invVelocity.scl(mBody.getMass()).scl(1 / GameWorld.BOX2D_TIME_STEP),
+                mBody.getWorldCenter(),
+                true);
     }
 
     /**
@@ -382,6 +480,7 @@ public class Vehicle implements Racer.Component, Disposable {
         for (WheelInfo info : mWheels) {
             float angle = info.steeringFactor * steerAngle;
             info.wheel.adjustSpeed(speedDelta);
+            info.wheel.setSteerAngle(angle);
             info.joint.setLimits(angle, angle);
         }
     }
@@ -20,11 +20,13 @@ package com.agateau.pixelwheels.racer;
 
 import com.agateau.pixelwheels.Assets;
 import com.agateau.pixelwheels.Constants;
+import com.agateau.pixelwheels.GameWorld;
 import com.agateau.pixelwheels.Renderer;
 import com.agateau.pixelwheels.ZLevel;
 import com.agateau.pixelwheels.gameobject.CellFrameBufferManager;
 import com.agateau.pixelwheels.gameobject.CellFrameBufferUser;
 import com.agateau.pixelwheels.utils.BodyRegionDrawer;
+import com.agateau.pixelwheels.utils.InterpolatedTransform;
 import com.agateau.utils.AgcMathUtils;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.Color;
@@ -34,7 +36,6 @@ import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
-import com.badlogic.gdx.physics.box2d.Body;
 import com.badlogic.gdx.utils.Array;
 
 /** Renders a vehicle */
@@ -42,18 +43,28 @@ public class VehicleRenderer implements CellFrameBufferUser {
     private static final int CELL_SIZE = 200;
 
     private final Assets mAssets;
+    private final GameWorld mGameWorld;
     private final Vehicle mVehicle;
     private final Array<Renderer> mRenderers = new Array<>();
-    private final SkidmarksRenderer mSkidmarksRenderer;
     private float mTime = 0;
     private final BodyRegionDrawer mBodyRegionDrawer = new BodyRegionDrawer();
     private CellFrameBufferManager mCellFrameBufferManager;
     private int mCellId = -1;
 
-    public VehicleRenderer(Assets assets, Vehicle vehicle) {
+    // What the cell contained when it was last drawn: batch color, vehicle region, then offset and
+    // angle of the wheels and of the vehicle body
+    private float mCellColor;
+    private TextureRegion mCellRegion;
+    private float[] mCellBodyStates;
+
+    // The physics can run at a lower rate than the rendering: bodies are drawn at their transforms
+    // interpolated with this value, which is updated at each frame
+    private float mAlpha = 1;
+
+    public VehicleRenderer(Assets assets, GameWorld gameWorld, Vehicle vehicle) {
         mAssets = assets;
+        mGameWorld = gameWorld;
         mVehicle = vehicle;
-        mSkidmarksRenderer = new SkidmarksRenderer(mAssets);
     }
 
     public void addRenderer(Renderer renderer) {
@@ -78,21 +89,93 @@ public class VehicleRenderer implements CellFrameBufferUser {
         return mBatchColor;
     }
 
+    /**
+     * Radius of the area around the vehicle drawn by draw(): the cell, scaled when the vehicle is
+     * flying, plus room for its shadow and the effects of its renderers
+     */
+    public float getDrawRadius() {
+        return CELL_SIZE * Constants.UNIT_FOR_PIXEL * (mVehicle.getZ() + 1);
+    }
+
     @Override
     public void init(CellFrameBufferManager manager) {
+        if (mCellId != -1) {
+            mCellFrameBufferManager.releaseCell(mCellId);
+            mCellId = -1;
+        }
         mCellFrameBufferManager = manager;
-        mCellId = manager.reserveCell(CELL_SIZE, CELL_SIZE);
+        mCellBodyStates = new float[(mVehicle.getWheelInfos().size + 1) * 3];
+    }
+
+    @Override
+    public void reserveCells() {
+        if (mCellId == -1) {
+            mCellId = mCellFrameBufferManager.reserveCell(CELL_SIZE, CELL_SIZE);
+        }
+    }
+
+    @Override
+    public void releaseUnusedCells() {
+        if (mCellId != -1 && mCellFrameBufferManager.isCellUnused(mCellId)) {
+            mCellFrameBufferManager.releaseCell(mCellId);
+            mCellId = -1;
+        }
+    }
+
+    /**
+     * Stores the state of the cell content, returns true if it differs from the state stored when
+     * the cell was last drawn
+     */
+    private boolean updateCellState(float color, TextureRegion region) {
+        // Renderers can be animated, always consider the cell changed when there are some
+        boolean changed = mRenderers.size > 0 || color != mCellColor || region != mCellRegion;
+        mCellColor = color;
+        mCellRegion = region;
+        int offset = 0;
+        for (Vehicle.WheelInfo info : mVehicle.getWheelInfos()) {
+            changed |= updateBodyState(offset, info.wheel.getTransform());
+            offset += 3;
+        }
+        changed |= updateBodyState(offset, mVehicle.getTransform());
+        return changed;
     }
 
-    private void drawBodyToCell(Batch batch, Body body, TextureRegion region) {
-        float angle = body.getAngle() * MathUtils.radiansToDegrees;
+    private boolean updateBodyState(int offset, InterpolatedTransform transform) {
+        float angle = getBodyAngle(transform);
+        float xOffset = getBodyXOffset(transform);
+        float yOffset = getBodyYOffset(transform);
+        boolean changed =
+                mCellBodyStates[offset] != xOffset
+                        || mCellBodyStates[offset + 1] != yOffset
+                        || mCellBodyStates[offset + 2] != angle;
+        mCellBodyStates[offset] = xOffset;
+        mCellBodyStates[offset + 1] = yOffset;
+        mCellBodyStates[offset + 2] = angle;
+        return changed;
+    }
+
+    private float getBodyAngle(InterpolatedTransform transform) {
+        float angle = transform.getAngleDeg(mAlpha);
         // Snap angles so that the vehicle body textures are not drawn slightly rotated when facing
         // north, south, east or west. This is especially useful at startup.
-        angle = AgcMathUtils.snapAngle(angle);
-        float xOffset =
-                (body.getPosition().x - mVehicle.getPosition().x) / Constants.UNIT_FOR_PIXEL;
-        float yOffset =
-                (body.getPosition().y - mVehicle.getPosition().y) / Constants.UNIT_FOR_PIXEL;
+        return AgcMathUtils.snapAngle(angle);
+    }
+
+    private float getBodyXOffset(InterpolatedTransform transform) {
+        float vehicleX = mVehicle.getTransform().getX(mAlpha);
+        return (transform.getX(mAlpha) - vehicleX) / Constants.UNIT_FOR_PIXEL;
+    }
+
+    private float getBodyYOffset(InterpolatedTransform transform) {
+        float vehicleY = mVehicle.getTransform().getY(mAlpha);
+        return (transform.getY(mAlpha) - vehicleY) / Constants.UNIT_FOR_PIXEL;
+    }
+
+    private void drawBodyToCell(
+            Batch batch, InterpolatedTransform transform, TextureRegion region) {
+        float angle = getBodyAngle(transform);
+        float xOffset = getBodyXOffset(transform);
+        float yOffset = getBodyYOffset(transform);
         float w = region.getRegionWidth();
         float h = region.getRegionHeight();
         float x = mCellFrameBufferManager.getCellCenterX(mCellId) + xOffset;
@@ -117,15 +200,23 @@ public class VehicleRenderer implements CellFrameBufferUser {
 
     @Override
     public void drawToCell(Batch batch, Rectangle viewBounds) {
+        if (mCellFrameBufferManager.isCellDrawn(mCellId)) {
+            return;
+        }
         mTime += Gdx.app.getGraphics().getDeltaTime();
+        mAlpha = mGameWorld.getRenderAlpha();
+        TextureRegion region = mVehicle.getRegion(mTime);
+        boolean changed = updateCellState(batch.getPackedColor(), region);
+        if (!mCellFrameBufferManager.beginCell(mCellId, changed)) {
+            return;
+        }
 
         // Wheels and body
         for (Vehicle.WheelInfo info : mVehicle.getWheelInfos()) {
-            drawBodyToCell(batch, info.wheel.getBody(), info.wheel.getRegion());
+            drawBodyToCell(batch, info.wheel.getTransform(), info.wheel.getRegion());
         }
 
-        TextureRegion region = mVehicle.getRegion(mTime);
-        drawBodyToCell(batch, mVehicle.getBody(), region);
+        drawBodyToCell(batch, mVehicle.getTransform(), region);
 
         float centerX = mCellFrameBufferManager.getCellCenterX(mCellId);
         float centerY = mCellFrameBufferManager.getCellCenterY(mCellId);
@@ -135,22 +226,22 @@ public class VehicleRenderer implements CellFrameBufferUser {
     }
 
     public void draw(Batch batch, ZLevel zLevel, Rectangle viewBounds) {
+        mAlpha = mGameWorld.getRenderAlpha();
         mBodyRegionDrawer.setBatch(batch);
         float scale = mVehicle.getZ() + 1;
+        InterpolatedTransform transform = mVehicle.getTransform();
 
-        // Ground: skidmarks, splash, shadow
+        // Ground: splash, shadow. Skidmarks are drawn by SkidmarksRenderer
         if (zLevel == ZLevel.GROUND) {
-            for (Vehicle.WheelInfo info : mVehicle.getWheelInfos()) {
-                mSkidmarksRenderer.draw(batch, info.wheel.getSkidmarks(), viewBounds);
-            }
-
             // Only draw splash and shadow if we are not falling
             if (!mVehicle.isFalling()) {
                 for (Vehicle.WheelInfo info : mVehicle.getWheelInfos()) {
                     if (info.wheel.getMaterial().isWater()) {
                         Animation<TextureRegion> splashAnimation = info.wheel.getSplashAnimation();
                         mBodyRegionDrawer.draw(
-                                info.wheel.getBody(), splashAnimation.getKeyFrame(mTime, true));
+                                info.wheel.getTransform(),
+                                mAlpha,
+                                splashAnimation.getKeyFrame(mTime, true));
                     }
                 }
 
@@ -159,7 +250,10 @@ public class VehicleRenderer implements CellFrameBufferUser {
                 float old = batch.getPackedColor();
                 batch.setColor(0, 0, 0, BodyRegionDrawer.SHADOW_ALPHA);
                 mCellFrameBufferManager.drawCell(
-                        batch, mVehicle.getX() + offset, mVehicle.getY() - offset, mCellId);
+                        batch,
+                        transform.getX(mAlpha) + offset,
+                        transform.getY(mAlpha) - offset,
+                        mCellId);
                 batch.setPackedColor(old);
             }
             return;
@@ -171,7 +265,8 @@ public class VehicleRenderer implements CellFrameBufferUser {
             if (mVehicle.isFalling()) {
                 batch.setColor(getBatchColor());
             }
-            mCellFrameBufferManager.drawScaledCell(batch, mVehicle.getPosition(), mCellId, scale);
+            mCellFrameBufferManager.drawScaledCell(
+                    batch, transform.getPosition(mAlpha), mCellId, scale);
             if (mVehicle.isFalling()) {
                 batch.setColor(Color.WHITE);
             }
@@ -189,9 +284,9 @@ public class VehicleRenderer implements CellFrameBufferUser {
 
     private void drawTurbo(Batch batch) {
         TextureRegion region = mAssets.turboFlame.getKeyFrame(mVehicle.getTurboTime(), true);
-        Body body = mVehicle.getBody();
-        Vector2 center = body.getPosition();
-        float angle = body.getAngle() * MathUtils.radiansToDegrees;
+        InterpolatedTransform transform = mVehicle.getTransform();
+        Vector2 center = transform.getPosition(mAlpha);
+        float angle = transform.getAngleDeg(mAlpha);
         float w = Constants.UNIT_FOR_PIXEL * region.getRegionWidth();
         float h = Constants.UNIT_FOR_PIXEL * region.getRegionHeight();
         float refH = -mVehicle.getWidth() / 2;
@@ -21,10 +21,9 @@ package com.agateau.pixelwheels.racer;
 import com.agateau.pixelwheels.Constants;
 import com.agateau.pixelwheels.GamePlay;
 import com.agateau.pixelwheels.GameWorld;
-import com.agateau.pixelwheels.debug.Debug;
 import com.agateau.pixelwheels.map.Material;
 import com.agateau.pixelwheels.utils.Box2DUtils;
-import com.agateau.utils.CircularArray;
+import com.agateau.pixelwheels.utils.InterpolatedTransform;
 import com.badlogic.gdx.graphics.g2d.Animation;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Interpolation;
@@ -33,79 +32,32 @@ import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.Body;
 import com.badlogic.gdx.physics.box2d.BodyDef;
 import com.badlogic.gdx.physics.box2d.PolygonShape;
+import com.badlogic.gdx.physics.box2d.joints.RevoluteJoint;
 import com.badlogic.gdx.utils.Disposable;
 
-/** A wheel */
+/**
+ * A wheel
+ *
+ * <p>A wheel normally has its own body, attached to the vehicle body by a joint. In low detail
+ * mode, the wheel body is disabled: the wheel computes its position and velocity from the vehicle
+ * body, and applies its forces directly to it.
+ */
 public class Wheel implements Disposable {
     private static final float DRIFT_IMPULSE_REDUCTION =
             0.5f; // Limit how much of the lateral velocity is killed when drifting
     private static final float DRAG_FACTOR = 1;
-    private static final int SKIDMARK_INTERVAL = 3;
-    private static final float SKIDMARK_LIFETIME = 10f;
-
-    public static class Skidmark {
-        private final Vector2 mPos = new Vector2();
-        // Stores the thickness used to draw the skidmark. Avoids computing it each time we draw the
-        // skidmark. See SkidmarksRenderer for details
-        private final Vector2 mThickness = new Vector2();
-        private boolean mIsEndIndicator = false;
-        private float mRemainingLife;
-
-        public boolean isEndIndicator() {
-            return mIsEndIndicator;
-        }
-
-        public Vector2 getPos() {
-            return mPos;
-        }
-
-        public void init(Vector2 pos) {
-            mPos.set(pos);
-            mThickness.set(0, 0);
-            mRemainingLife = SKIDMARK_LIFETIME;
-        }
-
-        /** This mark indicates the end of a skidmark. Next mark starts a new skidmark. */
-        public void initAsEndIndicator() {
-            mIsEndIndicator = true;
-        }
-
-        @SuppressWarnings("BooleanMethodIsAlwaysInverted")
-        public boolean hasThickness() {
-            return mThickness.x != 0 && mThickness.y != 0;
-        }
-
-        public void setThickness(Vector2 thickness) {
-            mThickness.set(thickness);
-        }
-
-        public Vector2 getThickness() {
-            return mThickness;
-        }
-
-        public void act(float delta) {
-            mRemainingLife = Math.max(0, mRemainingLife - delta);
-        }
-
-        public float getOpacity() {
-            return mRemainingLife / SKIDMARK_LIFETIME;
-        }
-
-        public boolean isFinished() {
-            return mRemainingLife <= 0;
-        }
-    }
-
-    private final CircularArray<Skidmark> mSkidmarks =
-            new CircularArray<Skidmark>(Debug.instance.maxSkidmarks) {
-                @Override
-                protected Skidmark createInstance() {
-                    return new Skidmark();
-                }
-            };
+    private static final float MAX_GRIP = 2;
+    // Impulses are applied at each physics step. Their values have been tuned for this time step,
+    // they are scaled for other time steps.
+    private static final float REFERENCE_TIME_STEP = GameWorld.BOX2D_TIME_STEP;
+    // Time between two skidmark points, in seconds
+    private static final float SKIDMARK_INTERVAL = 3 * REFERENCE_TIME_STEP;
+
+    private final Skidmarks.Trail mSkidmarkTrail;
     private int mSkidmarkCount = 0; // Used to limit the number of skidmarks created
 
     private final Body mBody;
+    private final InterpolatedTransform mTransform = new InterpolatedTransform();
     private final GameWorld mGameWorld;
     private final TextureRegion mRegion;
     private final Animation<TextureRegion> mSplashAnimation;
@@ -115,6 +67,16 @@ public class Wheel implements Disposable {
     private Material mMaterial = Material.ROAD;
     private boolean mDrifting = false;
 
+    // Low detail mode. mLowDetailBody is the vehicle body, or null if low detail mode is off
+    private Body mLowDetailBody = null;
+    private final Vector2 mLowDetailAnchor = new Vector2();
+    private float mLowDetailReferenceAngle;
+    private float mSteerAngle = 0;
+    private final Vector2 mPosition = new Vector2();
+    private final Vector2 mVelocity = new Vector2();
+    private float mAngle;
+    private final Vector2 mTmp = new Vector2();
+
     public Wheel(
             GameWorld gameWorld,
             Vehicle vehicle,
@@ -128,6 +90,7 @@ public class Wheel implements Disposable {
         mVehicle = vehicle;
         mRegion = region;
         mSplashAnimation = splashAnimation;
+        mSkidmarkTrail = gameWorld.getSkidmarks().createTrail();
 
         float w = Constants.UNIT_FOR_PIXEL * region.getRegionWidth();
         float h = Constants.UNIT_FOR_PIXEL * region.getRegionHeight();
@@ -142,12 +105,22 @@ public class Wheel implements Disposable {
         shape.set(Box2DUtils.createOctogon(w, h, w / 4, w / 4));
         mBody.createFixture(shape, density);
         shape.dispose();
+        mTransform.reset(mBody);
     }
 
     public TextureRegion getRegion() {
         return mRegion;
     }
 
+    /** The transforms of the wheel body at the last two physics steps */
+    public InterpolatedTransform getTransform() {
+        return mTransform;
+    }
+
+    void saveTransform() {
+        mTransform.save(mBody);
+    }
+
     public Animation<TextureRegion> getSplashAnimation() {
         return mSplashAnimation;
     }
@@ -161,20 +134,50 @@ public class Wheel implements Disposable {
         mGameWorld.getBox2DWorld().destroyBody(mBody);
     }
 
-    @SuppressWarnings("UnusedParameters")
+    /** Must be called once per physics step, delta being the time step */
     public void act(float delta) {
+        updateState();
         updateGroundInfo();
         if (!mVehicle.isFlying()) {
-            updateFriction();
-            Box2DUtils.applyDrag(mBody, DRAG_FACTOR);
+            updateFriction(delta);
+            applyDrag();
         }
-        for (int idx = mSkidmarks.getBeginIndex(), end = mSkidmarks.getEndIndex();
-                idx != end;
-                idx = mSkidmarks.getNextIndex(idx)) {
-            mSkidmarks.get(idx).act(delta);
+        if (mLowDetailBody != null) {
+            // Keep the disabled body where the wheel is, so that it is drawn at the right place
+            mBody.setTransform(mPosition, mAngle);
         }
     }
 
+    /**
+     * Switches to low detail mode: disables the wheel body, the wheel then acts on vehicleBody, to
+     * which it is attached by joint.
+     */
+    void enterLowDetailMode(Body vehicleBody, RevoluteJoint joint) {
+        mLowDetailBody = vehicleBody;
+        // The joint anchor is the center of the wheel, see Vehicle.addWheel()
+        mLowDetailAnchor.set(joint.getLocalAnchorA());
+        mLowDetailReferenceAngle = joint.getReferenceAngle();
+        mBody.setActive(false);
+    }
+
+    /**
+     * Leaves low detail mode: moves the wheel body to where the wheel is, with the matching
+     * velocity, and enables it again
+     */
+    void leaveLowDetailMode() {
+        updateState();
+        mBody.setTransform(mPosition, mAngle);
+        mBody.setLinearVelocity(mVelocity);
+        mBody.setAngularVelocity(mLowDetailBody.getAngularVelocity());
+        mBody.setActive(true);
+        mLowDetailBody = null;
+    }
+
+    /** The steering angle, in radians, set on the joint. Only used in low detail mode */
+    void setSteerAngle(float steerAngle) {
+        mSteerAngle = steerAngle;
+    }
+
     public Body getBody() {
         return mBody;
     }
@@ -187,31 +190,73 @@ public class Wheel implements Disposable {
         if (amount == 0) {
             return;
         }
-        final float currentSpeed = mBody.getLinearVelocity().len() * Box2DUtils.MS_TO_KMH;
+        updateState();
+        final float currentSpeed = mVelocity.len() * Box2DUtils.MS_TO_KMH;
 
         final float limit =
                 1 - 0.2f * Interpolation.sineOut.apply(currentSpeed / GamePlay.instance.maxSpeed);
         amount *= limit;
 
         float force = mMaxDrivingForce * amount;
-        float angle = mBody.getAngle();
-        Vector2 pos = mBody.getWorldCenter();
-        mBody.applyForce(
-                force * MathUtils.cos(angle), force * MathUtils.sin(angle), pos.x, pos.y, true);
+        getPhysicsBody()
+                .applyForce(
+                        force * MathUtils.cos(mAngle),
+                        force * MathUtils.sin(mAngle),
+                        mPosition.x,
+                        mPosition.y,
+                        true);
     }
 
     public long getCellId() {
-        return mGameWorld
-                .getTrack()
-                .getCellIdAt(mBody.getWorldCenter().x, mBody.getWorldCenter().y);
+        updateState();
+        return mGameWorld.getTrack().getCellIdAt(mPosition.x, mPosition.y);
+    }
+
+    /** Returns the wheel body, or the vehicle body in low detail mode */
+    private Body getPhysicsBody() {
+        return mLowDetailBody == null ? mBody : mLowDetailBody;
+    }
+
+    /** Updates mPosition, mVelocity and mAngle */
+    private void updateState() {
+        if (mLowDetailBody == null) {
+            mPosition.set(mBody.getWorldCenter());
+            mVelocity.set(mBody.getLinearVelocity());
+            mAngle = mBody.getAngle();
+        } else {
+            mPosition.set(mLowDetailBody.getWorldPoint(mLowDetailAnchor));
+            mVelocity.set(mLowDetailBody.getLinearVelocityFromLocalPoint(mLowDetailAnchor));
+            mAngle = mLowDetailBody.getAngle() + mLowDetailReferenceAngle + mSteerAngle;
+        }
+    }
+
+    private void applyDrag() {
+        if (mLowDetailBody == null) {
+            Box2DUtils.applyDrag(mBody, DRAG_FACTOR);
+            return;
+        }
+        // Friction has just changed the velocity of the vehicle body, get the new one
+        mTmp.set(mLowDetailBody.getLinearVelocityFromLocalPoint(mLowDetailAnchor));
+        mLowDetailBody.applyForce(mTmp.scl(-DRAG_FACTOR), mPosition, true);
     }
 
-    private void updateFriction() {
-        // Kill lateral velocity
-        Vector2 impulse =
-                Box2DUtils.getLateralVelocity(mBody).scl(-mBody.getMass()).scl(mMaterial.getGrip());
+    private void updateFriction(float timeStep) {
+        float stepRatio = timeStep / REFERENCE_TIME_STEP;
+
+        // Kill lateral velocity. The wheel is attached to the rest of the vehicle, so even with a
+        // grip of 1 a step only kills part of the lateral velocity of the whole vehicle: the grip
+        // must be scaled by the step ratio to get the same cornering at all step rates. Beyond
+        // twice the wheel lateral velocity the impulse would make the wheel bounce.
+        Vector2 lateralVelocity =
+                mLowDetailBody == null
+                        ? Box2DUtils.getLateralVelocity(mBody)
+                        : getLowDetailLateralVelocity();
+        float grip = Math.min(mMaterial.getGrip() * stepRatio, MAX_GRIP);
+        Vector2 impulse = lateralVelocity.scl(-mBody.getMass()).scl(grip);
         float maxImpulse =
-                (float) GamePlay.instance.maxLateralImpulse / (mVehicle.isBraking() ? 0.2f : 1);
+                stepRatio
+                        * GamePlay.instance.maxLateralImpulse
+                        / (mVehicle.isBraking() ? 0.2f : 1);
         if (mMaterial != Material.ICE
                 && !mMaterial.isWater()
                 && mCanDrift
@@ -219,19 +264,33 @@ public class Wheel implements Disposable {
             // Drift
             mDrifting = true;
             if (mSkidmarkCount == 0) {
-                mSkidmarks.add().init(mBody.getWorldCenter());
+                mSkidmarkTrail.addPoint(mPosition);
             }
-            mSkidmarkCount = (mSkidmarkCount + 1) % SKIDMARK_INTERVAL;
-            maxImpulse = Math.max(maxImpulse, impulse.len() - DRIFT_IMPULSE_REDUCTION);
+            int skidmarkStepCount = Math.max(Math.round(SKIDMARK_INTERVAL / timeStep), 1);
+            mSkidmarkCount = (mSkidmarkCount + 1) % skidmarkStepCount;
+            maxImpulse =
+                    Math.max(maxImpulse, impulse.len() - DRIFT_IMPULSE_REDUCTION * stepRatio);
             impulse.limit(maxImpulse);
         } else if (mDrifting) {
-            mSkidmarks.add().initAsEndIndicator();
+            mSkidmarkTrail.end();
             mDrifting = false;
         }
-        mBody.applyLinearImpulse(impulse, mBody.getWorldCenter(), true);
+        Body body = getPhysicsBody();
+        body.applyLinearImpulse(impulse, mPosition, true);
+
+        // Kill angular velocity. In low detail mode the wheel turns with the vehicle body, so
+        // this uses the inertia of the wheel and the angular velocity of the vehicle
+        float angularDamping = Math.min(0.1f * stepRatio, 1);
+        body.applyAngularImpulse(
+                angularDamping * mBody.getInertia() * -body.getAngularVelocity(), true);
+    }
 
-        // Kill angular velocity
-        mBody.applyAngularImpulse(0.1f * mBody.getInertia() * -mBody.getAngularVelocity(), true);
+    /** Same as Box2DUtils.getLateralVelocity(), for the virtual wheel of low detail mode */
+    private Vector2 getLowDetailLateralVelocity() {
+        float lateralX = -MathUtils.sin(mAngle);
+        float lateralY = MathUtils.cos(mAngle);
+        float v = lateralX * mVelocity.x + lateralY * mVelocity.y;
+        return mTmp.set(lateralX * v, lateralY * v);
     }
 
     private void updateGroundInfo() {
@@ -239,7 +298,7 @@ public class Wheel implements Disposable {
             mMaterial = Material.AIR;
             return;
         }
-        mMaterial = mGameWorld.getTrack().getMaterialAt(mBody.getWorldCenter());
+        mMaterial = mGameWorld.getTrack().getMaterialAt(mPosition);
     }
 
     public void setCanDrift(boolean canDrift) {
@@ -250,10 +309,6 @@ public class Wheel implements Disposable {
         mMaxDrivingForce = maxDrivingForce;
     }
 
-    public CircularArray<Skidmark> getSkidmarks() {
-        return mSkidmarks;
-    }
-
     public Material getMaterial() {
         return mMaterial;
     }
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2026 Aurélien Gâteau <mail@agateau.com>
+ *
+ * This file is part of Pixel Wheels.
+ *
+ * Pixel Wheels is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.agateau.pixelwheels.racescreen;
+
+import com.agateau.pixelwheels.ZLevel;
+import com.agateau.pixelwheels.gameobject.GameObject;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * The game objects to draw at each ZLevel, limited to the objects visible in a view.
+ *
+ * <p>update() queries an ObjectGrid, which can be shared by the DrawLists of several views. Objects
+ * are listed in the draw order of the grid: the order in which they have been added to the
+ * GameObjectStore, which does not change when other objects are removed.
+ */
+public class DrawLists {
+    private static final ZLevel[] ZLEVELS = ZLevel.values();
+
+    private final ObjectGrid mGrid;
+    private final Array<GameObject> mVisibleObjects = new Array<>();
+    private final Array<Array<GameObject>> mLevelObjects = new Array<>();
+    private boolean[] mObjectVisible = new boolean[64];
+
+    public DrawLists(ObjectGrid grid) {
+        mGrid = grid;
+        for (int idx = 0; idx < ZLEVELS.length; ++idx) {
+            mLevelObjects.add(new Array<>());
+        }
+    }
+
+    /** Fills the lists with the objects visible in viewBounds. The grid must be up to date */
+    public void update(Rectangle viewBounds) {
+        mVisibleObjects.clear();
+        for (Array<GameObject> levelObjects : mLevelObjects) {
+            levelObjects.clear();
+        }
+        Array<GameObject> objects = mGrid.getObjects();
+        if (mObjectVisible.length < objects.size) {
+            mObjectVisible = new boolean[Math.max(objects.size, mObjectVisible.length * 2)];
+        }
+        mGrid.findVisibleObjects(viewBounds, mObjectVisible);
+
+        int[] drawOrder = mGrid.getDrawOrder();
+        for (int orderIdx = 0; orderIdx < objects.size; ++orderIdx) {
+            int idx = drawOrder[orderIdx];
+            if (!mObjectVisible[idx]) {
+                continue;
+            }
+            GameObject object = objects.get(idx);
+            mVisibleObjects.add(object);
+            int mask = object.getZLevelMask();
+            for (int level = 0; level < ZLEVELS.length; ++level) {
+                if ((mask & ZLEVELS[level].mask) != 0) {
+                    mLevelObjects.get(level).add(object);
+                }
+            }
+        }
+    }
+
+    /** The visible objects which draw at zLevel */
+    public Array<GameObject> getObjects(ZLevel zLevel) {
+        return mLevelObjects.get(zLevel.ordinal());
+    }
+
+    /** All the visible objects */
+    public Array<GameObject> getVisibleObjects() {
+        return mVisibleObjects;
+    }
+}
@@ -24,12 +24,12 @@ import com.agateau.pixelwheels.GameWorld;
 import com.agateau.pixelwheels.ZLevel;
 import com.agateau.pixelwheels.debug.Debug;
 import com.agateau.pixelwheels.debug.DebugShapeMap;
-import com.agateau.pixelwheels.gameobject.CellFrameBufferManager;
 import com.agateau.pixelwheels.gameobject.CellFrameBufferUser;
 import com.agateau.pixelwheels.gameobject.GameObject;
 import com.agateau.pixelwheels.map.Track;
 import com.agateau.pixelwheels.map.WaypointStore;
 import com.agateau.pixelwheels.racer.Racer;
+import com.agateau.pixelwheels.racer.SkidmarksRenderer;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.graphics.g2d.Batch;
@@ -39,11 +39,14 @@ import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.math.Vector3;
 import com.badlogic.gdx.physics.box2d.Box2DDebugRenderer;
+import com.badlogic.gdx.utils.Array;
 import com.badlogic.gdx.utils.PerformanceCounter;
 import com.badlogic.gdx.utils.PerformanceCounters;
 
 /** Responsible for rendering the game world */
 public class GameRenderer {
+    private static final ZLevel[] ZLEVELS = ZLevel.values();
+
     private final Track mTrack;
     private final PwTiledMapRenderer mRenderer;
     private final Box2DDebugRenderer mDebugRenderer;
@@ -52,6 +55,7 @@ public class GameRenderer {
     private final ShapeRenderer mShapeRenderer = new ShapeRenderer();
     private final GameWorld mWorld;
     private final CameraUpdater mCameraUpdater;
+    private final DrawLists mDrawLists;
 
     private final int[] mBackgroundLayerFirstIndexes = {0};
     private final int[] mExtraBackgroundLayerIndexes;
@@ -61,7 +65,8 @@ public class GameRenderer {
     private int mScreenY;
     private int mScreenWidth;
     private int mScreenHeight;
-    private final CellFrameBufferManager mCellFrameBufferManager = new CellFrameBufferManager();
+    private final SkidmarksRenderer mSkidmarksRenderer;
+    private final Rectangle mViewBounds = new Rectangle();
     private final PerformanceCounter mTilePerformanceCounter;
     private final PerformanceCounter mGameObjectPerformanceCounter;
     private final PerformanceCounter mSetupPerformanceCounter;
@@ -70,6 +75,7 @@ public class GameRenderer {
             GameWorld world,
             Racer racer,
             Batch batch,
+            SharedRenderPass sharedRenderPass,
             boolean headingUp,
             PerformanceCounters counters) {
         mDebugRenderer = new Box2DDebugRenderer();
@@ -81,6 +87,7 @@ public class GameRenderer {
         mForegroundLayerIndexes = mTrack.getForegroundLayerIndexes();
 
         mBatch = batch;
+        mSkidmarksRenderer = sharedRenderPass.getSkidmarksRenderer();
         mCamera = new OrthographicCamera();
         if (GamePlay.instance.freeCamera) {
             mCameraUpdater = new FreeCameraUpdater(mWorld);
@@ -89,7 +96,8 @@ public class GameRenderer {
         } else {
             mCameraUpdater = new RacerCameraUpdater(mWorld, racer);
         }
-        mRenderer = new PwTiledMapRenderer(mTrack.getMap(), Constants.UNIT_FOR_PIXEL, mBatch);
+        mRenderer = sharedRenderPass.getTiledMapRenderer();
+        mDrawLists = new DrawLists(sharedRenderPass.getObjectGrid());
 
         mSetupPerformanceCounter = counters.add("- setup");
         mTilePerformanceCounter = counters.add("- tiles");
@@ -100,12 +108,6 @@ public class GameRenderer {
         if (Debug.instance.showDebugLayer) {
             setupWaypointDebugShape();
         }
-        for (GameObject object : mWorld.getActiveGameObjects()) {
-            if (object instanceof CellFrameBufferUser) {
-                CellFrameBufferUser user = (CellFrameBufferUser) object;
-                user.init(mCellFrameBufferManager);
-            }
-        }
     }
 
     private void setupWaypointDebugShape() {
@@ -136,13 +138,53 @@ public class GameRenderer {
         updateCamera(CameraUpdater.IMMEDIATE);
     }
 
-    public void render(float delta) {
+    /**
+     * First step of rendering, called by SharedRenderPass for all renderers before drawCells():
+     * updates the camera and finds the visible objects. The ObjectGrid must be up to date.
+     */
+    void prepare(float delta) {
         mSetupPerformanceCounter.start();
-        HdpiUtils.glViewport(mScreenX, mScreenY, mScreenWidth, mScreenHeight);
         updateCamera(delta);
+        // The map renderer is shared, so keep a copy of the view bounds
         updateMapRendererCamera();
-        Rectangle viewBounds = mRenderer.getViewBounds();
+        mViewBounds.set(mRenderer.getViewBounds());
+        mDrawLists.update(mViewBounds);
         mSetupPerformanceCounter.stop();
+    }
+
+    /**
+     * Called by SharedRenderPass after prepare(), before CellFrameBufferManager.begin(): makes sure
+     * the visible objects have their cells
+     */
+    void reserveCells() {
+        Array<GameObject> visibleObjects = mDrawLists.getVisibleObjects();
+        for (int idx = 0; idx < visibleObjects.size; ++idx) {
+            GameObject object = visibleObjects.get(idx);
+            if (object instanceof CellFrameBufferUser) {
+                ((CellFrameBufferUser) object).reserveCells();
+            }
+        }
+    }
+
+    /**
+     * Second step of rendering: draws the cells of the visible objects. Called by
+     * SharedRenderPass between CellFrameBufferManager.begin() and end()
+     */
+    void drawCells() {
+        Array<GameObject> visibleObjects = mDrawLists.getVisibleObjects();
+        for (int idx = 0; idx < visibleObjects.size; ++idx) {
+            GameObject object = visibleObjects.get(idx);
+            if (object instanceof CellFrameBufferUser) {
+                CellFrameBufferUser user = (CellFrameBufferUser) object;
+                user.drawToCell(mBatch, mViewBounds);
+            }
+        }
+    }
+
+    /** Last step of rendering: draws the viewport */
+    void render() {
+        HdpiUtils.glViewport(mScreenX, mScreenY, mScreenWidth, mScreenHeight);
+        updateMapRendererCamera();
 
         mTilePerformanceCounter.start();
         // Reset the color in case it was modified by the previous frame
@@ -156,18 +198,8 @@ public class GameRenderer {
         mTilePerformanceCounter.stop();
 
         mGameObjectPerformanceCounter.start();
-
-        mCellFrameBufferManager.begin(mBatch);
-        for (GameObject object : mWorld.getActiveGameObjects()) {
-            if (object instanceof CellFrameBufferUser) {
-                CellFrameBufferUser user = (CellFrameBufferUser) object;
-                user.drawToCell(mBatch, viewBounds);
-            }
-        }
-        mCellFrameBufferManager.end(mScreenX, mScreenY, mScreenWidth, mScreenHeight);
-
         mBatch.begin();
-        for (ZLevel z : ZLevel.values()) {
+        for (ZLevel z : ZLEVELS) {
             if (z == ZLevel.FG_LAYERS && mForegroundLayerIndexes.length > 0) {
                 mGameObjectPerformanceCounter.stop();
                 mTilePerformanceCounter.start();
@@ -179,9 +211,16 @@ public class GameRenderer {
                 mTilePerformanceCounter.stop();
                 mGameObjectPerformanceCounter.start();
             }
+            if (z == ZLevel.GROUND) {
+                // Skidmarks go below all the other ground objects
+                mBatch.end();
+                mSkidmarksRenderer.draw(mCamera.combined);
+                mBatch.begin();
+            }
 
-            for (GameObject object : mWorld.getActiveGameObjects()) {
-                object.draw(mBatch, z, viewBounds);
+            Array<GameObject> objects = mDrawLists.getObjects(z);
+            for (int idx = 0; idx < objects.size; ++idx) {
+                objects.get(idx).draw(mBatch, z, mViewBounds);
             }
         }
         mBatch.end();
@@ -20,6 +20,7 @@ package com.agateau.pixelwheels.racescreen;
 
 import com.agateau.pixelwheels.Assets;
 import com.agateau.pixelwheels.Constants;
+import com.agateau.pixelwheels.GameConfig;
 import com.agateau.pixelwheels.GamePlay;
 import com.agateau.pixelwheels.GameWorld;
 import com.agateau.pixelwheels.PwGame;
@@ -30,23 +31,31 @@ import com.agateau.pixelwheels.bonus.GunBonus;
 import com.agateau.pixelwheels.bonus.MineBonus;
 import com.agateau.pixelwheels.bonus.MissileBonus;
 import com.agateau.pixelwheels.bonus.TurboBonus;
+import com.agateau.pixelwheels.debug.Debug;
 import com.agateau.pixelwheels.gameobject.GameObject;
+import com.agateau.pixelwheels.gameobject.GameObjectStore;
+import com.agateau.pixelwheels.gamesetup.Difficulty;
 import com.agateau.pixelwheels.gamesetup.GameInfo;
 import com.agateau.pixelwheels.map.Track;
 import com.agateau.pixelwheels.obstacles.ObstacleCreator;
 import com.agateau.pixelwheels.obstacles.ObstacleDef;
 import com.agateau.pixelwheels.obstacles.tiled.TiledObstacleCreator;
+import com.agateau.pixelwheels.racer.AIPerception;
 import com.agateau.pixelwheels.racer.AIPilot;
 import com.agateau.pixelwheels.racer.LapPositionComponent;
 import com.agateau.pixelwheels.racer.PlayerPilot;
 import com.agateau.pixelwheels.racer.Racer;
+import com.agateau.pixelwheels.racer.Skidmarks;
 import com.agateau.pixelwheels.racer.Vehicle;
 import com.agateau.pixelwheels.sound.AudioManager;
 import com.agateau.pixelwheels.stats.GameStats;
 import com.agateau.pixelwheels.stats.TrackStats;
+import com.agateau.pixelwheels.utils.OrientedPoint;
 import com.agateau.pixelwheels.vehicledef.VehicleCreator;
 import com.agateau.pixelwheels.vehicledef.VehicleDef;
 import com.agateau.utils.Assert;
+import com.agateau.utils.FixedTimeStep;
+import com.agateau.utils.ParallelLoop;
 import com.agateau.utils.log.NLog;
 import com.badlogic.gdx.maps.MapObject;
 import com.badlogic.gdx.math.Vector2;
@@ -64,37 +73,97 @@ import java.util.Scanner;
 
 public class GameWorldImpl implements ContactListener, Disposable, GameWorld {
     private static final Racer.RecordRanks DEBUG_RECORD_RANKS = parseFinishedOverlayDebugScreen();
-
-    private final PwGame mGame;
+    // With fewer racers, running the decide phase of the pilots in parallel costs more than it
+    // saves
+    private static final int MIN_PARALLEL_DECIDE_RACERS = 8;
+    private static final int MAX_DECIDE_WORKERS = 3;
+    // AI racers in low detail mode must come this much closer than the low detail distance to
+    // switch back to full physics. This avoids switching back and forth at the limit.
+    private static final float LOW_DETAIL_PHYSICS_HYSTERESIS = 0.1f;
+    // Max frame time to avoid spiral of death (on slow devices)
+    private static final float MAX_FRAME_TIME = 0.25f;
+
+    private final Assets mAssets;
+    private final AudioManager mAudioManager;
+    private final GameStats mGameStats;
+    private final Difficulty mDifficulty;
+    private final GameConfig mGameConfig;
     private Track mTrack;
     private final CountDown mCountDown;
 
     private final World mBox2DWorld;
-    private float mTimeAccumulator = 0;
+    private final AIPerception mAIPerception;
+    private final Skidmarks mSkidmarks;
+    private ParallelLoop mDecideLoop;
+    private final FixedTimeStep mFixedTimeStep;
 
     @SuppressWarnings("rawtypes")
     private final Array<BonusPool> mBonusPools = new Array<>();
 
     private final Array<Racer> mRacers = new Array<>();
+    private final ParallelLoop.Body mDecideLoopBody =
+            idx -> mRacers.get(idx).decidePilot(getTimeStep());
     private final Array<Racer> mPlayerRacers = new Array<>();
+    private final Array<Racer> mAIRacers = new Array<>();
+    private float mLowDetailPhysicsDistance;
+    private final RacerRanking mRacerRanking = new RacerRanking();
+    private int mLastPlayerRank = 0;
     private State mState = GameWorld.State.COUNTDOWN;
 
-    private final Array<GameObject> mActiveGameObjects = new Array<>();
+    private final GameObjectStore mGameObjects = new GameObjectStore();
 
     private final PerformanceCounter mBox2DPerformanceCounter;
+    private final PerformanceCounter mAIPerformanceCounter;
     private final PerformanceCounter mGameObjectPerformanceCounter;
 
     GameWorldImpl(PwGame game, GameInfo gameInfo, PerformanceCounters performanceCounters) {
-        mGame = game;
+        this(
+                game.getAssets(),
+                game.getAudioManager(),
+                game.getGameStats(),
+                game.getConfig().difficulty,
+                game.getConfig(),
+                gameInfo,
+                performanceCounters);
+    }
+
+    /**
+     * Creates a world without depending on PwGame, this is used to run races without rendering.
+     *
+     * <p>gameConfig is only used to create the player pilots, it can be null if gameInfo does not
+     * contain any player.
+     */
+    public GameWorldImpl(
+            Assets assets,
+            AudioManager audioManager,
+            GameStats gameStats,
+            Difficulty difficulty,
+            GameConfig gameConfig,
+            GameInfo gameInfo,
+            PerformanceCounters performanceCounters) {
+        mAssets = assets;
+        mAudioManager = audioManager;
+        mGameStats = gameStats;
+        mDifficulty = difficulty;
+        mGameConfig = gameConfig;
         mBox2DWorld = new World(new Vector2(0, 0), true);
         mBox2DWorld.setContactListener(this);
+        mFixedTimeStep =
+                new FixedTimeStep(1f / GamePlay.instance.physicsStepRate, MAX_FRAME_TIME);
+        mAIPerception = new AIPerception(mBox2DWorld);
+        mSkidmarks = new Skidmarks(Debug.instance.maxSkidmarkSegments);
+        mLowDetailPhysicsDistance =
+                Debug.instance.lowDetailPhysics ? Debug.instance.lowDetailPhysicsDistance : -1;
         mTrack = gameInfo.getTrack();
         mTrack.init();
-        mCountDown = new CountDown(this, game.getAudioManager(), game.getAssets().soundAtlas);
+        mCountDown = new CountDown(this, mAudioManager, mAssets.soundAtlas);
 
         mBox2DPerformanceCounter = performanceCounters.add("- box2d");
+        mAIPerformanceCounter = performanceCounters.add("- ai");
         mGameObjectPerformanceCounter = performanceCounters.add("- g.o");
         setupRacers(gameInfo.getEntrants());
+        setupDecideLoop();
+        updateLastPlayerRank();
         setupObstacles();
         setupBonusSpots();
         setupBonusPools();
@@ -110,6 +179,16 @@ public class GameWorldImpl implements ContactListener, Disposable, GameWorld {
         return mBox2DWorld;
     }
 
+    @Override
+    public AIPerception getAIPerception() {
+        return mAIPerception;
+    }
+
+    @Override
+    public Skidmarks getSkidmarks() {
+        return mSkidmarks;
+    }
+
     @Override
     public Racer getPlayerRacer(int playerId) {
         return mPlayerRacers.get(playerId);
@@ -125,6 +204,15 @@ public class GameWorldImpl implements ContactListener, Disposable, GameWorld {
         return mRacers;
     }
 
+    /**
+     * AI racers farther than distance from all the player racers use low detail physics, see
+     * Vehicle.setLowDetailPhysics(). If there are no player racers, all AI racers use low detail
+     * physics. A negative distance disables low detail physics.
+     */
+    public void setLowDetailPhysicsDistance(float distance) {
+        mLowDetailPhysicsDistance = distance;
+    }
+
     @SuppressWarnings("rawtypes")
     @Override
     public Array<BonusPool> getBonusPools() {
@@ -132,13 +220,13 @@ public class GameWorldImpl implements ContactListener, Disposable, GameWorld {
     }
 
     @Override
-    public Array<GameObject> getActiveGameObjects() {
-        return mActiveGameObjects;
+    public GameObjectStore getGameObjectStore() {
+        return mGameObjects;
     }
 
     @Override
-    public void addGameObject(GameObject object) {
-        mActiveGameObjects.add(object);
+    public int addGameObject(GameObject object) {
+        return mGameObjects.add(object);
     }
 
     @Override
@@ -147,15 +235,8 @@ public class GameWorldImpl implements ContactListener, Disposable, GameWorld {
     }
 
     @Override
-    public int getRacerRank(Racer wantedRacer) {
-        int rank = 1;
-        for (Racer racer : mRacers) {
-            if (racer != wantedRacer && sRacerComparator.compare(racer, wantedRacer) < 0) {
-                // racer is in front of wantedRacer
-                rank += 1;
-            }
-        }
-        return rank;
+    public int getRacerRank(Racer racer) {
+        return mRacerRanking.getRank(racer);
     }
 
     /**
@@ -164,15 +245,35 @@ public class GameWorldImpl implements ContactListener, Disposable, GameWorld {
      */
     @Override
     public float getRacerNormalizedRank(Racer racer) {
-        if (mRacers.size == 1) {
-            return 0;
+        return mRacerRanking.getNormalizedRank(racer);
+    }
+
+    @Override
+    public int getLastPlayerRank() {
+        return mLastPlayerRank;
+    }
+
+    private void updateLastPlayerRank() {
+        mLastPlayerRank = 0;
+        for (int idx = 0; idx < mPlayerRacers.size; ++idx) {
+            mLastPlayerRank =
+                    Math.max(mLastPlayerRank, mRacerRanking.getRank(mPlayerRacers.get(idx)));
         }
-        return (getRacerRank(racer) - 1) / (float) (mRacers.size - 1);
+    }
+
+    @Override
+    public void addRacerRankListener(RacerRanking.Listener listener) {
+        mRacerRanking.addListener(listener);
+    }
+
+    @Override
+    public void removeRacerRankListener(RacerRanking.Listener listener) {
+        mRacerRanking.removeListener(listener);
     }
 
     @Override
     public GameStats getGameStats() {
-        return mGame.getGameStats();
+        return mGameStats;
     }
 
     /**
@@ -184,34 +285,46 @@ public class GameWorldImpl implements ContactListener, Disposable, GameWorld {
 
     @Override
     public void act(float delta) {
-        // fixed time step
-        // max frame time to avoid spiral of death (on slow devices)
-        float frameTime = Math.min(delta, 0.25f);
-        mTimeAccumulator += frameTime;
-        while (mTimeAccumulator >= GameWorld.BOX2D_TIME_STEP) {
-            mCountDown.act(GameWorld.BOX2D_TIME_STEP);
+        float timeStep = mFixedTimeStep.getStep();
+        mFixedTimeStep.addFrameTime(delta);
+        while (mFixedTimeStep.consumeStep()) {
+            mCountDown.act(timeStep);
+            mSkidmarks.act(timeStep);
 
             mBox2DPerformanceCounter.start();
             mBox2DWorld.step(
-                    GameWorld.BOX2D_TIME_STEP,
-                    GameWorld.VELOCITY_ITERATIONS,
-                    GameWorld.POSITION_ITERATIONS);
+                    timeStep, GameWorld.VELOCITY_ITERATIONS, GameWorld.POSITION_ITERATIONS);
             mBox2DPerformanceCounter.stop();
 
+            updateLowDetailPhysics();
+
+            mAIPerformanceCounter.start();
+            // Must happen before the game objects act, since AI pilots use its results
+            mAIPerception.update();
+            decidePilots();
+            mAIPerformanceCounter.stop();
+
             mGameObjectPerformanceCounter.start();
-            for (int idx = mActiveGameObjects.size - 1; idx >= 0; --idx) {
-                GameObject obj = mActiveGameObjects.get(idx);
-                obj.act(GameWorld.BOX2D_TIME_STEP);
+            // Iterate from the end: removing an object moves the last one in its place. Objects
+            // added while iterating do not act until the next step.
+            Array<GameObject> objects = mGameObjects.getObjects();
+            for (int idx = objects.size - 1; idx >= 0; --idx) {
+                GameObject obj = objects.get(idx);
+                obj.act(timeStep);
                 if (obj.isFinished()) {
-                    mActiveGameObjects.removeIndex(idx);
+                    mGameObjects.removeAt(idx);
                     if (obj instanceof Disposable) {
                         ((Disposable) obj).dispose();
                     }
                 }
             }
+            for (int idx = 0; idx < objects.size; ++idx) {
+                objects.get(idx).saveTransform();
+            }
             mGameObjectPerformanceCounter.stop();
 
-            mTimeAccumulator -= GameWorld.BOX2D_TIME_STEP;
+            mRacerRanking.update();
+            updateLastPlayerRank();
         }
 
         if (haveAllRacersFinished()) {
@@ -220,12 +333,59 @@ public class GameWorldImpl implements ContactListener, Disposable, GameWorld {
         }
     }
 
+    private void updateLowDetailPhysics() {
+        float distance = mLowDetailPhysicsDistance;
+        float enterDistance2 = distance * distance;
+        float leaveDistance = distance * (1 - LOW_DETAIL_PHYSICS_HYSTERESIS);
+        float leaveDistance2 = leaveDistance * leaveDistance;
+        for (int idx = 0; idx < mAIRacers.size; ++idx) {
+            Vehicle vehicle = mAIRacers.get(idx).getVehicle();
+            boolean lowDetail;
+            if (distance < 0) {
+                lowDetail = false;
+            } else {
+                float distance2 = getClosestPlayerDistance2(vehicle.getPosition());
+                lowDetail =
+                        vehicle.hasLowDetailPhysics()
+                                ? distance2 > leaveDistance2
+                                : distance2 > enterDistance2;
+            }
+            vehicle.setLowDetailPhysics(lowDetail);
+        }
+    }
+
+    /** Returns the squared distance between pos and the closest player racer */
+    private float getClosestPlayerDistance2(Vector2 pos) {
+        float minDistance2 = Float.MAX_VALUE;
+        for (int idx = 0; idx < mPlayerRacers.size; ++idx) {
+            Vector2 playerPos = mPlayerRacers.get(idx).getVehicle().getPosition();
+            minDistance2 = Math.min(minDistance2, pos.dst2(playerPos));
+        }
+        return minDistance2;
+    }
+
+    /**
+     * Decide phase of the pilots: they only read the world and the results of mAIPerception, so
+     * they can run in parallel. Their decisions are applied when the racers act.
+     */
+    private void decidePilots() {
+        if (mDecideLoop != null) {
+            mDecideLoop.run(mDecideLoopBody, mRacers.size);
+            return;
+        }
+        for (int idx = 0; idx < mRacers.size; ++idx) {
+            mRacers.get(idx).decidePilot(mFixedTimeStep.getStep());
+        }
+    }
+
     private boolean haveAllRacersFinished() {
         if (DEBUG_RECORD_RANKS != null && mState == State.RUNNING) {
             mRacers.shuffle();
             return true;
         }
-        for (Racer racer : mPlayerRacers) {
+        // In races without players (simulations), wait for all racers to finish
+        Array<Racer> racers = mPlayerRacers.isEmpty() ? mRacers : mPlayerRacers;
+        for (Racer racer : racers) {
             if (!racer.getLapPositionComponent().hasFinishedRace()) {
                 return false;
             }
@@ -234,7 +394,7 @@ public class GameWorldImpl implements ContactListener, Disposable, GameWorld {
     }
 
     private void onFinished() {
-        TrackStats stats = mGame.getGameStats().getTrackStats(mGame.getConfig().difficulty, mTrack);
+        TrackStats stats = mGameStats.getTrackStats(mDifficulty, mTrack);
         for (int idx = 0; idx < mRacers.size; ++idx) {
             Racer racer = mRacers.get(idx);
             racer.markRaceFinished();
@@ -272,58 +432,71 @@ public class GameWorldImpl implements ContactListener, Disposable, GameWorld {
                 }
             }
         }
+        mGameStats.flush();
     }
 
     private void setupRacers(Array<GameInfo.Entrant> entrants) {
-        VehicleCreator creator = new VehicleCreator(mGame.getAssets(), this);
-        Assets assets = mGame.getAssets();
+        VehicleCreator creator = new VehicleCreator(mAssets, this);
 
-        final float startAngle = 90;
-        Array<Vector2> positions = mTrack.findStartTilePositions();
-        positions.reverse();
+        Array<OrientedPoint> positions = mTrack.findStartPositions(entrants.size);
+        Vector2 position = new Vector2();
 
-        int maxDrivingForce = GamePlay.instance.getMaxDrivingForce(mGame.getConfig().difficulty);
+        int maxDrivingForce = GamePlay.instance.getMaxDrivingForce(mDifficulty);
 
-        AudioManager audioManager = mGame.getAudioManager();
         for (int idx = 0; idx < entrants.size; ++idx) {
-            Assert.check(
-                    idx < positions.size, "Too many entrants (" + idx + "/" + positions.size + ")");
             GameInfo.Entrant entrant = entrants.get(idx);
-            VehicleDef vehicleDef = assets.findVehicleDefById(entrant.getVehicleId());
-            Vehicle vehicle =
-                    creator.create(vehicleDef, positions.get(idx), startAngle, maxDrivingForce);
-            Racer racer = new Racer(assets, audioManager, this, vehicle, entrant);
+            VehicleDef vehicleDef = mAssets.findVehicleDefById(entrant.getVehicleId());
+            OrientedPoint point = positions.get(idx);
+            position.set(point.x, point.y);
+            Vehicle vehicle = creator.create(vehicleDef, position, point.angle, maxDrivingForce);
+            Racer racer = new Racer(mAssets, mAudioManager, this, vehicle, entrant);
             if (entrant.isPlayer()) {
+                Assert.check(mGameConfig != null, "Player entrants require a GameConfig");
                 GameInfo.Player player = (GameInfo.Player) entrant;
                 PlayerPilot pilot =
-                        new PlayerPilot(assets, this, racer, mGame.getConfig(), player.getIndex());
+                        new PlayerPilot(mAssets, this, racer, mGameConfig, player.getIndex());
                 racer.setPilot(pilot);
                 mPlayerRacers.add(racer);
             } else {
                 racer.setPilot(new AIPilot(this, mTrack, racer));
+                mAIRacers.add(racer);
             }
             addGameObject(racer);
             mRacers.add(racer);
+            mRacerRanking.addRacer(racer);
+        }
+    }
+
+    private void setupDecideLoop() {
+        if (!Debug.instance.parallelAIDecisions || mRacers.size < MIN_PARALLEL_DECIDE_RACERS) {
+            return;
+        }
+        // The game thread runs decide() too, so keep one processor for it
+        int workerCount =
+                Math.min(Runtime.getRuntime().availableProcessors() - 1, MAX_DECIDE_WORKERS);
+        if (workerCount <= 0) {
+            return;
         }
+        NLog.i("Running the AI decide phase on %d worker threads", workerCount);
+        mDecideLoop = new ParallelLoop("ai-decide", workerCount);
     }
 
     private void setupObstacles() {
         ObstacleCreator creator = new ObstacleCreator();
-        for (ObstacleDef def : mGame.getAssets().obstacleDefs) {
+        for (ObstacleDef def : mAssets.obstacleDefs) {
             creator.addObstacleDef(def);
         }
 
         for (MapObject object : mTrack.getObstacleObjects()) {
-            creator.create(this, mGame.getAssets(), object);
+            creator.create(this, mAssets, object);
         }
 
-        TiledObstacleCreator.createObstacles(this, mTrack.getMap());
+        TiledObstacleCreator.createObstacles(mBox2DWorld, mTrack.getMap());
     }
 
     private void setupBonusSpots() {
         for (Vector2 pos : mTrack.findBonusSpotPositions()) {
-            BonusSpot spot =
-                    new BonusSpot(mGame.getAssets(), mGame.getAudioManager(), this, pos.x, pos.y);
+            BonusSpot spot = new BonusSpot(mAssets, mAudioManager, this, pos.x, pos.y);
             addGameObject(spot);
         }
     }
@@ -361,8 +534,7 @@ public class GameWorldImpl implements ContactListener, Disposable, GameWorld {
     }
 
     private <T extends Bonus> void addPool(Class<T> bonusClass, float[] counts) {
-        BonusPool<T> pool =
-                new BonusPool<>(bonusClass, mGame.getAssets(), this, mGame.getAudioManager());
+        BonusPool<T> pool = new BonusPool<>(bonusClass, mAssets, this, mAudioManager);
         pool.setCounts(counts);
         mBonusPools.add(pool);
     }
@@ -415,6 +587,16 @@ public class GameWorldImpl implements ContactListener, Disposable, GameWorld {
         }
     }
 
+    @Override
+    public float getTimeStep() {
+        return mFixedTimeStep.getStep();
+    }
+
+    @Override
+    public float getRenderAlpha() {
+        return mFixedTimeStep.getAlpha();
+    }
+
     @Override
     public State getState() {
         return mState;
@@ -444,12 +626,16 @@ public class GameWorldImpl implements ContactListener, Disposable, GameWorld {
         if (mTrack != null) {
             mTrack.dispose();
         }
-        for (GameObject gameObject : mActiveGameObjects) {
+        for (GameObject gameObject : mGameObjects.getObjects()) {
             if (gameObject instanceof Disposable) {
                 ((Disposable) gameObject).dispose();
             }
         }
-        mActiveGameObjects.clear();
+        mGameObjects.clear();
+        if (mDecideLoop != null) {
+            mDecideLoop.dispose();
+        }
+        mBox2DWorld.dispose();
     }
 
     void forgetTrack() {
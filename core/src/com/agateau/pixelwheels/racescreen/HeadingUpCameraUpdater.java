@@ -57,7 +57,7 @@ class HeadingUpCameraUpdater extends CameraUpdater {
         } else {
             // reflect how the vehicle is turning
             final float steerMag = vehicle.isDrifting() ? 0.65f : 0.32f;
-            final float bodyAngle = vehicle.getBody().getAngle();
+            final float bodyAngle = vehicle.getRenderBodyAngle();
             for (Vehicle.WheelInfo wi : vehicle.getWheelInfos()) {
                 final float wheelAngle = wi.joint.getLowerLimit();
                 final float targetUp = bodyAngle - steerMag * wheelAngle;
@@ -87,7 +87,7 @@ class HeadingUpCameraUpdater extends CameraUpdater {
                 .position
                 .set(mNextCameraInfo.cameraAhead, 0)
                 .rotateRad(mNextCameraInfo.cameraUp)
-                .add(vehicle.getPosition());
+                .add(vehicle.getRenderPosition());
         limitZoomChange(delta);
         applyChanges();
     }
@@ -23,6 +23,7 @@ import static com.agateau.pixelwheels.utils.BodyRegionDrawer.SHADOW_ALPHA;
 import com.agateau.pixelwheels.Assets;
 import com.agateau.pixelwheels.Constants;
 import com.agateau.pixelwheels.ZLevel;
+import com.agateau.pixelwheels.gameobject.Audible;
 import com.agateau.pixelwheels.gameobject.AudioClipper;
 import com.agateau.pixelwheels.gameobject.GameObjectAdapter;
 import com.agateau.pixelwheels.map.Track;
@@ -49,7 +50,7 @@ import com.badlogic.gdx.utils.Pool;
 import com.badlogic.gdx.utils.ReflectionPool;
 
 /** The rescue helicopter which comes to pick up fallen vehicles */
-public class Helicopter extends GameObjectAdapter implements Pool.Poolable, Disposable {
+public class Helicopter extends GameObjectAdapter implements Audible, Pool.Poolable, Disposable {
     private static final float SHADOW_OFFSET = 80;
     private static final Vector2 BODY_CENTER = new Vector2(30, (111 - 35));
     private static final float PROPELLER_SPEED = -720;
@@ -376,6 +377,16 @@ public class Helicopter extends GameObjectAdapter implements Pool.Poolable, Disp
                 true);
     }
 
+    @Override
+    public int getZLevelMask() {
+        return ZLevel.FG_LAYERS.mask | ZLevel.FLYING_HIGH.mask;
+    }
+
+    @Override
+    public float getDrawRadius() {
+        return mFrameBufferRadiusU;
+    }
+
     @Override
     public float getX() {
         return mPosition.x;
@@ -0,0 +1,238 @@
+/*
+ * Copyright 2026 Aurélien Gâteau <mail@agateau.com>
+ *
+ * This file is part of Pixel Wheels.
+ *
+ * Pixel Wheels is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.agateau.pixelwheels.racescreen;
+
+import com.agateau.pixelwheels.gameobject.GameObject;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import java.util.Arrays;
+
+/**
+ * A coarse grid of the game objects, built from their draw radius, to quickly find the objects
+ * visible in a view.
+ *
+ * <p>update() must be called once per frame. The grid can then be queried for each view, see
+ * DrawLists. Objects with an unbounded draw radius are always visible, objects with an empty
+ * ZLevel mask never are.
+ *
+ * <p>The grid also sorts the objects by their sequence, so that views draw them in a stable order.
+ */
+public class ObjectGrid {
+    // Size of the grid cells, in world units
+    private static final float CELL_SIZE = 16;
+
+    // Grid, covering the map. Objects outside the map go to the border cells.
+    private final float mOriginX;
+    private final float mOriginY;
+    private final int mColumns;
+    private final int mRows;
+    // Objects of cell (col, row) are mCellObjects[mCellStarts[row * mColumns + col]] to
+    // mCellObjects[mCellStarts[row * mColumns + col + 1] - 1]
+    private final int[] mCellStarts;
+    private int[] mCellObjects = new int[64];
+
+    private Array<GameObject> mObjects;
+
+    // Per-object data, indexed like mObjects
+    private float[] mObjectBounds = new float[64 * 4]; // minX, minY, maxX, maxY
+    private boolean[] mObjectAlwaysVisible = new boolean[64];
+    // Indexes of the objects, sorted by sequence
+    private int[] mDrawOrder = new int[64];
+
+    public ObjectGrid(float mapWidth, float mapHeight) {
+        this(0, 0, mapWidth, mapHeight);
+    }
+
+    ObjectGrid(float originX, float originY, float width, float height) {
+        mOriginX = originX;
+        mOriginY = originY;
+        mColumns = Math.max(MathUtils.ceil(width / CELL_SIZE), 1);
+        mRows = Math.max(MathUtils.ceil(height / CELL_SIZE), 1);
+        mCellStarts = new int[mColumns * mRows + 1];
+    }
+
+    /** Inserts objects in the grid, in array order. The array must not change until next call */
+    public void update(Array<GameObject> objects) {
+        update(objects, null);
+    }
+
+    /**
+     * Inserts objects in the grid. sequences contains the sequence of each object, see
+     * GameObjectStore.getDrawableSequences(). The arrays must not change until the next call
+     */
+    public void update(Array<GameObject> objects, IntArray sequences) {
+        mObjects = objects;
+        ensureObjectCapacity(objects.size);
+        updateDrawOrder(sequences);
+
+        // First pass: compute object bounds and count objects per cell, second pass: fill
+        Arrays.fill(mCellStarts, 0);
+        int entryCount = 0;
+        for (int idx = 0; idx < objects.size; ++idx) {
+            mObjectAlwaysVisible[idx] = false;
+            GameObject object = objects.get(idx);
+            if (object.getZLevelMask() == 0) {
+                setBounds(idx, 0, 0, -1, -1);
+                continue;
+            }
+            float radius = object.getDrawRadius();
+            if (radius < 0) {
+                mObjectAlwaysVisible[idx] = true;
+                setBounds(idx, 0, 0, -1, -1);
+                continue;
+            }
+            float x = object.getX();
+            float y = object.getY();
+            setBounds(idx, x - radius, y - radius, x + radius, y + radius);
+            int offset = idx * 4;
+            int col1 = getColumn(mObjectBounds[offset]);
+            int row1 = getRow(mObjectBounds[offset + 1]);
+            int col2 = getColumn(mObjectBounds[offset + 2]);
+            int row2 = getRow(mObjectBounds[offset + 3]);
+            for (int row = row1; row <= row2; ++row) {
+                for (int col = col1; col <= col2; ++col) {
+                    ++mCellStarts[row * mColumns + col + 1];
+                    ++entryCount;
+                }
+            }
+        }
+        for (int cell = 0; cell < mColumns * mRows; ++cell) {
+            mCellStarts[cell + 1] += mCellStarts[cell];
+        }
+        if (mCellObjects.length < entryCount) {
+            mCellObjects = new int[entryCount * 2];
+        }
+
+        // Second pass: mCellStarts[cell] is used as the insertion index of cell, and ends up
+        // being the start of the next cell, so shift it back afterwards
+        for (int idx = 0; idx < objects.size; ++idx) {
+            int offset = idx * 4;
+            if (mObjectBounds[offset + 2] < mObjectBounds[offset]) {
+                continue;
+            }
+            int col1 = getColumn(mObjectBounds[offset]);
+            int row1 = getRow(mObjectBounds[offset + 1]);
+            int col2 = getColumn(mObjectBounds[offset + 2]);
+            int row2 = getRow(mObjectBounds[offset + 3]);
+            for (int row = row1; row <= row2; ++row) {
+                for (int col = col1; col <= col2; ++col) {
+                    mCellObjects[mCellStarts[row * mColumns + col]++] = idx;
+                }
+            }
+        }
+        for (int cell = mColumns * mRows; cell > 0; --cell) {
+            mCellStarts[cell] = mCellStarts[cell - 1];
+        }
+        mCellStarts[0] = 0;
+    }
+
+    /** The objects passed to the last call to update() */
+    public Array<GameObject> getObjects() {
+        return mObjects;
+    }
+
+    /**
+     * Indexes in getObjects() of the objects, sorted by sequence. Only the first getObjects().size
+     * items are valid
+     */
+    public int[] getDrawOrder() {
+        return mDrawOrder;
+    }
+
+    /**
+     * Sets visible[idx] to true if getObjects().get(idx) can be visible in viewBounds, and to false
+     * otherwise. visible must contain at least getObjects().size items.
+     */
+    public void findVisibleObjects(Rectangle viewBounds, boolean[] visible) {
+        System.arraycopy(mObjectAlwaysVisible, 0, visible, 0, mObjects.size);
+        float minX = viewBounds.x;
+        float minY = viewBounds.y;
+        float maxX = viewBounds.x + viewBounds.width;
+        float maxY = viewBounds.y + viewBounds.height;
+        int col1 = getColumn(minX);
+        int row1 = getRow(minY);
+        int col2 = getColumn(maxX);
+        int row2 = getRow(maxY);
+        for (int row = row1; row <= row2; ++row) {
+            for (int col = col1; col <= col2; ++col) {
+                int cell = row * mColumns + col;
+                for (int entry = mCellStarts[cell]; entry < mCellStarts[cell + 1]; ++entry) {
+                    int idx = mCellObjects[entry];
+                    if (visible[idx]) {
+                        continue;
+                    }
+                    int offset = idx * 4;
+                    visible[idx] =
+                            mObjectBounds[offset] <= maxX
+                                    && mObjectBounds[offset + 2] >= minX
+                                    && mObjectBounds[offset + 1] <= maxY
+                                    && mObjectBounds[offset + 3] >= minY;
+                }
+            }
+        }
+    }
+
+    private void updateDrawOrder(IntArray sequences) {
+        for (int idx = 0; idx < mObjects.size; ++idx) {
+            mDrawOrder[idx] = idx;
+        }
+        if (sequences == null) {
+            return;
+        }
+        // Insertion sort: objects are only moved by removals, so they are almost sorted
+        int[] keys = sequences.items;
+        for (int idx = 1; idx < mObjects.size; ++idx) {
+            int objectIdx = mDrawOrder[idx];
+            int key = keys[objectIdx];
+            int pos = idx;
+            for (; pos > 0 && keys[mDrawOrder[pos - 1]] > key; --pos) {
+                mDrawOrder[pos] = mDrawOrder[pos - 1];
+            }
+            mDrawOrder[pos] = objectIdx;
+        }
+    }
+
+    private void setBounds(int idx, float minX, float minY, float maxX, float maxY) {
+        int offset = idx * 4;
+        mObjectBounds[offset] = minX;
+        mObjectBounds[offset + 1] = minY;
+        mObjectBounds[offset + 2] = maxX;
+        mObjectBounds[offset + 3] = maxY;
+    }
+
+    private int getColumn(float x) {
+        return MathUtils.clamp(MathUtils.floor((x - mOriginX) / CELL_SIZE), 0, mColumns - 1);
+    }
+
+    private int getRow(float y) {
+        return MathUtils.clamp(MathUtils.floor((y - mOriginY) / CELL_SIZE), 0, mRows - 1);
+    }
+
+    private void ensureObjectCapacity(int count) {
+        if (mObjectAlwaysVisible.length >= count) {
+            return;
+        }
+        int capacity = Math.max(count, mObjectAlwaysVisible.length * 2);
+        mObjectBounds = new float[capacity * 4];
+        mObjectAlwaysVisible = new boolean[capacity];
+        mDrawOrder = new int[capacity];
+    }
+}
@@ -41,6 +41,7 @@ import static com.badlogic.gdx.graphics.g2d.Batch.Y4;
 import com.agateau.pixelwheels.map.MapUtils;
 import com.agateau.utils.Assert;
 import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.Batch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.maps.MapProperties;
@@ -48,14 +49,78 @@ import com.badlogic.gdx.maps.tiled.TiledMap;
 import com.badlogic.gdx.maps.tiled.TiledMapTile;
 import com.badlogic.gdx.maps.tiled.TiledMapTileLayer;
 import com.badlogic.gdx.maps.tiled.renderers.BatchTiledMapRenderer;
+import com.badlogic.gdx.maps.tiled.tiles.AnimatedTiledMapTile;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.LongMap;
+import com.badlogic.gdx.utils.ObjectMap;
 
-/** A copy of OrthogonalTiledMapRenderer, modified to repeat borders */
+/**
+ * A copy of OrthogonalTiledMapRenderer, modified to repeat borders.
+ *
+ * <p>Tile layers never change, so by default their vertices are computed once: layers are split
+ * in chunks of CHUNK_SIZE x CHUNK_SIZE tiles, whose vertices are computed the first time they are
+ * visible. Only the chunks overlapping the view bounds are drawn. Chunks outside the layer hold
+ * the repeated border tiles. Layers containing animated tiles are drawn tile by tile.
+ */
 public class PwTiledMapRenderer extends BatchTiledMapRenderer {
+    static final int CHUNK_SIZE = 8;
+
+    /** The cached vertices of a chunk, grouped in runs of sprites sharing the same texture */
+    private static class Chunk {
+        float color;
+        float[] vertices;
+        int runCount;
+        Texture[] runTextures;
+        // Run idx covers vertices[runEnds[idx - 1]] to vertices[runEnds[idx] - 1]
+        int[] runEnds;
+
+        void setColor(float newColor) {
+            if (newColor == color) {
+                return;
+            }
+            color = newColor;
+            for (int idx = C1; idx < vertices.length; idx += NUM_VERTICES / 4) {
+                vertices[idx] = newColor;
+            }
+        }
+    }
+
+    private static class LayerCache {
+        final TiledMapTileLayer layer;
+        final boolean cacheable;
+        final LongMap<Chunk> chunks = new LongMap<>();
+
+        LayerCache(TiledMapTileLayer layer) {
+            this.layer = layer;
+            cacheable = !hasAnimatedTiles(layer);
+        }
+
+        private static boolean hasAnimatedTiles(TiledMapTileLayer layer) {
+            for (int row = 0; row < layer.getHeight(); ++row) {
+                for (int col = 0; col < layer.getWidth(); ++col) {
+                    TiledMapTileLayer.Cell cell = layer.getCell(col, row);
+                    if (cell != null && cell.getTile() instanceof AnimatedTiledMapTile) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+    }
+
     private final int mPaddingLeft;
     private final int mPaddingTop;
     private final int mPaddingRight;
     private final int mPaddingBottom;
 
+    private boolean mChunkCacheEnabled = true;
+    private final ObjectMap<TiledMapTileLayer, LayerCache> mLayerCaches = new ObjectMap<>();
+    private final FloatArray mTmpVertices = new FloatArray();
+    private final Array<Texture> mTmpRunTextures = new Array<>();
+    private final IntArray mTmpRunEnds = new IntArray();
+
     private static int readPadding(TiledMap map, String name) {
         MapProperties properties = map.getProperties();
         int value = MapUtils.getIntProperty(properties, name, 1);
@@ -71,6 +136,20 @@ public class PwTiledMapRenderer extends BatchTiledMapRenderer {
         mPaddingBottom = readPadding(map, "paddingBottom");
     }
 
+    /**
+     * Enables or disables the chunk cache. When disabled, the vertices of each visible tile are
+     * computed on every frame.
+     */
+    public void setChunkCacheEnabled(boolean enabled) {
+        mChunkCacheEnabled = enabled;
+    }
+
+    @Override
+    public void setMap(TiledMap map) {
+        super.setMap(map);
+        mLayerCaches.clear();
+    }
+
     @Override
     public void renderTileLayer(TiledMapTileLayer layer) {
         final Color batchColor = batch.getColor();
@@ -81,9 +160,6 @@ public class PwTiledMapRenderer extends BatchTiledMapRenderer {
                         batchColor.b,
                         batchColor.a * layer.getOpacity());
 
-        final int layerWidth = layer.getWidth();
-        final int layerHeight = layer.getHeight();
-
         final float layerTileWidth = layer.getTileWidth() * unitScale;
         final float layerTileHeight = layer.getTileHeight() * unitScale;
 
@@ -103,6 +179,14 @@ public class PwTiledMapRenderer extends BatchTiledMapRenderer {
                         ((viewBounds.y + viewBounds.height + layerTileHeight - layerOffsetY)
                                 / layerTileHeight);
 
+        if (mChunkCacheEnabled) {
+            LayerCache cache = getLayerCache(layer);
+            if (cache.cacheable) {
+                renderChunks(cache, color, col1, col2 - 1, row1, row2);
+                return;
+            }
+        }
+
         float y = row2 * layerTileHeight + layerOffsetY;
         float xStart = col1 * layerTileWidth + layerOffsetX;
         final float[] vertices = this.vertices;
@@ -110,128 +194,239 @@ public class PwTiledMapRenderer extends BatchTiledMapRenderer {
         for (int row = row2; row >= row1; row--) {
             float x = xStart;
             for (int col = col1; col < col2; col++) {
-                int cellCol = wrapClamp(col, 0, layerWidth - 1, mPaddingLeft, mPaddingRight);
-                int cellRow = wrapClamp(row, 0, layerHeight - 1, mPaddingBottom, mPaddingTop);
-                final TiledMapTileLayer.Cell cell = layer.getCell(cellCol, cellRow);
-                if (cell == null) {
-                    x += layerTileWidth;
+                final TiledMapTileLayer.Cell cell = getWrappedCell(layer, col, row);
+                if (cell != null && cell.getTile() != null) {
+                    computeTileVertices(cell, x, y, color, vertices, 0);
+                    Texture texture = cell.getTile().getTextureRegion().getTexture();
+                    batch.draw(texture, vertices, 0, NUM_VERTICES);
+                }
+                x += layerTileWidth;
+            }
+            y -= layerTileHeight;
+        }
+    }
+
+    /** Draws the chunks overlapping the tiles from (col1, row1) to (col2, row2), inclusive */
+    private void renderChunks(
+            LayerCache cache, float color, int col1, int col2, int row1, int row2) {
+        int chunkCol1 = Math.floorDiv(col1, CHUNK_SIZE);
+        int chunkCol2 = Math.floorDiv(col2, CHUNK_SIZE);
+        int chunkRow1 = Math.floorDiv(row1, CHUNK_SIZE);
+        int chunkRow2 = Math.floorDiv(row2, CHUNK_SIZE);
+        // Like the per-tile path, draw from top to bottom
+        for (int chunkRow = chunkRow2; chunkRow >= chunkRow1; --chunkRow) {
+            for (int chunkCol = chunkCol1; chunkCol <= chunkCol2; ++chunkCol) {
+                Chunk chunk = getChunk(cache, chunkCol, chunkRow, color);
+                if (chunk.runCount == 0) {
                     continue;
                 }
-                final TiledMapTile tile = cell.getTile();
-
-                if (tile != null) {
-                    final boolean flipX = cell.getFlipHorizontally();
-                    final boolean flipY = cell.getFlipVertically();
-                    final int rotations = cell.getRotation();
-
-                    TextureRegion region = tile.getTextureRegion();
-
-                    float x1 = x + tile.getOffsetX() * unitScale;
-                    float y1 = y + tile.getOffsetY() * unitScale;
-                    float x2 = x1 + region.getRegionWidth() * unitScale;
-                    float y2 = y1 + region.getRegionHeight() * unitScale;
-
-                    float u1 = region.getU();
-                    float v1 = region.getV2();
-                    float u2 = region.getU2();
-                    float v2 = region.getV();
-
-                    vertices[X1] = x1;
-                    vertices[Y1] = y1;
-                    vertices[C1] = color;
-                    vertices[U1] = u1;
-                    vertices[V1] = v1;
-
-                    vertices[X2] = x1;
-                    vertices[Y2] = y2;
-                    vertices[C2] = color;
-                    vertices[U2] = u1;
-                    vertices[V2] = v2;
-
-                    vertices[X3] = x2;
-                    vertices[Y3] = y2;
-                    vertices[C3] = color;
-                    vertices[U3] = u2;
-                    vertices[V3] = v2;
-
-                    vertices[X4] = x2;
-                    vertices[Y4] = y1;
-                    vertices[C4] = color;
-                    vertices[U4] = u2;
-                    vertices[V4] = v1;
-
-                    if (flipX) {
-                        float temp = vertices[U1];
-                        vertices[U1] = vertices[U3];
-                        vertices[U3] = temp;
-                        temp = vertices[U2];
-                        vertices[U2] = vertices[U4];
-                        vertices[U4] = temp;
-                    }
-                    if (flipY) {
-                        float temp = vertices[V1];
-                        vertices[V1] = vertices[V3];
-                        vertices[V3] = temp;
-                        temp = vertices[V2];
-                        vertices[V2] = vertices[V4];
-                        vertices[V4] = temp;
-                    }
-                    if (rotations != 0) {
-                        switch (rotations) {
-                            case TiledMapTileLayer.Cell.ROTATE_90:
-                                {
-                                    float tempV = vertices[V1];
-                                    vertices[V1] = vertices[V2];
-                                    vertices[V2] = vertices[V3];
-                                    vertices[V3] = vertices[V4];
-                                    vertices[V4] = tempV;
-
-                                    float tempU = vertices[U1];
-                                    vertices[U1] = vertices[U2];
-                                    vertices[U2] = vertices[U3];
-                                    vertices[U3] = vertices[U4];
-                                    vertices[U4] = tempU;
-                                    break;
-                                }
-                            case TiledMapTileLayer.Cell.ROTATE_180:
-                                {
-                                    float tempU = vertices[U1];
-                                    vertices[U1] = vertices[U3];
-                                    vertices[U3] = tempU;
-                                    tempU = vertices[U2];
-                                    vertices[U2] = vertices[U4];
-                                    vertices[U4] = tempU;
-                                    float tempV = vertices[V1];
-                                    vertices[V1] = vertices[V3];
-                                    vertices[V3] = tempV;
-                                    tempV = vertices[V2];
-                                    vertices[V2] = vertices[V4];
-                                    vertices[V4] = tempV;
-                                    break;
-                                }
-                            case TiledMapTileLayer.Cell.ROTATE_270:
-                                {
-                                    float tempV = vertices[V1];
-                                    vertices[V1] = vertices[V4];
-                                    vertices[V4] = vertices[V3];
-                                    vertices[V3] = vertices[V2];
-                                    vertices[V2] = tempV;
-
-                                    float tempU = vertices[U1];
-                                    vertices[U1] = vertices[U4];
-                                    vertices[U4] = vertices[U3];
-                                    vertices[U3] = vertices[U2];
-                                    vertices[U2] = tempU;
-                                    break;
-                                }
+                chunk.setColor(color);
+                int start = 0;
+                for (int run = 0; run < chunk.runCount; ++run) {
+                    int end = chunk.runEnds[run];
+                    batch.draw(chunk.runTextures[run], chunk.vertices, start, end - start);
+                    start = end;
+                }
+            }
+        }
+    }
+
+    private LayerCache getLayerCache(TiledMapTileLayer layer) {
+        LayerCache cache = mLayerCaches.get(layer);
+        if (cache == null) {
+            cache = new LayerCache(layer);
+            mLayerCaches.put(layer, cache);
+        }
+        return cache;
+    }
+
+    private Chunk getChunk(LayerCache cache, int chunkCol, int chunkRow, float color) {
+        long key = ((long) chunkCol << 32) | (chunkRow & 0xffffffffL);
+        Chunk chunk = cache.chunks.get(key);
+        if (chunk == null) {
+            chunk = buildChunk(cache.layer, chunkCol, chunkRow, color);
+            cache.chunks.put(key, chunk);
+        }
+        return chunk;
+    }
+
+    /**
+     * Computes the vertices of a chunk. Chunks outside the layer contain the cells repeated by
+     * the padding.
+     */
+    private Chunk buildChunk(TiledMapTileLayer layer, int chunkCol, int chunkRow, float color) {
+        final float layerTileWidth = layer.getTileWidth() * unitScale;
+        final float layerTileHeight = layer.getTileHeight() * unitScale;
+        final float layerOffsetX = layer.getRenderOffsetX() * unitScale;
+        final float layerOffsetY = -layer.getRenderOffsetY() * unitScale;
+
+        final int col1 = chunkCol * CHUNK_SIZE;
+        final int row1 = chunkRow * CHUNK_SIZE;
+        final int row2 = row1 + CHUNK_SIZE - 1;
+
+        mTmpVertices.clear();
+        mTmpRunTextures.clear();
+        mTmpRunEnds.clear();
+        Texture runTexture = null;
+        float y = row2 * layerTileHeight + layerOffsetY;
+        for (int row = row2; row >= row1; --row) {
+            float x = col1 * layerTileWidth + layerOffsetX;
+            for (int col = col1; col < col1 + CHUNK_SIZE; ++col) {
+                final TiledMapTileLayer.Cell cell = getWrappedCell(layer, col, row);
+                if (cell != null && cell.getTile() != null) {
+                    Texture texture = cell.getTile().getTextureRegion().getTexture();
+                    if (texture != runTexture) {
+                        if (runTexture != null) {
+                            mTmpRunEnds.add(mTmpVertices.size);
                         }
+                        mTmpRunTextures.add(texture);
+                        runTexture = texture;
                     }
-                    batch.draw(region.getTexture(), vertices, 0, NUM_VERTICES);
+                    float[] vertices = mTmpVertices.ensureCapacity(NUM_VERTICES);
+                    computeTileVertices(cell, x, y, color, vertices, mTmpVertices.size);
+                    mTmpVertices.size += NUM_VERTICES;
                 }
                 x += layerTileWidth;
             }
             y -= layerTileHeight;
         }
+        if (runTexture != null) {
+            mTmpRunEnds.add(mTmpVertices.size);
+        }
+
+        Chunk chunk = new Chunk();
+        chunk.color = color;
+        chunk.vertices = mTmpVertices.toArray();
+        chunk.runCount = mTmpRunTextures.size;
+        chunk.runTextures = mTmpRunTextures.toArray(Texture.class);
+        chunk.runEnds = mTmpRunEnds.toArray();
+        return chunk;
+    }
+
+    private TiledMapTileLayer.Cell getWrappedCell(TiledMapTileLayer layer, int col, int row) {
+        int cellCol = wrapClamp(col, 0, layer.getWidth() - 1, mPaddingLeft, mPaddingRight);
+        int cellRow = wrapClamp(row, 0, layer.getHeight() - 1, mPaddingBottom, mPaddingTop);
+        return layer.getCell(cellCol, cellRow);
+    }
+
+    /**
+     * Writes the NUM_VERTICES values of the sprite of cell, positioned at (x, y), in vertices,
+     * starting at offset
+     */
+    private void computeTileVertices(
+            TiledMapTileLayer.Cell cell,
+            float x,
+            float y,
+            float color,
+            float[] vertices,
+            int offset) {
+        final TiledMapTile tile = cell.getTile();
+        final boolean flipX = cell.getFlipHorizontally();
+        final boolean flipY = cell.getFlipVertically();
+        final int rotations = cell.getRotation();
+
+        TextureRegion region = tile.getTextureRegion();
+
+        float x1 = x + tile.getOffsetX() * unitScale;
+        float y1 = y + tile.getOffsetY() * unitScale;
+        float x2 = x1 + region.getRegionWidth() * unitScale;
+        float y2 = y1 + region.getRegionHeight() * unitScale;
+
+        float u1 = region.getU();
+        float v1 = region.getV2();
+        float u2 = region.getU2();
+        float v2 = region.getV();
+
+        vertices[offset + X1] = x1;
+        vertices[offset + Y1] = y1;
+        vertices[offset + C1] = color;
+        vertices[offset + U1] = u1;
+        vertices[offset + V1] = v1;
+
+        vertices[offset + X2] = x1;
+        vertices[offset + Y2] = y2;
+        vertices[offset + C2] = color;
+        vertices[offset + U2] = u1;
+        vertices[offset + V2] = v2;
+
+        vertices[offset + X3] = x2;
+        vertices[offset + Y3] = y2;
+        vertices[offset + C3] = color;
+        vertices[offset + U3] = u2;
+        vertices[offset + V3] = v2;
+
+        vertices[offset + X4] = x2;
+        vertices[offset + Y4] = y1;
+        vertices[offset + C4] = color;
+        vertices[offset + U4] = u2;
+        vertices[offset + V4] = v1;
+
+        if (flipX) {
+            float temp = vertices[offset + U1];
+            vertices[offset + U1] = vertices[offset + U3];
+            vertices[offset + U3] = temp;
+            temp = vertices[offset + U2];
+            vertices[offset + U2] = vertices[offset + U4];
+            vertices[offset + U4] = temp;
+        }
+        if (flipY) {
+            float temp = vertices[offset + V1];
+            vertices[offset + V1] = vertices[offset + V3];
+            vertices[offset + V3] = temp;
+            temp = vertices[offset + V2];
+            vertices[offset + V2] = vertices[offset + V4];
+            vertices[offset + V4] = temp;
+        }
+        if (rotations != 0) {
+            switch (rotations) {
+                case TiledMapTileLayer.Cell.ROTATE_90:
+                    {
+                        float tempV = vertices[offset + V1];
+                        vertices[offset + V1] = vertices[offset + V2];
+                        vertices[offset + V2] = vertices[offset + V3];
+                        vertices[offset + V3] = vertices[offset + V4];
+                        vertices[offset + V4] = tempV;
+
+                        float tempU = vertices[offset + U1];
+                        vertices[offset + U1] = vertices[offset + U2];
+                        vertices[offset + U2] = vertices[offset + U3];
+                        vertices[offset + U3] = vertices[offset + U4];
+                        vertices[offset + U4] = tempU;
+                        break;
+                    }
+                case TiledMapTileLayer.Cell.ROTATE_180:
+                    {
+                        float tempU = vertices[offset + U1];
+                        vertices[offset + U1] = vertices[offset + U3];
+                        vertices[offset + U3] = tempU;
+                        tempU = vertices[offset + U2];
+                        vertices[offset + U2] = vertices[offset + U4];
+                        vertices[offset + U4] = tempU;
+                        float tempV = vertices[offset + V1];
+                        vertices[offset + V1] = vertices[offset + V3];
+                        vertices[offset + V3] = tempV;
+                        tempV = vertices[offset + V2];
+                        vertices[offset + V2] = vertices[offset + V4];
+                        vertices[offset + V4] = tempV;
+                        break;
+                    }
+                case TiledMapTileLayer.Cell.ROTATE_270:
+                    {
+                        float tempV = vertices[offset + V1];
+                        vertices[offset + V1] = vertices[offset + V4];
+                        vertices[offset + V4] = vertices[offset + V3];
+                        vertices[offset + V3] = vertices[offset + V2];
+                        vertices[offset + V2] = tempV;
+
+                        float tempU = vertices[offset + U1];
+                        vertices[offset + U1] = vertices[offset + U4];
+                        vertices[offset + U4] = vertices[offset + U3];
+                        vertices[offset + U3] = vertices[offset + U2];
+                        vertices[offset + U2] = tempU;
+                        break;
+                    }
+            }
+        }
     }
 
     @SuppressWarnings("SameParameterValue")
@@ -24,8 +24,8 @@ import com.agateau.pixelwheels.PwGame;
 import com.agateau.pixelwheels.debug.Debug;
 import com.agateau.pixelwheels.debug.DebugShapeMap;
 import com.agateau.pixelwheels.gameinput.GameInputHandlerFactories;
+import com.agateau.pixelwheels.gameobject.Audible;
 import com.agateau.pixelwheels.gameobject.AudioClipper;
-import com.agateau.pixelwheels.gameobject.GameObject;
 import com.agateau.pixelwheels.gamesetup.GameInfo;
 import com.agateau.pixelwheels.map.Track;
 import com.agateau.pixelwheels.racer.Pilot;
@@ -67,6 +67,7 @@ public class RaceScreen extends ScreenAdapter {
     private final GameWorldImpl mGameWorld;
 
     private final Array<GameRenderer> mGameRenderers = new Array<>();
+    private final SharedRenderPass mSharedRenderPass;
     private final AudioClipper mAudioClipper;
 
     private final Array<RacerHudController> mRacerHudControllers = new Array<>();
@@ -105,12 +106,15 @@ public class RaceScreen extends ScreenAdapter {
         // Create the count-down controller *before* the racer controller, otherwise the touch UI
         // won't receive input because the racer hud stage would be below the count-down hud stage
         createCountDownHudController();
+        mSharedRenderPass =
+                new SharedRenderPass(mGameWorld, mGame.getAssets(), batch, mPerformanceCounters);
         for (Racer racer : mGameWorld.getPlayerRacers()) {
             GameRenderer renderer =
                     new GameRenderer(
                             mGameWorld,
                             racer,
                             batch,
+                            mSharedRenderPass,
                             mGame.getConfig().headingUpCamera,
                             mPerformanceCounters);
             mGameRenderers.add(renderer);
@@ -237,13 +241,13 @@ public class RaceScreen extends ScreenAdapter {
         mRendererPerformanceCounter.start();
         Gdx.gl.glClearColor(0, 0, 0, 1);
         Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
-        for (GameRenderer gameRenderer : mGameRenderers) {
-            gameRenderer.render(delta);
-        }
+        mSharedRenderPass.render(mGameRenderers, delta);
 
-        for (GameObject gameObject : mGameWorld.getActiveGameObjects()) {
-            gameObject.audioRender(mAudioClipper);
+        Array<Audible> audibles = mGameWorld.getGameObjectStore().getAudibles();
+        for (int idx = 0; idx < audibles.size; ++idx) {
+            audibles.get(idx).audioRender(mAudioClipper);
         }
+        mGame.getAudioManager().update();
 
         if (isPauseKeyPressed()) {
             if (paused) {
@@ -379,10 +383,17 @@ public class RaceScreen extends ScreenAdapter {
         }
     }
 
+    @Override
+    public void resume() {
+        super.resume();
+        mSharedRenderPass.onResume();
+    }
+
     @Override
     public void dispose() {
         super.dispose();
         mGameWorld.dispose();
+        mSharedRenderPass.dispose();
     }
 
     public void forgetTrack() {
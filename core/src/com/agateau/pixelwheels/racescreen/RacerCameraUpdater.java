@@ -58,7 +58,7 @@ class RacerCameraUpdater extends CameraUpdater {
         float advance = Math.min(viewportWidth, viewportHeight) * Constants.CAMERA_ADVANCE_PERCENT;
         sDelta.set(advance, 0)
                 .rotate(mRacer.getCameraAngle())
-                .add(vehicle.getPosition())
+                .add(vehicle.getRenderPosition())
                 .sub(mCameraInfo.position);
         mNextCameraInfo.position.set(mCameraInfo.position).add(sDelta);
         if (!immediate) {
@@ -19,7 +19,6 @@
 package com.agateau.pixelwheels.racescreen;
 
 import com.agateau.pixelwheels.Assets;
-import com.agateau.pixelwheels.GamePlay;
 import com.agateau.pixelwheels.GameWorld;
 import com.agateau.pixelwheels.debug.DebugStringMap;
 import com.agateau.pixelwheels.racer.Racer;
@@ -55,7 +54,7 @@ public class RacerHudController {
 
     private final StringBuilder mStringBuilder = new StringBuilder();
 
-    private final String[] mRankStrings = new String[GamePlay.instance.racerCount];
+    private final String[] mRankStrings;
 
     public RacerHudController(Assets assets, GameWorld gameWorld, Hud hud, Racer racer) {
         mAssets = assets;
@@ -66,11 +65,20 @@ public class RacerHudController {
         AnchorGroup root = hud.getRoot();
 
         // Generate all possible ranks to avoid translation calls
+        mRankStrings = new String[gameWorld.getRacers().size];
         for (int idx = 0; idx < mRankStrings.length; ++idx) {
             mRankStrings[idx] = StringUtils.formatRankInHud(idx + 1);
         }
 
         createPlayerLabels(root);
+
+        updateRankLabel(mGameWorld.getRacerRank(mRacer));
+        mGameWorld.addRacerRankListener(
+                (rankedRacer, oldRank, newRank) -> {
+                    if (rankedRacer == mRacer) {
+                        updateRankLabel(newRank);
+                    }
+                });
     }
 
     public Hud getHud() {
@@ -134,10 +142,6 @@ public class RacerHudController {
     private void updateLabels() {
         int lapCount = Math.max(mRacer.getLapPositionComponent().getLapCount(), 1);
         int totalLapCount = mGameWorld.getTrack().getTotalLapCount();
-        int rank = mGameWorld.getRacerRank(mRacer);
-
-        mRankLabel.setText(mRankStrings[rank - 1]);
-        mRankLabel.pack();
 
         mStringBuilder.setLength(0);
         mStringBuilder.append(lapCount).append('/').append(totalLapCount);
@@ -145,11 +149,16 @@ public class RacerHudController {
         mLapLabel.pack();
     }
 
+    private void updateRankLabel(int rank) {
+        mRankLabel.setText(mRankStrings[rank - 1]);
+        mRankLabel.pack();
+    }
+
     private static final StringBuilder sDebugSB = new StringBuilder();
 
     private void updateDebugLabel() {
         sDebugSB.setLength(0);
-        sDebugSB.append("objCount: ").append(mGameWorld.getActiveGameObjects().size).append('\n');
+        sDebugSB.append("objCount: ").append(mGameWorld.getGameObjectStore().size()).append('\n');
         sDebugSB.append("FPS: ").append(Gdx.graphics.getFramesPerSecond()).append('\n');
         for (PerformanceCounter counter : mPerformanceCounters.counters) {
             sDebugSB.append(counter.name)
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2026 Aurélien Gâteau <mail@agateau.com>
+ *
+ * This file is part of Pixel Wheels.
+ *
+ * Pixel Wheels is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.agateau.pixelwheels.racescreen;
+
+import com.agateau.pixelwheels.racer.Racer;
+import com.agateau.utils.Assert;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.DelayedRemovalArray;
+import com.badlogic.gdx.utils.ObjectIntMap;
+
+/**
+ * Keeps racers sorted by rank.
+ *
+ * <p>update() must be called once per physics step. Since ranks rarely change between two steps,
+ * it uses an insertion sort, which runs in linear time when the order is unchanged. Ranks can then
+ * be read in constant time.
+ */
+public class RacerRanking {
+    public interface Listener {
+        /** Called from update() when the rank of racer changed. Ranks start at 1 */
+        void onRacerRankChanged(Racer racer, int oldRank, int newRank);
+    }
+
+    // Racers, from first to last. Typed so that sortRacers() can work on the items array
+    private final Array<Racer> mRacers = new Array<>(Racer.class);
+    private final ObjectIntMap<Racer> mRanks = new ObjectIntMap<>();
+    private final DelayedRemovalArray<Listener> mListeners = new DelayedRemovalArray<>(0);
+
+    /** Adds racer at the end of the ranking. Does not notify listeners */
+    public void addRacer(Racer racer) {
+        mRacers.add(racer);
+        mRanks.put(racer, mRacers.size);
+    }
+
+    public void addListener(Listener listener) {
+        if (!mListeners.contains(listener, true)) {
+            mListeners.add(listener);
+        }
+    }
+
+    public void removeListener(Listener listener) {
+        mListeners.removeValue(listener, true);
+    }
+
+    /** Returns the racers, from first to last */
+    public Array<Racer> getRacers() {
+        return mRacers;
+    }
+
+    public int getRank(Racer racer) {
+        int rank = mRanks.get(racer, -1);
+        if (rank == -1) {
+            // Do not use Assert.check(): this is called for each AI racer at each step, and its
+            // message would be built on every call
+            throw new AssertionError("Unknown racer " + racer);
+        }
+        return rank;
+    }
+
+    /** See GameWorld.getRacerNormalizedRank() */
+    public float getNormalizedRank(Racer racer) {
+        if (mRacers.size == 1) {
+            return 0;
+        }
+        return (getRank(racer) - 1) / (float) (mRacers.size - 1);
+    }
+
+    public void update() {
+        sortRacers();
+        mListeners.begin();
+        for (int idx = 0; idx < mRacers.size; ++idx) {
+            Racer racer = mRacers.get(idx);
+            int newRank = idx + 1;
+            int oldRank = mRanks.get(racer, -1);
+            if (oldRank == newRank) {
+                continue;
+            }
+            mRanks.put(racer, newRank);
+            for (Listener listener : mListeners) {
+                listener.onRacerRankChanged(racer, oldRank, newRank);
+            }
+        }
+        mListeners.end();
+    }
+
+    private void sortRacers() {
+        Racer[] racers = mRacers.items;
+        for (int idx = 1; idx < mRacers.size; ++idx) {
+            Racer racer = racers[idx];
+            int dst = idx;
+            // Move racer up while it has driven further than the racer in front of it. Using a
+            // strict comparison keeps racers with the same distance in their current order.
+            while (dst > 0 && Racer.compareRaceDistances(racer, racers[dst - 1]) > 0) {
+                racers[dst] = racers[dst - 1];
+                --dst;
+            }
+            racers[dst] = racer;
+        }
+    }
+}
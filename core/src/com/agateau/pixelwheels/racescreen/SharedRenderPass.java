@@ -0,0 +1,130 @@
+/*
+ * Copyright 2026 Aurélien Gâteau <mail@agateau.com>
+ *
+ * This file is part of Pixel Wheels.
+ *
+ * Pixel Wheels is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.agateau.pixelwheels.racescreen;
+
+import com.agateau.pixelwheels.Assets;
+import com.agateau.pixelwheels.Constants;
+import com.agateau.pixelwheels.GameWorld;
+import com.agateau.pixelwheels.gameobject.CellFrameBufferManager;
+import com.agateau.pixelwheels.gameobject.CellFrameBufferUser;
+import com.agateau.pixelwheels.gameobject.GameObjectStore;
+import com.agateau.pixelwheels.map.Track;
+import com.agateau.pixelwheels.racer.SkidmarksRenderer;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.PerformanceCounter;
+import com.badlogic.gdx.utils.PerformanceCounters;
+
+/**
+ * Renders the viewports of all the GameRenderer instances of a race, sharing as much work as
+ * possible between them.
+ *
+ * <p>With split screen, each player has its own GameRenderer, but they all use:
+ *
+ * <ul>
+ *   <li>the same PwTiledMapRenderer, so that its chunk cache is only built once,
+ *   <li>the same ObjectGrid, updated once per frame and queried by the DrawLists of each viewport,
+ *   <li>the same CellFrameBufferManager, whose cells are drawn once per frame, for all the
+ *       viewports, and only reserved for the objects visible in at least one of them,
+ *   <li>the same SkidmarksRenderer, so new skidmarks are only uploaded once.
+ * </ul>
+ */
+public class SharedRenderPass implements Disposable {
+    private final GameWorld mWorld;
+    private final Batch mBatch;
+    private final PwTiledMapRenderer mTiledMapRenderer;
+    private final ObjectGrid mObjectGrid;
+    private final CellFrameBufferManager mCellFrameBufferManager = new CellFrameBufferManager();
+    private final SkidmarksRenderer mSkidmarksRenderer;
+    private final PerformanceCounter mCellPerformanceCounter;
+
+    public SharedRenderPass(
+            GameWorld world, Assets assets, Batch batch, PerformanceCounters counters) {
+        mWorld = world;
+        mBatch = batch;
+        Track track = world.getTrack();
+        mTiledMapRenderer =
+                new PwTiledMapRenderer(track.getMap(), Constants.UNIT_FOR_PIXEL, batch);
+        mObjectGrid = new ObjectGrid(track.getMapWidth(), track.getMapHeight());
+        mSkidmarksRenderer = new SkidmarksRenderer(world.getSkidmarks(), assets.skidmark);
+        mCellPerformanceCounter = counters.add("- cells");
+
+        for (CellFrameBufferUser user : world.getGameObjectStore().getCellFrameBufferUsers()) {
+            user.init(mCellFrameBufferManager);
+        }
+    }
+
+    public void render(Array<GameRenderer> renderers, float delta) {
+        GameObjectStore store = mWorld.getGameObjectStore();
+        mObjectGrid.update(store.getDrawables(), store.getDrawableSequences());
+        for (int idx = 0; idx < renderers.size; ++idx) {
+            renderers.get(idx).prepare(delta);
+        }
+
+        mCellPerformanceCounter.start();
+        Array<CellFrameBufferUser> users = store.getCellFrameBufferUsers();
+        for (int idx = 0; idx < users.size; ++idx) {
+            users.get(idx).releaseUnusedCells();
+        }
+        for (int idx = 0; idx < renderers.size; ++idx) {
+            renderers.get(idx).reserveCells();
+        }
+        mCellFrameBufferManager.begin(mBatch);
+        for (int idx = 0; idx < renderers.size; ++idx) {
+            renderers.get(idx).drawCells();
+        }
+        mCellFrameBufferManager.end(
+                0, 0, Gdx.graphics.getBackBufferWidth(), Gdx.graphics.getBackBufferHeight());
+        mCellPerformanceCounter.stop();
+
+        for (int idx = 0; idx < renderers.size; ++idx) {
+            renderers.get(idx).render();
+        }
+    }
+
+    /** Must be called when the application resumes, the GL context may have been recreated */
+    public void onResume() {
+        mCellFrameBufferManager.invalidateCells();
+    }
+
+    @Override
+    public void dispose() {
+        mTiledMapRenderer.dispose();
+        mCellFrameBufferManager.dispose();
+        mSkidmarksRenderer.dispose();
+    }
+
+    PwTiledMapRenderer getTiledMapRenderer() {
+        return mTiledMapRenderer;
+    }
+
+    ObjectGrid getObjectGrid() {
+        return mObjectGrid;
+    }
+
+    SkidmarksRenderer getSkidmarksRenderer() {
+        return mSkidmarksRenderer;
+    }
+
+    CellFrameBufferManager getCellFrameBufferManager() {
+        return mCellFrameBufferManager;
+    }
+}
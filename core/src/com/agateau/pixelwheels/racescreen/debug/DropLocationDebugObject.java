@@ -100,6 +100,16 @@ public class DropLocationDebugObject extends GameObjectAdapter {
         }
     }
 
+    @Override
+    public int getZLevelMask() {
+        return ZLevel.FLYING_HIGH.mask;
+    }
+
+    @Override
+    public float getDrawRadius() {
+        return UNBOUNDED_DRAW_RADIUS;
+    }
+
     @Override
     public float getX() {
         return 0;
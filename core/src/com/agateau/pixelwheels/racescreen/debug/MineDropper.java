@@ -76,6 +76,11 @@ public class MineDropper extends GameObjectAdapter {
     @Override
     public void draw(Batch batch, ZLevel zLevel, Rectangle viewBounds) {}
 
+    @Override
+    public int getZLevelMask() {
+        return 0;
+    }
+
     @Override
     public float getX() {
         return 0;
@@ -76,8 +76,9 @@ public class DebugScreen extends PwStageScreen {
 
         mCurrentGroup = tabMenuItem.addPage("Race");
         addRange("Viewport width", "viewportWidth", 20, 800, 10);
-        addRange("Racer count", "racerCount", 1, 6);
+        addRange("Racer count", "racerCount", 1, 64);
         addRange("Border restitution", "borderRestitution", 1, 50);
+        addRange("Physics steps per second", "physicsStepRate", 20, 120, 10);
         addCheckBox("One lap only", "oneLapOnly");
         addCheckBox("Free camera\n(move with HJKL keys)", "freeCamera");
 
@@ -103,13 +104,17 @@ public class DebugScreen extends PwStageScreen {
         addRange("Drift volume", "driftVolume", 0f, 1f);
         addRange("Turbo volume", "turboVolume", 0f, 1f);
         addRange("Engine volume", "engineVolume", 0f, 1f);
+        addRange("Max voices", "maxVoices", 1, 32);
 
         mCurrentIntrospector = mGame.getDebugIntrospector();
         mCurrentGroup = tabMenuItem.addPage("Misc");
-        addRange("Max skidmarks", "maxSkidmarks", 10, 200, 10);
+        addRange("Max skidmark segments", "maxSkidmarkSegments", 1024, 16384, 1024);
         addCheckBox("Force touch input", "alwaysShowTouchInput");
         addCheckBox("Refresh assets on restart", "refreshAssetsOnRestart");
         addCheckBox("Create speed report", "createSpeedReport");
+        addCheckBox("Parallel AI decisions", "parallelAIDecisions");
+        addCheckBox("Low detail physics", "lowDetailPhysics");
+        addRange("- Distance", "lowDetailPhysicsDistance", 20, 400, 20);
 
         mCurrentGroup = tabMenuItem.addPage("Debug");
         addCheckBox("Show debug hud", "showDebugHud");
@@ -0,0 +1,204 @@
+/*
+ * Copyright 2026 Aurélien Gâteau <mail@agateau.com>
+ *
+ * This file is part of Pixel Wheels.
+ *
+ * Pixel Wheels is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.agateau.pixelwheels.simulation;
+
+import com.agateau.pixelwheels.Assets;
+import com.agateau.pixelwheels.GameWorld;
+import com.agateau.pixelwheels.gamesetup.Difficulty;
+import com.agateau.pixelwheels.gamesetup.GameInfo;
+import com.agateau.pixelwheels.map.Track;
+import com.agateau.pixelwheels.racer.LapPositionComponent;
+import com.agateau.pixelwheels.racer.Racer;
+import com.agateau.pixelwheels.racescreen.GameWorldImpl;
+import com.agateau.pixelwheels.sound.AudioManager;
+import com.agateau.pixelwheels.sound.NullAudioManager;
+import com.agateau.pixelwheels.stats.GameStats;
+import com.agateau.pixelwheels.stats.GameStatsImpl;
+import com.agateau.pixelwheels.vehicledef.VehicleDef;
+import com.agateau.utils.log.NLog;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.PerformanceCounters;
+
+/**
+ * Runs AI-only races without rendering nor audio, stepping the world as fast as possible.
+ *
+ * <p>All random picks of the game go through MathUtils.random, which is reseeded at the start of
+ * each run, so running the same track with the same entrants and the same seed always produces
+ * the same results.
+ */
+public class RaceSimulator {
+    /** Stop races which take longer than this, in seconds of simulated time */
+    public static final float DEFAULT_MAX_RACE_DURATION = 600;
+
+    public static class Result {
+        public final int rank;
+        public final String vehicleId;
+        public final float totalTime;
+        public final float bestLapTime;
+        public final LapPositionComponent.Status status;
+
+        Result(int rank, Racer racer) {
+            LapPositionComponent component = racer.getLapPositionComponent();
+            this.rank = rank;
+            this.vehicleId = racer.getVehicle().getId();
+            this.totalTime = component.getTotalTime();
+            this.bestLapTime = component.getBestLapTime();
+            this.status = component.getStatus();
+        }
+
+        @Override
+        public String toString() {
+            return rank + " " + vehicleId + " " + totalTime + " " + bestLapTime + " " + status;
+        }
+    }
+
+    private static class SimulationGameInfo extends GameInfo {
+        private final Track mTrack;
+
+        SimulationGameInfo(Track track, Array<Entrant> entrants) {
+            super(GameType.QUICK_RACE);
+            mTrack = track;
+            getEntrants().addAll(entrants);
+        }
+
+        @Override
+        public Track getTrack() {
+            return mTrack;
+        }
+    }
+
+    private static final GameStatsImpl.IO sNoSaveGameStatsIO =
+            new GameStatsImpl.IO() {
+                @Override
+                public void load(GameStatsImpl gameStats) {}
+
+                @Override
+                public void save(GameStatsImpl gameStats) {}
+
+                @Override
+                public void flush() {}
+            };
+
+    private final Assets mAssets;
+    private final Difficulty mDifficulty;
+    private final AudioManager mAudioManager = new NullAudioManager();
+    private final GameStats mGameStats = new GameStatsImpl(sNoSaveGameStatsIO);
+    private float mMaxRaceDuration = DEFAULT_MAX_RACE_DURATION;
+    private float mLowDetailPhysicsDistance = -1;
+    private PerformanceCounters mPerformanceCounters = null;
+    private int mStepCount = 0;
+
+    public RaceSimulator(Assets assets, Difficulty difficulty) {
+        mAssets = assets;
+        mDifficulty = difficulty;
+    }
+
+    public void setMaxRaceDuration(float maxRaceDuration) {
+        mMaxRaceDuration = maxRaceDuration;
+    }
+
+    /**
+     * Races have no players, so any positive value makes all racers use low detail physics. This
+     * is useful to compare their results with full physics. Defaults to -1: full physics.
+     */
+    public void setLowDetailPhysicsDistance(float distance) {
+        mLowDetailPhysicsDistance = distance;
+    }
+
+    /**
+     * Worlds created by createWorld() register their performance counters in performanceCounters.
+     * If null, the default, each world gets its own instance.
+     */
+    public void setPerformanceCounters(PerformanceCounters performanceCounters) {
+        mPerformanceCounters = performanceCounters;
+    }
+
+    /** Returns the number of physics steps executed by the last call to run() */
+    public int getStepCount() {
+        return mStepCount;
+    }
+
+    /**
+     * Creates entrants for racerCount racers, picking vehicles in a random order which depends on
+     * seed
+     */
+    public static Array<GameInfo.Entrant> createEntrants(
+            Assets assets, int racerCount, long seed) {
+        Array<VehicleDef> vehicleDefs = new Array<>(assets.vehicleDefs);
+        MathUtils.random.setSeed(seed);
+        vehicleDefs.shuffle();
+        Array<GameInfo.Entrant> entrants = new Array<>();
+        for (int idx = 0; idx < racerCount; ++idx) {
+            VehicleDef vehicleDef = vehicleDefs.get(idx % vehicleDefs.size);
+            entrants.add(new GameInfo.Entrant(vehicleDef.id));
+        }
+        return entrants;
+    }
+
+    /**
+     * Creates a world for an AI-only race, without running it. The caller is responsible for
+     * disposing it.
+     */
+    public GameWorldImpl createWorld(Track track, Array<GameInfo.Entrant> entrants, long seed) {
+        MathUtils.random.setSeed(seed);
+        PerformanceCounters performanceCounters =
+                mPerformanceCounters != null ? mPerformanceCounters : new PerformanceCounters();
+        GameWorldImpl world =
+                new GameWorldImpl(
+                        mAssets,
+                        mAudioManager,
+                        mGameStats,
+                        mDifficulty,
+                        null /* gameConfig */,
+                        new SimulationGameInfo(track, entrants),
+                        performanceCounters);
+        world.setLowDetailPhysicsDistance(mLowDetailPhysicsDistance);
+        return world;
+    }
+
+    /** Returns the results, sorted by rank */
+    public Array<Result> run(Track track, Array<GameInfo.Entrant> entrants, long seed) {
+        GameWorldImpl world = createWorld(track, entrants, seed);
+
+        mStepCount = 0;
+        float timeStep = world.getTimeStep();
+        int maxStepCount = (int) (mMaxRaceDuration / timeStep);
+        while (world.getState() != GameWorld.State.FINISHED) {
+            // Passing exactly the time step makes act() run one, and only one, physics step
+            world.act(timeStep);
+            ++mStepCount;
+            if (mStepCount >= maxStepCount) {
+                NLog.e("%s: race did not finish after %f seconds", track, mMaxRaceDuration);
+                // Sort racers before finishing, like GameWorldImpl.act() does
+                world.getRacers().sort((r1, r2) -> -Racer.compareRaceDistances(r1, r2));
+                world.setState(GameWorld.State.FINISHED);
+            }
+        }
+
+        // Once finished, the racers are sorted by rank
+        Array<Result> results = new Array<>();
+        Array<Racer> racers = world.getRacers();
+        for (int idx = 0; idx < racers.size; ++idx) {
+            results.add(new Result(idx + 1, racers.get(idx)));
+        }
+        world.dispose();
+        return results;
+    }
+}
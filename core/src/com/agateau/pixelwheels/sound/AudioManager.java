@@ -36,6 +36,18 @@ public interface AudioManager {
     /** Create a SoundPlayer, for more advanced controls */
     SoundPlayer createSoundPlayer(Sound sound);
 
+    /** Create a SoundPlayer for a sound of the given category */
+    SoundPlayer createSoundPlayer(Sound sound, SoundCategory category);
+
+    /**
+     * Returns the synthesizer EngineSoundPlayer must use, or null if engine sounds must be played
+     * with SoundPlayers
+     */
+    EngineSynthesizer getEngineSynthesizer();
+
+    /** Must be called once per frame, after sound players have been updated */
+    void update();
+
     void playMusic(String musicId);
 
     void fadeOutMusic();
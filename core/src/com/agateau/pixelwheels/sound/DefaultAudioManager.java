@@ -27,12 +27,20 @@ import java.lang.ref.WeakReference;
 
 /** Default implementation of AudioManager */
 public class DefaultAudioManager implements AudioManager {
+    private static final int ENGINE_SYNTHESIZER_SAMPLE_RATE = 44100;
+
     private boolean mSoundFxMuted = false;
     private boolean mMusicMuted = false;
     private final Assets mAssets;
     private final Array<WeakReference<DefaultSoundPlayer>> mSoundPlayers = new Array<>();
     private final MusicFader mMusicFader = new MusicFader();
     private final SoundThreadManager mSoundThreadManager = new SoundThreadManager();
+    private final VoiceManager mVoiceManager =
+            new VoiceManager(SoundSettings.instance.maxVoices);
+
+    private EngineSynthesizer mEngineSynthesizer;
+    private EngineSynthesizerThread mEngineSynthesizerThread;
+    private boolean mEngineSynthesizerCreated = false;
 
     private String mMusicId = "";
     private Music mMusic;
@@ -88,12 +96,43 @@ public class DefaultAudioManager implements AudioManager {
 
     @Override
     public SoundPlayer createSoundPlayer(Sound sound) {
-        DefaultSoundPlayer player = new DefaultSoundPlayer(mSoundThreadManager, sound);
+        return createSoundPlayer(sound, SoundCategory.EFFECT);
+    }
+
+    @Override
+    public SoundPlayer createSoundPlayer(Sound sound, SoundCategory category) {
+        DefaultSoundPlayer player =
+                new DefaultSoundPlayer(mSoundThreadManager, mVoiceManager, sound, category);
         player.setMuted(mSoundFxMuted);
         mSoundPlayers.add(new WeakReference<>(player));
         return player;
     }
 
+    @Override
+    public EngineSynthesizer getEngineSynthesizer() {
+        if (!mEngineSynthesizerCreated) {
+            mEngineSynthesizerCreated = true;
+            mEngineSynthesizer =
+                    EngineSynthesizer.create(mAssets.soundAtlas, ENGINE_SYNTHESIZER_SAMPLE_RATE);
+            if (mEngineSynthesizer != null) {
+                mEngineSynthesizerThread = new EngineSynthesizerThread(mEngineSynthesizer);
+            }
+        }
+        return mEngineSynthesizer;
+    }
+
+    @Override
+    public void update() {
+        mVoiceManager.setMaxVoices(SoundSettings.instance.maxVoices);
+        mVoiceManager.update();
+        if (mEngineSynthesizer != null) {
+            mEngineSynthesizer.publish();
+            if (mEngineSynthesizer.getUsedEngineCount() > 0) {
+                mEngineSynthesizerThread.ensureRunning();
+            }
+        }
+    }
+
     @Override
     public void playMusic(String musicId) {
         if (mMusicId.equals(musicId)) {
@@ -20,19 +20,33 @@ package com.agateau.pixelwheels.sound;
 
 import com.badlogic.gdx.audio.Sound;
 
-/** Implementation of SoundPlayer based on libgdx */
+/**
+ * Implementation of SoundPlayer based on libgdx
+ *
+ * <p>Looping sounds are registered with a VoiceManager, which decides whether they get a real
+ * voice. A looping player without a voice still reports isLooping() as true.
+ */
 public class DefaultSoundPlayer implements SoundPlayer {
     private final SoundThreadManager mSoundThreadManager;
+    private final VoiceManager mVoiceManager;
     private final Sound mSound;
+    private final SoundCategory mCategory;
+    /** The id returned by SoundThreadManager, -1 if the player does not have a voice */
     private long mId = -1;
     private boolean mLooping = false;
     private float mVolume = 1;
     private float mPitch = 1;
     private boolean mMuted = false;
 
-    public DefaultSoundPlayer(SoundThreadManager soundThreadManager, Sound sound) {
+    public DefaultSoundPlayer(
+            SoundThreadManager soundThreadManager,
+            VoiceManager voiceManager,
+            Sound sound,
+            SoundCategory category) {
         mSoundThreadManager = soundThreadManager;
+        mVoiceManager = voiceManager;
         mSound = sound;
+        mCategory = category;
     }
 
     @Override
@@ -41,7 +55,9 @@ public class DefaultSoundPlayer implements SoundPlayer {
             return;
         }
         stop();
-        mId = mSoundThreadManager.play(mSound, mVolume, mPitch);
+        if (mVoiceManager.canPlayOnce(this)) {
+            mId = mSoundThreadManager.play(mSound, mVolume, mPitch);
+        }
     }
 
     @Override
@@ -50,18 +66,17 @@ public class DefaultSoundPlayer implements SoundPlayer {
             return;
         }
         stop();
-        mId = mSoundThreadManager.loop(mSound, mVolume, mPitch);
         mLooping = true;
+        mVoiceManager.addLoop(this);
     }
 
     @Override
     public void stop() {
-        if (mId == -1) {
-            return;
+        if (mLooping) {
+            mVoiceManager.removeLoop(this);
+            mLooping = false;
         }
-        mSoundThreadManager.stop(mId);
-        mId = -1;
-        mLooping = false;
+        releaseVoice();
     }
 
     @Override
@@ -101,9 +116,35 @@ public class DefaultSoundPlayer implements SoundPlayer {
         }
     }
 
+    float getEffectiveVolume() {
+        return mMuted ? 0 : mVolume;
+    }
+
+    float getPriority() {
+        return getEffectiveVolume() * mCategory.weight;
+    }
+
+    boolean hasVoice() {
+        return mId != -1;
+    }
+
+    /** Called by VoiceManager to make a virtual loop audible */
+    void startVoice() {
+        mId = mSoundThreadManager.loop(mSound, getEffectiveVolume(), mPitch);
+    }
+
+    /** Called by VoiceManager to make a loop virtual, and by stop() */
+    void releaseVoice() {
+        if (mId == -1) {
+            return;
+        }
+        mSoundThreadManager.stop(mId);
+        mId = -1;
+    }
+
     private void updateVolume() {
         if (mId != -1) {
-            mSoundThreadManager.setVolume(mId, mMuted ? 0 : mVolume);
+            mSoundThreadManager.setVolume(mId, getEffectiveVolume());
         }
     }
 }
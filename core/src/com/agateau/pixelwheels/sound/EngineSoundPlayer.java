@@ -18,24 +18,38 @@
  */
 package com.agateau.pixelwheels.sound;
 
+import com.agateau.utils.log.NLog;
 import com.badlogic.gdx.audio.Sound;
 import com.badlogic.gdx.math.Interpolation;
 import com.badlogic.gdx.utils.Array;
 import java.util.Locale;
 
-/** Simulates the sound of a vehicle engine */
+/**
+ * Simulates the sound of a vehicle engine
+ *
+ * <p>If the AudioManager provides an EngineSynthesizer, the engine is played by it. Otherwise the
+ * engine loops are played with SoundPlayers, crossfaded by adjusting their volumes.
+ */
 public class EngineSoundPlayer {
     public static final float MIN_PITCH = 0.5f;
     public static final float MAX_PITCH = 2f;
     private float mPitch = MIN_PITCH;
+    private float mSpeed = 0;
+    private float mMaxVolume = 0;
 
+    private final AudioManager mAudioManager;
+    private final EngineSynthesizer mSynthesizer;
+    private int mEngine = -1;
     private final Array<SoundPlayer> mSoundPlayers = new Array<>();
 
     public int getSoundCount() {
-        return mSoundPlayers.size;
+        return mSynthesizer != null ? mSynthesizer.getLoopCount() : mSoundPlayers.size;
     }
 
     public float getSoundVolume(int idx) {
+        if (mSynthesizer != null) {
+            return getLoopVolume(idx, getSoundCount(), mSpeed) * mMaxVolume;
+        }
         return mSoundPlayers.get(idx).getVolume();
     }
 
@@ -44,22 +58,31 @@ public class EngineSoundPlayer {
     }
 
     public EngineSoundPlayer(SoundAtlas atlas, AudioManager audioManager) {
+        mAudioManager = audioManager;
+        mSynthesizer = audioManager.getEngineSynthesizer();
+        if (mSynthesizer != null) {
+            return;
+        }
         for (int i = 0; ; ++i) {
             String name = String.format(Locale.US, "engine-%d", i);
             if (!atlas.contains(name)) {
                 break;
             }
             Sound sound = atlas.get(name);
-            mSoundPlayers.add(audioManager.createSoundPlayer(sound));
+            mSoundPlayers.add(audioManager.createSoundPlayer(sound, SoundCategory.ENGINE));
         }
     }
 
     public void play(float speed, float maxVolume) {
-        mPitch = Interpolation.pow2Out.apply(MIN_PITCH, MAX_PITCH, speed);
-        float idx = speed * (mSoundPlayers.size - 1);
+        mPitch = getPitchForSpeed(speed);
+        mSpeed = speed;
+        mMaxVolume = maxVolume;
+        if (mSynthesizer != null) {
+            playSynthesizer();
+            return;
+        }
         for (int i = 0; i < mSoundPlayers.size; ++i) {
-            float di = Math.abs(i - idx);
-            float volume = Math.max(1 - di, 0) * maxVolume;
+            float volume = getLoopVolume(i, mSoundPlayers.size, speed) * maxVolume;
             SoundPlayer player = mSoundPlayers.get(i);
             player.setVolume(volume);
             player.setPitch(mPitch);
@@ -74,8 +97,37 @@ public class EngineSoundPlayer {
     }
 
     public void stop() {
+        if (mSynthesizer != null) {
+            if (mEngine != -1) {
+                mSynthesizer.releaseEngine(mEngine);
+                mEngine = -1;
+            }
+            return;
+        }
         for (SoundPlayer player : mSoundPlayers) {
             player.stop();
         }
     }
+
+    static float getPitchForSpeed(float speed) {
+        return Interpolation.pow2Out.apply(MIN_PITCH, MAX_PITCH, speed);
+    }
+
+    /** Volume of loop idx at speed, when crossfading loopCount loops */
+    static float getLoopVolume(int idx, int loopCount, float speed) {
+        float di = Math.abs(idx - speed * (loopCount - 1));
+        return Math.max(1 - di, 0);
+    }
+
+    private void playSynthesizer() {
+        if (mEngine == -1) {
+            mEngine = mSynthesizer.acquireEngine();
+            if (mEngine == -1) {
+                NLog.e("No engine available in the synthesizer");
+                return;
+            }
+        }
+        float volume = mAudioManager.areSoundFxMuted() ? 0 : mMaxVolume;
+        mSynthesizer.setEngine(mEngine, mSpeed, volume);
+    }
 }
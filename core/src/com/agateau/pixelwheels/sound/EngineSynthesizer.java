@@ -0,0 +1,256 @@
+/*
+ * Copyright 2026 Aurélien Gâteau <mail@agateau.com>
+ *
+ * This file is part of Pixel Wheels.
+ *
+ * Pixel Wheels is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.agateau.pixelwheels.sound;
+
+import com.agateau.utils.log.NLog;
+import com.badlogic.gdx.files.FileHandle;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Mixes the engine sounds of several vehicles into a single stream of samples.
+ *
+ * <p>This produces the same sound as EngineSoundPlayer playing the engine loops with SoundPlayers,
+ * but the loops are resampled and mixed in software, so all engines use a single voice.
+ *
+ * <p>The game thread acquires engines, sets their parameters with setEngine(), then calls
+ * publish() once per frame. The mixing thread calls mix(). Parameters are passed between the two
+ * threads through a triple buffer, so neither thread ever waits for the other, and nothing is
+ * allocated after construction.
+ */
+public class EngineSynthesizer {
+    public static final int DEFAULT_MAX_ENGINES = 8;
+
+    private static final int DIRTY_BIT = 4;
+    private static final int INDEX_MASK = 3;
+
+    private static class Snapshot {
+        final float[] speeds;
+        final float[] volumes;
+
+        Snapshot(int maxEngines) {
+            speeds = new float[maxEngines];
+            volumes = new float[maxEngines];
+        }
+    }
+
+    private final float[][] mLoops;
+    private final float mStepPerPitch;
+    private final int mSampleRate;
+
+    // Game thread state
+    private final boolean[] mEngineUsed;
+    private final Snapshot mParams;
+    private int mBackIndex = 0;
+
+    // Index of the snapshot shared between the threads, plus DIRTY_BIT if it has been published
+    // since the mixing thread last took it
+    private final AtomicInteger mMiddle = new AtomicInteger(1);
+    private final Snapshot[] mSnapshots = new Snapshot[3];
+
+    // Mixing thread state
+    private int mFrontIndex = 2;
+    private final float[][] mPositions;
+    private final float[][] mGains;
+
+    /**
+     * Creates a synthesizer using the engine-N sounds of atlas. Returns null if they cannot be
+     * decoded.
+     */
+    public static EngineSynthesizer create(SoundAtlas atlas, int sampleRate) {
+        int loopCount = 0;
+        while (atlas.contains(getLoopName(loopCount))) {
+            ++loopCount;
+        }
+        PcmSound[] loops = new PcmSound[loopCount];
+        try {
+            for (int idx = 0; idx < loopCount; ++idx) {
+                FileHandle file = atlas.getFile(getLoopName(idx));
+                loops[idx] = PcmSound.decodeWav(file.readBytes());
+            }
+        } catch (RuntimeException e) {
+            NLog.e("Failed to decode engine sounds: %s", e);
+            return null;
+        }
+        return new EngineSynthesizer(loops, sampleRate, DEFAULT_MAX_ENGINES);
+    }
+
+    /** All loops must have the same sample rate */
+    public EngineSynthesizer(PcmSound[] loops, int sampleRate, int maxEngines) {
+        mLoops = new float[loops.length][];
+        for (int idx = 0; idx < loops.length; ++idx) {
+            mLoops[idx] = loops[idx].samples;
+        }
+        mStepPerPitch = loops.length > 0 ? (float) loops[0].sampleRate / sampleRate : 1;
+        mSampleRate = sampleRate;
+        mEngineUsed = new boolean[maxEngines];
+        mParams = new Snapshot(maxEngines);
+        for (int idx = 0; idx < mSnapshots.length; ++idx) {
+            mSnapshots[idx] = new Snapshot(maxEngines);
+        }
+        mPositions = new float[maxEngines][loops.length];
+        mGains = new float[maxEngines][loops.length];
+    }
+
+    public int getSampleRate() {
+        return mSampleRate;
+    }
+
+    public int getLoopCount() {
+        return mLoops.length;
+    }
+
+    // Game thread
+
+    /** Returns the index of an unused engine, or -1 if all engines are used */
+    public int acquireEngine() {
+        for (int idx = 0; idx < mEngineUsed.length; ++idx) {
+            if (!mEngineUsed[idx]) {
+                mEngineUsed[idx] = true;
+                return idx;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Silences engine and makes it available again. Publishes the parameters, since publish() may
+     * not be called anymore if this was the last engine.
+     */
+    public void releaseEngine(int engine) {
+        setEngine(engine, 0, 0);
+        mEngineUsed[engine] = false;
+        publish();
+    }
+
+    public int getUsedEngineCount() {
+        int count = 0;
+        for (boolean used : mEngineUsed) {
+            if (used) {
+                ++count;
+            }
+        }
+        return count;
+    }
+
+    /** speed is in the [0, 1] range, like the speed argument of EngineSoundPlayer.play() */
+    public void setEngine(int engine, float speed, float volume) {
+        mParams.speeds[engine] = speed;
+        mParams.volumes[engine] = volume;
+    }
+
+    /** Makes the parameters passed to setEngine() visible to the mixing thread */
+    public void publish() {
+        Snapshot back = mSnapshots[mBackIndex];
+        int count = mEngineUsed.length;
+        System.arraycopy(mParams.speeds, 0, back.speeds, 0, count);
+        System.arraycopy(mParams.volumes, 0, back.volumes, 0, count);
+        mBackIndex = mMiddle.getAndSet(mBackIndex | DIRTY_BIT) & INDEX_MASK;
+    }
+
+    // Mixing thread
+
+    /**
+     * Writes count samples to buffer, starting at offset. Volume changes are spread over the
+     * written samples to avoid clicks.
+     */
+    public void mix(float[] buffer, int offset, int count) {
+        if ((mMiddle.get() & DIRTY_BIT) != 0) {
+            mFrontIndex = mMiddle.getAndSet(mFrontIndex) & INDEX_MASK;
+        }
+        Snapshot snapshot = mSnapshots[mFrontIndex];
+        int end = offset + count;
+        for (int idx = offset; idx < end; ++idx) {
+            buffer[idx] = 0;
+        }
+        for (int engine = 0; engine < mEngineUsed.length; ++engine) {
+            float speed = snapshot.speeds[engine];
+            float volume = snapshot.volumes[engine];
+            float step = EngineSoundPlayer.getPitchForSpeed(speed) * mStepPerPitch;
+            for (int loop = 0; loop < mLoops.length; ++loop) {
+                float target = volume * EngineSoundPlayer.getLoopVolume(loop, mLoops.length, speed);
+                float gain = mGains[engine][loop];
+                if (target == 0 && gain == 0) {
+                    continue;
+                }
+                mPositions[engine][loop] =
+                        mixLoop(
+                                mLoops[loop],
+                                mPositions[engine][loop],
+                                step,
+                                gain,
+                                target,
+                                buffer,
+                                offset,
+                                count);
+                mGains[engine][loop] = target;
+            }
+        }
+        for (int idx = offset; idx < end; ++idx) {
+            buffer[idx] = Math.max(-1, Math.min(buffer[idx], 1));
+        }
+    }
+
+    /** Returns true if the last call to mix() only produced silence */
+    public boolean isSilent() {
+        for (float[] engineGains : mGains) {
+            for (float gain : engineGains) {
+                if (gain != 0) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Adds count samples of loop to buffer, reading it from position and advancing by step,
+     * ramping the gain from startGain to endGain. Returns the new position.
+     */
+    private static float mixLoop(
+            float[] loop,
+            float position,
+            float step,
+            float startGain,
+            float endGain,
+            float[] buffer,
+            int offset,
+            int count) {
+        int length = loop.length;
+        float gain = startGain;
+        float gainStep = (endGain - startGain) / count;
+        for (int idx = offset, end = offset + count; idx < end; ++idx) {
+            int i0 = (int) position;
+            int i1 = i0 + 1 < length ? i0 + 1 : 0;
+            float frac = position - i0;
+            float sample = loop[i0] + (loop[i1] - loop[i0]) * frac;
+            buffer[idx] += sample * gain;
+            gain += gainStep;
+            position += step;
+            while (position >= length) {
+                position -= length;
+            }
+        }
+        return position;
+    }
+
+    private static String getLoopName(int idx) {
+        return String.format(Locale.US, "engine-%d", idx);
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2026 Aurélien Gâteau <mail@agateau.com>
+ *
+ * This file is part of Pixel Wheels.
+ *
+ * Pixel Wheels is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.agateau.pixelwheels.sound;
+
+import com.agateau.utils.log.NLog;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.LifecycleListener;
+import com.badlogic.gdx.audio.AudioDevice;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Streams the output of an EngineSynthesizer to an AudioDevice, on a dedicated thread.
+ *
+ * <p>The thread is started by ensureRunning(), and stops by itself once the synthesizer has been
+ * silent for IDLE_DURATION seconds, so that nothing is streamed outside races. It is also stopped
+ * when the application is paused or disposed.
+ */
+public class EngineSynthesizerThread implements Runnable {
+    private static final int BUFFER_SIZE = 512;
+    private static final float IDLE_DURATION = 1;
+
+    private final EngineSynthesizer mSynthesizer;
+    private final float[] mBuffer = new float[BUFFER_SIZE];
+    private final AtomicBoolean mRunning = new AtomicBoolean();
+    private volatile boolean mStopRequested = false;
+    private Thread mThread;
+
+    public EngineSynthesizerThread(EngineSynthesizer synthesizer) {
+        mSynthesizer = synthesizer;
+        Gdx.app.addLifecycleListener(
+                new LifecycleListener() {
+                    @Override
+                    public void pause() {
+                        stop();
+                    }
+
+                    @Override
+                    public void resume() {}
+
+                    @Override
+                    public void dispose() {
+                        stop();
+                    }
+                });
+    }
+
+    /** Starts the thread if it is not running. Must be called from the game thread */
+    public void ensureRunning() {
+        if (!mRunning.compareAndSet(false, true)) {
+            return;
+        }
+        mStopRequested = false;
+        mThread = new Thread(this, "engine-synthesizer");
+        mThread.start();
+    }
+
+    /** Stops the thread and waits for it to finish. Must be called from the game thread */
+    public void stop() {
+        if (mThread == null) {
+            return;
+        }
+        mStopRequested = true;
+        try {
+            mThread.join();
+        } catch (InterruptedException e) {
+            NLog.e("Interrupted while waiting for the engine synthesizer thread to stop: %s", e);
+        }
+        mThread = null;
+    }
+
+    @Override
+    public void run() {
+        int sampleRate = mSynthesizer.getSampleRate();
+        AudioDevice device = Gdx.audio.newAudioDevice(sampleRate, /* mono */ true);
+        int idleSamples = 0;
+        int maxIdleSamples = (int) (IDLE_DURATION * sampleRate);
+        while (!mStopRequested && idleSamples < maxIdleSamples) {
+            mSynthesizer.mix(mBuffer, 0, BUFFER_SIZE);
+            // Blocks until the device has room for the buffer
+            device.writeSamples(mBuffer, 0, BUFFER_SIZE);
+            if (mSynthesizer.isSilent()) {
+                idleSamples += BUFFER_SIZE;
+            } else {
+                idleSamples = 0;
+            }
+        }
+        device.dispose();
+        NLog.i("stopped");
+        mRunning.set(false);
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2026 Aurélien Gâteau <mail@agateau.com>
+ *
+ * This file is part of Pixel Wheels.
+ *
+ * Pixel Wheels is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.agateau.pixelwheels.sound;
+
+import com.badlogic.gdx.audio.Sound;
+
+/** An AudioManager which never plays anything. Used to run races without audio */
+public class NullAudioManager implements AudioManager {
+    private static class NullSoundPlayer implements SoundPlayer {
+        private float mVolume = 1;
+        private float mPitch = 1;
+        private boolean mLooping = false;
+
+        @Override
+        public void play() {}
+
+        @Override
+        public void loop() {
+            mLooping = true;
+        }
+
+        @Override
+        public void stop() {
+            mLooping = false;
+        }
+
+        @Override
+        public float getVolume() {
+            return mVolume;
+        }
+
+        @Override
+        public void setVolume(float volume) {
+            mVolume = volume;
+        }
+
+        @Override
+        public float getPitch() {
+            return mPitch;
+        }
+
+        @Override
+        public void setPitch(float pitch) {
+            mPitch = pitch;
+        }
+
+        @Override
+        public boolean isLooping() {
+            return mLooping;
+        }
+    }
+
+    @Override
+    public boolean areSoundFxMuted() {
+        return true;
+    }
+
+    @Override
+    public void setSoundFxMuted(boolean muted) {}
+
+    @Override
+    public boolean isMusicMuted() {
+        return true;
+    }
+
+    @Override
+    public void setMusicMuted(boolean muted) {}
+
+    @Override
+    public void play(Sound sound, float volume) {}
+
+    @Override
+    public SoundPlayer createSoundPlayer(Sound sound) {
+        return new NullSoundPlayer();
+    }
+
+    @Override
+    public SoundPlayer createSoundPlayer(Sound sound, SoundCategory category) {
+        return createSoundPlayer(sound);
+    }
+
+    @Override
+    public EngineSynthesizer getEngineSynthesizer() {
+        return null;
+    }
+
+    @Override
+    public void update() {}
+
+    @Override
+    public void playMusic(String musicId) {}
+
+    @Override
+    public void fadeOutMusic() {}
+}
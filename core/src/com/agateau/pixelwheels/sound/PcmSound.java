@@ -0,0 +1,120 @@
+/*
+ * Copyright 2026 Aurélien Gâteau <mail@agateau.com>
+ *
+ * This file is part of Pixel Wheels.
+ *
+ * Pixel Wheels is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.agateau.pixelwheels.sound;
+
+/**
+ * Mono PCM samples, in the [-1, 1] range.
+ *
+ * <p>Used by EngineSynthesizer, which needs to access the samples of the engine sounds.
+ */
+public class PcmSound {
+    private static final int FORMAT_PCM = 1;
+
+    public final float[] samples;
+    public final int sampleRate;
+
+    public PcmSound(float[] samples, int sampleRate) {
+        this.samples = samples;
+        this.sampleRate = sampleRate;
+    }
+
+    /**
+     * Decodes the content of an uncompressed WAV file. Supports 8 and 16-bit samples, stereo files
+     * are mixed down to mono.
+     */
+    public static PcmSound decodeWav(byte[] data) {
+        if (data.length < 12 || !hasTag(data, 0, "RIFF") || !hasTag(data, 8, "WAVE")) {
+            throw new RuntimeException("Not a WAV file");
+        }
+        int channels = 0;
+        int sampleRate = 0;
+        int bitsPerSample = 0;
+        int pos = 12;
+        while (pos + 8 <= data.length) {
+            int chunkSize = readInt(data, pos + 4);
+            int chunkStart = pos + 8;
+            if (chunkSize < 0 || chunkStart + chunkSize > data.length) {
+                throw new RuntimeException("Truncated WAV chunk at " + pos);
+            }
+            if (hasTag(data, pos, "fmt ")) {
+                int format = readShort(data, chunkStart);
+                if (format != FORMAT_PCM) {
+                    throw new RuntimeException("Unsupported WAV format " + format);
+                }
+                channels = readShort(data, chunkStart + 2);
+                sampleRate = readInt(data, chunkStart + 4);
+                bitsPerSample = readShort(data, chunkStart + 14);
+            } else if (hasTag(data, pos, "data")) {
+                if (channels == 0) {
+                    throw new RuntimeException("WAV data chunk found before fmt chunk");
+                }
+                float[] samples =
+                        decodeSamples(data, chunkStart, chunkSize, channels, bitsPerSample);
+                return new PcmSound(samples, sampleRate);
+            }
+            // Chunks are padded to an even size
+            pos = chunkStart + chunkSize + (chunkSize & 1);
+        }
+        throw new RuntimeException("No data chunk in WAV file");
+    }
+
+    private static float[] decodeSamples(
+            byte[] data, int start, int size, int channels, int bitsPerSample) {
+        if (channels < 1 || channels > 2) {
+            throw new RuntimeException("Unsupported WAV channel count " + channels);
+        }
+        if (bitsPerSample != 8 && bitsPerSample != 16) {
+            throw new RuntimeException("Unsupported WAV sample size " + bitsPerSample);
+        }
+        int bytesPerSample = bitsPerSample / 8;
+        int frameSize = bytesPerSample * channels;
+        float[] samples = new float[size / frameSize];
+        for (int idx = 0; idx < samples.length; ++idx) {
+            float sum = 0;
+            for (int channel = 0; channel < channels; ++channel) {
+                int pos = start + idx * frameSize + channel * bytesPerSample;
+                if (bytesPerSample == 1) {
+                    // 8-bit samples are unsigned
+                    sum += ((data[pos] & 0xff) - 128) / 128f;
+                } else {
+                    sum += (short) readShort(data, pos) / 32768f;
+                }
+            }
+            samples[idx] = sum / channels;
+        }
+        return samples;
+    }
+
+    private static boolean hasTag(byte[] data, int pos, String tag) {
+        for (int idx = 0; idx < 4; ++idx) {
+            if (data[pos + idx] != tag.charAt(idx)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int readShort(byte[] data, int pos) {
+        return (data[pos] & 0xff) | ((data[pos + 1] & 0xff) << 8);
+    }
+
+    private static int readInt(byte[] data, int pos) {
+        return readShort(data, pos) | (readShort(data, pos + 2) << 16);
+    }
+}
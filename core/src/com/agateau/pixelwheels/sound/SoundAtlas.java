@@ -28,6 +28,7 @@ import java.util.HashMap;
 public class SoundAtlas {
     private final FileHandle mRootDir;
     private final HashMap<String, Sound> mSounds = new HashMap<>();
+    private final HashMap<String, FileHandle> mFiles = new HashMap<>();
 
     public SoundAtlas(FileHandle rootDir) {
         mRootDir = rootDir;
@@ -41,6 +42,15 @@ public class SoundAtlas {
         return sound;
     }
 
+    /** The file name was loaded from */
+    public FileHandle getFile(String name) {
+        FileHandle file = mFiles.get(name);
+        if (file == null) {
+            throw new RuntimeException("Sound '" + name + "' not found");
+        }
+        return file;
+    }
+
     public boolean contains(String name) {
         return mSounds.containsKey(name);
     }
@@ -56,5 +66,6 @@ public class SoundAtlas {
             name = file.nameWithoutExtension();
         }
         mSounds.put(name, Gdx.audio.newSound(file));
+        mFiles.put(name, file);
     }
 }
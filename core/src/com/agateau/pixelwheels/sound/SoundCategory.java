@@ -0,0 +1,36 @@
+/*
+ * Copyright 2026 Aurélien Gâteau <mail@agateau.com>
+ *
+ * This file is part of Pixel Wheels.
+ *
+ * Pixel Wheels is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.agateau.pixelwheels.sound;
+
+/**
+ * The category of a sound. VoiceManager multiplies the volume of a sound by the weight of its
+ * category to decide which sounds get a voice when there are not enough voices for all of them.
+ */
+public enum SoundCategory {
+    ENGINE(8),
+    COLLISION(4),
+    EFFECT(2),
+    DRIFTING(1);
+
+    final float weight;
+
+    SoundCategory(float weight) {
+        this.weight = weight;
+    }
+}
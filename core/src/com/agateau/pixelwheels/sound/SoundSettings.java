@@ -23,6 +23,8 @@ public class SoundSettings {
     public float driftVolume = 0.6f;
     public float turboVolume = 0.5f;
     public float engineVolume = 1f;
+    /** Maximum number of looping sounds playing at the same time, see VoiceManager */
+    public int maxVoices = 12;
 
     public static final SoundSettings instance = new SoundSettings();
 }
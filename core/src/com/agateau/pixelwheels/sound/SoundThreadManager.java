@@ -18,31 +18,40 @@
  */
 package com.agateau.pixelwheels.sound;
 
+import com.agateau.utils.SpscRing;
 import com.agateau.utils.log.NLog;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.LifecycleListener;
 import com.badlogic.gdx.audio.Sound;
 import com.badlogic.gdx.utils.Array;
-import com.badlogic.gdx.utils.Pool;
-import java.util.concurrent.ArrayBlockingQueue;
+import com.badlogic.gdx.utils.LongMap;
+import com.badlogic.gdx.utils.Queue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * This class plays sound effects on a separate thread.
  *
  * <p>This is required because of a bug in Android 10 which causes calls to Sound.play() to block.
  *
- * <p>Communication between the sound thread and the rest is done through a message queue. Messages
- * are created from a Pool to avoid allocations.
+ * <p>Communication between the sound thread and the rest is done through a lock-free ring of
+ * preallocated messages. All public methods must be called from the same thread (the game thread).
+ *
+ * <p>Volume and pitch changes are coalesced: each played sound has a PlayingSound instance holding
+ * its latest volume and pitch, and at most one SET_PARAMS message is queued for it at any time.
+ * When the sound thread processes this message, it applies the latest values, so intermediate
+ * values are skipped when the game thread changes them faster than the sound thread applies them.
  *
  * @see <a href="https://github.com/libgdx/libgdx/issues/5786">libgdx issue #5786</a>
  */
 public class SoundThreadManager implements Runnable {
-    private static final int MESSAGE_QUEUE_SIZE = 80;
+    /** Must be a power of two */
+    private static final int MESSAGE_QUEUE_SIZE = 1024;
 
     /**
      * A message to send on the queue. The class can contains all the possible messages, so its
      * members are the union of all possible message parameters. This is not elegant but it makes it
-     * possible to use a single message pool for all messages.
+     * possible to preallocate all messages in the ring.
      */
     private static class Message {
         enum Type {
@@ -50,170 +59,147 @@ public class SoundThreadManager implements Runnable {
             PLAY,
             LOOP,
             STOP,
-            SET_VOLUME,
-            SET_PITCH,
+            SET_PARAMS,
             SHUTDOWN,
         }
 
         public Type type;
-        public long playId;
         public Sound sound;
         public float volume;
-        public float pitch;
-
-        static final Pool<Message> sPool =
-                new Pool<Message>() {
-                    @Override
-                    protected Message newObject() {
-                        return new Message();
-                    }
-                };
+        public PlayingSound playingSound;
     }
 
     /**
-     * Represents a sound as it is being played. This is used by the sound thread when it needs to
-     * stop a playing sound, or adjust its volume or pitch.
+     * Represents a sound as it is being played. Instances are created and recycled by the game
+     * thread, and passed to the sound thread with the messages affecting them.
      */
     private static class PlayingSound {
-        /** The id returned by our play() or loop() methods */
+        // Set by the game thread before sending the PLAY or LOOP message
         long playId;
-        /** The id returned by the Sound.play() or Sound.loop() methods */
-        long internalId;
-
         Sound sound;
 
-        static Pool<PlayingSound> sPool =
-                new Pool<PlayingSound>() {
-                    @Override
-                    protected PlayingSound newObject() {
-                        return new PlayingSound();
-                    }
-                };
-    }
+        // Written by the game thread, read by the sound thread when processing SET_PARAMS
+        volatile float volume;
+        volatile float pitch;
+        /** True while a SET_PARAMS message for this sound is waiting in the queue */
+        final AtomicBoolean paramsQueued = new AtomicBoolean();
 
-    /**
-     * All members of this struct are only accessed by the thread, so no synchronization is required
-     * on them
-     */
-    private static class ThreadData {
-        final Array<PlayingSound> playingSounds = new Array<>(/* ordered */ false, 16);
-
-        PlayingSound findSound(long playId) {
-            int idx = findSoundIndex(playId);
-            return idx >= 0 ? playingSounds.get(idx) : null;
-        }
+        // Only accessed by the sound thread
+        /** The id returned by the Sound.play() or Sound.loop() methods */
+        long internalId;
 
-        PlayingSound takeSound(long playId) {
-            int idx = findSoundIndex(playId);
-            return idx >= 0 ? playingSounds.removeIndex(idx) : null;
-        }
+        float appliedVolume;
+        float appliedPitch;
 
-        private int findSoundIndex(long playId) {
-            for (int idx = 0, n = playingSounds.size; idx < n; idx++) {
-                if (playingSounds.get(idx).playId == playId) {
-                    return idx;
-                }
-            }
-            return -1;
-        }
+        // Only accessed by the game thread
+        /**
+         * Value of getPublishedCount() after the STOP message has been queued: the sound thread is
+         * done with this instance once it has released that many messages
+         */
+        long releaseTicket;
     }
 
     private final Thread mThread = new Thread(this);
-    private final ThreadData mThreadData = new ThreadData();
-    private final ArrayBlockingQueue<Message> mMessageQueue =
-            new ArrayBlockingQueue<>(MESSAGE_QUEUE_SIZE);
+    private final SpscRing<Message> mMessages =
+            new SpscRing<Message>(MESSAGE_QUEUE_SIZE) {
+                @Override
+                protected Message createInstance() {
+                    return new Message();
+                }
+            };
+    private volatile boolean mThreadWaiting = false;
 
+    // Only accessed by the game thread
+    private final LongMap<PlayingSound> mPlayingSounds = new LongMap<>();
+    private final Queue<PlayingSound> mStoppedSounds = new Queue<>();
+    private final Array<PlayingSound> mFreeSounds = new Array<>();
     private long mNextPlayId = 0;
+    private int mMaxQueueDepth = 0;
+    private long mDroppedMessageCount = 0;
+    private long mCoalescedUpdateCount = 0;
+    private boolean mQueueFull = false;
+
+    // Written by the game thread, volatile so that other threads can wait for it to change
+    private volatile long mBlockedMessageCount = 0;
 
     public SoundThreadManager() {
-        Gdx.app.addLifecycleListener(
-                new LifecycleListener() {
-                    @Override
-                    public void pause() {}
+        this(/* shutdownOnAppDispose */ true);
+    }
 
-                    @Override
-                    public void resume() {}
+    SoundThreadManager(boolean shutdownOnAppDispose) {
+        if (shutdownOnAppDispose) {
+            Gdx.app.addLifecycleListener(
+                    new LifecycleListener() {
+                        @Override
+                        public void pause() {}
 
-                    @Override
-                    public void dispose() {
-                        shutdownThread();
-                    }
-                });
+                        @Override
+                        public void resume() {}
+
+                        @Override
+                        public void dispose() {
+                            shutdownThread();
+                        }
+                    });
+        }
         mThread.start();
     }
 
     @Override
     public void run() {
         while (true) {
-            Message message;
-            try {
-                message = mMessageQueue.take();
-            } catch (InterruptedException e) {
-                e.printStackTrace();
-                return;
-            }
+            Message message = waitForMessage();
             switch (message.type) {
                 case SHUTDOWN:
+                    mMessages.release();
                     NLog.i("stopped");
                     return;
                 case PLAY_AND_FORGET:
-                    {
-                        message.sound.play(message.volume, 1, 0);
-                        break;
-                    }
+                    message.sound.play(message.volume, 1, 0);
+                    break;
                 case PLAY:
-                    {
-                        PlayingSound pSound = PlayingSound.sPool.obtain();
-                        pSound.playId = message.playId;
-                        pSound.sound = message.sound;
-                        pSound.internalId = message.sound.play(message.volume, message.pitch, 0);
-                        mThreadData.playingSounds.add(pSound);
-                        break;
-                    }
                 case LOOP:
                     {
-                        PlayingSound pSound = PlayingSound.sPool.obtain();
-                        pSound.playId = message.playId;
-                        pSound.sound = message.sound;
-                        pSound.internalId = message.sound.loop(message.volume, message.pitch, 0);
-                        mThreadData.playingSounds.add(pSound);
+                        PlayingSound pSound = message.playingSound;
+                        float volume = pSound.volume;
+                        float pitch = pSound.pitch;
+                        pSound.internalId =
+                                message.type == Message.Type.LOOP
+                                        ? pSound.sound.loop(volume, pitch, 0)
+                                        : pSound.sound.play(volume, pitch, 0);
+                        pSound.appliedVolume = volume;
+                        pSound.appliedPitch = pitch;
                         break;
                     }
                 case STOP:
                     {
-                        PlayingSound pSound = mThreadData.takeSound(message.playId);
-                        if (pSound == null) {
-                            NLog.e("Invalid playId: %d", message.playId);
-                            continue;
-                        }
+                        PlayingSound pSound = message.playingSound;
                         pSound.sound.stop(pSound.internalId);
-                        PlayingSound.sPool.free(pSound);
                         break;
                     }
-                case SET_VOLUME:
+                case SET_PARAMS:
                     {
-                        PlayingSound pSound = mThreadData.findSound(message.playId);
-                        if (pSound == null) {
-                            NLog.e("Invalid playId: %d", message.playId);
-                            continue;
+                        PlayingSound pSound = message.playingSound;
+                        // Clear the flag before reading the values: if the game thread changes
+                        // them after this point, it queues a new message
+                        pSound.paramsQueued.set(false);
+                        float volume = pSound.volume;
+                        float pitch = pSound.pitch;
+                        if (volume != pSound.appliedVolume) {
+                            pSound.sound.setVolume(pSound.internalId, volume);
+                            pSound.appliedVolume = volume;
                         }
-                        pSound.sound.setVolume(pSound.internalId, message.volume);
-                        break;
-                    }
-                case SET_PITCH:
-                    {
-                        PlayingSound pSound = mThreadData.findSound(message.playId);
-                        if (pSound == null) {
-                            NLog.e("Invalid playId: %d", message.playId);
-                            continue;
+                        if (pitch != pSound.appliedPitch) {
+                            pSound.sound.setPitch(pSound.internalId, pitch);
+                            pSound.appliedPitch = pitch;
                         }
-                        pSound.sound.setPitch(pSound.internalId, message.pitch);
                         break;
                     }
             }
-            synchronized (Message.sPool) {
-                Message.sPool.free(message);
-            }
+            // Do not keep references to sounds in the ring
+            message.sound = null;
+            message.playingSound = null;
+            mMessages.release();
         }
     }
 
@@ -222,11 +208,13 @@ public class SoundThreadManager implements Runnable {
      * volume or pitch later
      */
     public void playAndForget(Sound sound, float volume) {
-        Message message = obtainMessage();
-        message.type = Message.Type.PLAY_AND_FORGET;
+        Message message = claimMessage(Message.Type.PLAY_AND_FORGET);
+        if (message == null) {
+            return;
+        }
         message.sound = sound;
         message.volume = volume;
-        queueMessage(message);
+        publishMessage();
     }
 
     public long play(Sound sound, float volume) {
@@ -247,77 +235,172 @@ public class SoundThreadManager implements Runnable {
     }
 
     public void stop(long playId) {
-        Message message = obtainMessage();
-        message.type = Message.Type.STOP;
-        message.playId = playId;
-        queueMessage(message);
+        PlayingSound pSound = mPlayingSounds.remove(playId);
+        if (pSound == null) {
+            NLog.e("Invalid playId: %d", playId);
+            return;
+        }
+        // Never drop a STOP message, because if we skip a STOP message we might end up with an
+        // infinite looping sound
+        Message message = claimMessage(Message.Type.STOP);
+        message.playingSound = pSound;
+        publishMessage();
+        pSound.releaseTicket = mMessages.getPublishedCount();
+        mStoppedSounds.addLast(pSound);
     }
 
     public void setVolume(long playId, float volume) {
-        Message message = obtainMessage();
-        message.type = Message.Type.SET_VOLUME;
-        message.playId = playId;
-        message.volume = volume;
-        queueMessage(message);
+        PlayingSound pSound = mPlayingSounds.get(playId);
+        if (pSound == null) {
+            return;
+        }
+        pSound.volume = volume;
+        queueParams(pSound);
     }
 
     public void setPitch(long playId, float pitch) {
-        Message message = obtainMessage();
-        message.type = Message.Type.SET_PITCH;
-        message.playId = playId;
-        message.pitch = pitch;
-        queueMessage(message);
+        PlayingSound pSound = mPlayingSounds.get(playId);
+        if (pSound == null) {
+            return;
+        }
+        pSound.pitch = pitch;
+        queueParams(pSound);
+    }
+
+    /** Number of messages currently waiting for the sound thread */
+    public int getQueueDepth() {
+        return mMessages.size();
+    }
+
+    /** Highest number of messages which have been waiting for the sound thread at the same time */
+    public int getMaxQueueDepth() {
+        return mMaxQueueDepth;
+    }
+
+    /** Number of messages which have been dropped because the queue was full */
+    public long getDroppedMessageCount() {
+        return mDroppedMessageCount;
+    }
+
+    /** Number of STOP and SHUTDOWN messages which had to wait for room in the queue */
+    public long getBlockedMessageCount() {
+        return mBlockedMessageCount;
+    }
+
+    /** Number of volume or pitch changes merged with a change already waiting in the queue */
+    public long getCoalescedUpdateCount() {
+        return mCoalescedUpdateCount;
     }
 
     private long internalPlay(Sound sound, float volume, float pitch, boolean loop) {
-        long playId = mNextPlayId++;
-        Message message = obtainMessage();
-        message.type = loop ? Message.Type.LOOP : Message.Type.PLAY;
-        message.playId = playId;
-        message.sound = sound;
-        message.volume = volume;
-        message.pitch = pitch;
-        if (!queueMessage(message)) {
+        Message message = claimMessage(loop ? Message.Type.LOOP : Message.Type.PLAY);
+        if (message == null) {
             return -1;
         }
+        long playId = mNextPlayId++;
+        PlayingSound pSound = obtainPlayingSound();
+        pSound.playId = playId;
+        pSound.sound = sound;
+        pSound.volume = volume;
+        pSound.pitch = pitch;
+        mPlayingSounds.put(playId, pSound);
+
+        message.playingSound = pSound;
+        publishMessage();
         return playId;
     }
 
-    private Message obtainMessage() {
-        synchronized (Message.sPool) {
-            return Message.sPool.obtain();
+    private void queueParams(PlayingSound pSound) {
+        if (pSound.paramsQueued.get()) {
+            ++mCoalescedUpdateCount;
+            return;
+        }
+        Message message = claimMessage(Message.Type.SET_PARAMS);
+        if (message == null) {
+            return;
         }
+        pSound.paramsQueued.set(true);
+        message.playingSound = pSound;
+        publishMessage();
     }
 
-    private boolean queueMessage(Message message) {
-        if (mMessageQueue.offer(message)) {
-            return true;
+    private PlayingSound obtainPlayingSound() {
+        long releasedCount = mMessages.getReleasedCount();
+        while (mStoppedSounds.notEmpty() && mStoppedSounds.first().releaseTicket <= releasedCount) {
+            PlayingSound pSound = mStoppedSounds.removeFirst();
+            pSound.sound = null;
+            mFreeSounds.add(pSound);
         }
-        if (message.type != Message.Type.STOP) {
-            NLog.e("Sound message queue is full, discarding message");
-            return false;
+        return mFreeSounds.isEmpty() ? new PlayingSound() : mFreeSounds.pop();
+    }
+
+    /**
+     * Returns a message to fill, or null if the queue is full. Never returns null for STOP and
+     * SHUTDOWN messages: waits for the sound thread to make room instead.
+     */
+    private Message claimMessage(Message.Type type) {
+        Message message = mMessages.claim();
+        if (message == null) {
+            // Log once per overflow: the final stats line reports the number of dropped messages
+            if (!mQueueFull) {
+                mQueueFull = true;
+                NLog.e("Sound message queue is full, dropping messages until it has room");
+            }
+            if (type != Message.Type.STOP && type != Message.Type.SHUTDOWN) {
+                ++mDroppedMessageCount;
+                return null;
+            }
+            ++mBlockedMessageCount;
+            while ((message = mMessages.claim()) == null) {
+                Thread.yield();
+            }
+        } else {
+            mQueueFull = false;
         }
-        // Only block if we want to send a STOP message, because if we skip a STOP message we might
-        // end up with an infinite looping sound
-        NLog.e("Sound message queue is full, blocking to send a STOP message");
-        try {
-            mMessageQueue.put(message);
-        } catch (InterruptedException e) {
-            NLog.e("Interrupted while putting a STOP message");
-            e.printStackTrace();
-            return false;
+        message.type = type;
+        return message;
+    }
+
+    private void publishMessage() {
+        mMessages.publish();
+        int depth = mMessages.size();
+        if (depth > mMaxQueueDepth) {
+            mMaxQueueDepth = depth;
+        }
+        if (mThreadWaiting) {
+            LockSupport.unpark(mThread);
+        }
+    }
+
+    private Message waitForMessage() {
+        Message message = mMessages.peek();
+        while (message == null) {
+            // Announce we are going to sleep, then check again: either publishMessage() sees the
+            // flag and wakes us up, or we see its message
+            mThreadWaiting = true;
+            message = mMessages.peek();
+            if (message == null) {
+                LockSupport.park(this);
+                message = mMessages.peek();
+            }
+            mThreadWaiting = false;
         }
-        return true;
+        return message;
     }
 
-    private void shutdownThread() {
-        Message message = obtainMessage();
-        message.type = Message.Type.SHUTDOWN;
-        queueMessage(message);
+    void shutdownThread() {
+        claimMessage(Message.Type.SHUTDOWN);
+        publishMessage();
         try {
             mThread.join();
         } catch (InterruptedException e) {
             e.printStackTrace();
         }
+        NLog.i(
+                "max queue depth: %d, dropped: %d, blocked: %d, coalesced updates: %d",
+                mMaxQueueDepth,
+                mDroppedMessageCount,
+                mBlockedMessageCount,
+                mCoalescedUpdateCount);
     }
 }
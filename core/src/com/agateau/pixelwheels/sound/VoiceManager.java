@@ -0,0 +1,124 @@
+/*
+ * Copyright 2026 Aurélien Gâteau <mail@agateau.com>
+ *
+ * This file is part of Pixel Wheels.
+ *
+ * Pixel Wheels is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.agateau.pixelwheels.sound;
+
+import com.badlogic.gdx.utils.Array;
+import java.util.Comparator;
+
+/**
+ * Limits the number of looping sounds which are actually playing.
+ *
+ * <p>Looping DefaultSoundPlayers register themselves here. Only the maxVoices loops with the
+ * highest priority (volume multiplied by the weight of their category) and an audible volume get a
+ * real voice. The others are "virtual": the player remembers its state but does not send anything
+ * to the sound thread, until update() gives it a voice again.
+ *
+ * <p>One-shot sounds are not counted: they are only culled when they are inaudible, or when all
+ * voices are used by loops with a higher priority.
+ */
+public class VoiceManager {
+    static final float MIN_AUDIBLE_VOLUME = 0.01f;
+
+    private final Array<DefaultSoundPlayer> mLoops = new Array<>(/* ordered */ false, 32);
+    private final Comparator<DefaultSoundPlayer> mComparator =
+            (p1, p2) -> Float.compare(p2.getPriority(), p1.getPriority());
+    private int mMaxVoices;
+
+    public VoiceManager(int maxVoices) {
+        mMaxVoices = maxVoices;
+    }
+
+    public int getMaxVoices() {
+        return mMaxVoices;
+    }
+
+    /** The new value is applied by the next call to update() */
+    public void setMaxVoices(int maxVoices) {
+        mMaxVoices = maxVoices;
+    }
+
+    /** Number of loops which have a voice */
+    public int getVoiceCount() {
+        int count = 0;
+        for (int idx = 0; idx < mLoops.size; ++idx) {
+            if (mLoops.get(idx).hasVoice()) {
+                ++count;
+            }
+        }
+        return count;
+    }
+
+    /** Number of loops which are waiting for a voice */
+    public int getVirtualLoopCount() {
+        return mLoops.size - getVoiceCount();
+    }
+
+    /**
+     * Gives voices to the loops with the highest priority, and takes them back from the others.
+     * Must be called once per frame, after the volume of the players have been updated.
+     */
+    public void update() {
+        mLoops.sort(mComparator);
+        // Release voices first, so that we never use more than mMaxVoices
+        for (int idx = 0; idx < mLoops.size; ++idx) {
+            DefaultSoundPlayer player = mLoops.get(idx);
+            if (idx >= mMaxVoices || !isAudible(player)) {
+                player.releaseVoice();
+            }
+        }
+        for (int idx = 0, n = Math.min(mLoops.size, mMaxVoices); idx < n; ++idx) {
+            DefaultSoundPlayer player = mLoops.get(idx);
+            if (!player.hasVoice() && isAudible(player)) {
+                player.startVoice();
+            }
+        }
+    }
+
+    void addLoop(DefaultSoundPlayer player) {
+        mLoops.add(player);
+        if (isAudible(player) && getVoiceCount() < mMaxVoices) {
+            player.startVoice();
+        }
+    }
+
+    void removeLoop(DefaultSoundPlayer player) {
+        mLoops.removeValue(player, /* identity */ true);
+    }
+
+    boolean canPlayOnce(DefaultSoundPlayer player) {
+        if (!isAudible(player)) {
+            return false;
+        }
+        if (getVoiceCount() < mMaxVoices) {
+            return true;
+        }
+        float priority = player.getPriority();
+        for (int idx = 0; idx < mLoops.size; ++idx) {
+            DefaultSoundPlayer loop = mLoops.get(idx);
+            if (loop.hasVoice() && loop.getPriority() < priority) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isAudible(DefaultSoundPlayer player) {
+        return player.getEffectiveVolume() >= MIN_AUDIBLE_VOLUME;
+    }
+}
@@ -50,4 +50,7 @@ public interface GameStats {
     int getEventCount(Event event);
 
     void save();
+
+    /** Makes sure changes are written to storage now, instead of at a later time */
+    void flush();
 }
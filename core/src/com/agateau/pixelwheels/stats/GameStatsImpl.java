@@ -26,6 +26,7 @@ import java.util.HashMap;
 
 public class GameStatsImpl implements GameStats {
     private transient IO mIO;
+    private transient IncrementalIO mIncrementalIO;
     private transient Listener mListener;
     final HashMap<Difficulty, HashMap<String, TrackStats>> mTrackStatsByDifficulty =
             new HashMap<>();
@@ -36,7 +37,28 @@ public class GameStatsImpl implements GameStats {
     public interface IO {
         void load(GameStatsImpl gameStats);
 
+        /** Called each time gameStats changes. Implementations may delay the actual writing */
         void save(GameStatsImpl gameStats);
+
+        /** Writes the changes delayed by save(), if any */
+        void flush();
+    }
+
+    /**
+     * An IO which is notified of each change, so that it can write only what changed. save() is
+     * still called after each change.
+     */
+    public interface IncrementalIO extends IO {
+        void onEventCountChanged(String eventId, int count);
+
+        void onBestChampionshipRankChanged(
+                Difficulty difficulty, String championshipId, int rank);
+
+        void onTrackResultAdded(
+                Difficulty difficulty,
+                String trackId,
+                TrackStats.ResultType resultType,
+                TrackResult result);
     }
 
     public GameStatsImpl(IO io) {
@@ -50,6 +72,7 @@ public class GameStatsImpl implements GameStats {
 
     public void setIO(IO io) {
         mIO = io;
+        mIncrementalIO = io instanceof IncrementalIO ? (IncrementalIO) io : null;
     }
 
     @Override
@@ -59,15 +82,31 @@ public class GameStatsImpl implements GameStats {
 
     @Override
     public TrackStats getTrackStats(Difficulty difficulty, Track track) {
-        TrackStats stats = mTrackStatsByDifficulty.get(difficulty).get(track.getId());
+        return getOrCreateTrackStats(difficulty, track.getId());
+    }
+
+    TrackStats getOrCreateTrackStats(Difficulty difficulty, String trackId) {
+        TrackStats stats = mTrackStatsByDifficulty.get(difficulty).get(trackId);
         if (stats == null) {
             // No stats yet for this track, create one
-            stats = new TrackStats(this);
-            mTrackStatsByDifficulty.get(difficulty).put(track.getId(), stats);
+            stats = createTrackStats(difficulty, trackId);
         }
         return stats;
     }
 
+    /** Creates a TrackStats instance for trackId, replacing any existing one */
+    TrackStats createTrackStats(Difficulty difficulty, String trackId) {
+        TrackStats stats = new TrackStats(this);
+        stats.setResultListener(
+                (resultType, result) -> {
+                    if (mIncrementalIO != null) {
+                        mIncrementalIO.onTrackResultAdded(difficulty, trackId, resultType, result);
+                    }
+                });
+        mTrackStatsByDifficulty.get(difficulty).put(trackId, stats);
+        return stats;
+    }
+
     @Override
     public int getBestChampionshipRank(Difficulty difficulty, Championship championship) {
         HashMap<String, Integer> bestChampionshipRank =
@@ -84,6 +123,10 @@ public class GameStatsImpl implements GameStats {
         Integer currentBest = bestChampionshipRank.get(championship.getId());
         if (currentBest == null || currentBest > rank) {
             bestChampionshipRank.put(championship.getId(), rank);
+            if (mIncrementalIO != null) {
+                mIncrementalIO.onBestChampionshipRankChanged(
+                        difficulty, championship.getId(), rank);
+            }
             save();
         }
     }
@@ -106,6 +149,9 @@ public class GameStatsImpl implements GameStats {
             newCount = Integer.MAX_VALUE;
         }
         mEvents.put(id, newCount);
+        if (mIncrementalIO != null) {
+            mIncrementalIO.onEventCountChanged(id, newCount);
+        }
         save();
     }
 
@@ -121,4 +167,9 @@ public class GameStatsImpl implements GameStats {
         }
         mIO.save(this);
     }
+
+    @Override
+    public void flush() {
+        mIO.flush();
+    }
 }
@@ -0,0 +1,213 @@
+/*
+ * Copyright 2026 Aurélien Gâteau <mail@agateau.com>
+ *
+ * This file is part of Pixel Wheels.
+ *
+ * Pixel Wheels is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.agateau.pixelwheels.stats;
+
+import com.agateau.pixelwheels.gamesetup.Difficulty;
+import com.agateau.utils.log.NLog;
+import com.badlogic.gdx.files.FileHandle;
+
+/**
+ * Saves game statistics as a snapshot plus a journal of the changes made since the snapshot.
+ *
+ * <p>The snapshot is a JSON file read and written by JsonGameStatsImplIO, so existing stats files
+ * are loaded as snapshots. Each change is appended to the journal as a line of tab-separated
+ * fields:
+ *
+ * <pre>
+ * event   $eventId     $count
+ * rank    $difficulty  $championshipId  $rank
+ * result  $difficulty  $trackId         $resultType  $vehicleId  $value
+ * </pre>
+ *
+ * <p>Writing a change costs the same whatever the size of the stats. When the journal grows larger
+ * than the compaction threshold, the next call to save() writes a new snapshot and deletes the
+ * journal. Replaying a journal over a snapshot which already contains its changes does not change
+ * anything, so a crash between these two steps does not corrupt the stats.
+ *
+ * <p>A crash while appending a change can leave an incomplete last line in the journal. load()
+ * ignores it and compacts the stats, so that the journal starts afresh.
+ */
+public class JournalGameStatsImplIO implements GameStatsImpl.IncrementalIO {
+    public static final long DEFAULT_COMPACTION_THRESHOLD = 16 * 1024;
+
+    private static final String EVENT_RECORD = "event";
+    private static final String RANK_RECORD = "rank";
+    private static final String RESULT_RECORD = "result";
+    private static final String SEPARATOR = "\t";
+
+    private final JsonGameStatsImplIO mSnapshotIO;
+    private final FileHandle mJournalHandle;
+    private final long mCompactionThreshold;
+    private final StringBuilder mLineBuilder = new StringBuilder();
+    private long mJournalLength = 0;
+
+    public JournalGameStatsImplIO(
+            FileHandle snapshotHandle, FileHandle journalHandle, long compactionThreshold) {
+        mSnapshotIO = new JsonGameStatsImplIO(snapshotHandle);
+        mJournalHandle = journalHandle;
+        mCompactionThreshold = compactionThreshold;
+    }
+
+    @Override
+    public void load(GameStatsImpl gameStats) {
+        mSnapshotIO.load(gameStats);
+        mJournalLength = 0;
+        if (!mJournalHandle.exists()) {
+            return;
+        }
+        String journal = mJournalHandle.readString("UTF-8");
+        mJournalLength = mJournalHandle.length();
+        int start = 0;
+        for (int end = journal.indexOf('\n'); end != -1; end = journal.indexOf('\n', start)) {
+            String line = journal.substring(start, end);
+            try {
+                replayRecord(gameStats, line.split(SEPARATOR));
+            } catch (RuntimeException e) {
+                NLog.e("Skipping invalid game stats journal line '%s': %s", line, e);
+            }
+            start = end + 1;
+        }
+        if (start < journal.length()) {
+            // The last line is not complete: we may have crashed while writing it. Ignore it, and
+            // compact so that the next record does not get appended to it.
+            NLog.e("Skipping incomplete game stats journal line '%s'", journal.substring(start));
+            compact(gameStats);
+        }
+    }
+
+    @Override
+    public void save(GameStatsImpl gameStats) {
+        if (mJournalLength > mCompactionThreshold) {
+            compact(gameStats);
+        }
+    }
+
+    @Override
+    public void flush() {
+        // Changes are written as soon as they are made
+    }
+
+    @Override
+    public void onEventCountChanged(String eventId, int count) {
+        beginRecord(EVENT_RECORD).addField(eventId).addField(count);
+        appendRecord();
+    }
+
+    @Override
+    public void onBestChampionshipRankChanged(
+            Difficulty difficulty, String championshipId, int rank) {
+        beginRecord(RANK_RECORD)
+                .addField(difficulty.name())
+                .addField(championshipId)
+                .addField(rank);
+        appendRecord();
+    }
+
+    @Override
+    public void onTrackResultAdded(
+            Difficulty difficulty,
+            String trackId,
+            TrackStats.ResultType resultType,
+            TrackResult result) {
+        if (result.vehicle.equals(TrackStats.DEFAULT_RECORD_VEHICLE)) {
+            // Default records are recreated at startup, JsonGameStatsImplIO does not save them
+            return;
+        }
+        beginRecord(RESULT_RECORD)
+                .addField(difficulty.name())
+                .addField(trackId)
+                .addField(resultType.name())
+                .addField(result.vehicle)
+                .addField(result.value);
+        appendRecord();
+    }
+
+    /** Writes a new snapshot and deletes the journal */
+    void compact(GameStatsImpl gameStats) {
+        mSnapshotIO.write(mSnapshotIO.toJson(gameStats));
+        mJournalHandle.delete();
+        mJournalLength = 0;
+    }
+
+    long getJournalLength() {
+        return mJournalLength;
+    }
+
+    private static void replayRecord(GameStatsImpl gameStats, String[] fields) {
+        switch (fields[0]) {
+            case EVENT_RECORD:
+                checkFieldCount(fields, 3);
+                gameStats.mEvents.put(fields[1], Integer.parseInt(fields[2]));
+                break;
+            case RANK_RECORD:
+                checkFieldCount(fields, 4);
+                gameStats
+                        .mBestChampionshipRankByDifficulty
+                        .get(Difficulty.valueOf(fields[1]))
+                        .put(fields[2], Integer.parseInt(fields[3]));
+                break;
+            case RESULT_RECORD:
+                {
+                    checkFieldCount(fields, 6);
+                    TrackStats trackStats =
+                            gameStats.getOrCreateTrackStats(
+                                    Difficulty.valueOf(fields[1]), fields[2]);
+                    TrackResult result = new TrackResult(fields[4], Float.parseFloat(fields[5]));
+                    trackStats.restoreResult(TrackStats.ResultType.valueOf(fields[3]), result);
+                    break;
+                }
+            default:
+                throw new RuntimeException("Unknown record type");
+        }
+    }
+
+    private static void checkFieldCount(String[] fields, int count) {
+        if (fields.length != count) {
+            throw new RuntimeException("Expected " + count + " fields, got " + fields.length);
+        }
+    }
+
+    private JournalGameStatsImplIO beginRecord(String recordType) {
+        mLineBuilder.setLength(0);
+        mLineBuilder.append(recordType);
+        return this;
+    }
+
+    private JournalGameStatsImplIO addField(String value) {
+        mLineBuilder.append(SEPARATOR).append(value);
+        return this;
+    }
+
+    private JournalGameStatsImplIO addField(int value) {
+        mLineBuilder.append(SEPARATOR).append(value);
+        return this;
+    }
+
+    private JournalGameStatsImplIO addField(float value) {
+        mLineBuilder.append(SEPARATOR).append(value);
+        return this;
+    }
+
+    private void appendRecord() {
+        mLineBuilder.append('\n');
+        String line = mLineBuilder.toString();
+        mJournalHandle.writeString(line, /* append */ true, "UTF-8");
+        mJournalLength += line.length();
+    }
+}
@@ -21,12 +21,18 @@ package com.agateau.pixelwheels.stats;
 import com.agateau.pixelwheels.gamesetup.Difficulty;
 import com.agateau.utils.log.NLog;
 import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.StreamUtils;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
@@ -154,8 +160,7 @@ public class JsonGameStatsImplIO implements GameStatsImpl.IO {
             trackStatsByTrack.clear();
             for (Map.Entry<String, JsonElement> kv : trackStatsObject.entrySet()) {
                 String trackId = kv.getKey();
-                TrackStats trackStats = new TrackStats(gameStats);
-                trackStatsByTrack.put(trackId, trackStats);
+                TrackStats trackStats = gameStats.createTrackStats(difficulty, trackId);
                 loadTrackStats(trackStats, kv.getValue().getAsJsonObject());
             }
         }
@@ -181,8 +186,7 @@ public class JsonGameStatsImplIO implements GameStatsImpl.IO {
             trackStatsByTrack.clear();
             for (Map.Entry<String, JsonElement> kv : trackStatsObject.entrySet()) {
                 String trackId = kv.getKey();
-                TrackStats trackStats = new TrackStats(gameStats);
-                trackStatsByTrack.put(trackId, trackStats);
+                TrackStats trackStats = gameStats.createTrackStats(difficulty, trackId);
                 loadTrackStats(trackStats, kv.getValue().getAsJsonObject());
             }
         }
@@ -224,6 +228,14 @@ public class JsonGameStatsImplIO implements GameStatsImpl.IO {
 
     @Override
     public void save(GameStatsImpl gameStats) {
+        write(toJson(gameStats));
+    }
+
+    @Override
+    public void flush() {}
+
+    /** Serializes gameStats. Must be called from the thread which modifies gameStats */
+    String toJson(GameStatsImpl gameStats) {
         JsonObject root = new JsonObject();
 
         root.addProperty("version", CURRENT_VERSION);
@@ -249,8 +261,38 @@ public class JsonGameStatsImplIO implements GameStatsImpl.IO {
         // Add events
         root.add("events", mGson.toJsonTree(gameStats.mEvents));
 
-        String json = mGson.toJson(root);
-        mHandle.writeString(json, false /* append */);
+        return mGson.toJson(root);
+    }
+
+    /**
+     * Writes json to the file. The content is first written to a temporary file, which is then
+     * renamed, so that the file is never left half-written. Can be called from any thread.
+     */
+    void write(String json) {
+        FileHandle tmpHandle = mHandle.sibling(mHandle.name() + ".tmp");
+        mHandle.parent().mkdirs();
+        FileOutputStream stream = null;
+        try {
+            stream = new FileOutputStream(tmpHandle.file());
+            stream.write(json.getBytes("UTF-8"));
+            stream.getFD().sync();
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Failed to write " + tmpHandle.path(), e);
+        } finally {
+            StreamUtils.closeQuietly(stream);
+        }
+        try {
+            Files.move(
+                    tmpHandle.file().toPath(),
+                    mHandle.file().toPath(),
+                    StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | UnsupportedOperationException | LinkageError e) {
+            // java.nio.file is not available before Android 8, and some file systems cannot move
+            // atomically. moveTo() renames the file if it can and falls back to a copy otherwise.
+            NLog.e("Atomic move of %s failed, falling back to moveTo(): %s", tmpHandle.path(), e);
+            tmpHandle.moveTo(mHandle);
+        }
     }
 
     private JsonObject createJsonForTrack(TrackStats trackStats) {
@@ -25,6 +25,7 @@ public class TrackStats {
     public static final String DEFAULT_RECORD_VEHICLE = "CPU";
 
     private final GameStats mGameStats;
+    private ResultListener mResultListener;
     final ArrayList<TrackResult> mLapRecords;
     final ArrayList<TrackResult> mTotalRecords;
 
@@ -33,6 +34,10 @@ public class TrackStats {
         TOTAL
     }
 
+    interface ResultListener {
+        void onResultAdded(ResultType resultType, TrackResult result);
+    }
+
     TrackStats(GameStats gameStats) {
         mGameStats = gameStats;
         mLapRecords = new ArrayList<>();
@@ -47,11 +52,32 @@ public class TrackStats {
         TrackResult result = new TrackResult(vehicleName, time);
         int rank = addResult(get(resultType), result);
         if (rank != -1) {
+            if (mResultListener != null) {
+                mResultListener.onResultAdded(resultType, result);
+            }
             mGameStats.save();
         }
         return rank;
     }
 
+    void setResultListener(ResultListener listener) {
+        mResultListener = listener;
+    }
+
+    /**
+     * Adds a result without notifying anyone, unless it is already there. Used when loading
+     * results which have been saved by the ResultListener.
+     */
+    void restoreResult(ResultType resultType, TrackResult result) {
+        ArrayList<TrackResult> results = get(resultType);
+        for (TrackResult existing : results) {
+            if (existing.vehicle.equals(result.vehicle) && existing.value == result.value) {
+                return;
+            }
+        }
+        addResult(results, result);
+    }
+
     private static int addResult(ArrayList<TrackResult> results, TrackResult result) {
         // Insert result if it is better than an existing one
         for (int idx = 0; idx < results.size(); ++idx) {
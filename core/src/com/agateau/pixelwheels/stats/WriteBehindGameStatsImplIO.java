@@ -0,0 +1,124 @@
+/*
+ * Copyright 2026 Aurélien Gâteau <mail@agateau.com>
+ *
+ * This file is part of Pixel Wheels.
+ *
+ * Pixel Wheels is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.agateau.pixelwheels.stats;
+
+import com.agateau.utils.log.NLog;
+import com.badlogic.gdx.utils.TimeUtils;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Wraps a JsonGameStatsImplIO to save stats without blocking the game thread.
+ *
+ * <p>save() only marks the stats as modified. They are serialized by flush(), which is called when
+ * update() notices the stats have been modified for more than the debounce delay, at the end of a
+ * race, and when the application is paused. The serialized stats are then written by a background
+ * thread. If several writes are queued before the thread gets to them, only the last one is done.
+ *
+ * <p>All methods must be called from the game thread.
+ */
+public class WriteBehindGameStatsImplIO implements GameStatsImpl.IO {
+    public static final long DEFAULT_DEBOUNCE_MILLIS = 5000;
+
+    private final JsonGameStatsImplIO mIO;
+    private final long mDebounceMillis;
+    private final ExecutorService mExecutor =
+            Executors.newSingleThreadExecutor(
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "gamestats-writer");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+    private final AtomicReference<String> mPendingJson = new AtomicReference<>();
+    private final Runnable mWriteRunnable = this::writePendingJson;
+
+    private GameStatsImpl mGameStats;
+    private boolean mDirty = false;
+    private long mDirtyTime;
+
+    public WriteBehindGameStatsImplIO(JsonGameStatsImplIO io, long debounceMillis) {
+        mIO = io;
+        mDebounceMillis = debounceMillis;
+    }
+
+    @Override
+    public void load(GameStatsImpl gameStats) {
+        waitForWrites();
+        mIO.load(gameStats);
+    }
+
+    @Override
+    public void save(GameStatsImpl gameStats) {
+        mGameStats = gameStats;
+        if (!mDirty) {
+            mDirty = true;
+            mDirtyTime = TimeUtils.millis();
+        }
+    }
+
+    /** Must be called regularly, usually once per frame */
+    public void update() {
+        if (mDirty && TimeUtils.timeSinceMillis(mDirtyTime) >= mDebounceMillis) {
+            flush();
+        }
+    }
+
+    @Override
+    public void flush() {
+        if (!mDirty) {
+            return;
+        }
+        mDirty = false;
+        String json = mIO.toJson(mGameStats);
+        if (mPendingJson.getAndSet(json) == null) {
+            // No write waiting, schedule one. Otherwise the waiting write uses the new json.
+            mExecutor.execute(mWriteRunnable);
+        }
+    }
+
+    /** Blocks until all flushed changes have been written */
+    public void waitForWrites() {
+        try {
+            mExecutor.submit(() -> {}).get();
+        } catch (InterruptedException | ExecutionException e) {
+            NLog.e("Failed to wait for game stats to be written: %s", e);
+        }
+    }
+
+    /** Writes pending changes, then stops the background thread */
+    public void close() {
+        flush();
+        waitForWrites();
+        mExecutor.shutdown();
+    }
+
+    private void writePendingJson() {
+        String json = mPendingJson.getAndSet(null);
+        if (json == null) {
+            return;
+        }
+        try {
+            mIO.write(json);
+        } catch (RuntimeException e) {
+            NLog.e("Failed to save game stats: %s", e);
+        }
+    }
+}
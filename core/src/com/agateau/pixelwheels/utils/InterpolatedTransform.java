@@ -0,0 +1,104 @@
+/*
+ * Copyright 2026 Aurélien Gâteau <mail@agateau.com>
+ *
+ * This file is part of Pixel Wheels.
+ *
+ * Pixel Wheels is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.agateau.pixelwheels.utils;
+
+import com.agateau.utils.AgcMathUtils;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Body;
+
+/**
+ * The transforms of an object at the previous and current physics steps.
+ *
+ * <p>The physics can run at a lower rate than the rendering: instead of drawing objects where the
+ * last step left them, renderers draw them between their previous and current transforms, using the
+ * alpha value returned by GameWorld.getRenderAlpha(). An alpha of 1 gives the current transform.
+ *
+ * <p>Angles are in radians, like Body.getAngle().
+ */
+public class InterpolatedTransform {
+    private float mPreviousX;
+    private float mPreviousY;
+    private float mPreviousAngle;
+    private float mX;
+    private float mY;
+    private float mAngle;
+    private final Vector2 mPosition = new Vector2();
+
+    /**
+     * Sets both the previous and current transforms to the transform of body. Must be called when
+     * the body is created or teleported, so that the object is not drawn between its old and new
+     * positions.
+     */
+    public void reset(Body body) {
+        Vector2 position = body.getPosition();
+        reset(position.x, position.y, body.getAngle());
+    }
+
+    public void reset(float x, float y, float angle) {
+        mPreviousX = mX = x;
+        mPreviousY = mY = y;
+        mPreviousAngle = mAngle = angle;
+    }
+
+    /**
+     * Saves the transform of body as the current transform, the current one becomes the previous
+     * one. Must be called at the end of each physics step.
+     */
+    public void save(Body body) {
+        Vector2 position = body.getPosition();
+        save(position.x, position.y, body.getAngle());
+    }
+
+    public void save(float x, float y, float angle) {
+        mPreviousX = mX;
+        mPreviousY = mY;
+        mPreviousAngle = mAngle;
+        mX = x;
+        mY = y;
+        mAngle = angle;
+    }
+
+    public float getX(float alpha) {
+        return mPreviousX + (mX - mPreviousX) * alpha;
+    }
+
+    public float getY(float alpha) {
+        return mPreviousY + (mY - mPreviousY) * alpha;
+    }
+
+    /** The returned instance is reused by the next call */
+    public Vector2 getPosition(float alpha) {
+        return mPosition.set(getX(alpha), getY(alpha));
+    }
+
+    public float getAngle(float alpha) {
+        // Body angles are usually not normalized, but some code sets them with setTransform(): take
+        // the shortest path if the angle wrapped around
+        float delta = mAngle - mPreviousAngle;
+        if (Math.abs(delta) > MathUtils.PI) {
+            delta = AgcMathUtils.normalizeAnglePiRad(delta);
+        }
+        return mPreviousAngle + delta * alpha;
+    }
+
+    public float getAngleDeg(float alpha) {
+        return getAngle(alpha) * MathUtils.radiansToDegrees;
+    }
+}
@@ -20,7 +20,6 @@ package com.agateau.pixelwheels.utils;
 
 import static com.agateau.translations.Translator.tr;
 
-import com.agateau.utils.log.NLog;
 import java.util.Locale;
 
 /** String format utils */
@@ -55,7 +54,7 @@ public class StringUtils {
             case 6:
                 return tr("6th");
             default:
-                NLog.e("Unsupported rank %d", rank);
+                // Only large grids, used for stress tests, get there
                 return String.valueOf(rank);
         }
     }
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2026 Aurélien Gâteau <mail@agateau.com>
+ *
+ * This file is part of Pixel Wheels.
+ *
+ * Pixel Wheels is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.agateau.utils;
+
+/**
+ * Turns variable frame durations into a number of fixed duration steps.
+ *
+ * <p>Call addFrameTime() once per frame, then consumeStep() in a loop, running one step each time
+ * it returns true. Since the same total time always produces the same steps, whatever the frame
+ * durations, the simulation does not depend on the frame rate. getAlpha() tells how far the
+ * remaining time goes towards the next step, to interpolate between the last two states.
+ */
+public class FixedTimeStep {
+    private final float mStep;
+    private final float mMaxFrameTime;
+    private float mAccumulator = 0;
+
+    /**
+     * Frames longer than maxFrameTime are shortened to maxFrameTime, to avoid the "spiral of
+     * death" on slow devices: running more steps makes the next frame longer, which requires even
+     * more steps...
+     */
+    public FixedTimeStep(float step, float maxFrameTime) {
+        Assert.check(step > 0, "step must be positive");
+        mStep = step;
+        mMaxFrameTime = maxFrameTime;
+    }
+
+    public float getStep() {
+        return mStep;
+    }
+
+    public void addFrameTime(float delta) {
+        mAccumulator += Math.min(delta, mMaxFrameTime);
+    }
+
+    /** Returns true if there is enough time left for a step, and removes the step from it */
+    public boolean consumeStep() {
+        if (mAccumulator < mStep) {
+            return false;
+        }
+        mAccumulator -= mStep;
+        return true;
+    }
+
+    /** The time left after the steps, as a fraction of a step, between 0 and 1 */
+    public float getAlpha() {
+        return Math.min(mAccumulator / mStep, 1);
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2026 Aurélien Gâteau <mail@agateau.com>
+ *
+ * This file is part of Pixel Wheels.
+ *
+ * Pixel Wheels is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.agateau.utils;
+
+import com.agateau.utils.log.NLog;
+import com.badlogic.gdx.utils.Disposable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the iterations of a loop on a fixed pool of worker threads.
+ *
+ * <p>run() blocks until all iterations are done. The calling thread runs iterations too, so a loop
+ * with no worker threads runs them all sequentially on the calling thread.
+ *
+ * <p>Worker threads are started by the constructor and wait for work between calls to run(), so
+ * run() does not allocate anything.
+ */
+public class ParallelLoop implements Disposable {
+    public interface Body {
+        /** Called once for each index. May be called from any thread. */
+        void run(int index);
+    }
+
+    private final Thread[] mThreads;
+    private final Object mLock = new Object();
+    private final AtomicInteger mNextIndex = new AtomicInteger();
+
+    // Protected by mLock
+    private int mGeneration = 0;
+    private int mPendingWorkers = 0;
+    private boolean mStopped = false;
+    private Throwable mError;
+
+    // Set by run() before waking up the workers
+    private Body mBody;
+    private int mCount;
+
+    public ParallelLoop(String name, int workerCount) {
+        mThreads = new Thread[workerCount];
+        for (int idx = 0; idx < workerCount; ++idx) {
+            Thread thread = new Thread(this::workerLoop, name + "-" + idx);
+            thread.setDaemon(true);
+            mThreads[idx] = thread;
+            thread.start();
+        }
+    }
+
+    public int getWorkerCount() {
+        return mThreads.length;
+    }
+
+    /** Calls body.run(index) for index in [0, count), and waits for all the calls to finish */
+    public void run(Body body, int count) {
+        if (mStopped) {
+            throw new IllegalStateException("ParallelLoop has been disposed");
+        }
+        if (mThreads.length == 0 || count <= 1) {
+            for (int idx = 0; idx < count; ++idx) {
+                body.run(idx);
+            }
+            return;
+        }
+        mBody = body;
+        mCount = count;
+        mNextIndex.set(0);
+        synchronized (mLock) {
+            mPendingWorkers = mThreads.length;
+            ++mGeneration;
+            mLock.notifyAll();
+        }
+
+        Throwable error = null;
+        try {
+            runIterations();
+        } catch (Throwable throwable) {
+            error = throwable;
+            // Make the workers stop as soon as possible
+            mNextIndex.set(count);
+        }
+
+        synchronized (mLock) {
+            while (mPendingWorkers > 0) {
+                try {
+                    mLock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (error == null) {
+                error = mError;
+            }
+            mError = null;
+        }
+        mBody = null;
+        if (error != null) {
+            throw new RuntimeException("Parallel loop iteration failed", error);
+        }
+    }
+
+    @Override
+    public void dispose() {
+        synchronized (mLock) {
+            mStopped = true;
+            mLock.notifyAll();
+        }
+        for (Thread thread : mThreads) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                NLog.e("Interrupted while waiting for %s to stop: %s", thread.getName(), e);
+            }
+        }
+    }
+
+    private void runIterations() {
+        for (int idx = mNextIndex.getAndIncrement();
+                idx < mCount;
+                idx = mNextIndex.getAndIncrement()) {
+            mBody.run(idx);
+        }
+    }
+
+    private void workerLoop() {
+        int generation = 0;
+        while (true) {
+            synchronized (mLock) {
+                while (mGeneration == generation && !mStopped) {
+                    try {
+                        mLock.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (mStopped) {
+                    return;
+                }
+                generation = mGeneration;
+            }
+
+            Throwable error = null;
+            try {
+                runIterations();
+            } catch (Throwable throwable) {
+                error = throwable;
+                mNextIndex.set(mCount);
+            }
+
+            synchronized (mLock) {
+                if (error != null && mError == null) {
+                    mError = error;
+                }
+                if (--mPendingWorkers == 0) {
+                    mLock.notifyAll();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2026 Aurélien Gâteau <mail@agateau.com>
+ *
+ * This file is part of Pixel Wheels.
+ *
+ * Pixel Wheels is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.agateau.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded lock-free queue for exactly one producer thread and one consumer thread.
+ *
+ * <p>Like CircularArray, items are preallocated and reused: the producer calls claim() to get the
+ * next free item, fills it, then calls publish() to make it visible to the consumer. The consumer
+ * calls peek() to get the oldest published item, processes it, then calls release() to give it
+ * back to the producer.
+ *
+ * <p>Producer methods must only be called from the producer thread, consumer methods must only be
+ * called from the consumer thread.
+ */
+public abstract class SpscRing<T> {
+    private final T[] mItems;
+    private final int mMask;
+
+    // Number of items released by the consumer. Written by the consumer, read by the producer.
+    private final AtomicLong mHead = new AtomicLong();
+    // Number of items published by the producer. Written by the producer, read by the consumer.
+    private final AtomicLong mTail = new AtomicLong();
+
+    // Thread-local copies of mTail and mHead, to avoid reading the atomic of our own side
+    private long mProducerTail = 0;
+    private long mConsumerHead = 0;
+
+    /** capacity must be a power of two */
+    public SpscRing(int capacity) {
+        Assert.check(capacity > 0 && (capacity & (capacity - 1)) == 0, "Invalid capacity");
+        mItems = (T[]) new Object[capacity];
+        mMask = capacity - 1;
+        for (int idx = 0; idx < capacity; ++idx) {
+            mItems[idx] = createInstance();
+        }
+    }
+
+    public int getCapacity() {
+        return mItems.length;
+    }
+
+    /** Number of published items which have not been released yet. Can be called from any thread */
+    public int size() {
+        // Read mHead first so that the difference can never be negative
+        long head = mHead.get();
+        return (int) (mTail.get() - head);
+    }
+
+    // Producer side
+
+    /** Returns the next free item, or null if the ring is full */
+    public T claim() {
+        if (mProducerTail - mHead.get() >= mItems.length) {
+            return null;
+        }
+        return mItems[(int) (mProducerTail & mMask)];
+    }
+
+    /** Makes the item returned by the last call to claim() visible to the consumer */
+    public void publish() {
+        ++mProducerTail;
+        mTail.set(mProducerTail);
+    }
+
+    /** Number of items published so far */
+    public long getPublishedCount() {
+        return mProducerTail;
+    }
+
+    /**
+     * Number of items released by the consumer so far. When it reaches the value returned by
+     * getPublishedCount() after an item was published, the consumer is done with this item.
+     */
+    public long getReleasedCount() {
+        return mHead.get();
+    }
+
+    // Consumer side
+
+    /** Returns the oldest published item, or null if the ring is empty */
+    public T peek() {
+        if (mConsumerHead == mTail.get()) {
+            return null;
+        }
+        return mItems[(int) (mConsumerHead & mMask)];
+    }
+
+    /** Gives the item returned by the last call to peek() back to the producer */
+    public void release() {
+        ++mConsumerHead;
+        mHead.set(mConsumerHead);
+    }
+
+    protected abstract T createInstance();
+}
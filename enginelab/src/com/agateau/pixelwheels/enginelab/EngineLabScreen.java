@@ -20,10 +20,13 @@ package com.agateau.pixelwheels.enginelab;
 
 import com.agateau.pixelwheels.sound.AudioManager;
 import com.agateau.pixelwheels.sound.DefaultSoundPlayer;
+import com.agateau.pixelwheels.sound.EngineSynthesizer;
 import com.agateau.pixelwheels.sound.EngineSoundPlayer;
 import com.agateau.pixelwheels.sound.SoundAtlas;
+import com.agateau.pixelwheels.sound.SoundCategory;
 import com.agateau.pixelwheels.sound.SoundPlayer;
 import com.agateau.pixelwheels.sound.SoundThreadManager;
+import com.agateau.pixelwheels.sound.VoiceManager;
 import com.agateau.ui.FontSet;
 import com.agateau.ui.StageScreen;
 import com.agateau.ui.UiAssets;
@@ -49,6 +52,7 @@ class EngineLabScreen extends StageScreen {
 
     static class LabAudioManager implements AudioManager {
         private final SoundThreadManager mSoundThreadManager = new SoundThreadManager();
+        private final VoiceManager mVoiceManager = new VoiceManager(/* maxVoices */ 32);
 
         @Override
         public boolean areSoundFxMuted() {
@@ -71,7 +75,23 @@ class EngineLabScreen extends StageScreen {
 
         @Override
         public SoundPlayer createSoundPlayer(Sound sound) {
-            return new DefaultSoundPlayer(mSoundThreadManager, sound);
+            return createSoundPlayer(sound, SoundCategory.EFFECT);
+        }
+
+        @Override
+        public SoundPlayer createSoundPlayer(Sound sound, SoundCategory category) {
+            return new DefaultSoundPlayer(mSoundThreadManager, mVoiceManager, sound, category);
+        }
+
+        @Override
+        public EngineSynthesizer getEngineSynthesizer() {
+            // The lab is about tuning the sound player version
+            return null;
+        }
+
+        @Override
+        public void update() {
+            mVoiceManager.update();
         }
 
         @Override
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2026 Aurélien Gâteau <mail@agateau.com>
+ *
+ * This file is part of Pixel Wheels.
+ *
+ * Pixel Wheels is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.agateau.libgdx;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import java.lang.reflect.Proxy;
+import java.nio.IntBuffer;
+
+/**
+ * A GL20 implementation which does nothing.
+ *
+ * <p>The headless backend does not provide any GL implementation. Installing this one makes it
+ * possible to load textures, and thus assets and maps, without a GPU.
+ *
+ * <p>Shader creation and compilation succeed, and frame buffers are reported as complete, so that
+ * shaders and frame buffers can be created too.
+ */
+public class NullGL20 {
+    public static GL20 create() {
+        return (GL20)
+                Proxy.newProxyInstance(
+                        GL20.class.getClassLoader(),
+                        new Class<?>[] {GL20.class},
+                        (proxy, method, args) -> {
+                            String name = method.getName();
+                            if (name.equals("glCheckFramebufferStatus")) {
+                                return GL20.GL_FRAMEBUFFER_COMPLETE;
+                            }
+                            if (name.equals("glCreateShader") || name.equals("glCreateProgram")) {
+                                return 1;
+                            }
+                            if (name.equals("glGetShaderiv") || name.equals("glGetProgramiv")) {
+                                // Compile and link status, number of attributes and uniforms
+                                ((IntBuffer) args[2]).put(0, 1);
+                                return null;
+                            }
+                            Class<?> type = method.getReturnType();
+                            if (type == boolean.class) {
+                                return false;
+                            } else if (type == int.class) {
+                                return 0;
+                            } else if (type == float.class) {
+                                return 0f;
+                            } else if (type == String.class) {
+                                return "";
+                            }
+                            return null;
+                        });
+    }
+
+    /** Makes Gdx.gl and Gdx.gl20 point to a NullGL20 instance */
+    public static void install() {
+        Gdx.gl = Gdx.gl20 = create();
+    }
+}
@@ -0,0 +1,324 @@
+/*
+ * Copyright 2026 Aurélien Gâteau <mail@agateau.com>
+ *
+ * This file is part of Pixel Wheels.
+ *
+ * Pixel Wheels is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.agateau.libgdx;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.math.Affine2;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+
+/**
+ * A Batch which does not draw anything, but records the sprite vertices passed to
+ * draw(Texture, float[], int, int).
+ *
+ * <p>This makes it possible to test and benchmark rendering code without a GPU. Other draw methods
+ * are ignored.
+ */
+public class RecordingBatch implements Batch {
+    private static final int VERTEX_SIZE = 5;
+
+    private final Color mColor = new Color(1, 1, 1, 1);
+    private final Matrix4 mProjectionMatrix = new Matrix4();
+    private final Matrix4 mTransformMatrix = new Matrix4();
+    private boolean mDrawing = false;
+    private boolean mBlendingEnabled = true;
+    private int mBlendSrcFunc = GL20.GL_SRC_ALPHA;
+    private int mBlendDstFunc = GL20.GL_ONE_MINUS_SRC_ALPHA;
+    private int mBlendSrcFuncAlpha = GL20.GL_SRC_ALPHA;
+    private int mBlendDstFuncAlpha = GL20.GL_ONE_MINUS_SRC_ALPHA;
+    private ShaderProgram mShader;
+
+    private boolean mRecordVertices = true;
+    private final FloatArray mVertices = new FloatArray();
+    private final Array<Texture> mTextures = new Array<>();
+    private int mVertexCount = 0;
+    private int mDrawCallCount = 0;
+
+    /**
+     * If false, draw calls are only counted, their vertices are not kept. Defaults to true.
+     */
+    public void setRecordVertices(boolean recordVertices) {
+        mRecordVertices = recordVertices;
+    }
+
+    /** Forgets all recorded vertices and resets the counters */
+    public void clear() {
+        mVertices.clear();
+        mTextures.clear();
+        mVertexCount = 0;
+        mDrawCallCount = 0;
+    }
+
+    /** Number of vertices received since the last call to clear() */
+    public int getVertexCount() {
+        return mVertexCount;
+    }
+
+    /** Number of calls to draw(Texture, float[], int, int) since the last call to clear() */
+    public int getDrawCallCount() {
+        return mDrawCallCount;
+    }
+
+    /**
+     * The recorded vertices, in the same format as the spriteVertices argument of draw(Texture,
+     * float[], int, int)
+     */
+    public FloatArray getVertices() {
+        return mVertices;
+    }
+
+    /** The texture of each recorded sprite */
+    public Array<Texture> getTextures() {
+        return mTextures;
+    }
+
+    @Override
+    public void draw(Texture texture, float[] spriteVertices, int offset, int count) {
+        ++mDrawCallCount;
+        mVertexCount += count / VERTEX_SIZE;
+        if (mRecordVertices) {
+            mVertices.addAll(spriteVertices, offset, count);
+            for (int idx = 0; idx < count; idx += 4 * VERTEX_SIZE) {
+                mTextures.add(texture);
+            }
+        }
+    }
+
+    @Override
+    public void begin() {
+        mDrawing = true;
+    }
+
+    @Override
+    public void end() {
+        mDrawing = false;
+    }
+
+    @Override
+    public void setColor(Color tint) {
+        mColor.set(tint);
+    }
+
+    @Override
+    public void setColor(float r, float g, float b, float a) {
+        mColor.set(r, g, b, a);
+    }
+
+    @Override
+    public Color getColor() {
+        return mColor;
+    }
+
+    @Override
+    public void setPackedColor(float packedColor) {
+        Color.abgr8888ToColor(mColor, packedColor);
+    }
+
+    @Override
+    public float getPackedColor() {
+        return mColor.toFloatBits();
+    }
+
+    @Override
+    public void draw(
+            Texture texture,
+            float x,
+            float y,
+            float originX,
+            float originY,
+            float width,
+            float height,
+            float scaleX,
+            float scaleY,
+            float rotation,
+            int srcX,
+            int srcY,
+            int srcWidth,
+            int srcHeight,
+            boolean flipX,
+            boolean flipY) {}
+
+    @Override
+    public void draw(
+            Texture texture,
+            float x,
+            float y,
+            float width,
+            float height,
+            int srcX,
+            int srcY,
+            int srcWidth,
+            int srcHeight,
+            boolean flipX,
+            boolean flipY) {}
+
+    @Override
+    public void draw(
+            Texture texture, float x, float y, int srcX, int srcY, int srcWidth, int srcHeight) {}
+
+    @Override
+    public void draw(
+            Texture texture,
+            float x,
+            float y,
+            float width,
+            float height,
+            float u,
+            float v,
+            float u2,
+            float v2) {}
+
+    @Override
+    public void draw(Texture texture, float x, float y) {}
+
+    @Override
+    public void draw(Texture texture, float x, float y, float width, float height) {}
+
+    @Override
+    public void draw(TextureRegion region, float x, float y) {}
+
+    @Override
+    public void draw(TextureRegion region, float x, float y, float width, float height) {}
+
+    @Override
+    public void draw(
+            TextureRegion region,
+            float x,
+            float y,
+            float originX,
+            float originY,
+            float width,
+            float height,
+            float scaleX,
+            float scaleY,
+            float rotation) {}
+
+    @Override
+    public void draw(
+            TextureRegion region,
+            float x,
+            float y,
+            float originX,
+            float originY,
+            float width,
+            float height,
+            float scaleX,
+            float scaleY,
+            float rotation,
+            boolean clockwise) {}
+
+    @Override
+    public void draw(TextureRegion region, float width, float height, Affine2 transform) {}
+
+    @Override
+    public void flush() {}
+
+    @Override
+    public void disableBlending() {
+        mBlendingEnabled = false;
+    }
+
+    @Override
+    public void enableBlending() {
+        mBlendingEnabled = true;
+    }
+
+    @Override
+    public void setBlendFunction(int srcFunc, int dstFunc) {
+        setBlendFunctionSeparate(srcFunc, dstFunc, srcFunc, dstFunc);
+    }
+
+    @Override
+    public void setBlendFunctionSeparate(
+            int srcFuncColor, int dstFuncColor, int srcFuncAlpha, int dstFuncAlpha) {
+        mBlendSrcFunc = srcFuncColor;
+        mBlendDstFunc = dstFuncColor;
+        mBlendSrcFuncAlpha = srcFuncAlpha;
+        mBlendDstFuncAlpha = dstFuncAlpha;
+    }
+
+    @Override
+    public int getBlendSrcFunc() {
+        return mBlendSrcFunc;
+    }
+
+    @Override
+    public int getBlendDstFunc() {
+        return mBlendDstFunc;
+    }
+
+    @Override
+    public int getBlendSrcFuncAlpha() {
+        return mBlendSrcFuncAlpha;
+    }
+
+    @Override
+    public int getBlendDstFuncAlpha() {
+        return mBlendDstFuncAlpha;
+    }
+
+    @Override
+    public Matrix4 getProjectionMatrix() {
+        return mProjectionMatrix;
+    }
+
+    @Override
+    public Matrix4 getTransformMatrix() {
+        return mTransformMatrix;
+    }
+
+    @Override
+    public void setProjectionMatrix(Matrix4 projection) {
+        mProjectionMatrix.set(projection);
+    }
+
+    @Override
+    public void setTransformMatrix(Matrix4 transform) {
+        mTransformMatrix.set(transform);
+    }
+
+    @Override
+    public void setShader(ShaderProgram shader) {
+        mShader = shader;
+    }
+
+    @Override
+    public ShaderProgram getShader() {
+        return mShader;
+    }
+
+    @Override
+    public boolean isBlendingEnabled() {
+        return mBlendingEnabled;
+    }
+
+    @Override
+    public boolean isDrawing() {
+        return mDrawing;
+    }
+
+    @Override
+    public void dispose() {}
+}
@@ -20,6 +20,7 @@ package com.agateau.pixelwheels.tools;
 
 import com.agateau.libgdx.AgcTmxMapLoader;
 import com.agateau.pixelwheels.map.LapPosition;
+import com.agateau.pixelwheels.map.LapPositionRaster;
 import com.agateau.pixelwheels.map.LapPositionTable;
 import com.agateau.pixelwheels.map.LapPositionTableIO;
 import com.agateau.utils.log.NLog;
@@ -39,13 +40,23 @@ public class LapPositionTableGenerator {
     private static class Args {
         FileHandle tmxFile;
         FileHandle tableFile;
+        FileHandle rasterFile;
 
         boolean parse(String[] arguments) {
-            for (String arg : arguments) {
+            for (int idx = 0; idx < arguments.length; ++idx) {
+                String arg = arguments[idx];
                 if (arg.equals("-h") || arg.equals("--help")) {
                     showHelp();
                     return false;
                 }
+                if (arg.equals("-r") || arg.equals("--raster")) {
+                    if (idx + 1 == arguments.length) {
+                        showError("Missing value for " + arg);
+                        return false;
+                    }
+                    rasterFile = Gdx.files.absolute(arguments[++idx]);
+                    continue;
+                }
                 if (arg.startsWith("-")) {
                     showError("Unknown option " + arg);
                     return false;
@@ -59,7 +70,7 @@ public class LapPositionTableGenerator {
                     return false;
                 }
             }
-            if (tableFile == null) {
+            if (tmxFile == null || (tableFile == null && rasterFile == null)) {
                 showError("Too few arguments");
                 return false;
             }
@@ -73,7 +84,8 @@ public class LapPositionTableGenerator {
 
         private static void showHelp() {
             System.out.println(
-                    "Usage: lappositiontablegenerator [-h|--help] <tmxfile> <tablefile>");
+                    "Usage: lappositiontablegenerator [-h|--help] [-r|--raster <rasterfile>]"
+                            + " <tmxfile> [<tablefile>]");
         }
     }
 
@@ -86,7 +98,13 @@ public class LapPositionTableGenerator {
                         System.exit(1);
                     }
                     try {
-                        LapPositionTableGenerator.generateTable(args.tmxFile, args.tableFile);
+                        if (args.tableFile != null) {
+                            LapPositionTableGenerator.generateTable(args.tmxFile, args.tableFile);
+                        }
+                        if (args.rasterFile != null) {
+                            LapPositionTableGenerator.generateRaster(
+                                    args.tmxFile, args.rasterFile);
+                        }
                     } catch (Exception exc) {
                         NLog.e(exc);
                         System.exit(1);
@@ -106,6 +124,15 @@ public class LapPositionTableGenerator {
         PixmapIO.writePNG(tableFile, pixmap);
     }
 
+    public static void generateRaster(FileHandle tmxFile, FileHandle rasterFile) {
+        TiledMap map = new AgcTmxMapLoader().load(tmxFile.path());
+        LapPositionTable table = LapPositionTableIO.load(map);
+
+        NLog.i("Baking raster");
+        LapPositionRaster raster = LapPositionTableIO.bakeRaster(map, table);
+        raster.write(rasterFile);
+    }
+
     private static Pixmap drawMap(TiledMap map) {
         TiledMapTileLayer layer = (TiledMapTileLayer) map.getLayers().get(0);
         int mapWidth = layer.getWidth() * layer.getTileWidth();
@@ -131,11 +158,16 @@ public class LapPositionTableGenerator {
         for (int y = 0; y < height; ++y) {
             int percent = 100 * y / (height - 1);
             System.out.print("\r" + percent + "%");
+            int sectionId = -1;
             for (int x = 0; x < width; ++x) {
-                LapPosition pos = table.get(x, y);
+                // Neighbor pixels are usually in the same section, use the section of the previous
+                // pixel as a hint
+                LapPosition pos = table.get(x, y, sectionId);
                 if (pos == null) {
+                    sectionId = -1;
                     continue;
                 }
+                sectionId = pos.getSectionId();
                 int r = (int) ((1 - Math.abs(pos.getCenterDistance())) * 255);
                 int g = pos.getSectionId() * 255 / table.getSectionCount();
                 int b = (int) (pos.getSectionDistance() * 255);
@@ -0,0 +1,186 @@
+/*
+ * Copyright 2026 Aurélien Gâteau <mail@agateau.com>
+ *
+ * This file is part of Pixel Wheels.
+ *
+ * Pixel Wheels is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free
+ * Software Foundation, either version 3 of the License, or (at your option)
+ * any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for
+ * more details.
+ *
+ * You should have received a copy of the GNU General Public License along with
+ * this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.agateau.pixelwheels.tools;
+
+import com.agateau.libgdx.NullGL20;
+import com.agateau.pixelwheels.Assets;
+import com.agateau.pixelwheels.GamePlay;
+import com.agateau.pixelwheels.gamesetup.Difficulty;
+import com.agateau.pixelwheels.gamesetup.GameInfo;
+import com.agateau.pixelwheels.map.Track;
+import com.agateau.pixelwheels.simulation.RaceSimulator;
+import com.agateau.utils.log.NLog;
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.physics.box2d.Box2D;
+import com.badlogic.gdx.utils.Array;
+import java.util.Locale;
+
+/**
+ * Runs AI-only races on one or more tracks, without a GPU nor audio, and prints the results as
+ * CSV.
+ */
+public class RaceSimulatorTool {
+    private static class Args {
+        final Array<String> trackIds = new Array<>();
+        long seed = 0;
+        int runs = 1;
+        int racerCount = GamePlay.instance.racerCount;
+        Difficulty difficulty = Difficulty.MEDIUM;
+        boolean lowDetailPhysics = false;
+
+        boolean parse(String[] arguments) {
+            for (int idx = 0; idx < arguments.length; ++idx) {
+                String arg = arguments[idx];
+                if (arg.equals("-h") || arg.equals("--help")) {
+                    showHelp();
+                    return false;
+                }
+                if (arg.startsWith("-")) {
+                    if (idx + 1 == arguments.length) {
+                        showError("Missing value for " + arg);
+                        return false;
+                    }
+                    String value = arguments[++idx];
+                    try {
+                        switch (arg) {
+                            case "--seed":
+                                seed = Long.parseLong(value);
+                                break;
+                            case "--runs":
+                                runs = Integer.parseInt(value);
+                                break;
+                            case "--racers":
+                                racerCount = Integer.parseInt(value);
+                                break;
+                            case "--difficulty":
+                                difficulty = Difficulty.valueOf(value.toUpperCase(Locale.US));
+                                break;
+                            case "--physics":
+                                lowDetailPhysics = parsePhysics(value);
+                                break;
+                            default:
+                                showError("Unknown option " + arg);
+                                return false;
+                        }
+                    } catch (IllegalArgumentException e) {
+                        showError("Invalid value for " + arg + ": " + value);
+                        return false;
+                    }
+                    continue;
+                }
+                trackIds.add(arg);
+            }
+            if (trackIds.isEmpty()) {
+                showError("Too few arguments");
+                return false;
+            }
+            return true;
+        }
+
+        private static boolean parsePhysics(String value) {
+            switch (value) {
+                case "full":
+                    return false;
+                case "low":
+                    return true;
+                default:
+                    throw new IllegalArgumentException();
+            }
+        }
+
+        private static void showError(String message) {
+            System.out.println("ERROR: " + message);
+            showHelp();
+        }
+
+        private static void showHelp() {
+            System.out.println(
+                    "Usage: racesimulator [-h|--help] [--seed N] [--runs N] [--racers N]"
+                            + " [--difficulty easy|medium|hard] [--physics full|low]"
+                            + " <track_id>...");
+            System.out.println();
+            System.out.println(
+                    "--physics low makes all racers use low detail physics. Compare its results"
+                            + " with --physics full to validate it.");
+        }
+    }
+
+    public static void main(String[] arguments) {
+        Args args = new Args();
+        if (!args.parse(arguments)) {
+            System.exit(1);
+        }
+        HeadlessApplicationConfiguration config = new HeadlessApplicationConfiguration();
+        // Do not call render(): all the work happens in create()
+        config.updatesPerSecond = -1;
+        new HeadlessApplication(
+                new ApplicationAdapter() {
+                    @Override
+                    public void create() {
+                        try {
+                            run(args);
+                        } catch (Exception exc) {
+                            NLog.e(exc);
+                            System.exit(1);
+                        }
+                        System.exit(0);
+                    }
+                },
+                config);
+    }
+
+    private static void run(Args args) {
+        NullGL20.install();
+        Box2D.init();
+
+        Assets assets = new Assets();
+        RaceSimulator simulator = new RaceSimulator(assets, args.difficulty);
+        if (args.lowDetailPhysics) {
+            // There are no players, so any distance puts all racers in low detail mode
+            simulator.setLowDetailPhysicsDistance(0);
+        }
+
+        System.out.println("track,seed,rank,vehicle,total_time,best_lap_time,status");
+        for (String trackId : args.trackIds) {
+            Track track = assets.findTrackById(trackId);
+            if (track == null) {
+                throw new RuntimeException("No track with id " + trackId);
+            }
+            for (int run = 0; run < args.runs; ++run) {
+                long seed = args.seed + run;
+                Array<GameInfo.Entrant> entrants =
+                        RaceSimulator.createEntrants(assets, args.racerCount, seed);
+                for (RaceSimulator.Result result : simulator.run(track, entrants, seed)) {
+                    System.out.printf(
+                            Locale.US,
+                            "%s,%d,%d,%s,%.3f,%.3f,%s%n",
+                            trackId,
+                            seed,
+                            result.rank,
+                            result.vehicleId,
+                            result.totalTime,
+                            result.bestLapTime,
+                            result.status);
+                }
+            }
+        }
+    }
+}